@@ -0,0 +1,84 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 确定性生成的"类论文"文本和向量，用于基准测试（固定种子，保证多次运行输入一致）
+ */
+final class BenchmarkCorpus {
+
+    private static final String[] WORDS = {
+            "the", "model", "attention", "transformer", "we", "propose", "results", "show", "that",
+            "dataset", "training", "evaluation", "baseline", "significantly", "improves", "accuracy",
+            "retrieval", "embedding", "vector", "latency", "throughput", "corpus", "analysis", "method",
+            "J.", "Smith", "et", "al.", "e.g.", "Fig.", "Table", "section", "experiments", "of", "and",
+            "in", "on", "for", "with", "neural", "language", "graph", "citation", "paper", "scholar"
+    };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * 生成恰好 length 个字符的文本，包含句子和空行分隔的段落
+     */
+    static String academicText(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(length + 256);
+        while (sb.length() < length) {
+            int sentences = 3 + random.nextInt(6);
+            for (int s = 0; s < sentences; s++) {
+                int words = 8 + random.nextInt(20);
+                for (int w = 0; w < words; w++) {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    if (w == 0) {
+                        sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                    } else {
+                        sb.append(' ').append(word);
+                    }
+                    if (random.nextInt(12) == 0) {
+                        sb.append('\n');
+                    }
+                }
+                sb.append(random.nextInt(10) == 0 ? "? " : ". ");
+            }
+            sb.append("\n\n");
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    /**
+     * 把文本按大约 pageSize 个字符切成"页"
+     */
+    static List<String> pages(String text, int pageSize) {
+        List<String> pages = new ArrayList<>();
+        for (int start = 0; start < text.length(); start += pageSize) {
+            pages.add(text.substring(start, Math.min(text.length(), start + pageSize)));
+        }
+        return pages;
+    }
+
+    /**
+     * 生成围绕若干随机中心的高斯簇向量。真实文本向量呈簇状分布，
+     * 均匀随机向量对近似检索来说是不具代表性的最坏情况。
+     */
+    static float[][] clusteredVectors(int count, int dimensions, int clusters, long seed) {
+        Random random = new Random(seed);
+        float[][] centroids = new float[clusters][dimensions];
+        for (float[] centroid : centroids) {
+            for (int d = 0; d < dimensions; d++) {
+                centroid[d] = (float) random.nextGaussian();
+            }
+        }
+        float[][] vectors = new float[count][dimensions];
+        for (float[] vector : vectors) {
+            float[] centroid = centroids[random.nextInt(clusters)];
+            for (int d = 0; d < dimensions; d++) {
+                vector[d] = centroid[d] + (float) (random.nextGaussian() * 0.6);
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.lexical.Bm25Index;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BM25 MaxScore 与逐词项全量打分的 top-10 延迟对比。文档是按 Zipf 分布（s=1）从 5 万词表中抽词的合成文本，
+ * 每篇 50~250 词，接近文本块的长度；查询为 2~4 个词，混合高频词和中低频词。
+ * setup 打印构建耗时、倒排表压缩后的大小，并核对两种检索的结果一致。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=Bm25IndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class Bm25IndexBenchmark {
+
+    private static final int K = 10;
+    private static final int QUERIES = 200;
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"100000", "1000000"})
+    public int documents;
+
+    private Bm25Index index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] cdf = zipfCdf(VOCABULARY);
+        SplittableRandom random = new SplittableRandom(42L);
+        index = new Bm25Index(1.2, 0.75);
+        StringBuilder text = new StringBuilder(2048);
+        long start = System.nanoTime();
+        for (int doc = 0; doc < documents; doc++) {
+            text.setLength(0);
+            int length = 50 + random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                text.append('t').append(sample(cdf, random.nextDouble())).append(' ');
+            }
+            index.add(doc, text);
+        }
+        long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Random queryRandom = new Random(7L);
+        queries = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            StringBuilder query = new StringBuilder();
+            int terms = 2 + queryRandom.nextInt(3);
+            for (int i = 0; i < terms; i++) {
+                int rank = i == 0 ? queryRandom.nextInt(100) : 100 + queryRandom.nextInt(5_000);
+                query.append('t').append(rank).append(' ');
+            }
+            queries[q] = query.toString();
+        }
+
+        int mismatches = 0;
+        for (String query : queries) {
+            List<Bm25Index.Result> expected = index.searchExhaustive(query, K);
+            List<Bm25Index.Result> actual = index.search(query, K);
+            if (expected.size() != actual.size()) {
+                mismatches++;
+                continue;
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (Math.abs(expected.get(i).score() - actual.get(i).score()) > 1e-3f * expected.get(i).score()) {
+                    mismatches++;
+                    break;
+                }
+            }
+        }
+        Bm25Index.Stats stats = index.stats();
+        System.out.printf("%n[Bm25IndexBenchmark] documents=%d build=%d ms terms=%d postings=%d size=%d MB "
+                        + "(%.2f bytes/posting) mismatched queries=%d%n",
+                documents, buildMs, stats.terms(), stats.postings(), stats.postingBytes() >> 20,
+                stats.postingBytes() / (double) stats.postings(), mismatches);
+    }
+
+    @Benchmark
+    public List<Bm25Index.Result> maxScore() {
+        return index.search(nextQuery(), K);
+    }
+
+    @Benchmark
+    public List<Bm25Index.Result> exhaustive() {
+        return index.searchExhaustive(nextQuery(), K);
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+
+    private static double[] zipfCdf(int vocabulary) {
+        double[] cdf = new double[vocabulary];
+        double sum = 0;
+        for (int i = 0; i < vocabulary; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < vocabulary; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+}
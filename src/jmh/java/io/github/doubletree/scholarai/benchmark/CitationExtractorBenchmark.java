@@ -0,0 +1,245 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.service.CitationExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 引用抽取吞吐。
+ * <p>
+ * 参考文献条目取自真实论文的参考文献列表（APA、IEEE、ACM、编号四种格式），按格式组装成
+ * {@value #PAPERS} 篇"论文"：正文夹带 [12] 和 (Smith et al., 2020) 形式的引用标记，末尾是
+ * {@value #REFERENCES_PER_PAPER} 条参考文献。每次操作处理全部论文，结果单位是每秒条目数：
+ * <ul>
+ *     <li>{@code referenceLists}：只喂参考文献区，references/sec</li>
+ *     <li>{@code fullPapers}：正文 + 参考文献区，同样按 references/sec 计</li>
+ *     <li>{@code markerScan} / {@code markerRegex}：只扫正文，单遍状态机与等价的回溯正则对比，markers/sec</li>
+ * </ul>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CitationExtractorBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CitationExtractorBenchmark {
+
+    private static final int PAPERS = 64;
+    private static final int REFERENCES_PER_PAPER = 48;
+    private static final int MARKERS_PER_PAPER = 200;
+    private static final int BODY_CHARS = 60_000;
+    private static final int PAGE_CHARS = 3_000;
+
+    private static final String[] APA = {
+            "LeCun, Y., Bengio, Y., & Hinton, G. (2015). Deep learning. Nature, 521(7553), 436-444. https://doi.org/10.1038/nature14539",
+            "Vaswani, A., Shazeer, N., Parmar, N., Uszkoreit, J., Jones, L., Gomez, A. N., Kaiser, L., & Polosukhin, I. (2017). Attention is all you need. Advances in Neural Information Processing Systems, 30, 5998-6008.",
+            "Devlin, J., Chang, M.-W., Lee, K., & Toutanova, K. (2019). BERT: Pre-training of deep bidirectional transformers for language understanding. Proceedings of NAACL-HLT, 4171-4186. https://doi.org/10.18653/v1/N19-1423",
+            "He, K., Zhang, X., Ren, S., & Sun, J. (2016). Deep residual learning for image recognition. Proceedings of the IEEE Conference on Computer Vision and Pattern Recognition, 770-778. https://doi.org/10.1109/CVPR.2016.90",
+            "Hochreiter, S., & Schmidhuber, J. (1997). Long short-term memory. Neural Computation, 9(8), 1735-1780. https://doi.org/10.1162/neco.1997.9.8.1735",
+            "Blei, D. M., Ng, A. Y., & Jordan, M. I. (2003). Latent Dirichlet allocation. Journal of Machine Learning Research, 3, 993-1022.",
+            "Robertson, S., & Zaragoza, H. (2009). The probabilistic relevance framework: BM25 and beyond. Foundations and Trends in Information Retrieval, 3(4), 333-389. https://doi.org/10.1561/1500000019",
+            "Malkov, Y. A., & Yashunin, D. A. (2020). Efficient and robust approximate nearest neighbor search using hierarchical navigable small world graphs. IEEE Transactions on Pattern Analysis and Machine Intelligence, 42(4), 824-836.",
+            "Page, L., Brin, S., Motwani, R., & Winograd, T. (1999). The PageRank citation ranking: Bringing order to the web. Stanford InfoLab Technical Report.",
+            "Garfield, E. (1955). Citation indexes for science: A new dimension in documentation through association of ideas. Science, 122(3159), 108-111. https://doi.org/10.1126/science.122.3159.108",
+            "Small, H. (1973). Co-citation in the scientific literature: A new measure of the relationship between two documents. Journal of the American Society for Information Science, 24(4), 265-269.",
+            "Lewis, P., Perez, E., Piktus, A., Petroni, F., Karpukhin, V., Goyal, N., Küttler, H., Lewis, M., Yih, W., Rocktäschel, T., Riedel, S., & Kiela, D. (2020). Retrieval-augmented generation for knowledge-intensive NLP tasks. Advances in Neural Information Processing Systems, 33, 9459-9474."
+    };
+
+    private static final String[] IEEE = {
+            "A. Vaswani, N. Shazeer, N. Parmar, J. Uszkoreit, L. Jones, A. N. Gomez, L. Kaiser, and I. Polosukhin, \"Attention is all you need,\" in Proc. Adv. Neural Inf. Process. Syst., 2017, pp. 5998-6008.",
+            "K. He, X. Zhang, S. Ren, and J. Sun, \"Deep residual learning for image recognition,\" in Proc. IEEE Conf. Comput. Vis. Pattern Recognit. (CVPR), Jun. 2016, pp. 770-778, doi: 10.1109/CVPR.2016.90.",
+            "Y. LeCun, L. Bottou, Y. Bengio, and P. Haffner, \"Gradient-based learning applied to document recognition,\" Proc. IEEE, vol. 86, no. 11, pp. 2278-2324, Nov. 1998.",
+            "A. Krizhevsky, I. Sutskever, and G. E. Hinton, \"ImageNet classification with deep convolutional neural networks,\" in Proc. Adv. Neural Inf. Process. Syst., 2012, pp. 1097-1105.",
+            "J. Johnson, M. Douze, and H. Jégou, \"Billion-scale similarity search with GPUs,\" IEEE Trans. Big Data, vol. 7, no. 3, pp. 535-547, 2021, doi: 10.1109/TBDATA.2019.2921572.",
+            "T. Mikolov, I. Sutskever, K. Chen, G. S. Corrado, and J. Dean, \"Distributed representations of words and phrases and their compositionality,\" in Proc. Adv. Neural Inf. Process. Syst., 2013, pp. 3111-3119.",
+            "S. Brin and L. Page, \"The anatomy of a large-scale hypertextual web search engine,\" Comput. Netw. ISDN Syst., vol. 30, no. 1-7, pp. 107-117, 1998.",
+            "D. Lemire and L. Boytsov, \"Decoding billions of integers per second through vectorization,\" Softw. Pract. Exp., vol. 45, no. 1, pp. 1-29, 2015, doi: 10.1002/spe.2203.",
+            "R. Guo, P. Sun, E. Lindgren, Q. Geng, D. Simcha, F. Chern, and S. Kumar, \"Accelerating large-scale inference with anisotropic vector quantization,\" in Proc. Int. Conf. Mach. Learn., 2020, pp. 3887-3896.",
+            "H. Jégou, M. Douze, and C. Schmid, \"Product quantization for nearest neighbor search,\" IEEE Trans. Pattern Anal. Mach. Intell., vol. 33, no. 1, pp. 117-128, Jan. 2011."
+    };
+
+    private static final String[] ACM = {
+            "Tomas Mikolov, Kai Chen, Greg Corrado, and Jeffrey Dean. 2013. Efficient estimation of word representations in vector space. arXiv preprint arXiv:1301.3781.",
+            "Diederik P. Kingma and Jimmy Ba. 2015. Adam: A method for stochastic optimization. In International Conference on Learning Representations (ICLR).",
+            "Jeffrey Dean and Sanjay Ghemawat. 2008. MapReduce: Simplified data processing on large clusters. Commun. ACM 51, 1 (2008), 107-113. https://doi.org/10.1145/1327452.1327492",
+            "Omar Khattab and Matei Zaharia. 2020. ColBERT: Efficient and effective passage search via contextualized late interaction over BERT. In Proceedings of the 43rd International ACM SIGIR Conference on Research and Development in Information Retrieval. 39-48. https://doi.org/10.1145/3397271.3401075",
+            "Vladimir Karpukhin, Barlas Oguz, Sewon Min, Patrick Lewis, Ledell Wu, Sergey Edunov, Danqi Chen, and Wen-tau Yih. 2020. Dense passage retrieval for open-domain question answering. In Proceedings of EMNLP. 6769-6781.",
+            "Andrei Z. Broder, David Carmel, Michael Herscovici, Aya Soffer, and Jason Zien. 2003. Efficient query evaluation using a two-level retrieval process. In Proceedings of CIKM. 426-434. https://doi.org/10.1145/956863.956944",
+            "Gordon V. Cormack, Charles L. A. Clarke, and Stefan Buettcher. 2009. Reciprocal rank fusion outperforms condorcet and individual rank learning methods. In Proceedings of SIGIR. 758-759. https://doi.org/10.1145/1571941.1572114",
+            "Jimmy Lin, Xueguang Ma, Sheng-Chieh Lin, Jheng-Hong Yang, Ronak Pradeep, and Rodrigo Nogueira. 2021. Pyserini: A Python toolkit for reproducible information retrieval research with sparse and dense representations. In Proceedings of SIGIR. 2356-2362."
+    };
+
+    // 编号格式（Vancouver / Nature）
+    private static final String[] NUMBERED = {
+            "Jumper J, Evans R, Pritzel A, et al. Highly accurate protein structure prediction with AlphaFold. Nature. 2021;596(7873):583-589. doi:10.1038/s41586-021-03819-2",
+            "Silver D, Huang A, Maddison CJ, et al. Mastering the game of Go with deep neural networks and tree search. Nature. 2016;529(7587):484-489.",
+            "Mnih V, Kavukcuoglu K, Silver D, et al. Human-level control through deep reinforcement learning. Nature. 2015;518(7540):529-533. doi:10.1038/nature14236",
+            "Altschul SF, Gish W, Miller W, Myers EW, Lipman DJ. Basic local alignment search tool. J Mol Biol. 1990;215(3):403-410.",
+            "Esteva A, Kuprel B, Novoa RA, et al. Dermatologist-level classification of skin cancer with deep neural networks. Nature. 2017;542(7639):115-118.",
+            "Hirsch JE. An index to quantify an individual's scientific research output. Proc Natl Acad Sci USA. 2005;102(46):16569-16572. doi:10.1073/pnas.0507655102"
+    };
+
+    private static final Pattern MARKER_REGEX = Pattern.compile(
+            "\\[[1-9]\\d{0,3}(?:[,;\\-–]\\s*\\d{1,4})*\\]"
+                    + "|\\((?:[A-Z][\\w'’-]+(?:\\s+(?:et al\\.|and|&)\\s*(?:[A-Z][\\w'’-]+)?)?,?\\s+(?:19|20)\\d{2}[a-z]?"
+                    + "(?:;\\s*)?)+\\)"
+                    + "|[A-Z][\\w'’-]+(?:\\s+et al\\.)?\\s+\\((?:19|20)\\d{2}[a-z]?\\)");
+
+    private CitationExtractor extractor;
+    private List<List<String>> referencePages;
+    private List<List<String>> paperPages;
+    private List<List<String>> bodyPages;
+
+    @Setup
+    public void setUp() {
+        extractor = new CitationExtractor(REFERENCES_PER_PAPER * 2, MARKERS_PER_PAPER * 2);
+        Random random = new Random(42L);
+        referencePages = new ArrayList<>();
+        paperPages = new ArrayList<>();
+        bodyPages = new ArrayList<>();
+        for (int p = 0; p < PAPERS; p++) {
+            int style = p % 4;
+            String references = referenceSection(style, random);
+            String body = body(style, p, random);
+            referencePages.add(BenchmarkCorpus.pages(references, PAGE_CHARS));
+            paperPages.add(BenchmarkCorpus.pages(body + references, PAGE_CHARS));
+            bodyPages.add(BenchmarkCorpus.pages(body, PAGE_CHARS));
+        }
+
+        int references = 0;
+        int withTitle = 0;
+        int withDoi = 0;
+        int markers = 0;
+        for (List<String> pages : paperPages) {
+            CitationExtractor.Result result = extract(pages);
+            references += result.references().size();
+            markers += result.inTextMarkers().size();
+            for (Citation citation : result.references()) {
+                withTitle += citation.title() != null ? 1 : 0;
+                withDoi += citation.hasDoi() ? 1 : 0;
+            }
+        }
+        System.out.printf("%n[CitationExtractorBenchmark] papers=%d references=%d/%d (title=%d doi=%d) markers=%d/%d%n",
+                PAPERS, references, PAPERS * REFERENCES_PER_PAPER, withTitle, withDoi,
+                markers, PAPERS * MARKERS_PER_PAPER);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS * REFERENCES_PER_PAPER)
+    public void referenceLists(Blackhole blackhole) {
+        for (List<String> pages : referencePages) {
+            blackhole.consume(extract(pages));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS * REFERENCES_PER_PAPER)
+    public void fullPapers(Blackhole blackhole) {
+        for (List<String> pages : paperPages) {
+            blackhole.consume(extract(pages));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS * MARKERS_PER_PAPER)
+    public void markerScan(Blackhole blackhole) {
+        for (List<String> pages : bodyPages) {
+            blackhole.consume(extract(pages));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS * MARKERS_PER_PAPER)
+    public void markerRegex(Blackhole blackhole) {
+        for (List<String> pages : bodyPages) {
+            for (String page : pages) {
+                Matcher matcher = MARKER_REGEX.matcher(page);
+                while (matcher.find()) {
+                    blackhole.consume(matcher.group());
+                }
+            }
+        }
+    }
+
+    private CitationExtractor.Result extract(List<String> pages) {
+        CitationExtractor.Session session = extractor.newSession();
+        for (int i = 0; i < pages.size(); i++) {
+            session.appendPage(pages.get(i), i + 1);
+        }
+        return session.finish();
+    }
+
+    private static String referenceSection(int style, Random random) {
+        StringBuilder sb = new StringBuilder("\nReferences\n");
+        for (int i = 1; i <= REFERENCES_PER_PAPER; i++) {
+            String entry = switch (style) {
+                case 0 -> APA[random.nextInt(APA.length)];
+                case 1 -> "[" + i + "] " + IEEE[random.nextInt(IEEE.length)];
+                case 2 -> "[" + i + "] " + ACM[random.nextInt(ACM.length)];
+                default -> i + ". " + NUMBERED[random.nextInt(NUMBERED.length)];
+            };
+            wrap(sb, entry, 90);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按固定行宽折行，模拟 PDF 抽取出的换行
+     */
+    private static void wrap(StringBuilder sb, String entry, int width) {
+        int start = 0;
+        while (entry.length() - start > width) {
+            int cut = entry.lastIndexOf(' ', start + width);
+            if (cut <= start) {
+                cut = start + width;
+            }
+            sb.append(entry, start, cut).append('\n');
+            start = cut + 1;
+        }
+        sb.append(entry, start, entry.length()).append('\n');
+    }
+
+    private static String body(int style, int paper, Random random) {
+        String text = BenchmarkCorpus.academicText(BODY_CHARS, paper);
+        StringBuilder sb = new StringBuilder(BODY_CHARS + MARKERS_PER_PAPER * 32);
+        int step = BODY_CHARS / MARKERS_PER_PAPER;
+        for (int m = 0; m < MARKERS_PER_PAPER; m++) {
+            int from = m * step;
+            int cut = text.indexOf(' ', from + step / 2);
+            if (cut < 0 || cut >= from + step) {
+                cut = from + step / 2;
+            }
+            sb.append(text, from, cut).append(' ');
+            int number = 1 + random.nextInt(REFERENCES_PER_PAPER);
+            int year = 1990 + random.nextInt(35);
+            if (style == 0) {
+                sb.append(m % 2 == 0
+                        ? "(Smith et al., " + year + "; Lee and Park " + (year - 1) + ")"
+                        : "Garfield (" + year + ")");
+            } else {
+                sb.append(m % 2 == 0 ? "[" + number + "]" : "[" + number + ", " + (number + 1) + "]");
+            }
+            sb.append(text, cut, from + step);
+        }
+        return sb.toString();
+    }
+}
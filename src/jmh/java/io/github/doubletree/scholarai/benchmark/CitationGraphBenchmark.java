@@ -0,0 +1,122 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.graph.CitationGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 引用图查询和增量更新的延迟。图按优先连接生成：每篇论文引用 30 篇更早的论文，
+ * 一半按已有被引次数成比例选取、一半均匀选取，被引次数呈长尾分布，与真实文献库接近。
+ * 查询起点一半是被引最多的 1% 论文，一半随机。setup 打印构建耗时、边数和 CSR 占用。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CitationGraphBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CitationGraphBenchmark {
+
+    private static final int REFERENCES = 30;
+    private static final int QUERIES = 256;
+    private static final int LIMIT = 50;
+    private static final int MAX_VISITED = 100_000;
+
+    @Param({"100000"})
+    public int papers;
+
+    private CitationGraph graph;
+    private int[] starts;
+    private int[][] updates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        graph = new CitationGraph(1024);
+        // 每条边的目标依次记下，从中均匀抽样即按被引次数成比例
+        int[] citedTargets = new int[papers * REFERENCES];
+        int citedCount = 0;
+        long start = System.nanoTime();
+        for (int paper = 1; paper < papers; paper++) {
+            int[] targets = new int[Math.min(REFERENCES, paper)];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = citedCount > 0 && random.nextBoolean()
+                        ? citedTargets[random.nextInt(citedCount)]
+                        : random.nextInt(paper);
+            }
+            graph.setReferences(paper, targets);
+            for (int target : targets) {
+                citedTargets[citedCount++] = target;
+            }
+        }
+        graph.compact();
+        long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Integer[] byInDegree = new Integer[papers];
+        for (int i = 0; i < papers; i++) {
+            byInDegree[i] = i;
+        }
+        Arrays.sort(byInDegree, (a, b) -> graph.inDegree(b) - graph.inDegree(a));
+        starts = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            starts[q] = q % 2 == 0 ? byInDegree[random.nextInt(Math.max(1, papers / 100))] : random.nextInt(papers);
+        }
+        updates = new int[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            updates[q] = new int[REFERENCES];
+            for (int i = 0; i < REFERENCES; i++) {
+                updates[q][i] = random.nextInt(papers);
+            }
+        }
+        System.out.printf("%nBuilt %d papers, %d edges in %d ms, CSR %d KB, max in-degree %d%n",
+                graph.nodeCount(), graph.edgeCount(), buildMs, graph.sizeInBytes() / 1024,
+                graph.inDegree(byInDegree[0]));
+    }
+
+    @Benchmark
+    public List<CitationGraph.Neighbor> citedBy() {
+        return graph.citedByRanked(nextStart(), LIMIT);
+    }
+
+    @Benchmark
+    public List<CitationGraph.Neighbor> coCited() {
+        return graph.coCited(nextStart(), LIMIT);
+    }
+
+    @Benchmark
+    public List<CitationGraph.Neighbor> twoHops() {
+        return graph.neighborhood(nextStart(), 2, true, true, LIMIT, MAX_VISITED);
+    }
+
+    /**
+     * 替换一篇论文的 30 条出边，包括覆盖层写满后的均摊合并
+     */
+    @Benchmark
+    public long updateReferences() {
+        int q = next++ & (QUERIES - 1);
+        graph.setReferences(starts[q], updates[q]);
+        return graph.edgeCount();
+    }
+
+    private int nextStart() {
+        return starts[next++ & (QUERIES - 1)];
+    }
+}
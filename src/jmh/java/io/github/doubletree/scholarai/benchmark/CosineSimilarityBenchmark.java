@@ -0,0 +1,127 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 余弦相似度：一个查询对 1024 个向量打分（每次操作 = 一次比较）。
+ * <ul>
+ *   <li>{@code legacy}：原实现，每次比较都用标量循环重新求两个向量的模</li>
+ *   <li>{@code cachedNormScalar}：缓存模 + 标量内核（{@code -Dscholar-ai.vector-math=scalar}）</li>
+ *   <li>{@code cachedNorm}：缓存模 + SIMD 内核</li>
+ *   <li>{@code batch}：{@link Embedding#cosineSimilarities} 批量接口</li>
+ *   <li>{@code matrix}：对按行连续存放的矩阵批量求点积（预归一化向量）</li>
+ * </ul>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CosineSimilarityBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CosineSimilarityBenchmark {
+
+    private static final int CANDIDATES = 1024;
+
+    @Param({"384", "1536"})
+    public int dimensions;
+
+    private Embedding query;
+    private List<Embedding> candidates;
+    private float[] normalizedQuery;
+    private float[] matrix;
+    private float[] scores;
+
+    @Setup
+    public void setUp() {
+        float[][] vectors = BenchmarkCorpus.clusteredVectors(CANDIDATES + 1, dimensions, 16, 11L);
+        query = new Embedding(vectors[CANDIDATES], dimensions, "bench", 0);
+        candidates = Arrays.stream(vectors, 0, CANDIDATES)
+                .map(vector -> new Embedding(vector, dimensions, "bench", 0))
+                .toList();
+
+        normalizedQuery = query.normalize().vector();
+        matrix = new float[CANDIDATES * dimensions];
+        for (int i = 0; i < CANDIDATES; i++) {
+            System.arraycopy(candidates.get(i).normalize().vector(), 0, matrix, i * dimensions, dimensions);
+        }
+        scores = new float[CANDIDATES];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public double legacy() {
+        double sum = 0;
+        float[] q = query.vector();
+        for (Embedding candidate : candidates) {
+            sum += legacyCosine(q, candidate.vector());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    @Fork(value = 1, jvmArgsAppend = "-Dscholar-ai.vector-math=scalar")
+    public double cachedNormScalar() {
+        return cachedNorm();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public double cachedNorm() {
+        double sum = 0;
+        for (Embedding candidate : candidates) {
+            sum += query.cosineSimilarity(candidate);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public double[] batch() {
+        return query.cosineSimilarities(candidates);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public float[] matrix() {
+        VectorMath.dotAll(normalizedQuery, matrix, CANDIDATES, scores);
+        return scores;
+    }
+
+    /**
+     * 原 Embedding.cosineSimilarity 的实现
+     */
+    private static double legacyCosine(float[] a, float[] b) {
+        double dotProduct = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dotProduct += a[i] * b[i];
+        }
+        return dotProduct / (magnitude(a) * magnitude(b));
+    }
+
+    private static double magnitude(float[] vector) {
+        double sum = 0.0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.vector.HnswIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * HNSW 与暴力检索的 top-10 延迟对比。索引在 setup 中并发构建（顺带覆盖并发插入路径），
+ * 随后用 200 条查询计算 recall@10 并打印到标准输出，JMH 报告只包含延迟。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=HnswBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HnswBenchmark {
+
+    private static final int K = 10;
+    private static final int QUERIES = 200;
+
+    @Param({"10000"})
+    public int vectors;
+
+    @Param({"1536"})
+    public int dimensions;
+
+    @Param({"32", "64", "128"})
+    public int efSearch;
+
+    private HnswIndex index;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        float[][] data = BenchmarkCorpus.clusteredVectors(vectors + QUERIES, dimensions, 200, 42L);
+        index = new HnswIndex(dimensions, 16, 200);
+        long start = System.nanoTime();
+        IntStream.range(0, vectors).parallel().forEach(i -> index.add(data[i], i));
+        long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        queries = new float[QUERIES][];
+        System.arraycopy(data, vectors, queries, 0, QUERIES);
+
+        int hits = 0;
+        for (float[] query : queries) {
+            Set<Long> expected = new HashSet<>();
+            index.exactSearch(query, K, -1).forEach(result -> expected.add(result.label()));
+            for (HnswIndex.Result result : index.search(query, K, efSearch, -1)) {
+                if (expected.contains(result.label())) {
+                    hits++;
+                }
+            }
+        }
+        System.out.printf("%n[HnswBenchmark] vectors=%d dims=%d efSearch=%d build=%d ms recall@%d=%.4f%n",
+                vectors, dimensions, efSearch, buildMs, K, hits / (double) (QUERIES * K));
+    }
+
+    @Benchmark
+    public List<HnswIndex.Result> hnsw() {
+        return index.search(nextQuery(), K, efSearch, -1);
+    }
+
+    @Benchmark
+    public List<HnswIndex.Result> bruteForce() {
+        return index.exactSearch(nextQuery(), K, -1);
+    }
+
+    private float[] nextQuery() {
+        float[] query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import com.pgvector.PGvector;
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.service.TextChunker;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PgCopyLoader;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 新行写入吞吐（rows/sec）：论文行对比 "先 SELECT 再 INSERT"（Spring Data 对客户端生成 id 的实体的默认行为）、
+ * 批量 INSERT（batch_size 20，等同 Hibernate 的 JDBC batch）和 COPY；文本块行（含 1536 维向量）对比批量 INSERT 和 COPY。
+ * 每次调用写入一批新行并提交。
+ * <p>
+ * 需要一个可连接的 Postgres（已安装 pgvector 并由应用初始化过表结构），连接信息取环境变量
+ * BENCHMARK_JDBC_URL / BENCHMARK_JDBC_USER / BENCHMARK_JDBC_PASSWORD，默认与 application.yml 相同。
+ * 写入的是同名的临时表（遮蔽 public 下的表），不会改动真实数据。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PaperInsertBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PaperInsertBenchmark {
+
+    private static final int PAPERS_PER_CALL = 1000;
+    private static final int CHUNKS_PER_CALL = 256;
+    private static final int JDBC_BATCH_SIZE = 20;
+    private static final int DIMENSIONS = 1536;
+
+    private static final String SELECT_PAPER = "SELECT id FROM paper WHERE id = ?";
+
+    private static final String INSERT_PAPER = """
+            INSERT INTO paper (id, title, authors, abstract_text, doi, published_date, uploaded_at, processed_at,
+                               status, file_name, file_size, content_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CHUNK = """
+            INSERT INTO paper_chunk (paper_id, chunk_index, content, start_position, end_position,
+                                     page_number, embedding, embedding_model)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private Connection connection;
+    private PgCopyLoader copyLoader;
+    private String abstractText;
+    private List<TextChunk> chunks;
+    private Map<Integer, Embedding> embeddings;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/scholar_ai_db?reWriteBatchedInserts=true"),
+                env("BENCHMARK_JDBC_USER", "scholar_user"),
+                env("BENCHMARK_JDBC_PASSWORD", "scholar_password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE paper (LIKE public.paper INCLUDING DEFAULTS INCLUDING INDEXES)");
+            statement.execute("CREATE TEMP TABLE paper_chunk (LIKE public.paper_chunk INCLUDING DEFAULTS)");
+            statement.execute("ALTER TABLE paper_chunk ADD PRIMARY KEY (paper_id, chunk_index)");
+        }
+        connection.setAutoCommit(false);
+        copyLoader = new PgCopyLoader();
+
+        abstractText = BenchmarkCorpus.academicText(1_500, 3L);
+        chunks = new TextChunker(1000, 200).chunk(BenchmarkCorpus.academicText(CHUNKS_PER_CALL * 800 + 1000, 5L))
+                .subList(0, CHUNKS_PER_CALL);
+        float[][] vectors = BenchmarkCorpus.clusteredVectors(CHUNKS_PER_CALL, DIMENSIONS, 16, 11L);
+        embeddings = new HashMap<>();
+        for (TextChunk chunk : chunks) {
+            embeddings.put(chunk.chunkIndex(), new Embedding(vectors[chunk.chunkIndex()], DIMENSIONS, "stub", chunk.chunkIndex()));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE paper, paper_chunk");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS_PER_CALL)
+    public void papersSelectThenInsert() throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PAPER);
+             PreparedStatement insert = connection.prepareStatement(INSERT_PAPER)) {
+            for (PaperEntity paper : newPapers()) {
+                select.setObject(1, paper.getId());
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                }
+                bind(insert, paper);
+                insert.executeUpdate();
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS_PER_CALL)
+    public void papersBatchedInsert() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_PAPER)) {
+            int pending = 0;
+            for (PaperEntity paper : newPapers()) {
+                bind(insert, paper);
+                insert.addBatch();
+                if (++pending % JDBC_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAPERS_PER_CALL)
+    public long papersCopy() throws SQLException {
+        long rows = copyLoader.copyPapers(connection, newPapers());
+        connection.commit();
+        return rows;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNKS_PER_CALL)
+    public void chunksBatchedInsert() throws SQLException {
+        UUID paperId = UUID.randomUUID();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_CHUNK)) {
+            int pending = 0;
+            for (TextChunk chunk : chunks) {
+                Embedding embedding = embeddings.get(chunk.chunkIndex());
+                insert.setObject(1, paperId);
+                insert.setInt(2, chunk.chunkIndex());
+                insert.setString(3, chunk.content());
+                insert.setInt(4, chunk.startPosition());
+                insert.setInt(5, chunk.endPosition());
+                insert.setInt(6, chunk.metadata().pageNumber());
+                insert.setObject(7, new PGvector(embedding.vector()));
+                insert.setString(8, embedding.model());
+                insert.addBatch();
+                if (++pending % 100 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNKS_PER_CALL)
+    public long chunksCopy() throws SQLException {
+        long rows = copyLoader.copyChunks(connection, new PaperId(UUID.randomUUID()), chunks, embeddings);
+        connection.commit();
+        return rows;
+    }
+
+    private List<PaperEntity> newPapers() {
+        List<PaperEntity> papers = new ArrayList<>(PAPERS_PER_CALL);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAPERS_PER_CALL; i++) {
+            UUID id = UUID.randomUUID();
+            papers.add(PaperEntity.builder()
+                    .id(id)
+                    .title("Paper " + id)
+                    .authors(new String[]{"J. Smith", "A. \"Quoted\" Author"})
+                    .abstractText(abstractText)
+                    .uploadedAt(now)
+                    .status(PaperEntity.ProcessingStatus.PENDING)
+                    .fileName(id + ".pdf")
+                    .fileSize(1_048_576L)
+                    .contentHash(id.toString().replace("-", "") + id.toString().replace("-", ""))
+                    .build());
+        }
+        return papers;
+    }
+
+    private void bind(PreparedStatement insert, PaperEntity paper) throws SQLException {
+        insert.setObject(1, paper.getId());
+        insert.setString(2, paper.getTitle());
+        insert.setArray(3, connection.createArrayOf("text", paper.getAuthors()));
+        insert.setString(4, paper.getAbstractText());
+        insert.setString(5, paper.getDoi());
+        insert.setObject(6, paper.getPublishedDate());
+        insert.setObject(7, paper.getUploadedAt());
+        insert.setObject(8, paper.getProcessedAt());
+        insert.setString(9, paper.getStatus().name());
+        insert.setString(10, paper.getFileName());
+        insert.setLong(11, paper.getFileSize());
+        insert.setString(12, paper.getContentHash());
+    }
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+}
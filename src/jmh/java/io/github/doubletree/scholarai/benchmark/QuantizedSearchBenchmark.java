@@ -0,0 +1,143 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.vector.QuantizedVectorStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 量化检索与 float32 暴力检索的 top-10 延迟对比。setup 中用 200 条查询计算
+ * recall@10（仅 int8 打分 / 三级检索含全精度重排）和每个向量的内存占用，打印到标准输出。
+ * 全精度重排的数据源是内存数组，线上实现需要额外一次数据库往返。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=QuantizedSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class QuantizedSearchBenchmark {
+
+    private static final int K = 10;
+    private static final int QUERIES = 200;
+
+    @Param({"50000"})
+    public int vectors;
+
+    @Param({"1536"})
+    public int dimensions;
+
+    @Param({"8", "32"})
+    public int binaryOversample;
+
+    private float[][] data;
+    private float[] matrix;
+    private float[] scores;
+    private QuantizedVectorStore store;
+    private QuantizedVectorStore.FullPrecisionSource source;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkCorpus.clusteredVectors(vectors + QUERIES, dimensions, 200, 42L);
+        store = new QuantizedVectorStore(dimensions, binaryOversample, 4);
+        matrix = new float[vectors * dimensions];
+        for (int i = 0; i < vectors; i++) {
+            store.add(data[i], i);
+            float norm = VectorMath.norm(data[i]);
+            for (int d = 0; d < dimensions; d++) {
+                matrix[i * dimensions + d] = data[i][d] / norm;
+            }
+        }
+        scores = new float[vectors];
+        source = labels -> {
+            float[][] result = new float[labels.length][];
+            for (int i = 0; i < labels.length; i++) {
+                result[i] = data[(int) labels[i]];
+            }
+            return result;
+        };
+        queries = new float[QUERIES][];
+        System.arraycopy(data, vectors, queries, 0, QUERIES);
+
+        int int8Hits = 0;
+        int rerankHits = 0;
+        for (float[] query : queries) {
+            Set<Long> expected = new HashSet<>();
+            for (int node : exactTopK(query)) {
+                expected.add((long) node);
+            }
+            for (QuantizedVectorStore.Result result : store.searchApproximate(query, K)) {
+                int8Hits += expected.contains(result.label()) ? 1 : 0;
+            }
+            for (QuantizedVectorStore.Result result : store.search(query, K, -1, source)) {
+                rerankHits += expected.contains(result.label()) ? 1 : 0;
+            }
+        }
+        System.out.printf("%n[QuantizedSearchBenchmark] vectors=%d dims=%d binaryOversample=%d "
+                        + "bytes/vector=%d (float32=%d) recall@%d int8=%.4f reranked=%.4f%n",
+                vectors, dimensions, binaryOversample, store.bytesPerVector(), dimensions * Float.BYTES,
+                K, int8Hits / (double) (QUERIES * K), rerankHits / (double) (QUERIES * K));
+    }
+
+    @Benchmark
+    public List<QuantizedVectorStore.Result> quantized() {
+        return store.search(nextQuery(), K, -1, source);
+    }
+
+    @Benchmark
+    public int[] bruteForce() {
+        return exactTopK(nextQuery());
+    }
+
+    private int[] exactTopK(float[] query) {
+        float norm = VectorMath.norm(query);
+        float[] normalized = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            normalized[d] = query[d] / norm;
+        }
+        VectorMath.dotAll(normalized, matrix, vectors, scores);
+        int[] top = new int[K];
+        float[] topScores = new float[K];
+        Arrays.fill(topScores, Float.NEGATIVE_INFINITY);
+        for (int i = 0; i < vectors; i++) {
+            float score = scores[i];
+            if (score > topScores[K - 1]) {
+                int j = K - 1;
+                while (j > 0 && topScores[j - 1] < score) {
+                    topScores[j] = topScores[j - 1];
+                    top[j] = top[j - 1];
+                    j--;
+                }
+                topScores[j] = score;
+                top[j] = i;
+            }
+        }
+        return top;
+    }
+
+    private float[] nextQuery() {
+        float[] query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+}
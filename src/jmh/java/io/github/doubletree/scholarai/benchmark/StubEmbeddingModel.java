@@ -0,0 +1,71 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 本地桩向量模型：模拟一次往返的固定延迟 + 按条目线性增长的处理时间，
+ * 可选地以一定概率返回 429。向量由文本哈希确定性生成，不访问网络。
+ */
+public class StubEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+    private final long roundTripMicros;
+    private final long perItemMicros;
+    private final double rateLimitProbability;
+
+    public StubEmbeddingModel(int dimensions, long roundTripMicros, long perItemMicros, double rateLimitProbability) {
+        this.dimensions = dimensions;
+        this.roundTripMicros = roundTripMicros;
+        this.perItemMicros = perItemMicros;
+        this.rateLimitProbability = rateLimitProbability;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros + perItemMicros * texts.size()));
+        if (rateLimitProbability > 0 && ThreadLocalRandom.current().nextDouble() < rateLimitProbability) {
+            throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Rate limit reached for requests",
+                    HttpHeaders.EMPTY, new byte[0], null);
+        }
+
+        List<Embedding> results = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            results.add(new Embedding(vectorFor(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(results);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return vectorFor(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public float[] vectorFor(String text) {
+        SplittableRandom random = new SplittableRandom(text.hashCode());
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) (random.nextDouble() * 2.0 - 1.0);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.doubletree.scholarai.benchmark;
+
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.service.TextChunker;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 切分器吞吐与分配量。
+ * <p>
+ * 每次操作处理恰好 1 MiB 字符的输入，因此：
+ * <ul>
+ *     <li>{@code chunks} 辅助计数器即每秒产出的块数（chunks/sec）</li>
+ *     <li>{@code -prof gc} 输出的 gc.alloc.rate.norm 即每 MB 输入分配的字节数</li>
+ * </ul>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TextChunkerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextChunkerBenchmark {
+
+    private static final int INPUT_CHARS = 1 << 20;
+    private static final int PAGE_CHARS = 3_000;
+
+    @Param({"1000"})
+    public int chunkSize;
+
+    @Param({"0", "200"})
+    public int chunkOverlap;
+
+    private TextChunker chunker;
+    private String document;
+    private List<String> pages;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Output {
+        public long chunks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            chunks = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        chunker = new TextChunker(chunkSize, chunkOverlap);
+        document = BenchmarkCorpus.academicText(INPUT_CHARS, 42L);
+        pages = BenchmarkCorpus.pages(document, PAGE_CHARS);
+    }
+
+    @Benchmark
+    public void wholeDocument(Output output, Blackhole blackhole) {
+        List<TextChunk> chunks = chunker.chunk(document);
+        output.chunks += chunks.size();
+        blackhole.consume(chunks);
+    }
+
+    @Benchmark
+    public void pageByPage(Output output, Blackhole blackhole) {
+        TextChunker.Session session = chunker.newSession(chunk -> {
+            output.chunks++;
+            blackhole.consume(chunk);
+        });
+        for (int i = 0; i < pages.size(); i++) {
+            session.append(pages.get(i), i + 1);
+        }
+        session.finish();
+    }
+}
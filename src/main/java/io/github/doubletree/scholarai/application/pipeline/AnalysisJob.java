@@ -0,0 +1,101 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperAnalysis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单篇论文的分析任务。
+ * <p>
+ * extract 阶段由单个 worker 处理，其统计字段只由该线程写入；之后文本块按批次并发地流经
+ * embed/persist 阶段，用 outstanding 计数跟踪尚未落库的批次：extract 自身持有一个计数，
+ * 每发出一批加一，每个批次落库、失败或因任务已取消被跳过时减一，最后把计数减到 0 的线程负责收尾。
+ * 失败只记录原因并让其余批次尽快停下，清理要等所有批次都放下计数之后才执行，
+ * 否则仍在运行的批次会把清理过的文本块和索引重新写回去。
+ */
+final class AnalysisJob implements PipelineItem {
+
+    private final CompletableFuture<PaperAnalysis.AnalysisMetrics> result = new CompletableFuture<>();
+    private final long submittedAtNanos = System.nanoTime();
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    volatile Paper paper;
+
+    // 仅由 extract 线程写入
+    int pageCount;
+    int chunkCount;
+    long totalChars;
+    int totalTokens;
+    int referenceCount;
+    long parseNanos;
+    long chunkNanos;
+
+    final LongAdder embeddingNanos = new LongAdder();
+    final LongAdder persistNanos = new LongAdder();
+
+    AnalysisJob(Paper paper) {
+        this.paper = paper;
+    }
+
+    @Override
+    public AnalysisJob job() {
+        return this;
+    }
+
+    CompletableFuture<PaperAnalysis.AnalysisMetrics> result() {
+        return result;
+    }
+
+    /**
+     * 任务已失败或已被取消（停机），尚未开始的工作应当跳过
+     */
+    boolean isCancelled() {
+        return failure.get() != null || result.isDone();
+    }
+
+    /**
+     * 记录第一个失败原因
+     *
+     * @return true 表示这是第一个失败，调用方负责记录日志
+     */
+    boolean markFailed(Throwable error) {
+        return failure.compareAndSet(null, error);
+    }
+
+    Throwable failure() {
+        return failure.get();
+    }
+
+    void batchEmitted() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * @return true 表示所有批次都已完成，调用方负责收尾
+     */
+    boolean release() {
+        return outstanding.decrementAndGet() == 0;
+    }
+
+    PaperAnalysis.AnalysisMetrics toMetrics() {
+        double avgChunkSize = chunkCount == 0 ? 0.0 : (double) totalChars / chunkCount;
+        return new PaperAnalysis.AnalysisMetrics(
+                (System.nanoTime() - submittedAtNanos) / 1_000_000,
+                totalTokens,
+                avgChunkSize,
+                referenceCount,
+                chunkCount,
+                pageCount,
+                new PaperAnalysis.StageTimings(
+                        parseNanos / 1_000_000,
+                        chunkNanos / 1_000_000,
+                        embeddingNanos.sum() / 1_000_000,
+                        persistNanos.sum() / 1_000_000)
+        );
+    }
+}
@@ -0,0 +1,343 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperAnalysis;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.in.AnalyzePaperUseCase.AnalysisFailedException;
+import io.github.doubletree.scholarai.domain.port.in.AnalyzePaperUseCase.AnalysisRejectedException;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.port.out.CitationGraphPort;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.FullTextPort;
+import io.github.doubletree.scholarai.domain.port.out.LexicalSearchPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveAnalysisPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveCitationPort;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort;
+import io.github.doubletree.scholarai.domain.port.out.TextExtractionPort;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import io.github.doubletree.scholarai.domain.service.CitationExtractor;
+import io.github.doubletree.scholarai.domain.service.TextChunker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 分析流水线：extract(parse + chunk) → embed → persist。
+ * <p>
+ * 每个阶段拥有独立的有界队列和虚拟线程 worker 池。extract 阶段逐页读取 PDF 并把文本直接喂给
+ * 增量切分器，切出的文本块按批次流向下游；同时逐页写入全文存储（只在内存中累积压缩后的字节）、
+ * 喂给引用抽取器（只缓存参考文献区的行），整篇文档的原始全文从不在内存中拼接；
+ * 下游队列满时 extract 会阻塞，因此单篇论文的内存占用受批次大小和队列容量约束，与文档长度无关。
+ * 提交是非阻塞的，HTTP 线程只负责入队。
+ */
+@Slf4j
+@Component
+public class AnalysisPipeline {
+
+    private final TextExtractionPort textExtractionPort;
+    private final TextChunker textChunker;
+    private final CitationExtractor citationExtractor;
+    private final EmbeddingPort embeddingPort;
+    private final SaveAnalysisPort saveAnalysisPort;
+    private final SaveCitationPort saveCitationPort;
+    private final CitationGraphPort citationGraphPort;
+    private final SavePaperPort savePaperPort;
+    private final VectorSearchPort vectorSearchPort;
+    private final LexicalSearchPort lexicalSearchPort;
+    private final FullTextPort fullTextPort;
+    private final AnswerCachePort answerCachePort;
+
+    private final int queueCapacity;
+    private final int extractWorkers;
+    private final int embedWorkers;
+    private final int persistWorkers;
+    private final int batchSize;
+
+    private final ConcurrentMap<PaperId, AnalysisJob> inFlight = new ConcurrentHashMap<>();
+
+    private PipelineStage<AnalysisJob> extractStage;
+    private PipelineStage<ChunkBatch> embedStage;
+    private PipelineStage<ChunkBatch> persistStage;
+
+    public AnalysisPipeline(TextExtractionPort textExtractionPort,
+                            TextChunker textChunker,
+                            CitationExtractor citationExtractor,
+                            EmbeddingPort embeddingPort,
+                            SaveAnalysisPort saveAnalysisPort,
+                            SaveCitationPort saveCitationPort,
+                            CitationGraphPort citationGraphPort,
+                            SavePaperPort savePaperPort,
+                            VectorSearchPort vectorSearchPort,
+                            LexicalSearchPort lexicalSearchPort,
+                            FullTextPort fullTextPort,
+                            AnswerCachePort answerCachePort,
+                            @Value("${scholar-ai.processing.pipeline.queue-capacity:64}") int queueCapacity,
+                            @Value("${scholar-ai.processing.pipeline.extract-workers:4}") int extractWorkers,
+                            @Value("${scholar-ai.processing.pipeline.embed-workers:16}") int embedWorkers,
+                            @Value("${scholar-ai.processing.pipeline.persist-workers:4}") int persistWorkers,
+                            @Value("${scholar-ai.processing.pipeline.batch-size:32}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.textExtractionPort = textExtractionPort;
+        this.textChunker = textChunker;
+        this.citationExtractor = citationExtractor;
+        this.embeddingPort = embeddingPort;
+        this.saveAnalysisPort = saveAnalysisPort;
+        this.saveCitationPort = saveCitationPort;
+        this.citationGraphPort = citationGraphPort;
+        this.savePaperPort = savePaperPort;
+        this.vectorSearchPort = vectorSearchPort;
+        this.lexicalSearchPort = lexicalSearchPort;
+        this.fullTextPort = fullTextPort;
+        this.answerCachePort = answerCachePort;
+        this.queueCapacity = queueCapacity;
+        this.extractWorkers = extractWorkers;
+        this.embedWorkers = embedWorkers;
+        this.persistWorkers = persistWorkers;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        persistStage = new PipelineStage<>("persist", queueCapacity, persistWorkers,
+                virtualThreads("analysis-persist-"), this::persist, this::fail, this::release);
+        embedStage = new PipelineStage<>("embed", queueCapacity, embedWorkers,
+                virtualThreads("analysis-embed-"), this::embed, this::fail, this::release);
+        extractStage = new PipelineStage<>("extract", queueCapacity, extractWorkers,
+                virtualThreads("analysis-extract-"), this::extract, this::fail, this::release);
+
+        persistStage.start();
+        embedStage.start();
+        extractStage.start();
+    }
+
+    /**
+     * 停机时先取消所有未完成的任务，再中断 worker，被中断的批次不会再触发失败清理；
+     * 未完成的论文重置为 PENDING，否则它们会一直停留在 PROCESSING，重启后也不会再被处理
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<AnalysisJob> unfinished = List.copyOf(inFlight.values());
+        log.info("⚙️ [Pipeline] Shutting down, {} analyses in flight", unfinished.size());
+        unfinished.forEach(job -> job.result().cancel(false));
+        extractStage.shutdown();
+        embedStage.shutdown();
+        persistStage.shutdown();
+        for (AnalysisJob job : unfinished) {
+            try {
+                updateStatus(job.paper, PaperMetadata.ProcessingStatus.PENDING);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ [Pipeline] Could not reset paper {} to PENDING: {}", job.paper.id(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 将论文放入流水线。同一篇论文正在分析时返回已有的 future，而不是重复分析。
+     *
+     * @throws AnalysisRejectedException 入口队列已满
+     */
+    public CompletableFuture<PaperAnalysis.AnalysisMetrics> submit(Paper paper) {
+        AnalysisJob job = new AnalysisJob(paper);
+        AnalysisJob existing = inFlight.putIfAbsent(paper.id(), job);
+        if (existing != null) {
+            log.info("⚙️ [Pipeline] Paper {} is already being analyzed", paper.id());
+            return existing.result();
+        }
+
+        if (!extractStage.offer(job)) {
+            inFlight.remove(paper.id(), job);
+            throw new AnalysisRejectedException("Analysis queue is full, please retry later");
+        }
+
+        // 失败的任务在清理完成后才结束 future，清理期间再次提交同一篇论文会拿到这个 future
+        job.result().whenComplete((metrics, error) -> inFlight.remove(paper.id(), job));
+        log.debug("⚙️ [Pipeline] Queued paper {} (extract backlog={})", paper.id(), extractStage.backlog());
+        return job.result();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void extract(AnalysisJob job) throws InterruptedException {
+        long start = System.nanoTime();
+        job.paper = updateStatus(job.paper, PaperMetadata.ProcessingStatus.PROCESSING);
+
+        String fileName = job.paper.metadata().fileName();
+        if (fileName == null) {
+            throw new IllegalStateException("Paper has no file associated");
+        }
+        saveAnalysisPort.deleteChunks(job.paper.id());
+        vectorSearchPort.remove(job.paper.id());
+        lexicalSearchPort.remove(job.paper.id());
+        answerCachePort.invalidate(job.paper.id());
+
+        List<TextChunk> pending = new ArrayList<>(batchSize);
+        TextChunker.Session session = textChunker.newSession(chunk -> {
+            pending.add(chunk);
+            job.chunkCount++;
+            job.totalChars += chunk.getLength();
+            job.totalTokens += chunk.estimatedTokens();
+        });
+        CitationExtractor.Session citations = citationExtractor.newSession();
+
+        try (FullTextPort.TextWriter textWriter = fullTextPort.openWriter(job.paper.id())) {
+            job.pageCount = textExtractionPort.extractPages(fileName, (pageNumber, pageText) -> {
+                checkNotCancelled(job);
+                textWriter.appendPage(pageText);
+                citations.appendPage(pageText, pageNumber);
+                long chunkStart = System.nanoTime();
+                session.append(pageText, pageNumber);
+                job.chunkNanos += System.nanoTime() - chunkStart;
+                emitFullBatches(job, pending, false);
+            });
+            checkNotCancelled(job);
+            textWriter.commit();
+        }
+
+        long chunkStart = System.nanoTime();
+        session.finish();
+        job.chunkNanos += System.nanoTime() - chunkStart;
+        emitFullBatches(job, pending, true);
+
+        CitationExtractor.Result extracted = citations.finish();
+        List<Citation> allCitations = new ArrayList<>(extracted.references());
+        allCitations.addAll(extracted.inTextMarkers());
+        checkNotCancelled(job);
+        saveCitationPort.saveCitations(job.paper.id(), allCitations);
+        checkNotCancelled(job);
+        citationGraphPort.updateReferences(job.paper.id(), extracted.references());
+        job.referenceCount = extracted.references().size();
+
+        job.parseNanos = Math.max(0L, System.nanoTime() - start - job.chunkNanos);
+        release(job);
+    }
+
+    private void emitFullBatches(AnalysisJob job, List<TextChunk> pending, boolean flush)
+            throws InterruptedException {
+        while (pending.size() >= batchSize || (flush && !pending.isEmpty())) {
+            int size = Math.min(batchSize, pending.size());
+            List<TextChunk> batch = pending.subList(0, size);
+            job.batchEmitted();
+            embedStage.put(new ChunkBatch(job, batch));
+            batch.clear();
+        }
+    }
+
+    private void embed(ChunkBatch batch) throws InterruptedException {
+        long start = System.nanoTime();
+        List<Embedding> embeddings = embeddingPort.embed(batch.chunks());
+        batch.job().embeddingNanos.add(System.nanoTime() - start);
+        checkNotCancelled(batch.job());
+        persistStage.put(batch.withEmbeddings(embeddings));
+    }
+
+    private void persist(ChunkBatch batch) {
+        long start = System.nanoTime();
+        AnalysisJob job = batch.job();
+        checkNotCancelled(job);
+        saveAnalysisPort.saveChunks(job.paper.id(), batch.chunks(), batch.embeddings());
+        checkNotCancelled(job);
+        vectorSearchPort.index(job.paper.id(), batch.embeddings());
+        checkNotCancelled(job);
+        lexicalSearchPort.index(job.paper.id(), batch.chunks());
+        job.persistNanos.add(System.nanoTime() - start);
+        release(job);
+    }
+
+    /**
+     * 任务已失败或已取消时中止当前工作，由 {@link #fail} 交还计数，避免清理之后还有副作用
+     */
+    private static void checkNotCancelled(AnalysisJob job) {
+        if (job.isCancelled()) {
+            throw new CancellationException("Analysis of paper " + job.paper.id() + " was cancelled");
+        }
+    }
+
+    /**
+     * 交还一个计数；最后一个计数交还时，任务成功则收尾，失败则清理
+     */
+    private void release(AnalysisJob job) {
+        if (!job.release()) {
+            return;
+        }
+        if (job.failure() != null) {
+            cleanUp(job);
+        } else if (!job.result().isDone()) {
+            try {
+                complete(job);
+            } catch (RuntimeException e) {
+                // 已经没有其它计数可交还，不能再走 fail，直接清理
+                job.markFailed(e);
+                log.error("❌ [Pipeline] Could not complete analysis of paper {}", job.paper.id(), e);
+                cleanUp(job);
+            }
+        }
+    }
+
+    private void complete(AnalysisJob job) {
+        long start = System.nanoTime();
+        job.paper = updateStatus(job.paper, PaperMetadata.ProcessingStatus.COMPLETED);
+        // 分析期间基于不完整索引生成的回答也要丢弃
+        answerCachePort.invalidate(job.paper.id());
+        job.persistNanos.add(System.nanoTime() - start);
+
+        PaperAnalysis.AnalysisMetrics metrics = job.toMetrics();
+        log.info("✅ [Pipeline] Analyzed paper {}: {} pages, {} chunks, {} references in {} ms ({})",
+                job.paper.id(), metrics.pageCount(), metrics.chunkCount(), metrics.uniqueCitations(),
+                metrics.processingTimeMs(),
+                metrics.stageTimings());
+        job.result().complete(metrics);
+    }
+
+    /**
+     * 只记录失败并交还出错批次的计数；其它批次在下一个检查点停下，清理由最后交还计数的线程执行
+     */
+    private void fail(AnalysisJob job, Throwable error) {
+        if (!job.isCancelled() && job.markFailed(error)) {
+            log.error("❌ [Pipeline] Analysis failed for paper {}", job.paper.id(), error);
+        }
+        release(job);
+    }
+
+    private void cleanUp(AnalysisJob job) {
+        try {
+            saveAnalysisPort.deleteChunks(job.paper.id());
+            saveCitationPort.deleteCitations(job.paper.id());
+            citationGraphPort.updateReferences(job.paper.id(), List.of());
+            vectorSearchPort.remove(job.paper.id());
+            lexicalSearchPort.remove(job.paper.id());
+            answerCachePort.invalidate(job.paper.id());
+            fullTextPort.delete(job.paper.id());
+            job.paper = updateStatus(job.paper, PaperMetadata.ProcessingStatus.FAILED);
+        } catch (RuntimeException e) {
+            log.error("❌ [Pipeline] Could not mark paper {} as FAILED", job.paper.id(), e);
+        }
+        job.result().completeExceptionally(
+                new AnalysisFailedException("Analysis failed for paper " + job.paper.id(), job.failure()));
+    }
+
+    private Paper updateStatus(Paper paper, PaperMetadata.ProcessingStatus status) {
+        return savePaperPort.save(paper.withMetadata(paper.metadata().withStatus(status)));
+    }
+
+    private static ThreadFactory virtualThreads(String prefix) {
+        return Thread.ofVirtual().name(prefix, 0).factory();
+    }
+}
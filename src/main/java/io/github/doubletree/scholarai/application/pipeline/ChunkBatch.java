@@ -0,0 +1,20 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.List;
+
+/**
+ * 一篇论文的一批连续文本块，embed 阶段填充 embeddings 后交给 persist 阶段
+ */
+record ChunkBatch(AnalysisJob job, List<TextChunk> chunks, List<Embedding> embeddings) implements PipelineItem {
+
+    ChunkBatch(AnalysisJob job, List<TextChunk> chunks) {
+        this(job, List.copyOf(chunks), List.of());
+    }
+
+    ChunkBatch withEmbeddings(List<Embedding> newEmbeddings) {
+        return new ChunkBatch(job, chunks, List.copyOf(newEmbeddings));
+    }
+}
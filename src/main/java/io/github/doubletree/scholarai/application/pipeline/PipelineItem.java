@@ -0,0 +1,8 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+/**
+ * 在流水线阶段之间传递的工作单元，都归属于某个分析任务
+ */
+interface PipelineItem {
+    AnalysisJob job();
+}
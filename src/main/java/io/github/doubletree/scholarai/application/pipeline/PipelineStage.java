@@ -0,0 +1,124 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 流水线中的一个阶段：一个有界输入队列 + 一组固定数量的 worker。
+ * worker 以阻塞方式 put 到下一阶段的队列，队列满时自然形成背压，
+ * 因此整条流水线的吞吐由最慢的阶段决定，而不会在内存中无限堆积任务。
+ */
+@Slf4j
+final class PipelineStage<T extends PipelineItem> {
+
+    @FunctionalInterface
+    interface Work<T> {
+        void process(T item) throws Exception;
+    }
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int workerCount;
+    private final ThreadFactory threadFactory;
+    private final Work<T> work;
+    private final BiConsumer<AnalysisJob, Throwable> onFailure;
+    private final Consumer<AnalysisJob> onSkipped;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    PipelineStage(String name,
+                  int queueCapacity,
+                  int workerCount,
+                  ThreadFactory threadFactory,
+                  Work<T> work,
+                  BiConsumer<AnalysisJob, Throwable> onFailure,
+                  Consumer<AnalysisJob> onSkipped) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.threadFactory = threadFactory;
+        this.work = work;
+        this.onFailure = onFailure;
+        this.onSkipped = onSkipped;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = threadFactory.newThread(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("⚙️ [Pipeline] Stage '{}' started with {} workers", name, workerCount);
+    }
+
+    synchronized void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    /**
+     * 非阻塞提交，队列已满时返回 false，由调用方决定拒绝还是重试
+     */
+    boolean offer(T item) {
+        return running && queue.offer(item);
+    }
+
+    void put(T item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    int backlog() {
+        return queue.size();
+    }
+
+    String name() {
+        return name;
+    }
+
+    private void runWorker() {
+        while (running) {
+            T item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // 同一任务的其它批次已经失败：不处理，但要交还该批次持有的计数
+            if (item.job().isCancelled()) {
+                onSkipped.accept(item.job());
+                continue;
+            }
+
+            try {
+                work.process(item);
+            } catch (InterruptedException e) {
+                onFailure.accept(item.job(), e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                onFailure.accept(item.job(), t);
+            }
+        }
+    }
+}
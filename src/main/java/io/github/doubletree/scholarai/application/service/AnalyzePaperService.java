@@ -1,23 +1,34 @@
 package io.github.doubletree.scholarai.application.service;
 
+import io.github.doubletree.scholarai.application.pipeline.AnalysisPipeline;
+import io.github.doubletree.scholarai.domain.model.Paper;
 import io.github.doubletree.scholarai.domain.model.PaperAnalysis;
 import io.github.doubletree.scholarai.domain.model.PaperId;
 import io.github.doubletree.scholarai.domain.port.in.AnalyzePaperUseCase;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalyzePaperService implements AnalyzePaperUseCase {
 
-    // private final SaveAnalysisPort saveAnalysisPort;
+    private final LoadPaperPort loadPaperPort;
+    private final AnalysisPipeline analysisPipeline;
 
     @Override
-    public PaperAnalysis analyze(PaperId paperId) {
+    public CompletableFuture<PaperAnalysis.AnalysisMetrics> analyze(PaperId paperId) {
         log.info("🚀 [Service] Starting analysis for paper: {}", paperId);
 
-        throw new UnsupportedOperationException("分析功能尚未实现！");
+        Paper paper = loadPaperPort.loadOrThrow(paperId);
+        if (paper.metadata().fileName() == null) {
+            throw new PaperHasNoFileException(paperId);
+        }
+
+        return analysisPipeline.submit(paper);
     }
 }
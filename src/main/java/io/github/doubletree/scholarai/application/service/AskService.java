@@ -0,0 +1,189 @@
+package io.github.doubletree.scholarai.application.service;
+
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.port.out.ChatPort;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 基于检索的问答：先用 {@link RetrievalService} 取回相关文本块，按 token 预算装入提示词，再流式生成回答。
+ * <p>
+ * 分成 {@link #prepare} 和 {@link #stream} 两步：参数错误、论文不存在、检索失败在 prepare 中同步抛出，
+ * 调用方可以返回普通的错误响应；stream 只负责生成，结果经 {@link ChatPort.TokenListener} 逐段回调。
+ * <p>
+ * 问题向量先查语义缓存（{@link AnswerCachePort}），命中时跳过检索和模型调用，直接回放缓存的回答；
+ * 未命中时同一个向量继续用于向量检索，生成完整结束后写入缓存。
+ */
+@Slf4j
+@Service
+public class AskService {
+
+    static final String SYSTEM_PROMPT = """
+            You are a research assistant answering questions about academic papers.
+            Answer only from the numbered context passages. Cite the passages you use as [n].
+            If the context does not contain the answer, say so instead of guessing.
+            Answer in the language of the question.""";
+
+    private final RetrievalService retrievalService;
+    private final EmbeddingPort embeddingPort;
+    private final AnswerCachePort answerCachePort;
+    private final LoadPaperPort loadPaperPort;
+    private final ChatPort chatPort;
+    private final int maxContextTokens;
+
+    public AskService(RetrievalService retrievalService,
+                      EmbeddingPort embeddingPort,
+                      AnswerCachePort answerCachePort,
+                      LoadPaperPort loadPaperPort,
+                      ChatPort chatPort,
+                      @Value("${scholar-ai.rag.max-context-tokens:6000}") int maxContextTokens) {
+        if (maxContextTokens < 1) {
+            throw new IllegalArgumentException("RAG max-context-tokens must be positive");
+        }
+        this.retrievalService = retrievalService;
+        this.embeddingPort = embeddingPort;
+        this.answerCachePort = answerCachePort;
+        this.loadPaperPort = loadPaperPort;
+        this.chatPort = chatPort;
+        this.maxContextTokens = maxContextTokens;
+    }
+
+    /**
+     * @param sources 实际装入提示词的文本块，顺序即引用编号 [1], [2], ...
+     * @param cached 语义缓存命中时的回答，此时 userPrompt 为 null
+     * @param queryVector 问题向量，生成失败时为 null（此时不读写缓存）
+     * @param cacheEpoch 准备时缓存的失效序号，写回缓存时用于丢弃涉及的论文在生成期间被重新分析的回答
+     */
+    public record PreparedAnswer(String question,
+                                 List<RetrievedChunk> sources,
+                                 String userPrompt,
+                                 CachedAnswer cached,
+                                 AnswerCachePort.Scope scope,
+                                 float[] queryVector,
+                                 long cacheEpoch) {
+        public boolean isCached() {
+            return cached != null;
+        }
+    }
+
+    /**
+     * @param paperId 为 null 时在全部论文中检索
+     */
+    public PreparedAnswer prepare(PaperId paperId, String question, Integer limit, SearchFilter filter) {
+        int resultLimit = retrievalService.checkRequest(question, limit);
+        String text = question.strip();
+        SearchFilter effectiveFilter = filter != null ? filter : SearchFilter.NONE;
+        if (paperId != null) {
+            loadPaperPort.loadOrThrow(paperId);
+            effectiveFilter = effectiveFilter.withPaper(paperId);
+        }
+
+        AnswerCachePort.Scope scope = new AnswerCachePort.Scope(effectiveFilter, resultLimit);
+        long cacheEpoch = answerCachePort.epoch();
+        float[] queryVector = embedQuestion(text);
+        if (queryVector != null) {
+            Optional<CachedAnswer> cached = answerCachePort.find(scope, queryVector);
+            if (cached.isPresent()) {
+                log.info("📋 [APP] Answer served from cache: paper={}, question={}", paperId, text);
+                return new PreparedAnswer(text, cached.get().sources(), null, cached.get(), scope, queryVector, cacheEpoch);
+            }
+        }
+        List<RetrievedChunk> retrieved = retrievalService.retrieve(text, queryVector, resultLimit, effectiveFilter);
+
+        List<RetrievedChunk> sources = new ArrayList<>(retrieved.size());
+        Map<PaperId, String> titles = new HashMap<>();
+        StringBuilder context = new StringBuilder();
+        int budget = maxContextTokens;
+        for (RetrievedChunk chunk : retrieved) {
+            String content = chunk.content();
+            int tokens = estimateTokens(content);
+            if (tokens > budget) {
+                if (!sources.isEmpty()) {
+                    break;
+                }
+                // 第一个文本块单独就超出预算时截断装入，保证至少有一段上下文
+                content = content.substring(0, Math.min(content.length(), budget * 4));
+                tokens = budget;
+            }
+            budget -= tokens;
+            sources.add(chunk);
+            String title = titles.computeIfAbsent(chunk.paperId(),
+                    id -> loadPaperPort.load(id).map(Paper::title).orElse("Untitled"));
+            context.append('[').append(sources.size()).append("] ").append(title)
+                    .append(", p. ").append(chunk.pageNumber()).append('\n')
+                    .append(content).append("\n\n");
+        }
+
+        String userPrompt = (sources.isEmpty() ? "Context: (no relevant passages found)\n\n" : "Context:\n\n" + context)
+                + "Question:\n" + text;
+        log.info("📋 [APP] Prepared answer: paper={}, {} of {} retrieved chunks in context (~{} tokens)",
+                paperId, sources.size(), retrieved.size(), maxContextTokens - budget);
+        return new PreparedAnswer(text, sources, userPrompt, null, scope, queryVector, cacheEpoch);
+    }
+
+    public ChatPort.StreamHandle stream(PreparedAnswer prepared, ChatPort.TokenListener listener) {
+        if (prepared.isCached()) {
+            listener.onToken(prepared.cached().answer());
+            listener.onComplete(new ChatPort.StreamStats(0, prepared.cached().tokens(), 0));
+            return () -> {
+            };
+        }
+        // 片段按顺序逐个回调，不需要同步
+        StringBuilder answer = new StringBuilder();
+        return chatPort.stream(SYSTEM_PROMPT, prepared.userPrompt(), new ChatPort.TokenListener() {
+            @Override
+            public void onToken(String text) {
+                answer.append(text);
+                listener.onToken(text);
+            }
+
+            @Override
+            public void onComplete(ChatPort.StreamStats stats) {
+                if (prepared.queryVector() != null && !answer.isEmpty()) {
+                    answerCachePort.put(prepared.scope(), prepared.queryVector(),
+                            new CachedAnswer(answer.toString(), prepared.sources(), stats.tokens()),
+                            prepared.cacheEpoch());
+                }
+                listener.onComplete(stats);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    /**
+     * 向量化失败时不阻断问答：跳过缓存，检索退回只用关键词
+     */
+    private float[] embedQuestion(String text) {
+        try {
+            return embeddingPort.embedQuery(text);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ [APP] Could not embed question, skipping answer cache", e);
+            return null;
+        }
+    }
+
+    /**
+     * 与 TextChunk#estimatedTokens 相同的粗略估算
+     */
+    private static int estimateTokens(String content) {
+        return Math.max(1, (content.length() + 3) / 4);
+    }
+}
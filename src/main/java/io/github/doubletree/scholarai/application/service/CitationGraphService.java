@@ -0,0 +1,55 @@
+package io.github.doubletree.scholarai.application.service;
+
+import io.github.doubletree.scholarai.domain.model.GraphNeighbor;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.port.out.CitationGraphPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 库内论文之间的引用关系查询，全部在内存引用图上完成；论文不存在时抛出 PaperNotFoundException
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CitationGraphService {
+    public static final int MAX_LIMIT = 500;
+    public static final int MAX_HOPS = 3;
+
+    private final LoadPaperPort loadPaperPort;
+    private final CitationGraphPort citationGraphPort;
+
+    public List<GraphNeighbor> citedBy(PaperId paperId, int limit) {
+        checkLimit(limit);
+        log.info("📋 [APP] Cited by: {}, limit={}", paperId, limit);
+        loadPaperPort.loadOrThrow(paperId);
+        return citationGraphPort.citedBy(paperId, limit);
+    }
+
+    public List<GraphNeighbor> coCited(PaperId paperId, int limit) {
+        checkLimit(limit);
+        log.info("📋 [APP] Co-cited with: {}, limit={}", paperId, limit);
+        loadPaperPort.loadOrThrow(paperId);
+        return citationGraphPort.coCited(paperId, limit);
+    }
+
+    public List<GraphNeighbor> neighborhood(PaperId paperId, int hops, CitationGraphPort.Direction direction, int limit) {
+        checkLimit(limit);
+        if (hops < 1 || hops > MAX_HOPS) {
+            throw new IllegalArgumentException("Hops must be between 1 and " + MAX_HOPS);
+        }
+        log.info("📋 [APP] Citation neighborhood: {}, hops={}, direction={}, limit={}", paperId, hops, direction, limit);
+        loadPaperPort.loadOrThrow(paperId);
+        return citationGraphPort.neighborhood(paperId, hops, direction, limit);
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
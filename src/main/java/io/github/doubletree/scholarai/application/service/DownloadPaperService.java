@@ -8,7 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 
 @Service
 @RequiredArgsConstructor
@@ -17,7 +17,13 @@ public class DownloadPaperService {
     private final LoadPaperPort loadPaperPort;
     private final StoragePort storagePort;
 
-    public InputStream downloadPaper(String paperIdStr) {
+    /**
+     * 下载所需的全部信息：本地文件、原始文件名、内容哈希（旧数据可能没有）
+     */
+    public record PaperDownload(StoragePort.StoredFile file, String originalFileName, String contentHash) {
+    }
+
+    public PaperDownload prepareDownload(String paperIdStr) {
         PaperId paperId = PaperId.fromString(paperIdStr);
         Paper paper = loadPaperPort.loadOrThrow(paperId);
 
@@ -26,17 +32,19 @@ public class DownloadPaperService {
             throw new IllegalStateException("Paper has no file associated");
         }
 
+        StoragePort.StoredFile file;
         try {
-            return storagePort.load(storedFileName);
+            file = storagePort.resolve(storedFileName);
+        } catch (NoSuchFileException e) {
+            log.error("File missing for paper {}: {}", paperId, storedFileName);
+            throw new IllegalStateException("Paper file is missing from storage", e);
         } catch (Exception e) {
             log.error("Failed to load file for paper {}", paperId, e);
             throw new RuntimeException("Could not read file storage", e);
         }
-    }
 
-    public String getOriginalFileName(String paperIdStr) {
-        PaperId paperId = PaperId.fromString(paperIdStr);
-        Paper paper = loadPaperPort.loadOrThrow(paperId);
-        return paper.metadata().additionalProperties().getOrDefault("originalFileName", "download.pdf");
+        String originalFileName = paper.metadata().additionalProperties().getOrDefault("originalFileName", "download.pdf");
+        return new PaperDownload(file, originalFileName,
+                paper.metadata().hasContentHash() ? paper.metadata().contentHash() : null);
     }
 }
@@ -1,19 +1,30 @@
 package io.github.doubletree.scholarai.application.service;
 
+import io.github.doubletree.scholarai.domain.model.Citation;
 import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperCursor;
 import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperPage;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
+import io.github.doubletree.scholarai.domain.model.PaperText;
+import io.github.doubletree.scholarai.domain.port.out.LoadCitationPort;
 import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LoadPaperService {
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final LoadPaperPort loadPaperPort;
+    private final LoadCitationPort loadCitationPort;
 
     public Paper load(PaperId paperId) {
         log.info("📋 [APP] Load paper: {}", paperId);
@@ -25,8 +36,50 @@ public class LoadPaperService {
         return loadPaperPort.loadByDoi(doi);
     }
 
+    /**
+     * 按需读取全文（尚未分析的论文没有全文）
+     *
+     * @param pageNumber 为 null 时返回整篇，否则返回该页（从 1 开始）
+     */
+    public Optional<String> loadText(PaperId paperId, Integer pageNumber) {
+        log.info("📋 [APP] Load full text: {}, page={}", paperId, pageNumber);
+        PaperText text = loadPaperPort.loadOrThrow(paperId).fullText().get();
+        if (text == null) {
+            return Optional.empty();
+        }
+        return Optional.of(pageNumber == null ? text.text() : text.page(pageNumber));
+    }
+
+    /**
+     * 分析时抽取的引用，按在文中出现的顺序；尚未分析的论文返回空列表
+     *
+     * @param type 为 null 时返回参考文献条目和正文引用标记
+     */
+    public List<Citation> loadCitations(PaperId paperId, Citation.CitationType type) {
+        log.info("📋 [APP] Load citations: {}, type={}", paperId, type);
+        loadPaperPort.loadOrThrow(paperId);
+        return loadCitationPort.loadCitations(paperId, type);
+    }
+
     public boolean exists(PaperId paperId) {
         log.debug("📋 [APP] Check exists: {}", paperId);
         return loadPaperPort.load(paperId).isPresent();
     }
+
+    /**
+     * 键集分页列出论文。多取一条用于判断是否还有下一页。
+     */
+    public PaperPage list(PaperMetadata.ProcessingStatus status, PaperCursor after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.debug("📋 [APP] List papers: status={}, after={}, limit={}", status, after, limit);
+
+        List<PaperSummary> rows = loadPaperPort.loadSummaries(status, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new PaperPage(rows, null);
+        }
+        List<PaperSummary> items = rows.subList(0, limit);
+        return new PaperPage(items, PaperCursor.after(items.get(limit - 1)));
+    }
 }
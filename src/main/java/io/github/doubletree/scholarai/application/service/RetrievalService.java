@@ -0,0 +1,224 @@
+package io.github.doubletree.scholarai.application.service;
+
+import io.github.doubletree.scholarai.domain.model.ChunkRef;
+import io.github.doubletree.scholarai.domain.model.LexicalMatch;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.LexicalSearchPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 混合检索：向量检索和 BM25 关键词检索并行执行，各取 candidates 条，再用倒数排名融合（RRF）合并。
+ * <p>
+ * RRF 只看名次不看分数，余弦相似度和 BM25 分数不需要归一化到同一尺度：
+ * {@code score = Σ 1 / (rrfK + rank)}。元数据过滤条件下推到两路检索内部。
+ * 一路检索失败时只用另一路的结果，两路都失败才报错。
+ */
+@Slf4j
+@Service
+public class RetrievalService {
+    public static final int MAX_LIMIT = 50;
+    public static final int MAX_QUERY_LENGTH = 1000;
+
+    private final EmbeddingPort embeddingPort;
+    private final VectorSearchPort vectorSearchPort;
+    private final LexicalSearchPort lexicalSearchPort;
+    private final LoadChunkPort loadChunkPort;
+    private final int defaultLimit;
+    private final double similarityThreshold;
+    private final int candidates;
+    private final int rrfK;
+
+    public RetrievalService(EmbeddingPort embeddingPort,
+                            VectorSearchPort vectorSearchPort,
+                            LexicalSearchPort lexicalSearchPort,
+                            LoadChunkPort loadChunkPort,
+                            @Value("${scholar-ai.rag.max-results:5}") int defaultLimit,
+                            @Value("${scholar-ai.rag.similarity-threshold:0.7}") double similarityThreshold,
+                            @Value("${scholar-ai.rag.candidates:50}") int candidates,
+                            @Value("${scholar-ai.rag.rrf-k:60}") int rrfK) {
+        if (defaultLimit < 1 || candidates < 1 || rrfK < 0) {
+            throw new IllegalArgumentException("Retrieval max-results and candidates must be positive, rrf-k non-negative");
+        }
+        this.embeddingPort = embeddingPort;
+        this.vectorSearchPort = vectorSearchPort;
+        this.lexicalSearchPort = lexicalSearchPort;
+        this.loadChunkPort = loadChunkPort;
+        this.defaultLimit = Math.min(defaultLimit, MAX_LIMIT);
+        this.similarityThreshold = similarityThreshold;
+        this.candidates = candidates;
+        this.rrfK = rrfK;
+    }
+
+    /**
+     * @param limit 为 null 时使用 scholar-ai.rag.max-results
+     */
+    public List<RetrievedChunk> retrieve(String query, Integer limit, SearchFilter filter) {
+        int resultLimit = checkRequest(query, limit);
+        return retrieve(query.strip(), null, resultLimit, filter);
+    }
+
+    /**
+     * 校验查询和条数，返回实际使用的条数
+     */
+    public int checkRequest(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int resultLimit = limit != null ? limit : defaultLimit;
+        if (resultLimit < 1 || resultLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return resultLimit;
+    }
+
+    /**
+     * 调用方已经校验过参数（{@link #checkRequest}）
+     *
+     * @param queryVector 已经算好的查询向量；为 null 时与关键词检索并行生成
+     */
+    public List<RetrievedChunk> retrieve(String text, float[] queryVector, int resultLimit, SearchFilter filter) {
+        SearchFilter effectiveFilter = filter != null ? filter : SearchFilter.NONE;
+        int perSide = Math.max(candidates, resultLimit);
+        log.info("📋 [APP] Retrieve chunks: query={}, limit={}, filter={}", text, resultLimit, effectiveFilter);
+
+        long start = System.nanoTime();
+        List<VectorMatch> vectorMatches;
+        List<LexicalMatch> lexicalMatches;
+        // executor 关闭时等待两个任务结束
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<VectorMatch>> vector = executor.submit(() -> vectorSearchPort.search(
+                    queryVector != null ? queryVector : embeddingPort.embedQuery(text),
+                    perSide, similarityThreshold, effectiveFilter));
+            Future<List<LexicalMatch>> lexical = executor.submit(() ->
+                    lexicalSearchPort.search(text, perSide, effectiveFilter));
+            vectorMatches = await(vector, "Vector");
+            lexicalMatches = await(lexical, "Lexical");
+        }
+        if (vectorMatches == null && lexicalMatches == null) {
+            throw new RetrievalException("Both vector and lexical retrieval failed");
+        }
+
+        List<Fused> fused = fuse(vectorMatches != null ? vectorMatches : List.of(),
+                lexicalMatches != null ? lexicalMatches : List.of());
+        List<RetrievedChunk> results = load(fused, resultLimit);
+        log.info("✅ [APP] Retrieved {} chunks ({} vector, {} lexical candidates) in {} ms",
+                results.size(),
+                vectorMatches != null ? vectorMatches.size() : 0,
+                lexicalMatches != null ? lexicalMatches.size() : 0,
+                (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    private List<Fused> fuse(List<VectorMatch> vectorMatches, List<LexicalMatch> lexicalMatches) {
+        Map<ChunkRef, Fused> byChunk = new HashMap<>();
+        for (int i = 0; i < vectorMatches.size(); i++) {
+            VectorMatch match = vectorMatches.get(i);
+            Fused entry = byChunk.computeIfAbsent(new ChunkRef(match.paperId(), match.chunkIndex()), Fused::new);
+            if (entry.vectorRank == 0) {
+                entry.vectorRank = i + 1;
+                entry.score += 1.0 / (rrfK + i + 1);
+            }
+        }
+        for (int i = 0; i < lexicalMatches.size(); i++) {
+            LexicalMatch match = lexicalMatches.get(i);
+            Fused entry = byChunk.computeIfAbsent(new ChunkRef(match.paperId(), match.chunkIndex()), Fused::new);
+            if (entry.lexicalRank == 0) {
+                entry.lexicalRank = i + 1;
+                entry.score += 1.0 / (rrfK + i + 1);
+            }
+        }
+        List<Fused> ranked = new ArrayList<>(byChunk.values());
+        // 同分时按较好的单路名次排序
+        ranked.sort(Comparator.comparingDouble((Fused entry) -> entry.score).reversed()
+                .thenComparingInt(Fused::bestRank));
+        return ranked;
+    }
+
+    /**
+     * 文本块可能在检索和加载之间被重新分析删除，缺失的跳过并用后面的候选补足
+     */
+    private List<RetrievedChunk> load(List<Fused> ranked, int limit) {
+        List<RetrievedChunk> results = new ArrayList<>(limit);
+        int from = 0;
+        while (results.size() < limit && from < ranked.size()) {
+            int to = Math.min(ranked.size(), from + (limit - results.size()));
+            List<ChunkRef> refs = ranked.subList(from, to).stream().map(entry -> entry.ref).toList();
+            Map<ChunkRef, TextChunk> chunks = loadChunkPort.loadChunks(refs);
+            for (Fused entry : ranked.subList(from, to)) {
+                TextChunk chunk = chunks.get(entry.ref);
+                if (chunk != null) {
+                    results.add(new RetrievedChunk(entry.ref.paperId(), entry.ref.chunkIndex(),
+                            chunk.metadata().pageNumber(), chunk.content(),
+                            entry.score, entry.vectorRank, entry.lexicalRank));
+                }
+            }
+            from = to;
+        }
+        return results;
+    }
+
+    private static <T> List<T> await(Future<List<T>> future, String side) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("⚠️ [APP] {} retrieval failed, continuing with the other side", side, e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetrievalException("Retrieval interrupted", e);
+        }
+    }
+
+    private static final class Fused {
+        final ChunkRef ref;
+        double score;
+        int vectorRank;
+        int lexicalRank;
+
+        Fused(ChunkRef ref) {
+            this.ref = ref;
+        }
+
+        int bestRank() {
+            int best = Integer.MAX_VALUE;
+            if (vectorRank > 0) {
+                best = vectorRank;
+            }
+            if (lexicalRank > 0) {
+                best = Math.min(best, lexicalRank);
+            }
+            return best;
+        }
+    }
+
+    public static class RetrievalException extends RuntimeException {
+        public RetrievalException(String message) {
+            super(message);
+        }
+
+        public RetrievalException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
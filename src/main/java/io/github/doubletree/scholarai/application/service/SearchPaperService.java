@@ -0,0 +1,47 @@
+package io.github.doubletree.scholarai.application.service;
+
+import io.github.doubletree.scholarai.domain.model.PaperSearchHit;
+import io.github.doubletree.scholarai.domain.model.PaperSearchPage;
+import io.github.doubletree.scholarai.domain.port.out.SearchPaperPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchPaperService {
+    public static final int MAX_PAGE_SIZE = 100;
+    // 相关度排序只能用 OFFSET 翻页，越往后越慢；再往后翻的结果也很少有意义
+    public static final int MAX_OFFSET = 1000;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchPaperPort searchPaperPort;
+
+    /**
+     * 多取一条用于判断是否还有下一页
+     */
+    public PaperSearchPage search(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Offset must be between 0 and " + MAX_OFFSET);
+        }
+        log.info("📋 [APP] Search papers: query={}, offset={}, limit={}", query, offset, limit);
+
+        List<PaperSearchHit> hits = searchPaperPort.search(query.strip(), offset, limit + 1);
+        if (hits.size() <= limit) {
+            return new PaperSearchPage(hits, offset, false);
+        }
+        return new PaperSearchPage(hits.subList(0, limit), offset, true);
+    }
+}
@@ -3,78 +3,277 @@ package io.github.doubletree.scholarai.application.service;
 import io.github.doubletree.scholarai.domain.model.Paper;
 import io.github.doubletree.scholarai.domain.model.PaperMetadata;
 import io.github.doubletree.scholarai.domain.port.in.UploadPaperUseCase;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
 import io.github.doubletree.scholarai.domain.port.out.SavePaperPort;
 import io.github.doubletree.scholarai.domain.port.out.StoragePort;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UploadPaperService implements UploadPaperUseCase {
 
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
     private final StoragePort storagePort;
     private final SavePaperPort savePaperPort;
+    private final LoadPaperPort loadPaperPort;
+    private final int bulkParallelism;
+    private final int bulkInsertChunk;
+    private final int bulkMaxFiles;
+
+    public UploadPaperService(StoragePort storagePort,
+                              SavePaperPort savePaperPort,
+                              LoadPaperPort loadPaperPort,
+                              @Value("${scholar-ai.bulk-upload.parallelism:16}") int bulkParallelism,
+                              @Value("${scholar-ai.bulk-upload.insert-chunk:500}") int bulkInsertChunk,
+                              @Value("${scholar-ai.bulk-upload.max-files:10000}") int bulkMaxFiles) {
+        if (bulkParallelism <= 0 || bulkInsertChunk <= 0 || bulkMaxFiles <= 0) {
+            throw new IllegalArgumentException("Bulk upload parallelism, insert chunk and max files must be positive");
+        }
+        this.storagePort = storagePort;
+        this.savePaperPort = savePaperPort;
+        this.loadPaperPort = loadPaperPort;
+        this.bulkParallelism = bulkParallelism;
+        this.bulkInsertChunk = bulkInsertChunk;
+        this.bulkMaxFiles = bulkMaxFiles;
+    }
 
+    /**
+     * 不包在事务里：文件可能来自慢速的流式请求体，写盘期间不应占用数据库连接
+     */
     @Override
-    @Transactional
-    public Paper upload(UploadPaperCommand command) {
+    public UploadResult upload(UploadPaperCommand command) {
         log.info("🚀 [Service] Starting upload: {}", command.fileName());
 
         try {
-            // 1. 保存物理文件
-            String storedFileName = storagePort.save(command.fileStream(), command.fileName());
+            // 1. 流式保存物理文件，同一遍写入中得到实际大小和内容哈希。
+            //    即使客户端声明的哈希已存在也必须读完文件流并校验：只凭哈希返回已有论文，
+            //    等于让知道哈希的人拿到并不持有的论文
+            StoragePort.StoredContent stored = storagePort.save(command.fileStream(), command.fileName());
+            // 存储按内容寻址，文件可能正被其他论文或并发上传共用，这里不删除；无人引用的文件由 OrphanFileSweeper 清理
+            if (command.sha256() != null && !command.sha256().equals(stored.sha256())) {
+                throw new DigestMismatchException(command.sha256(), stored.sha256());
+            }
+
+            // 内容与已有论文相同：不新建论文，也就不会重复分析
+            Optional<Paper> existing = loadPaperPort.loadByContentHash(stored.sha256());
+            if (existing.isPresent()) {
+                log.info("♻️ [Service] Duplicate upload of paper {}", existing.get().id());
+                return new UploadResult(existing.get(), true);
+            }
 
             // 2. 创建领域对象 (初始状态，尚未解析内容)
-            // 注意：因为还没有解析 PDF，我们暂时把 content 设为 null，authors 设为 "Unknown"
-            // 解析逻辑将在后续步骤通过事件或显式调用触发
-            Paper paper = Paper.create(
-                    removeExtension(command.fileName()), // 临时标题设为文件名
-                    List.of("Unknown"),                  // 临时作者
-                    null,                                // 摘要暂空
-                    null,                                // 全文暂空
-                    null,                                // 发布日期暂空
-                    null                                 // DOI 暂空
-            );
-
-            // 3. 更新元数据（关联存储的文件名）
-            PaperMetadata metadata = new PaperMetadata(
-                    command.sourceUrl(),
-                    storedFileName, // 存储的是 UUID 文件名，而非原始文件名
-                    command.fileSize(),
-                    "application/pdf",
-                    paper.metadata().uploadedAt(),
-                    null,
-                    PaperMetadata.ProcessingStatus.PENDING,
-                    Map.of("originalFileName", command.fileName()) // 记录原始文件名
-            );
-
-            Paper paperWithMetadata = new Paper(
-                    paper.id(),
-                    paper.title(),
-                    paper.authors(),
-                    paper.abstractText(),
-                    paper.fullText(),
-                    paper.publishedDate(),
-                    paper.doi(),
-                    metadata
-            );
-
-            // 4. 保存到数据库
-            return savePaperPort.save(paperWithMetadata);
+            Paper paperWithMetadata = newPaper(stored, command.fileName(), command.sourceUrl());
+
+            // 3. 保存到数据库；并发上传相同内容时由 content_hash 唯一索引裁决，后到者返回先入库的论文
+            try {
+                return new UploadResult(savePaperPort.insert(paperWithMetadata), false);
+            } catch (SavePaperPort.DuplicateContentException e) {
+                Paper winner = loadPaperPort.loadByContentHash(stored.sha256()).orElseThrow(() -> e);
+                log.info("♻️ [Service] Concurrent duplicate upload of paper {}", winner.id());
+                return new UploadResult(winner, true);
+            }
 
+        } catch (StoragePort.SizeLimitExceededException e) {
+            throw new FileTooLargeException(e.getMessage(), e);
         } catch (IOException e) {
             log.error("❌ Upload failed", e);
             throw new RuntimeException("Failed to store file", e);
         }
     }
 
+    /**
+     * 三个阶段：
+     * 1. 每个文件一个虚拟线程写入存储（并发数受限，避免同时打开过多文件句柄），同时得到内容哈希；
+     * 2. 一次查询找出已存在的内容，批内重复的内容只保留第一篇；
+     * 3. 新论文按块调用 {@link SavePaperPort#saveAll}，每块一个事务；某块失败只影响该块。
+     *    块内有内容已被并发上传抢先入库时（唯一索引冲突），把这些条目标为重复，其余条目重试。
+     * 写入存储的文件不在这里删除，无人引用的文件由 OrphanFileSweeper 离线清理。
+     */
+    @Override
+    public BulkUploadResult uploadAll(List<BulkUploadItem> items) {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("No files to upload");
+        }
+        if (items.size() > bulkMaxFiles) {
+            throw new IllegalArgumentException("Too many files in one batch: " + items.size() + " > " + bulkMaxFiles);
+        }
+        log.info("🚀 [Service] Starting bulk upload: {} files", items.size());
+        long start = System.nanoTime();
+        int count = items.size();
+        BulkItemResult[] results = new BulkItemResult[count];
+        StoragePort.StoredContent[] stored = new StoragePort.StoredContent[count];
+
+        // 1. 并行写入存储；executor 关闭时等待全部任务结束，之后读取数组是安全的
+        Semaphore permits = new Semaphore(bulkParallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                BulkUploadItem item = items.get(i);
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        stored[index] = storagePort.save(item.source().open(), item.fileName());
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("⚠️ [Service] Bulk upload could not store {}: {}", item.fileName(), e.getMessage());
+                        results[index] = failed(item, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        // 2. 按内容哈希去重：先对照库中已有论文，再对照本批中更早的文件
+        Map<String, Paper> existing = loadPaperPort.loadByContentHashes(
+                Arrays.stream(stored).filter(content -> content != null).map(StoragePort.StoredContent::sha256).toList());
+        Map<String, Integer> firstInBatch = new HashMap<>();
+        int[] duplicateOf = new int[count];
+        Arrays.fill(duplicateOf, -1);
+        List<Integer> pending = new ArrayList<>();
+        List<Paper> papers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StoragePort.StoredContent content = stored[i];
+            if (content == null) {
+                continue;
+            }
+            String fileName = items.get(i).fileName();
+            Paper known = existing.get(content.sha256());
+            if (known != null) {
+                results[i] = new BulkItemResult(fileName, BulkItemStatus.DUPLICATE, known, null);
+                continue;
+            }
+            Integer first = firstInBatch.putIfAbsent(content.sha256(), i);
+            if (first != null) {
+                duplicateOf[i] = first;
+                continue;
+            }
+            pending.add(i);
+            papers.add(newPaper(content, fileName, null));
+        }
+
+        // 3. 分块批量入库
+        for (int from = 0; from < papers.size(); from += bulkInsertChunk) {
+            int to = Math.min(papers.size(), from + bulkInsertChunk);
+            insertChunk(items, results, new ArrayList<>(pending.subList(from, to)), new ArrayList<>(papers.subList(from, to)));
+        }
+
+        // 批内重复的文件跟随第一次出现的结果：入库成功算重复，失败则同样失败
+        for (int i = 0; i < count; i++) {
+            if (duplicateOf[i] >= 0) {
+                BulkItemResult first = results[duplicateOf[i]];
+                results[i] = first.status() == BulkItemStatus.CREATED
+                        ? new BulkItemResult(items.get(i).fileName(), BulkItemStatus.DUPLICATE, first.paper(), null)
+                        : new BulkItemResult(items.get(i).fileName(), BulkItemStatus.FAILED, null, first.error());
+            }
+        }
+
+        BulkUploadResult result = new BulkUploadResult(List.of(results), (System.nanoTime() - start) / 1_000_000);
+        log.info("✅ [Service] Bulk upload finished in {} ms: {} created, {} duplicates, {} failed",
+                result.elapsedMillis(), result.count(BulkItemStatus.CREATED),
+                result.count(BulkItemStatus.DUPLICATE), result.count(BulkItemStatus.FAILED));
+        return result;
+    }
+
+    /**
+     * 插入一块新论文。唯一索引冲突说明块内某些内容在第 2 步查询之后被并发上传抢先入库：
+     * 重新按哈希查询，已入库的标为重复，剩下的重试；每轮至少移出一条，重试次数有上限
+     */
+    private void insertChunk(List<BulkUploadItem> items, BulkItemResult[] results, List<Integer> indexes, List<Paper> papers) {
+        for (int attempt = 1; !papers.isEmpty(); attempt++) {
+            try {
+                List<Paper> saved = savePaperPort.saveAll(papers);
+                for (int j = 0; j < indexes.size(); j++) {
+                    int index = indexes.get(j);
+                    results[index] = new BulkItemResult(items.get(index).fileName(), BulkItemStatus.CREATED, saved.get(j), null);
+                }
+                return;
+            } catch (SavePaperPort.DuplicateContentException e) {
+                Map<String, Paper> winners = loadPaperPort.loadByContentHashes(
+                        papers.stream().map(paper -> paper.metadata().contentHash()).toList());
+                if (winners.isEmpty() || attempt >= MAX_CONFLICT_RETRIES) {
+                    failAll(items, results, indexes, e);
+                    return;
+                }
+                log.info("♻️ [Service] {} papers in bulk chunk were uploaded concurrently, retrying the rest", winners.size());
+                for (int j = indexes.size() - 1; j >= 0; j--) {
+                    Paper winner = winners.get(papers.get(j).metadata().contentHash());
+                    if (winner != null) {
+                        int index = indexes.remove(j);
+                        papers.remove(j);
+                        results[index] = new BulkItemResult(items.get(index).fileName(), BulkItemStatus.DUPLICATE, winner, null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failAll(items, results, indexes, e);
+                return;
+            }
+        }
+    }
+
+    private static void failAll(List<BulkUploadItem> items, BulkItemResult[] results, List<Integer> indexes, RuntimeException e) {
+        log.error("❌ [Service] Bulk insert of {} papers failed", indexes.size(), e);
+        for (int index : indexes) {
+            results[index] = failed(items.get(index), e);
+        }
+    }
+
+    /**
+     * 新上传的论文：尚未解析内容，标题暂用文件名，作者暂为 "Unknown"，解析在后续分析流水线中完成
+     */
+    private Paper newPaper(StoragePort.StoredContent stored, String fileName, String sourceUrl) {
+        Paper paper = Paper.create(
+                removeExtension(fileName), // 临时标题设为文件名
+                List.of("Unknown"),        // 临时作者
+                null,                      // 摘要暂空
+                null,                      // 全文暂空
+                null,                      // 发布日期暂空
+                null                       // DOI 暂空
+        );
+
+        // 关联存储的文件名
+        PaperMetadata metadata = new PaperMetadata(
+                sourceUrl,
+                stored.storedFileName(), // 存储的是按内容寻址的文件名，而非原始文件名
+                stored.size(),
+                "application/pdf",
+                stored.sha256(),
+                paper.metadata().uploadedAt(),
+                null,
+                PaperMetadata.ProcessingStatus.PENDING,
+                Map.of("originalFileName", fileName) // 记录原始文件名
+        );
+
+        return new Paper(
+                paper.id(),
+                paper.title(),
+                paper.authors(),
+                paper.abstractText(),
+                paper.fullText(),
+                paper.publishedDate(),
+                paper.doi(),
+                metadata
+        );
+    }
+
+    private static BulkItemResult failed(BulkUploadItem item, Exception e) {
+        String reason = e instanceof StoragePort.SizeLimitExceededException ? "File too large: " + e.getMessage() : e.getMessage();
+        return new BulkItemResult(item.fileName(), BulkItemStatus.FAILED, null, reason);
+    }
+
     private String removeExtension(String fileName) {
         if (fileName != null && fileName.lastIndexOf(".") > 0) {
             return fileName.substring(0, fileName.lastIndexOf("."));
@@ -0,0 +1,18 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 已生成的完整回答及其引用的文本块，用于语义缓存命中时直接返回
+ */
+public record CachedAnswer(
+        String answer,
+        List<RetrievedChunk> sources,
+        long tokens
+) {
+    public CachedAnswer {
+        Objects.requireNonNull(answer, "Answer cannot be null");
+        sources = sources == null ? List.of() : List.copyOf(sources);
+    }
+}
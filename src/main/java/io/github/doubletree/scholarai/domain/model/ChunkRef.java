@@ -0,0 +1,18 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Objects;
+
+/**
+ * 论文中某个文本块的引用
+ */
+public record ChunkRef(
+        PaperId paperId,
+        int chunkIndex
+) {
+    public ChunkRef {
+        Objects.requireNonNull(paperId, "Paper ID cannot be null");
+        if (chunkIndex < 0) {
+            throw new IllegalArgumentException("Chunk index cannot be negative");
+        }
+    }
+}
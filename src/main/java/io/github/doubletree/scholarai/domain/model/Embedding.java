@@ -1,15 +1,24 @@
 package io.github.doubletree.scholarai.domain.model;
 
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
-public record Embedding(
-        float[] vector,
-        int dimensions,
-        String model,
-        int chunkIndex
-) {
-    public Embedding {
+/**
+ * 文本块向量。模由向量在构造时以 double 精度算出并缓存，不作为构造参数传入，
+ * 因此不会与向量不一致；相似度计算不再重复求模。
+ */
+public final class Embedding {
+
+    private final float[] vector;
+    private final int dimensions;
+    private final String model;
+    private final int chunkIndex;
+    private final double magnitude;
+
+    public Embedding(float[] vector, int dimensions, String model, int chunkIndex) {
         Objects.requireNonNull(vector, "Vector cannot be null");
         Objects.requireNonNull(model, "Model cannot be null");
         
@@ -27,27 +36,50 @@ public record Embedding(
         if (chunkIndex < 0) {
             throw new IllegalArgumentException("Chunk index cannot be negative");
         }
-        
-        vector = Arrays.copyOf(vector, vector.length);
+
+        this.vector = Arrays.copyOf(vector, vector.length);
+        this.dimensions = dimensions;
+        this.model = model;
+        this.chunkIndex = chunkIndex;
+        this.magnitude = magnitudeOf(this.vector);
     }
 
-    public double magnitude() {
+    private static double magnitudeOf(float[] vector) {
         double sum = 0.0;
         for (float value : vector) {
-            sum += value * value;
+            sum += (double) value * value;
         }
         return Math.sqrt(sum);
     }
 
+    public float[] vector() {
+        return vector;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public int chunkIndex() {
+        return chunkIndex;
+    }
+
+    public double magnitude() {
+        return magnitude;
+    }
+
     public Embedding normalize() {
-        double mag = magnitude();
-        if (mag == 0.0) {
+        if (magnitude == 0.0) {
             return this;
         }
         
         float[] normalized = new float[vector.length];
         for (int i = 0; i < vector.length; i++) {
-            normalized[i] = (float) (vector[i] / mag);
+            normalized[i] = (float) (vector[i] / magnitude);
         }
         
         return new Embedding(normalized, dimensions, model, chunkIndex);
@@ -62,12 +94,26 @@ public record Embedding(
             );
         }
         
-        double dotProduct = 0.0;
-        for (int i = 0; i < vector.length; i++) {
-            dotProduct += vector[i] * other.vector[i];
+        return VectorMath.dot(vector, other.vector) / (magnitude * other.magnitude);
+    }
+
+    /**
+     * 批量余弦相似度：本向量对 others 逐一打分，结果顺序与 others 一致
+     */
+    public double[] cosineSimilarities(List<Embedding> others) {
+        Objects.requireNonNull(others, "Others cannot be null");
+
+        double[] scores = new double[others.size()];
+        for (int i = 0; i < scores.length; i++) {
+            Embedding other = others.get(i);
+            if (this.dimensions != other.dimensions) {
+                throw new IllegalArgumentException(
+                    "Cannot calculate similarity between embeddings of different dimensions"
+                );
+            }
+            scores[i] = VectorMath.dot(vector, other.vector) / (magnitude * other.magnitude);
         }
-        
-        return dotProduct / (this.magnitude() * other.magnitude());
+        return scores;
     }
 
     public float[] getVectorCopy() {
@@ -95,6 +141,6 @@ public record Embedding(
     @Override
     public String toString() {
         return String.format("Embedding[dimensions=%d, model=%s, chunkIndex=%d, magnitude=%.4f]",
-            dimensions, model, chunkIndex, magnitude());
+            dimensions, model, chunkIndex, magnitude);
     }
 }
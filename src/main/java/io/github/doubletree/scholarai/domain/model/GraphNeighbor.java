@@ -0,0 +1,12 @@
+package io.github.doubletree.scholarai.domain.model;
+
+/**
+ * 引用图查询结果中的一篇论文。
+ *
+ * @param title  论文标题，引用图尚未加载到该论文的元数据时为 null
+ * @param hops   与起点论文的距离（直接引用/被引为 1）
+ * @param weight 排序依据：施引论文自身的被引次数（cited-by）、共被引次数（co-cited），
+ *               或与上一层相连的边数（k 跳邻域）
+ */
+public record GraphNeighbor(PaperId paperId, String title, int hops, int weight) {
+}
@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Objects;
+
+/**
+ * 关键词（BM25）检索命中的文本块，score 只在同一次查询内可比较
+ */
+public record LexicalMatch(
+        PaperId paperId,
+        int chunkIndex,
+        double score
+) {
+    public LexicalMatch {
+        Objects.requireNonNull(paperId, "Paper ID cannot be null");
+        if (chunkIndex < 0) {
+            throw new IllegalArgumentException("Chunk index cannot be negative");
+        }
+    }
+}
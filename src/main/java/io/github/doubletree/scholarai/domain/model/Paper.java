@@ -3,18 +3,24 @@ package io.github.doubletree.scholarai.domain.model;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
-
+/**
+ * 论文聚合根。全文不随元数据加载，{@code fullText} 是按需加载的 supplier，
+ * 没有全文时返回 null。
+ */
 public record Paper(
         PaperId id,
         String title,
         List<String> authors,
         String abstractText,
-        String fullText,
+        Supplier<PaperText> fullText,
         LocalDateTime publishedDate,
         String doi,
         PaperMetadata metadata
 ) {
+    private static final Supplier<PaperText> NO_TEXT = () -> null;
+
     public Paper {
         Objects.requireNonNull(id, "Paper ID cannot be null");
         Objects.requireNonNull(title, "Title cannot be null");
@@ -25,14 +31,19 @@ public record Paper(
         
         authors = List.copyOf(authors);
         if (metadata == null) metadata = PaperMetadata.createDefault();
+        if (fullText == null) fullText = NO_TEXT;
     }
 
     public boolean hasDoi() {
         return doi != null && !doi.isBlank();
     }
 
+    /**
+     * 注意：会触发全文加载
+     */
     public boolean hasFullText() {
-        return fullText != null && !fullText.isBlank();
+        PaperText text = fullText.get();
+        return text != null && !text.isBlank();
     }
 
     public boolean isPublishedAfter(LocalDateTime date) {
@@ -61,16 +72,24 @@ public record Paper(
     }
 
     public void validateEssentialContent() {
-        if (!hasFullText() && (abstractText == null || abstractText.isBlank())) {
+        if ((abstractText == null || abstractText.isBlank()) && !hasFullText()) {
             throw new IllegalStateException("Paper must have either full text or an abstract");
         }
     }
 
+    public Paper withMetadata(PaperMetadata newMetadata) {
+        return new Paper(id, title, authors, abstractText, fullText, publishedDate, doi, newMetadata);
+    }
+
+    public Paper withFullText(Supplier<PaperText> newFullText) {
+        return new Paper(id, title, authors, abstractText, newFullText, publishedDate, doi, metadata);
+    }
+
     public static Paper create(
             String title,
             List<String> authors,
             String abstractText,
-            String fullText,
+            PaperText fullText,
             LocalDateTime publishedDate,
             String doi
     ) {
@@ -79,7 +98,7 @@ public record Paper(
             title,
             authors,
             abstractText,
-            fullText,
+            fullText != null ? () -> fullText : NO_TEXT,
             publishedDate,
             doi,
             PaperMetadata.createDefault()
@@ -53,7 +53,10 @@ public record PaperAnalysis(
             long processingTimeMs,
             int totalTokens,
             double avgChunkSize,
-            int uniqueCitations
+            int uniqueCitations,
+            int chunkCount,
+            int pageCount,
+            StageTimings stageTimings
     ) {
         public AnalysisMetrics {
             if (processingTimeMs < 0) {
@@ -68,6 +71,36 @@ public record PaperAnalysis(
             if (uniqueCitations < 0) {
                 throw new IllegalArgumentException("Unique citations cannot be negative");
             }
+            if (chunkCount < 0 || pageCount < 0) {
+                throw new IllegalArgumentException("Chunk and page counts cannot be negative");
+            }
+            if (stageTimings == null) {
+                stageTimings = StageTimings.empty();
+            }
+        }
+    }
+
+    /**
+     * 各流水线阶段的实际处理耗时（不含排队等待时间）
+     */
+    public record StageTimings(
+            long parseTimeMs,
+            long chunkTimeMs,
+            long embeddingTimeMs,
+            long persistTimeMs
+    ) {
+        public StageTimings {
+            if (parseTimeMs < 0 || chunkTimeMs < 0 || embeddingTimeMs < 0 || persistTimeMs < 0) {
+                throw new IllegalArgumentException("Stage timings cannot be negative");
+            }
+        }
+
+        public static StageTimings empty() {
+            return new StageTimings(0L, 0L, 0L, 0L);
+        }
+
+        public long totalWorkTimeMs() {
+            return parseTimeMs + chunkTimeMs + embeddingTimeMs + persistTimeMs;
         }
     }
 }
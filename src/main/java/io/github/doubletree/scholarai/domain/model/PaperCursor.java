@@ -0,0 +1,22 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 论文列表的键集分页游标：上一页最后一条的 (uploadedAt, id)。
+ * 列表按二者倒序排列，下一页从严格小于该键的位置开始。
+ */
+public record PaperCursor(
+        LocalDateTime uploadedAt,
+        PaperId id
+) {
+    public PaperCursor {
+        Objects.requireNonNull(uploadedAt, "Upload time cannot be null");
+        Objects.requireNonNull(id, "Paper ID cannot be null");
+    }
+
+    public static PaperCursor after(PaperSummary summary) {
+        return new PaperCursor(summary.uploadedAt(), summary.id());
+    }
+}
@@ -9,6 +9,7 @@ public record PaperMetadata(
         String fileName,
         long fileSize,
         String fileType,
+        String contentHash,
         LocalDateTime uploadedAt,
         LocalDateTime processedAt,
         ProcessingStatus status,
@@ -34,6 +35,7 @@ public record PaperMetadata(
             null,
             0L,
             "application/pdf",
+            null,
             LocalDateTime.now(),
             null,
             ProcessingStatus.PENDING,
@@ -47,6 +49,7 @@ public record PaperMetadata(
             fileName,
             fileSize,
             fileType,
+            contentHash,
             uploadedAt,
             LocalDateTime.now(),
             newStatus,
@@ -54,6 +57,10 @@ public record PaperMetadata(
         );
     }
 
+    public boolean hasContentHash() {
+        return contentHash != null && !contentHash.isBlank();
+    }
+
     public boolean isProcessed() {
         return status == ProcessingStatus.COMPLETED;
     }
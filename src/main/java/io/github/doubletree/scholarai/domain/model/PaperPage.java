@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.List;
+
+/**
+ * 一页论文列表；nextCursor 为 null 表示没有更多数据
+ */
+public record PaperPage(
+        List<PaperSummary> items,
+        PaperCursor nextCursor
+) {
+    public PaperPage {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
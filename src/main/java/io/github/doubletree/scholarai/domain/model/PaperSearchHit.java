@@ -0,0 +1,15 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Objects;
+
+/**
+ * 关键词搜索命中的一篇论文：轻量视图加相关度分数（越大越相关）
+ */
+public record PaperSearchHit(
+        PaperSummary paper,
+        double score
+) {
+    public PaperSearchHit {
+        Objects.requireNonNull(paper, "Paper cannot be null");
+    }
+}
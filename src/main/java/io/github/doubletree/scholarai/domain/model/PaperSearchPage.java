@@ -0,0 +1,16 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.List;
+
+/**
+ * 一页搜索结果，按相关度排序；hasMore 为 true 时下一页从 offset + items.size() 开始
+ */
+public record PaperSearchPage(
+        List<PaperSearchHit> items,
+        int offset,
+        boolean hasMore
+) {
+    public PaperSearchPage {
+        items = List.copyOf(items);
+    }
+}
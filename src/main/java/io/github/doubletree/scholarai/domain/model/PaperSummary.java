@@ -0,0 +1,27 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 列表页使用的论文轻量视图，不含摘要和全文
+ */
+public record PaperSummary(
+        PaperId id,
+        String title,
+        List<String> authors,
+        String doi,
+        LocalDateTime publishedDate,
+        LocalDateTime uploadedAt,
+        LocalDateTime processedAt,
+        PaperMetadata.ProcessingStatus status,
+        String fileName,
+        long fileSize
+) {
+    public PaperSummary {
+        Objects.requireNonNull(id, "Paper ID cannot be null");
+        Objects.requireNonNull(uploadedAt, "Upload time cannot be null");
+        authors = authors != null ? List.copyOf(authors) : List.of();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 论文全文及每页的起始字符偏移。
+ * <p>
+ * 全文单独存储、按需加载，{@link Paper} 只持有一个 {@link Supplier}，读取元数据时不会把全文带出数据库。
+ *
+ * @param text        各页文本按顺序直接拼接
+ * @param pageOffsets 第 i 页（从 1 开始）起始于 {@code pageOffsets[i - 1]}，单调不减
+ */
+public record PaperText(String text, int[] pageOffsets) {
+
+    public PaperText {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(pageOffsets, "Page offsets cannot be null");
+        int previous = 0;
+        for (int offset : pageOffsets) {
+            if (offset < previous || offset > text.length()) {
+                throw new IllegalArgumentException("Page offsets must be ascending and within the text");
+            }
+            previous = offset;
+        }
+        pageOffsets = pageOffsets.clone();
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int pageCount() {
+        return pageOffsets.length;
+    }
+
+    public boolean isBlank() {
+        return text.isBlank();
+    }
+
+    /**
+     * @param pageNumber 页码，从 1 开始
+     */
+    public String page(int pageNumber) {
+        if (pageNumber < 1 || pageNumber > pageOffsets.length) {
+            throw new IllegalArgumentException(
+                    "Page " + pageNumber + " out of range [1, " + pageOffsets.length + "]");
+        }
+        int end = pageNumber < pageOffsets.length ? pageOffsets[pageNumber] : text.length();
+        return text.substring(pageOffsets[pageNumber - 1], end);
+    }
+
+    @Override
+    public int[] pageOffsets() {
+        return pageOffsets.clone();
+    }
+
+    /**
+     * 包装一个加载函数：首次调用 get() 时才加载，结果（包括 null）只加载一次
+     */
+    public static Supplier<PaperText> lazy(Supplier<PaperText> loader) {
+        Objects.requireNonNull(loader, "Loader cannot be null");
+        return new Supplier<>() {
+            private volatile boolean loaded;
+            private PaperText value;
+
+            @Override
+            public PaperText get() {
+                if (!loaded) {
+                    synchronized (this) {
+                        if (!loaded) {
+                            value = loader.get();
+                            loaded = true;
+                        }
+                    }
+                }
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PaperText other)) return false;
+        return text.equals(other.text) && Arrays.equals(pageOffsets, other.pageOffsets);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * text.hashCode() + Arrays.hashCode(pageOffsets);
+    }
+
+    @Override
+    public String toString() {
+        return "PaperText[length=" + text.length() + ", pages=" + pageOffsets.length + "]";
+    }
+}
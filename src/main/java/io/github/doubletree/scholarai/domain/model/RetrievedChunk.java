@@ -0,0 +1,25 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Objects;
+
+/**
+ * 混合检索命中的文本块。score 是倒数排名融合（RRF）分数；vectorRank / lexicalRank 是该块在向量检索和
+ * 关键词检索结果中的名次（从 1 开始），未被对应检索命中时为 0。
+ */
+public record RetrievedChunk(
+        PaperId paperId,
+        int chunkIndex,
+        int pageNumber,
+        String content,
+        double score,
+        int vectorRank,
+        int lexicalRank
+) {
+    public RetrievedChunk {
+        Objects.requireNonNull(paperId, "Paper ID cannot be null");
+        Objects.requireNonNull(content, "Content cannot be null");
+        if (chunkIndex < 0) {
+            throw new IllegalArgumentException("Chunk index cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.List;
+
+/**
+ * 检索时按论文元数据过滤：指定论文、作者（任一匹配，忽略大小写和多余空白）、出版年份区间（含两端，按 publishedDate 计算）、
+ * 是否有 DOI。字段为 null 表示不限制。
+ */
+public record SearchFilter(
+        PaperId paperId,
+        List<String> authors,
+        Integer yearFrom,
+        Integer yearTo,
+        Boolean hasDoi
+) {
+    public static final SearchFilter NONE = new SearchFilter(null, null, null, null, null);
+
+    public SearchFilter {
+        if (authors != null) {
+            authors = authors.stream().filter(author -> author != null && !author.isBlank()).toList();
+            if (authors.isEmpty()) {
+                authors = null;
+            }
+        }
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new IllegalArgumentException("yearFrom must not be after yearTo");
+        }
+    }
+
+    public SearchFilter(List<String> authors, Integer yearFrom, Integer yearTo, Boolean hasDoi) {
+        this(null, authors, yearFrom, yearTo, hasDoi);
+    }
+
+    /**
+     * 在当前条件之外限定为单篇论文
+     */
+    public SearchFilter withPaper(PaperId paper) {
+        return new SearchFilter(paper, authors, yearFrom, yearTo, hasDoi);
+    }
+
+    public boolean isEmpty() {
+        return paperId == null && authors == null && yearFrom == null && yearTo == null && hasDoi == null;
+    }
+}
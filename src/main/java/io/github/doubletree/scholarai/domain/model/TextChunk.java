@@ -34,6 +34,13 @@ public record TextChunk(
         return content.length();
     }
 
+    /**
+     * 粗略估算 token 数（英文文本约 4 字符 / token）
+     */
+    public int estimatedTokens() {
+        return Math.max(1, (content.length() + 3) / 4);
+    }
+
     public boolean containsPosition(int position) {
         return position >= startPosition && position < endPosition;
     }
@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.domain.model;
+
+import java.util.Objects;
+
+/**
+ * 向量检索命中的文本块
+ */
+public record VectorMatch(
+        PaperId paperId,
+        int chunkIndex,
+        double similarity
+) {
+    public VectorMatch {
+        Objects.requireNonNull(paperId, "Paper ID cannot be null");
+        if (chunkIndex < 0) {
+            throw new IllegalArgumentException("Chunk index cannot be negative");
+        }
+    }
+}
@@ -3,8 +3,14 @@ package io.github.doubletree.scholarai.domain.port.in;
 import io.github.doubletree.scholarai.domain.model.PaperAnalysis;
 import io.github.doubletree.scholarai.domain.model.PaperId;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AnalyzePaperUseCase {
-    PaperAnalysis analyze(PaperId paperId);
+    /**
+     * 提交论文分析任务，立即返回；分析在后台流水线中异步完成。
+     * 文本块与向量按批次直接写入存储，不在内存中汇总，因此结果只包含统计指标。
+     */
+    CompletableFuture<PaperAnalysis.AnalysisMetrics> analyze(PaperId paperId);
 
     class PaperNotFoundException extends RuntimeException {
         public PaperNotFoundException(PaperId paperId) {
@@ -12,9 +18,24 @@ public interface AnalyzePaperUseCase {
         }
     }
 
+    /**
+     * 论文没有关联的 PDF 文件（只录入了元数据），无法分析
+     */
+    class PaperHasNoFileException extends RuntimeException {
+        public PaperHasNoFileException(PaperId paperId) {
+            super("Paper has no file associated: " + paperId);
+        }
+    }
+
     class AnalysisFailedException extends RuntimeException {
         public AnalysisFailedException(String message, Throwable cause) {
             super(message, cause);
         }
     }
+
+    class AnalysisRejectedException extends RuntimeException {
+        public AnalysisRejectedException(String message) {
+            super(message);
+        }
+    }
 }
@@ -1,17 +1,44 @@
 package io.github.doubletree.scholarai.domain.port.in;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import io.github.doubletree.scholarai.domain.model.Paper;
 
 public interface UploadPaperUseCase {
-    Paper upload(UploadPaperCommand command);
+    /**
+     * 内容（SHA-256）与已有论文相同时不再保存文件，直接返回已有论文
+     */
+    UploadResult upload(UploadPaperCommand command);
 
+    /**
+     * 批量导入：文件并行写入存储，新论文分批一次性入库。单个文件失败不影响其他文件，
+     * 结果按参数顺序逐个列出
+     */
+    BulkUploadResult uploadAll(List<BulkUploadItem> items);
+
+    /**
+     * @param duplicate true 表示内容与已有论文相同，返回的是已有论文
+     */
+    record UploadResult(Paper paper, boolean duplicate) {
+    }
+
+    /**
+     * @param fileSize 声明的大小，流式上传且不知道长度时为 {@link #UNKNOWN_SIZE}；以实际写入的字节数为准
+     * @param sha256   客户端声明的 SHA-256（十六进制，可为 null），与实际内容不一致时拒绝上传；
+     *                 只用于校验，已有相同内容的论文时仍然读取并校验整个文件流
+     */
     record UploadPaperCommand(
             InputStream fileStream,
             String fileName,
             long fileSize,
-            String sourceUrl
+            String sourceUrl,
+            String sha256
     ) {
+        public static final long UNKNOWN_SIZE = -1;
+
         public UploadPaperCommand {
             if (fileStream == null) {
                 throw new IllegalArgumentException("File stream cannot be null");
@@ -19,9 +46,55 @@ public interface UploadPaperUseCase {
             if (fileName == null || fileName.isBlank()) {
                 throw new IllegalArgumentException("File name cannot be blank");
             }
-            if (fileSize <= 0) {
+            if (fileSize == 0 || fileSize < UNKNOWN_SIZE) {
                 throw new IllegalArgumentException("File size must be positive");
             }
+            if (sha256 != null) {
+                sha256 = sha256.trim().toLowerCase(Locale.ROOT);
+                if (sha256.length() != 64 || !sha256.chars().allMatch(HexFormat::isHexDigit)) {
+                    throw new IllegalArgumentException("SHA-256 must be 64 hex characters");
+                }
+            }
+        }
+
+        public UploadPaperCommand(InputStream fileStream, String fileName, long fileSize, String sourceUrl) {
+            this(fileStream, fileName, fileSize, sourceUrl, null);
+        }
+    }
+
+    /**
+     * 批量导入的内容来源，在写入存储的线程中才打开，每次调用返回新的流
+     */
+    @FunctionalInterface
+    interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    record BulkUploadItem(String fileName, ContentSource source) {
+        public BulkUploadItem {
+            if (fileName == null || fileName.isBlank()) {
+                throw new IllegalArgumentException("File name cannot be blank");
+            }
+            if (source == null) {
+                throw new IllegalArgumentException("Content source cannot be null");
+            }
+        }
+    }
+
+    enum BulkItemStatus {
+        CREATED, DUPLICATE, FAILED
+    }
+
+    /**
+     * @param paper 新建或已有的论文，失败时为 null
+     * @param error 失败原因，成功时为 null
+     */
+    record BulkItemResult(String fileName, BulkItemStatus status, Paper paper, String error) {
+    }
+
+    record BulkUploadResult(List<BulkItemResult> items, long elapsedMillis) {
+        public long count(BulkItemStatus status) {
+            return items.stream().filter(item -> item.status() == status).count();
         }
     }
 
@@ -30,4 +103,16 @@ public interface UploadPaperUseCase {
             super(message, cause);
         }
     }
+
+    class DigestMismatchException extends RuntimeException {
+        public DigestMismatchException(String expected, String actual) {
+            super("Content SHA-256 mismatch: expected " + expected + " but received " + actual);
+        }
+    }
+
+    class FileTooLargeException extends RuntimeException {
+        public FileTooLargeException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
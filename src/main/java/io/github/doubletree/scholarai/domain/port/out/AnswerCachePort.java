@@ -0,0 +1,36 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+
+import java.util.Optional;
+
+public interface AnswerCachePort {
+    /**
+     * 在同一范围内查找问题向量足够相近的已缓存回答
+     */
+    Optional<CachedAnswer> find(Scope scope, float[] queryVector);
+
+    /**
+     * 缓存生成完成的回答。epoch 是生成开始前 {@link #epoch()} 的值；期间回答限定的论文或引用的论文
+     * 被失效过时不写入，避免把基于旧分析结果的回答放回缓存。其他论文的失效不影响写入。
+     */
+    void put(Scope scope, float[] queryVector, CachedAnswer answer, long epoch);
+
+    /**
+     * 论文被重新分析（或分析失败）后，丢弃限定在该论文上或引用了该论文的回答
+     */
+    void invalidate(PaperId paperId);
+
+    /**
+     * 失效序号，每次 {@link #invalidate} 递增
+     */
+    long epoch();
+
+    /**
+     * 回答的适用范围：过滤条件（含限定的论文）和检索条数都相同才可能复用
+     */
+    record Scope(SearchFilter filter, int limit) {
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+public interface ChatPort {
+    /**
+     * 流式生成回答，文本片段到达后立即回调；回调在模型客户端的线程上执行。
+     * onComplete 和 onError 只会调用其中一个，取消后都不再调用。
+     *
+     * @return 用于取消生成（例如客户端已断开）
+     */
+    StreamHandle stream(String systemPrompt, String userPrompt, TokenListener listener);
+
+    interface TokenListener {
+        void onToken(String text);
+
+        void onComplete(StreamStats stats);
+
+        void onError(Throwable error);
+    }
+
+    @FunctionalInterface
+    interface StreamHandle {
+        void cancel();
+    }
+
+    /**
+     * @param firstTokenMillis 从发出请求到收到第一个非空片段的时间（TTFT），没有输出时为 -1
+     * @param tokens 模型报告的生成 token 数；模型未报告时按收到的片段数计
+     * @param durationMillis 从发出请求到流结束的总时间
+     */
+    record StreamStats(long firstTokenMillis, long tokens, long durationMillis) {
+        /**
+         * 生成阶段的速度：从第一个片段到流结束
+         */
+        public double tokensPerSecond() {
+            long generationMillis = firstTokenMillis < 0 ? 0 : durationMillis - firstTokenMillis;
+            return generationMillis <= 0 ? 0.0 : tokens * 1000.0 / generationMillis;
+        }
+    }
+
+    class ChatException extends RuntimeException {
+        public ChatException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
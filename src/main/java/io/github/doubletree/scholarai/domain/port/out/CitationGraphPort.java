@@ -0,0 +1,41 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.GraphNeighbor;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+
+import java.util.List;
+
+/**
+ * 库内论文之间的引用图：参考文献条目按 DOI 或规范化标题对应到库内论文后成为一条边。
+ * 不在库内的文献不出现在图中。
+ */
+public interface CitationGraphPort {
+    /**
+     * 整体替换一篇论文的出边（重新分析后调用；传空列表即清除）
+     */
+    void updateReferences(PaperId citingPaper, List<Citation> references);
+
+    /**
+     * 引用了该论文的库内论文，按施引论文自身的被引次数降序
+     */
+    List<GraphNeighbor> citedBy(PaperId paperId, int limit);
+
+    /**
+     * 与该论文同时出现在同一篇论文参考文献中的论文，按共被引次数降序
+     */
+    List<GraphNeighbor> coCited(PaperId paperId, int limit);
+
+    /**
+     * 沿指定方向走至多 hops 步能到达的论文，近的在前，同一层按与上一层相连的边数降序
+     */
+    List<GraphNeighbor> neighborhood(PaperId paperId, int hops, Direction direction, int limit);
+
+    enum Direction {
+        /** 沿引用方向（该论文引用的论文） */
+        CITES,
+        /** 沿被引方向（引用该论文的论文） */
+        CITED_BY,
+        BOTH
+    }
+}
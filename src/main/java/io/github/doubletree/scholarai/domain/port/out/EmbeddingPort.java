@@ -0,0 +1,29 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.List;
+
+public interface EmbeddingPort {
+    /**
+     * 为文本块生成向量，返回顺序与输入一致，chunkIndex 与对应文本块相同
+     */
+    List<Embedding> embed(List<TextChunk> chunks);
+
+    /**
+     * 为检索查询生成向量，与文本块共用同一模型和缓存
+     */
+    default float[] embedQuery(String query) {
+        TextChunk chunk = new TextChunk(query, 0, query.length(), 0, new TextChunk.ChunkMetadata(null, 0, 0));
+        return embed(List.of(chunk)).get(0).vector();
+    }
+
+    String modelName();
+
+    class EmbeddingException extends RuntimeException {
+        public EmbeddingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
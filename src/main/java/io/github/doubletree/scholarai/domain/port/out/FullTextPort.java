@@ -0,0 +1,33 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperText;
+
+import java.util.Optional;
+
+/**
+ * 论文全文存储，与论文元数据分开保存，只在需要时读取
+ */
+public interface FullTextPort {
+    /**
+     * 打开一个流式写入器，按页顺序追加文本，commit 后整体替换该论文之前的全文。
+     * 未 commit 就 close 则丢弃已写入的内容。
+     */
+    TextWriter openWriter(PaperId paperId);
+
+    Optional<PaperText> load(PaperId paperId);
+
+    void delete(PaperId paperId);
+
+    interface TextWriter extends AutoCloseable {
+        /**
+         * @param pageText 该页文本，调用返回后不再被引用
+         */
+        void appendPage(CharSequence pageText);
+
+        void commit();
+
+        @Override
+        void close();
+    }
+}
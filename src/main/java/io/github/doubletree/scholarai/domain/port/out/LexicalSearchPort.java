@@ -0,0 +1,34 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.LexicalMatch;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.List;
+
+public interface LexicalSearchPort {
+    /**
+     * 按关键词对文本块做 BM25 top-k 检索
+     *
+     * @return 按分数降序排列的命中
+     */
+    default List<LexicalMatch> search(String query, int topK) {
+        return search(query, topK, SearchFilter.NONE);
+    }
+
+    /**
+     * 带元数据过滤的 top-k 检索，过滤条件在检索过程中生效
+     */
+    List<LexicalMatch> search(String query, int topK, SearchFilter filter);
+
+    /**
+     * 新文本块已落库后通知索引
+     */
+    void index(PaperId paperId, List<TextChunk> chunks);
+
+    /**
+     * 论文的旧分析结果被删除（重新分析前）后通知索引
+     */
+    void remove(PaperId paperId);
+}
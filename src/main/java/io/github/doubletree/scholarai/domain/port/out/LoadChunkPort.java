@@ -0,0 +1,40 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.ChunkRef;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface LoadChunkPort {
+    /**
+     * 流式遍历所有已保存的向量（用于启动时重建内存索引），不会一次性载入内存
+     */
+    void forEachEmbedding(EmbeddingVisitor visitor);
+
+    /**
+     * 流式遍历所有已保存文本块的内容（用于启动时重建关键词索引），不会一次性载入内存
+     */
+    void forEachChunkText(ChunkTextVisitor visitor);
+
+    /**
+     * 批量取回全精度向量，不存在或没有向量的文本块不出现在结果中
+     */
+    Map<ChunkRef, float[]> loadVectors(Collection<ChunkRef> refs);
+
+    /**
+     * 批量取回文本块内容（不含向量），不存在的文本块不出现在结果中
+     */
+    Map<ChunkRef, TextChunk> loadChunks(Collection<ChunkRef> refs);
+
+    @FunctionalInterface
+    interface EmbeddingVisitor {
+        void visit(PaperId paperId, int chunkIndex, float[] vector);
+    }
+
+    @FunctionalInterface
+    interface ChunkTextVisitor {
+        void visit(PaperId paperId, int chunkIndex, String content);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LoadCitationPort {
+    /**
+     * 按保存时的顺序返回论文的引用
+     *
+     * @param type 只返回该类型；为 null 时返回全部
+     */
+    List<Citation> loadCitations(PaperId paperId, Citation.CitationType type);
+
+    /**
+     * 流式遍历所有参考文献条目（用于启动时构建引用图），同一篇论文的条目连续出现，不会一次性载入内存
+     */
+    void forEachReference(ReferenceVisitor visitor);
+
+    /**
+     * 参考文献中 DOI 匹配键在 doiKeys 中、或标题匹配键在 titleKeys 中的条目
+     * （键见 {@link io.github.doubletree.scholarai.domain.service.CitationKeys}），一次查询完成；两个集合都为空时返回空列表
+     */
+    List<CitingReference> findCitingPapers(Collection<String> doiKeys, Collection<String> titleKeys);
+
+    /**
+     * 命中的参考文献条目：施引论文和条目的两个匹配键（可能为 null）
+     */
+    record CitingReference(PaperId citingPaper, String doiKey, String titleKey) {
+    }
+
+    @FunctionalInterface
+    interface ReferenceVisitor {
+        void visit(PaperId paperId, String doi, String title);
+    }
+}
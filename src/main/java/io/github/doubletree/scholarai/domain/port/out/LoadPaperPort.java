@@ -1,18 +1,69 @@
 package io.github.doubletree.scholarai.domain.port.out;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperCursor;
 import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
 
 public interface LoadPaperPort {
     Optional<Paper> load(PaperId paperId);
     
     Optional<Paper> loadByDoi(String doi);
 
+    /**
+     * 按文件内容的 SHA-256 查找，多篇时返回最早上传的一篇
+     */
+    Optional<Paper> loadByContentHash(String sha256);
+
+    /**
+     * {@link #loadByContentHash} 的批量版本，一次查询；没有对应论文的哈希不出现在结果中
+     */
+    Map<String, Paper> loadByContentHashes(Collection<String> sha256s);
+
+    /**
+     * 按 (uploadedAt, id) 倒序的键集分页，只读取列表所需的列（不含摘要和全文）
+     *
+     * @param status 为 null 时不过滤状态
+     * @param after  为 null 时从第一页开始
+     */
+    List<PaperSummary> loadSummaries(PaperMetadata.ProcessingStatus status, PaperCursor after, int limit);
+
+    /**
+     * 流式遍历所有论文的过滤属性（用于启动时构建检索过滤索引），不会一次性载入内存
+     */
+    void forEachFilterAttributes(FilterAttributesVisitor visitor);
+
+    /**
+     * 流式遍历所有论文的标题和 DOI（用于启动时构建引用图），不会一次性载入内存
+     */
+    void forEachIdentity(IdentityVisitor visitor);
+
+    /**
+     * 给定的存储文件名中仍被论文引用的那些（用于清理无主文件）
+     */
+    Set<String> findReferencedFileNames(Collection<String> storedFileNames);
+
     default Paper loadOrThrow(PaperId paperId) {
         return load(paperId).orElseThrow(() -> new PaperNotFoundException(paperId));
     }
 
+    @FunctionalInterface
+    interface FilterAttributesVisitor {
+        void visit(PaperId paperId, List<String> authors, LocalDateTime publishedDate, String doi);
+    }
+
+    @FunctionalInterface
+    interface IdentityVisitor {
+        void visit(PaperId paperId, String title, String doi);
+    }
+
     class PaperNotFoundException extends RuntimeException {
         public PaperNotFoundException(PaperId paperId) {
             super("Paper not found: " + paperId);
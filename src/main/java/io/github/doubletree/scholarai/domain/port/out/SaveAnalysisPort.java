@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.List;
+
+public interface SaveAnalysisPort {
+    /**
+     * 删除论文之前的分析结果（重新分析前调用）
+     */
+    void deleteChunks(PaperId paperId);
+
+    /**
+     * 追加保存一批文本块及其向量，embeddings 通过 chunkIndex 与 chunks 对应
+     */
+    void saveChunks(PaperId paperId, List<TextChunk> chunks, List<Embedding> embeddings);
+}
@@ -0,0 +1,15 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+
+import java.util.List;
+
+public interface SaveCitationPort {
+    /**
+     * 整体替换论文的引用（参考文献条目和正文引用标记），按列表顺序编号
+     */
+    void saveCitations(PaperId paperId, List<Citation> citations);
+
+    void deleteCitations(PaperId paperId);
+}
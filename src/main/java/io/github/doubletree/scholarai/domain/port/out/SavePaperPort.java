@@ -3,8 +3,29 @@ package io.github.doubletree.scholarai.domain.port.out;
 import io.github.doubletree.scholarai.domain.model.Paper;
 import io.github.doubletree.scholarai.domain.model.PaperId;
 
+import java.util.List;
+
 public interface SavePaperPort {
+    /**
+     * 保存已有论文（不存在时插入），适配器需要先按 id 判断是否存在
+     */
     Paper save(Paper paper);
+
+    /**
+     * 保存新建的论文，不检查是否存在；id 已存在时保存失败
+     *
+     * @throws DuplicateContentException 已有论文使用相同的内容哈希（并发上传了相同文件）
+     */
+    Paper insert(Paper paper);
+
+    /**
+     * 在一个事务中批量保存，新论文用 JDBC 批量插入；任意一篇失败时整批回滚
+     *
+     * @throws DuplicateContentException 其中某篇的内容哈希已被其他论文使用，整批回滚
+     *
+     * @return 与参数顺序一致的已保存论文
+     */
+    List<Paper> saveAll(List<Paper> papers);
     
     boolean exists(PaperId paperId);
     
@@ -15,4 +36,13 @@ public interface SavePaperPort {
             super(message, cause);
         }
     }
+
+    /**
+     * 违反内容哈希的唯一约束：相同内容的论文已经存在
+     */
+    class DuplicateContentException extends PersistenceException {
+        public DuplicateContentException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.PaperSearchHit;
+
+import java.util.List;
+
+public interface SearchPaperPort {
+    /**
+     * 按标题、作者和摘要做关键词搜索（标题支持拼写不完全一致的模糊匹配），按相关度倒序
+     *
+     * @return 从 offset 开始最多 limit 条
+     */
+    List<PaperSearchHit> search(String query, int offset, int limit);
+}
@@ -2,15 +2,20 @@ package io.github.doubletree.scholarai.domain.port.out;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 
 public interface StoragePort {
     /**
-     * 保存文件
-     * @param inputStream 文件流
-     * @param fileName 文件名
-     * @return 存储后的唯一标识或路径
+     * 流式保存文件：写入过程中同时计算大小和 SHA-256，写完后原子地提交，失败时不留下半截文件。
+     * 存储按内容寻址，相同内容只保留一份；文件可能被多篇论文（或并发的上传）共用，调用方不能在请求中删除它，
+     * 没有论文引用的文件由后台清理（{@link #deleteIfUnmodifiedSince}）
+     * @param inputStream 文件流（由本方法关闭）
+     * @param fileName 原始文件名（只用于取扩展名）
+     * @return 存储后的唯一文件名、实际大小和内容哈希
+     * @throws SizeLimitExceededException 超过允许的最大文件大小
      */
-    String save(InputStream inputStream, String fileName) throws IOException;
+    StoredContent save(InputStream inputStream, String fileName) throws IOException;
 
     /**
      * 读取文件
@@ -18,4 +23,44 @@ public interface StoragePort {
      * @return 文件输入流
      */
     InputStream load(String storedFileName) throws IOException;
+
+    /**
+     * 解析为本地文件，供 Web 层按字节范围零拷贝发送
+     * @param storedFileName 存储的文件名
+     * @throws java.nio.file.NoSuchFileException 文件不存在
+     */
+    StoredFile resolve(String storedFileName) throws IOException;
+
+    /**
+     * 遍历存储中的全部文件（不含上传中的临时文件）
+     */
+    void forEachStoredFile(StoredFileVisitor visitor) throws IOException;
+
+    /**
+     * 文件的最后修改时间早于 cutoff 时删除。存储按内容寻址，{@link #save} 遇到已有内容时会刷新修改时间，
+     * 两者互斥执行，因此刚被上传复用的文件不会被删除。文件不存在时返回 false
+     *
+     * @return 是否删除了文件
+     */
+    boolean deleteIfUnmodifiedSince(String storedFileName, Instant cutoff) throws IOException;
+
+    /**
+     * @param sha256 内容的 SHA-256，小写十六进制
+     */
+    record StoredContent(String storedFileName, long size, String sha256) {
+    }
+
+    record StoredFile(String storedFileName, Path path, long size, Instant lastModified) {
+    }
+
+    @FunctionalInterface
+    interface StoredFileVisitor {
+        void visit(StoredFile file) throws IOException;
+    }
+
+    class SizeLimitExceededException extends IOException {
+        public SizeLimitExceededException(long maxBytes) {
+            super("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
 }
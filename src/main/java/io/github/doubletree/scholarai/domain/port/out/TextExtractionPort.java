@@ -0,0 +1,26 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+public interface TextExtractionPort {
+    /**
+     * 逐页提取文本，每页提取完成后立即回调，不在内存中拼接全文
+     * @param storedFileName 存储的文件名
+     * @param consumer 页面回调，pageText 只在回调期间有效
+     * @return 总页数
+     */
+    int extractPages(String storedFileName, PageConsumer consumer) throws InterruptedException;
+
+    @FunctionalInterface
+    interface PageConsumer {
+        /**
+         * @param pageNumber 页码，从 1 开始
+         * @param pageText 该页文本（可能被复用的缓冲区，需要保留时必须自行复制）
+         */
+        void accept(int pageNumber, CharSequence pageText) throws InterruptedException;
+    }
+
+    class TextExtractionException extends RuntimeException {
+        public TextExtractionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.doubletree.scholarai.domain.port.out;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+
+import java.util.List;
+
+public interface VectorSearchPort {
+    /**
+     * 余弦相似度 top-k 检索
+     * @param query 查询向量（无需归一化）
+     * @param topK 最多返回条数
+     * @param minSimilarity 相似度下限，低于该值的结果被丢弃
+     * @return 按相似度降序排列的命中
+     */
+    default List<VectorMatch> search(float[] query, int topK, double minSimilarity) {
+        return search(query, topK, minSimilarity, SearchFilter.NONE);
+    }
+
+    /**
+     * 带元数据过滤的 top-k 检索。过滤条件在检索过程中生效（只有满足条件的文本块进入结果），
+     * 而不是先取 top-k 再过滤，因此过滤后的结果数不会因此变少。
+     */
+    List<VectorMatch> search(float[] query, int topK, double minSimilarity, SearchFilter filter);
+
+    /**
+     * 新向量已落库后通知索引。直接基于 paper_chunk 表检索的实现无需处理。
+     */
+    default void index(PaperId paperId, List<Embedding> embeddings) {
+    }
+
+    /**
+     * 论文的旧分析结果被删除（重新分析前）后通知索引
+     */
+    default void remove(PaperId paperId) {
+    }
+}
@@ -0,0 +1,463 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.PaperText;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从论文文本中抽取参考文献列表和正文引用标记。
+ * <p>
+ * 与 {@link TextChunker} 一样通过 {@link Session} 逐页喂入：正文逐行扫过时只检查短行是否是
+ * "References"/"Bibliography" 之类的标题，不保留正文；只有参考文献区内的行会被缓存（最多
+ * {@value #MAX_SECTION_LINES} 行），因此内存占用与文档总长度无关。正文引用标记由
+ * {@link InTextMarkerScanner} 在同一次喂入中单遍识别，落在参考文献区内的标记在结束时剔除。
+ * <p>
+ * 参考文献区按首个条目的样式切分条目：
+ * <ul>
+ *     <li>{@code [12] ...}：以方括号编号开头的行开始新条目</li>
+ *     <li>{@code 12. ...}：只有编号恰好是下一个序号时才开始新条目，避免把卷号、页码误认作编号</li>
+ *     <li>作者-年份：空行，或上一条已出现年份并以句点结尾、当前行以 "Surname," 开头时开始新条目</li>
+ * </ul>
+ * 行尾连字符断开的单词会重新拼接。每个条目由 {@link ReferenceParser} 解析；既没有年份也没有 DOI 的条目
+ * 多半是页眉、图注等噪声，直接丢弃。
+ */
+public class CitationExtractor {
+
+    static final int MAX_SECTION_LINES = 20_000;
+    private static final int MAX_HEADING_LENGTH = 40;
+    private static final int MAX_ENTRY_LENGTH = 2_000;
+
+    // 规范化后的标题：小写、去掉空白和冒号
+    private static final String[] REFERENCE_HEADINGS = {
+            "references", "reference", "bibliography", "workscited", "literaturecited", "referencelist",
+            "citedliterature", "referencesandnotes", "bibliographyandreferences", "参考文献"
+    };
+    private static final String[] SECTION_END_PREFIXES = {
+            "appendix", "appendices", "supplementa", "acknowledg", "附录", "致谢"
+    };
+
+    private final int maxReferences;
+    private final int maxInTextMarkers;
+
+    public CitationExtractor(int maxReferences, int maxInTextMarkers) {
+        if (maxReferences <= 0 || maxInTextMarkers < 0) {
+            throw new IllegalArgumentException("Citation limits must be positive");
+        }
+        this.maxReferences = maxReferences;
+        this.maxInTextMarkers = maxInTextMarkers;
+    }
+
+    public Result extract(PaperText text) {
+        Session session = newSession();
+        for (int page = 1; page <= text.pageCount(); page++) {
+            session.appendPage(text.page(page), page);
+        }
+        return session.finish();
+    }
+
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * @param references    参考文献列表中的条目（{@link Citation.CitationType#REFERENCE_LIST}），按出现顺序
+     * @param inTextMarkers 正文中的引用标记（{@link Citation.CitationType#IN_TEXT}），按出现顺序
+     */
+    public record Result(List<Citation> references, List<Citation> inTextMarkers) {
+        public Result {
+            references = List.copyOf(references);
+            inTextMarkers = List.copyOf(inTextMarkers);
+        }
+    }
+
+    private enum EntryStyle {BRACKET, NUMBERED, AUTHOR_YEAR}
+
+    private record Line(String text, int pageNumber) {
+    }
+
+    /**
+     * 增量抽取会话，非线程安全，一篇文档对应一个会话
+     */
+    public final class Session {
+
+        private final InTextMarkerScanner scanner = new InTextMarkerScanner(maxInTextMarkers);
+        private final List<Citation> references = new ArrayList<>();
+        // 参考文献区在全文中的字符区间，成对存放 [start, end)
+        private final List<int[]> sectionRanges = new ArrayList<>();
+
+        // 跨页的半行；页内的行直接在页文本上按下标处理，不复制
+        private final StringBuilder carry = new StringBuilder(256);
+        // 短行规范化后的文本，复用以免为正文中的每个短行分配字符串
+        private final StringBuilder heading = new StringBuilder(MAX_HEADING_LENGTH);
+        private int carryStart;
+        private int carryPage;
+        private int offset;
+
+        private List<Line> section;
+        private int sectionStart;
+        private boolean finished;
+
+        private Session() {
+        }
+
+        public void appendPage(CharSequence text, int pageNumber) {
+            if (finished) {
+                throw new IllegalStateException("Session already finished");
+            }
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            scanner.feed(text, pageNumber);
+            int n = text.length();
+            int from = 0;
+            for (int i = 0; i < n; i++) {
+                if (text.charAt(i) != '\n') {
+                    continue;
+                }
+                if (carry.isEmpty()) {
+                    endLine(text, from, i, offset + from, pageNumber);
+                } else {
+                    carry.append(text, from, i);
+                    endLine(carry, 0, carry.length(), carryStart, carryPage);
+                    carry.setLength(0);
+                }
+                from = i + 1;
+            }
+            if (from < n) {
+                if (carry.isEmpty()) {
+                    carryStart = offset + from;
+                    carryPage = pageNumber;
+                }
+                carry.append(text, from, n);
+            }
+            offset += n;
+        }
+
+        public Result finish() {
+            if (!finished) {
+                finished = true;
+                if (!carry.isEmpty()) {
+                    endLine(carry, 0, carry.length(), carryStart, carryPage);
+                    carry.setLength(0);
+                }
+                closeSection(offset);
+            }
+            List<Citation> markers = scanner.markers(this::insideSection);
+            return new Result(references, markers);
+        }
+
+        /**
+         * 处理 text[from, to) 这一行，lineStart 是它在全文中的偏移
+         */
+        private void endLine(CharSequence text, int from, int to, int lineStart, int pageNumber) {
+            while (from < to && Character.isWhitespace(text.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+                to--;
+            }
+            if (to > from && to - from <= MAX_HEADING_LENGTH) {
+                normalizeHeading(text, from, to, heading);
+                if (isReferencesHeading(heading)) {
+                    closeSection(lineStart);
+                    section = new ArrayList<>();
+                    sectionStart = lineStart;
+                    return;
+                }
+                if (section != null && isSectionEnd(heading)) {
+                    closeSection(lineStart);
+                    return;
+                }
+            }
+            if (section != null) {
+                if (section.size() < MAX_SECTION_LINES) {
+                    section.add(new Line(text.subSequence(from, to).toString(), pageNumber));
+                } else {
+                    closeSection(lineStart);
+                }
+            }
+        }
+
+        private void closeSection(int end) {
+            if (section == null) {
+                return;
+            }
+            List<Line> lines = section;
+            section = null;
+            int before = references.size();
+            splitEntries(lines);
+            // 目录里的 "References" 之类误判出的区间解析不出条目，其中的引用标记照常保留
+            if (references.size() > before) {
+                sectionRanges.add(new int[]{sectionStart, end});
+            }
+        }
+
+        private boolean insideSection(int markerOffset) {
+            for (int[] range : sectionRanges) {
+                if (markerOffset >= range[0] && markerOffset < range[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void splitEntries(List<Line> lines) {
+            EntryStyle style = null;
+            int nextNumber = -1;
+            StringBuilder entry = new StringBuilder();
+            int entryPage = 0;
+
+            for (Line l : lines) {
+                String text = l.text();
+                if (text.isEmpty()) {
+                    if (style == EntryStyle.AUTHOR_YEAR) {
+                        addEntry(entry, entryPage, style);
+                    }
+                    continue;
+                }
+                if (isDigits(text)) {
+                    // 页码
+                    continue;
+                }
+                if (style == null) {
+                    style = detectStyle(text);
+                    if (style == EntryStyle.NUMBERED) {
+                        nextNumber = leadingNumber(text);
+                    }
+                }
+                boolean starts = switch (style) {
+                    case BRACKET -> leadingBracketNumber(text) > 0;
+                    case NUMBERED -> leadingNumber(text) == nextNumber;
+                    case AUTHOR_YEAR -> entry.isEmpty() || (endsEntry(entry) && startsWithSurname(text));
+                };
+                if (starts) {
+                    addEntry(entry, entryPage, style);
+                    entryPage = l.pageNumber();
+                    if (style == EntryStyle.NUMBERED) {
+                        nextNumber++;
+                    }
+                }
+                if (entryPage == 0) {
+                    entryPage = l.pageNumber();
+                }
+                appendLine(entry, text);
+            }
+            addEntry(entry, entryPage, style);
+        }
+
+        private void addEntry(StringBuilder entry, int pageNumber, EntryStyle style) {
+            if (entry.isEmpty()) {
+                return;
+            }
+            String raw = entry.length() > MAX_ENTRY_LENGTH ? entry.substring(0, MAX_ENTRY_LENGTH) : entry.toString();
+            entry.setLength(0);
+            if (references.size() >= maxReferences) {
+                return;
+            }
+            Citation citation = ReferenceParser.parse(raw, stripNumbering(raw, style), pageNumber);
+            if (citation.year() != null || citation.hasDoi()) {
+                references.add(citation);
+            }
+        }
+    }
+
+    private static EntryStyle detectStyle(String text) {
+        if (leadingBracketNumber(text) > 0) {
+            return EntryStyle.BRACKET;
+        }
+        if (leadingNumber(text) > 0) {
+            return EntryStyle.NUMBERED;
+        }
+        return EntryStyle.AUTHOR_YEAR;
+    }
+
+    /**
+     * 行尾连字符断词且下一行以小写开头时去掉连字符直接拼接，否则以空格连接
+     */
+    private static void appendLine(StringBuilder entry, String text) {
+        if (entry.isEmpty()) {
+            entry.append(text);
+            return;
+        }
+        int last = entry.length() - 1;
+        if (entry.charAt(last) == '-' && last > 0 && Character.isLetter(entry.charAt(last - 1))
+                && Character.isLowerCase(text.charAt(0))) {
+            entry.setLength(last);
+        } else {
+            entry.append(' ');
+        }
+        entry.append(text);
+    }
+
+    /**
+     * "[12]" 中的编号；不是方括号编号开头时返回 -1
+     */
+    static int leadingBracketNumber(String text) {
+        if (text.isEmpty() || text.charAt(0) != '[') {
+            return -1;
+        }
+        int number = 0;
+        int i = 1;
+        while (i < text.length() && i <= 5 && Character.isDigit(text.charAt(i))) {
+            number = number * 10 + (text.charAt(i) - '0');
+            i++;
+        }
+        return i > 1 && i < text.length() && text.charAt(i) == ']' ? number : -1;
+    }
+
+    /**
+     * "12." / "12)" / "12 " 中的编号；不是编号开头时返回 -1
+     */
+    static int leadingNumber(String text) {
+        int number = 0;
+        int i = 0;
+        while (i < text.length() && i < 4 && Character.isDigit(text.charAt(i))) {
+            number = number * 10 + (text.charAt(i) - '0');
+            i++;
+        }
+        if (i == 0 || i >= text.length()) {
+            return -1;
+        }
+        char next = text.charAt(i);
+        return next == '.' || next == ')' || next == ' ' ? number : -1;
+    }
+
+    private static String stripNumbering(String raw, EntryStyle style) {
+        int i = 0;
+        if (style == EntryStyle.BRACKET) {
+            i = raw.indexOf(']') + 1;
+        } else if (style == EntryStyle.NUMBERED) {
+            while (i < raw.length() && Character.isDigit(raw.charAt(i))) {
+                i++;
+            }
+            if (i < raw.length() && (raw.charAt(i) == '.' || raw.charAt(i) == ')')) {
+                i++;
+            }
+        }
+        return raw.substring(i).strip();
+    }
+
+    /**
+     * 当前条目已经出现年份或 DOI，且以句点、DOI 或 URL 结尾
+     */
+    private static boolean endsEntry(StringBuilder entry) {
+        int end = entry.length();
+        while (end > 0 && Character.isWhitespace(entry.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return false;
+        }
+        int tokenStart = end;
+        while (tokenStart > 0 && !Character.isWhitespace(entry.charAt(tokenStart - 1))) {
+            tokenStart--;
+        }
+        boolean terminal = entry.charAt(end - 1) == '.'
+                || entry.indexOf("http", tokenStart) == tokenStart
+                || entry.indexOf("doi", tokenStart) == tokenStart
+                || entry.indexOf("10.", tokenStart) == tokenStart;
+        return terminal && containsYear(entry);
+    }
+
+    private static boolean containsYear(CharSequence text) {
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                run++;
+            } else {
+                if (run == 4 && isYearPrefix(text, i - 4)) {
+                    return true;
+                }
+                run = 0;
+            }
+        }
+        return run == 4 && isYearPrefix(text, text.length() - 4);
+    }
+
+    private static boolean isYearPrefix(CharSequence text, int i) {
+        return (text.charAt(i) == '1' && text.charAt(i + 1) == '9') || (text.charAt(i) == '2' && text.charAt(i + 1) == '0');
+    }
+
+    /**
+     * "Smith, J." / "O'Neil, K." / "García-López, M." 这样以大写姓氏加逗号开头
+     */
+    private static boolean startsWithSurname(String text) {
+        if (!Character.isUpperCase(text.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < Math.min(text.length(), 30); i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                return i >= 2;
+            }
+            if (!Character.isLetter(c) && c != '-' && c != '\'' && c != '’' && c != ' ') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 把 text[from, to) 规范化写入 normalized：去掉 "7."、"VII." 之类的章节编号和冒号，转小写并去掉所有空白
+     * （兼容 "R EFERENCES" 这种小型大写字母的抽取结果）
+     */
+    private static void normalizeHeading(CharSequence text, int from, int to, StringBuilder normalized) {
+        int start = from;
+        int numbering = start;
+        while (numbering < to && (Character.isDigit(text.charAt(numbering))
+                || "IVXivx".indexOf(text.charAt(numbering)) >= 0)) {
+            numbering++;
+        }
+        if (numbering > start && numbering < to && (text.charAt(numbering) == '.' || text.charAt(numbering) == ' ')) {
+            start = numbering + 1;
+        }
+        normalized.setLength(0);
+        for (int i = start; i < to; i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c) && c != ':') {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+    }
+
+    private static boolean isReferencesHeading(CharSequence heading) {
+        for (String candidate : REFERENCE_HEADINGS) {
+            if (candidate.contentEquals(heading)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSectionEnd(CharSequence heading) {
+        for (String prefix : SECTION_END_PREFIXES) {
+            if (startsWith(heading, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(CharSequence text, String prefix) {
+        if (text.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
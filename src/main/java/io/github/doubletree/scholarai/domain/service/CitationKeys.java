@@ -0,0 +1,53 @@
+package io.github.doubletree.scholarai.domain.service;
+
+/**
+ * 把论文和参考文献条目对到一起用的匹配键。
+ * <p>
+ * DOI 大小写不敏感，去掉 "doi:"、"https://doi.org/" 之类的前缀和结尾标点；标题只保留小写字母和数字，
+ * 抹平大小写、标点、连字符和断行造成的差异。规范化后过短的标题（"Introduction"、"Deep learning"）
+ * 太容易撞车，不作为匹配键。
+ */
+public final class CitationKeys {
+
+    static final int MIN_TITLE_KEY_LENGTH = 16;
+
+    private CitationKeys() {
+    }
+
+    /**
+     * @return 规范化后的 DOI；不是 DOI 时返回 null
+     */
+    public static String doiKey(String doi) {
+        if (doi == null) {
+            return null;
+        }
+        String lower = doi.strip().toLowerCase();
+        int start = lower.indexOf("10.");
+        if (start < 0) {
+            return null;
+        }
+        int end = lower.length();
+        while (end > start && ".,;)]".indexOf(lower.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int slash = lower.indexOf('/', start);
+        return slash < 0 || slash >= end - 1 ? null : lower.substring(start, end);
+    }
+
+    /**
+     * @return 只含小写字母和数字的标题；为空或过短时返回 null
+     */
+    public static String titleKey(String title) {
+        if (title == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.length() < MIN_TITLE_KEY_LENGTH ? null : key.toString();
+    }
+}
@@ -0,0 +1,353 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * 正文引用标记的单遍扫描器：每个字符只经过一次状态转移，不回溯，可以跨页增量喂入。
+ * <p>
+ * 识别三种形式：
+ * <ul>
+ *     <li>编号：{@code [12]}、{@code [3, 5-7]}、{@code [1; 4]}</li>
+ *     <li>括号内作者-年份：{@code (Smith, 2020)}、{@code (Smith et al., 2020a; Lee and Park 2019)}</li>
+ *     <li>叙述式：{@code Smith et al. (2020)}——括号里只有年份时，从括号前最近 {@value #HISTORY} 个字符里取作者</li>
+ * </ul>
+ * 候选标记中途遇到不符合的字符就放弃；该字符如果是 {@code [} 或 {@code (}，直接作为新候选的开头，
+ * 因此放弃候选也不需要回退输入。
+ */
+final class InTextMarkerScanner {
+
+    // 2 的幂，环形下标用位与取模
+    static final int HISTORY = 64;
+    private static final int MAX_MARKER_LENGTH = 160;
+    private static final int MAX_NUMBER_DIGITS = 4;
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2099;
+
+    private enum State {
+        TEXT,
+        // 编号标记
+        BRACKET_OPEN, BRACKET_NUMBER, BRACKET_SEPARATOR,
+        // 作者-年份标记
+        PAREN_OPEN, NAME, NAME_SPACE, LOWER_WORD, YEAR, YEAR_SUFFIX, YEAR_COMMA, NEXT_CITE
+    }
+
+    private final List<Citation> markers = new ArrayList<>();
+    private final List<Integer> markerOffsets = new ArrayList<>();
+    private final int maxMarkers;
+
+    private State state = State.TEXT;
+    private final StringBuilder candidate = new StringBuilder(MAX_MARKER_LENGTH);
+    private int candidateStart;
+    private int candidatePage;
+
+    // 当前候选的解析状态
+    private int digits;
+    private int year;
+    private int firstYear;
+    private int nameStart;
+    private String firstAuthor;
+    private boolean yearOnly;
+    private final StringBuilder word = new StringBuilder(8);
+
+    // 候选之外最近 HISTORY 个字符的环形缓冲，用于叙述式标记
+    private final char[] history = new char[HISTORY];
+    private int historyLength;
+    private int historyHead;
+
+    private int offset;
+
+    InTextMarkerScanner(int maxMarkers) {
+        this.maxMarkers = maxMarkers;
+    }
+
+    /**
+     * 喂入一页文本，各页的字符偏移连续累加
+     */
+    void feed(CharSequence text, int pageNumber) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            step(c, pageNumber);
+            if (state == State.TEXT) {
+                remember(c);
+            }
+            offset++;
+        }
+    }
+
+    /**
+     * 返回识别到的标记，起点偏移满足 excluded 的除外（参考文献区里的 [1] 等编号不是正文引用）
+     */
+    List<Citation> markers(IntPredicate excluded) {
+        List<Citation> result = new ArrayList<>(markers.size());
+        for (int i = 0; i < markers.size(); i++) {
+            if (!excluded.test(markerOffsets.get(i))) {
+                result.add(markers.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void step(char c, int pageNumber) {
+        switch (state) {
+            case TEXT -> start(c, pageNumber);
+            case BRACKET_OPEN -> {
+                // 引用编号从 1 开始，[0, 1] 之类是区间
+                if (c >= '1' && c <= '9') {
+                    digits = 1;
+                    extend(c, State.BRACKET_NUMBER);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case BRACKET_NUMBER -> {
+                if (isDigit(c) && digits < MAX_NUMBER_DIGITS) {
+                    digits++;
+                    extend(c, State.BRACKET_NUMBER);
+                } else if (c == ',' || c == ';' || c == '-' || c == '–' || c == ' ') {
+                    extend(c, State.BRACKET_SEPARATOR);
+                } else if (c == ']') {
+                    accept(c, null, null);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case BRACKET_SEPARATOR -> {
+                if (c == ' ' || c == ',' || c == ';' || c == '-' || c == '–') {
+                    extend(c, State.BRACKET_SEPARATOR);
+                } else if (isDigit(c)) {
+                    digits = 1;
+                    extend(c, State.BRACKET_NUMBER);
+                } else if (c == ']') {
+                    accept(c, null, null);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case PAREN_OPEN -> {
+                if (Character.isUpperCase(c)) {
+                    beginName(c);
+                } else if (isDigit(c)) {
+                    yearOnly = true;
+                    beginYear(c);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case NAME -> {
+                if (Character.isLetter(c) || c == '-' || c == '\'' || c == '’') {
+                    extend(c, State.NAME);
+                } else if (c == ' ' || c == ',') {
+                    if (firstAuthor == null) {
+                        firstAuthor = candidate.substring(nameStart);
+                    }
+                    extend(c, State.NAME_SPACE);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case NAME_SPACE -> {
+                if (c == ' ' || c == ',' || c == '&') {
+                    extend(c, State.NAME_SPACE);
+                } else if (Character.isUpperCase(c)) {
+                    beginName(c);
+                } else if (Character.isLowerCase(c)) {
+                    word.setLength(0);
+                    word.append(c);
+                    extend(c, State.LOWER_WORD);
+                } else if (isDigit(c)) {
+                    beginYear(c);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case LOWER_WORD -> {
+                if ((Character.isLowerCase(c) || c == '.') && word.length() < 4) {
+                    word.append(c);
+                    extend(c, State.LOWER_WORD);
+                } else if ((c == ' ' || c == ',') && isConnector(word)) {
+                    extend(c, State.NAME_SPACE);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case YEAR -> {
+                if (isDigit(c) && digits < 4) {
+                    digits++;
+                    year = year * 10 + (c - '0');
+                    extend(c, State.YEAR);
+                } else if (digits == 4 && year >= MIN_YEAR && year <= MAX_YEAR) {
+                    if (firstYear == 0) {
+                        firstYear = year;
+                    }
+                    if (c >= 'a' && c <= 'z') {
+                        extend(c, State.YEAR_SUFFIX);
+                    } else {
+                        afterYear(c, pageNumber);
+                    }
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+            case YEAR_SUFFIX -> afterYear(c, pageNumber);
+            case YEAR_COMMA, NEXT_CITE -> {
+                if (c == ' ') {
+                    extend(c, state);
+                } else if (isDigit(c)) {
+                    beginYear(c);
+                } else if (Character.isUpperCase(c) && !yearOnly) {
+                    beginName(c);
+                } else {
+                    restart(c, pageNumber);
+                }
+            }
+        }
+    }
+
+    private void afterYear(char c, int pageNumber) {
+        switch (c) {
+            case ')' -> {
+                if (yearOnly) {
+                    candidate.append(c);
+                    acceptNarrative();
+                } else {
+                    accept(c, firstAuthor, firstYear);
+                }
+            }
+            case ';' -> extend(c, State.NEXT_CITE);
+            case ',' -> extend(c, State.YEAR_COMMA);
+            default -> restart(c, pageNumber);
+        }
+    }
+
+    private void start(char c, int pageNumber) {
+        if ((c != '[' && c != '(') || markers.size() >= maxMarkers) {
+            return;
+        }
+        candidate.setLength(0);
+        candidate.append(c);
+        candidateStart = offset;
+        candidatePage = pageNumber;
+        firstYear = 0;
+        firstAuthor = null;
+        yearOnly = false;
+        state = c == '[' ? State.BRACKET_OPEN : State.PAREN_OPEN;
+    }
+
+    /**
+     * 放弃当前候选；当前字符可能是新候选的开头
+     */
+    private void restart(char c, int pageNumber) {
+        state = State.TEXT;
+        start(c, pageNumber);
+    }
+
+    private void extend(char c, State next) {
+        if (candidate.length() >= MAX_MARKER_LENGTH) {
+            state = State.TEXT;
+            return;
+        }
+        candidate.append(c);
+        state = next;
+    }
+
+    private void beginName(char c) {
+        nameStart = candidate.length();
+        extend(c, State.NAME);
+    }
+
+    private void beginYear(char c) {
+        digits = 1;
+        year = c - '0';
+        extend(c, State.YEAR);
+    }
+
+    private void accept(char c, String author, Integer markerYear) {
+        candidate.append(c);
+        emit(candidate.toString(), author, markerYear);
+        state = State.TEXT;
+    }
+
+    /**
+     * 括号里只有年份时，括号前必须紧跟作者：{@code Smith}、{@code Smith et al.}、{@code Smith and Lee}，
+     * 否则多半不是引用（例如正文里的日期）
+     */
+    private void acceptNarrative() {
+        state = State.TEXT;
+        String[] tokens = historyTokens();
+        int i = tokens.length - 1;
+        if (i >= 1 && tokens[i].equals("al.") && tokens[i - 1].equals("et")) {
+            i -= 2;
+        }
+        if (i < 0 || !isName(tokens[i])) {
+            return;
+        }
+        int first = i;
+        if (i >= 2 && (tokens[i - 1].equals("and") || tokens[i - 1].equals("&")) && isName(tokens[i - 2])) {
+            first = i - 2;
+        }
+        String prefix = String.join(" ", Arrays.copyOfRange(tokens, first, tokens.length));
+        emit(prefix + " " + candidate, tokens[first], firstYear);
+    }
+
+    private void emit(String text, String author, Integer markerYear) {
+        markers.add(new Citation(text, author != null ? List.of(author) : List.of(), markerYear,
+                null, null, null, candidatePage, Citation.CitationType.IN_TEXT));
+        markerOffsets.add(candidateStart);
+    }
+
+    private void remember(char c) {
+        char normalized = Character.isWhitespace(c) ? ' ' : c;
+        if (historyLength < HISTORY) {
+            history[(historyHead + historyLength) & (HISTORY - 1)] = normalized;
+            historyLength++;
+        } else {
+            history[historyHead] = normalized;
+            historyHead = (historyHead + 1) & (HISTORY - 1);
+        }
+    }
+
+    /**
+     * 历史缓冲中的词，最后一个是紧挨着括号的词；缓冲开头可能是被截断的半个词，丢弃
+     */
+    private String[] historyTokens() {
+        StringBuilder text = new StringBuilder(historyLength);
+        for (int i = 0; i < historyLength; i++) {
+            text.append(history[(historyHead + i) & (HISTORY - 1)]);
+        }
+        String trimmed = text.toString().strip();
+        String[] tokens = trimmed.isEmpty() ? new String[0] : trimmed.split(" +");
+        if (historyLength == HISTORY && tokens.length > 0) {
+            return Arrays.copyOfRange(tokens, 1, tokens.length);
+        }
+        return tokens;
+    }
+
+    private static boolean isName(String token) {
+        if (token.length() < 2 || !Character.isUpperCase(token.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!Character.isLetter(c) && c != '-' && c != '\'' && c != '’') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConnector(CharSequence word) {
+        return switch (word.toString()) {
+            case "et", "al.", "al", "and", "van", "von", "de", "der", "den", "la", "le", "du", "da", "di" -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
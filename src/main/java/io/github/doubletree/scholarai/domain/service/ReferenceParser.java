@@ -0,0 +1,470 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把单条参考文献解析成 {@link Citation}：作者、年份、标题、出处和 DOI。
+ * <p>
+ * 先取出 DOI 和 URL，再按年份的位置区分两大类格式：
+ * <ul>
+ *     <li>作者-年份（APA / Harvard）：{@code Smith, J., & Lee, K. (2020). Title. Venue, 12(3), 1-10.}</li>
+ *     <li>年份在末尾（ACM / IEEE / Vancouver / 会议格式）：{@code A. Smith and K. Lee. Title. In Venue, 2020.}，
+ *     以及带引号标题的 {@code A. Smith, "Title," in Venue, 2020.}；
+ *     Vancouver 的 {@code Smith J, Lee KH, et al. Title. Venue. 2020;12(3):1-10.} 作者段单独识别</li>
+ * </ul>
+ * 句子边界只认不跟在首字母缩写、"et al." 等之后的 ". "。所有扫描都是对字符的线性遍历，不使用正则。
+ * 解析不出的字段保持为 null，不会因为格式不规范而丢弃整条文献。
+ */
+final class ReferenceParser {
+
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2099;
+    private static final int MAX_AUTHORS = 100;
+
+    private ReferenceParser() {
+    }
+
+    /**
+     * @param entry 已拼接成一行、去掉了编号的条目文本
+     */
+    static Citation parse(String citationText, String entry, int pageNumber) {
+        StringBuilder rest = new StringBuilder(entry);
+        String doi = extractDoi(rest);
+        removeUrls(rest);
+        String text = collapseSpaces(rest);
+
+        List<String> authors = List.of();
+        Integer year = null;
+        String title = null;
+        String venue = null;
+
+        int parenYear = findParenthesizedYear(text);
+        if (parenYear >= 0) {
+            // 作者-年份：Authors (2020). Title. Venue.
+            year = yearAt(text, parenYear + 1);
+            authors = parseAuthors(text.substring(0, parenYear));
+            int afterYear = text.indexOf(')', parenYear);
+            String tail = afterYear < 0 ? "" : stripLeading(text.substring(afterYear + 1));
+            int titleEnd = sentenceEnd(tail, 0);
+            title = clean(tail.substring(0, titleEnd));
+            venue = venueOf(tail.substring(Math.min(tail.length(), titleEnd + 1)));
+        } else {
+            int yearPosition = lastYear(text);
+            if (yearPosition >= 0) {
+                year = yearAt(text, yearPosition);
+            }
+            int quote = indexOfQuote(text, 0);
+            int closing = quote < 0 ? -1 : indexOfQuote(text, quote + 1);
+            if (quote > 0 && closing > quote) {
+                // IEEE：A. Smith, "Title," in Venue, 2020.
+                authors = parseAuthors(text.substring(0, quote));
+                title = clean(text.substring(quote + 1, closing));
+                venue = venueOf(text.substring(closing + 1));
+            } else {
+                int authorsEnd = vancouverAuthorsEnd(text);
+                if (authorsEnd < 0) {
+                    authorsEnd = sentenceEnd(text, 0);
+                }
+                authors = parseAuthors(text.substring(0, authorsEnd));
+                int titleStart = authorsEnd + 1;
+                int afterAuthors = titleStart < text.length() && text.charAt(titleStart) == ' ' ? titleStart + 1 : titleStart;
+                // ACM：Authors. 2013. Title. Venue.
+                if (isYearAt(text, afterAuthors)) {
+                    int yearEnd = sentenceEnd(text, afterAuthors);
+                    if (yearEnd - afterAuthors <= 5) {
+                        year = yearAt(text, afterAuthors);
+                        titleStart = yearEnd + 1;
+                    }
+                }
+                if (titleStart < text.length()) {
+                    int titleEnd = sentenceEnd(text, titleStart);
+                    title = clean(text.substring(titleStart, titleEnd));
+                    if (titleEnd + 1 < text.length()) {
+                        venue = venueOf(text.substring(titleEnd + 1));
+                    }
+                }
+            }
+        }
+        if (title != null && year != null && title.equals(String.valueOf(year))) {
+            title = null;
+        }
+        return new Citation(citationText, authors, year, title, venue, doi, pageNumber,
+                Citation.CitationType.REFERENCE_LIST);
+    }
+
+    /**
+     * 取出 "10.xxxx/..." 形式的 DOI（含 doi: 或 doi.org 前缀的写法），并从文本中删去
+     */
+    static String extractDoi(StringBuilder text) {
+        for (int i = text.indexOf("10."); i >= 0; i = text.indexOf("10.", i + 3)) {
+            if (i > 0) {
+                char before = text.charAt(i - 1);
+                if (Character.isLetterOrDigit(before) || before == '.') {
+                    continue;
+                }
+            }
+            int j = i + 3;
+            while (j < text.length() && Character.isDigit(text.charAt(j))) {
+                j++;
+            }
+            if (j - (i + 3) < 4 || j >= text.length() || text.charAt(j) != '/') {
+                continue;
+            }
+            int end = j + 1;
+            while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+                end++;
+            }
+            while (end > j + 1 && ".,;)]>".indexOf(text.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            if (end == j + 1) {
+                continue;
+            }
+            String doi = text.substring(i, end);
+            int start = i;
+            // 连同 "doi:"、"https://doi.org/" 一起删掉
+            while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+                start--;
+            }
+            text.delete(start, end);
+            return doi;
+        }
+        return null;
+    }
+
+    private static void removeUrls(StringBuilder text) {
+        for (int i = indexOfUrl(text, 0); i >= 0; i = indexOfUrl(text, i)) {
+            int end = i;
+            while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+                end++;
+            }
+            text.delete(i, end);
+        }
+    }
+
+    private static int indexOfUrl(StringBuilder text, int from) {
+        int http = text.indexOf("http", from);
+        int www = text.indexOf("www.", from);
+        if (http < 0) {
+            return www;
+        }
+        return www < 0 ? http : Math.min(http, www);
+    }
+
+    /**
+     * "(2020)"、"(2020a)"、"(2020, May)" 中左括号的位置；不在前 200 个字符内的不算（那通常是出处里的卷期）
+     */
+    private static int findParenthesizedYear(String text) {
+        int limit = Math.min(text.length(), 200);
+        for (int i = text.indexOf('('); i >= 0 && i < limit; i = text.indexOf('(', i + 1)) {
+            if (isYearAt(text, i + 1)) {
+                int after = i + 5;
+                if (after < text.length() && Character.isLowerCase(text.charAt(after))) {
+                    after++;
+                }
+                if (after < text.length() && (text.charAt(after) == ')' || text.charAt(after) == ',')) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int lastYear(String text) {
+        for (int i = text.length() - 4; i >= 0; i--) {
+            if (isYearAt(text, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isYearAt(String text, int i) {
+        if (i < 0 || i + 4 > text.length()) {
+            return false;
+        }
+        if (i > 0 && Character.isDigit(text.charAt(i - 1))) {
+            return false;
+        }
+        if (i + 4 < text.length() && Character.isDigit(text.charAt(i + 4))) {
+            return false;
+        }
+        for (int k = 0; k < 4; k++) {
+            if (!Character.isDigit(text.charAt(i + k))) {
+                return false;
+            }
+        }
+        int year = yearAt(text, i);
+        return year >= MIN_YEAR && year <= MAX_YEAR;
+    }
+
+    private static int yearAt(String text, int i) {
+        return (text.charAt(i) - '0') * 1000 + (text.charAt(i + 1) - '0') * 100
+                + (text.charAt(i + 2) - '0') * 10 + (text.charAt(i + 3) - '0');
+    }
+
+    /**
+     * 从 from 开始的第一个句子结尾（'.'、'?'、'!' 后跟空白或结尾）；首字母缩写和常见缩写后的点不算
+     */
+    static int sentenceEnd(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '.' && c != '?' && c != '!') {
+                continue;
+            }
+            if (i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                continue;
+            }
+            if (c == '.' && isAbbreviation(text, i)) {
+                continue;
+            }
+            return i;
+        }
+        return text.length();
+    }
+
+    /**
+     * 点号之前的词是否是首字母（"J."、"J.-P."）或 et al. / pp. / vol. 之类的缩写；"Ba." 这种两个字母的姓不算
+     */
+    private static boolean isAbbreviation(String text, int dot) {
+        int start = dot;
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        int length = dot - start;
+        if (length == 0) {
+            return false;
+        }
+        if (length == 1 && Character.isUpperCase(text.charAt(start))) {
+            return true;
+        }
+        for (int i = start; i < dot; i++) {
+            char c = text.charAt(i);
+            // "J.-P" / "M.S" 这类带内部点号的缩写
+            if (c == '.' && i > start) {
+                return true;
+            }
+        }
+        String token = text.substring(start, dot).toLowerCase();
+        return switch (token) {
+            case "al", "pp", "p", "vol", "no", "eds", "ed", "jr", "sr", "inc", "proc", "conf", "intl", "int",
+                 "trans", "vs", "dept", "univ", "st", "e.g", "i.e", "cf", "fig" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Vancouver 作者段 "Smith J, Lee KH, et al." 结尾的点号位置；不是这种写法时返回 -1。
+     * 首字母不带点，{@link #sentenceEnd} 会把最后一位作者的 "J." 当成缩写而越过它。
+     */
+    static int vancouverAuthorsEnd(String text) {
+        int i = 0;
+        while (true) {
+            // 姓：可以有空格和连字符，必须含小写字母以区别于首字母
+            int nameStart = i;
+            boolean lowercase = false;
+            while (i < text.length() && (Character.isLetter(text.charAt(i)) || "-'’ ".indexOf(text.charAt(i)) >= 0)) {
+                lowercase |= Character.isLowerCase(text.charAt(i));
+                i++;
+            }
+            int initialsEnd = i;
+            int initialsStart = initialsEnd;
+            while (initialsStart > nameStart && Character.isUpperCase(text.charAt(initialsStart - 1))) {
+                initialsStart--;
+            }
+            int initials = initialsEnd - initialsStart;
+            if (!lowercase || initials == 0 || initials > 3 || initialsStart - 1 <= nameStart
+                    || text.charAt(initialsStart - 1) != ' ' || i >= text.length()) {
+                return -1;
+            }
+            char c = text.charAt(i);
+            if (c == '.') {
+                return i + 1 == text.length() || text.charAt(i + 1) == ' ' ? i : -1;
+            }
+            if (c != ',') {
+                return -1;
+            }
+            i++;
+            while (i < text.length() && text.charAt(i) == ' ') {
+                i++;
+            }
+            if (text.startsWith("et al.", i)) {
+                return i + 5;
+            }
+        }
+    }
+
+    /**
+     * 作者段按 ","、";"、" and "、"&" 拆分；"Smith, J., Lee, K." 这种姓和缩写交替的写法两两合并
+     */
+    static List<String> parseAuthors(String segment) {
+        String text = segment.strip();
+        while (!text.isEmpty() && ",.;:".indexOf(text.charAt(text.length() - 1)) >= 0 && !endsWithInitial(text)) {
+            text = text.substring(0, text.length() - 1).strip();
+        }
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            int separatorLength = separatorAt(text, i);
+            if (i == text.length() || separatorLength > 0) {
+                String part = text.substring(start, i).strip();
+                if (!part.isEmpty()) {
+                    parts.add(part);
+                }
+                if (i < text.length()) {
+                    i += separatorLength - 1;
+                    start = i + 1;
+                }
+            }
+        }
+
+        boolean paired = parts.size() >= 2 && parts.size() % 2 == 0;
+        for (int i = 1; paired && i < parts.size(); i += 2) {
+            paired = isInitials(parts.get(i)) && !isInitials(parts.get(i - 1));
+        }
+        List<String> authors = new ArrayList<>();
+        for (int i = 0; i < parts.size() && authors.size() < MAX_AUTHORS; i++) {
+            String part = parts.get(i);
+            if (paired) {
+                authors.add(parts.get(i + 1) + " " + part);
+                i++;
+            } else if (!part.equalsIgnoreCase("et al.") && !part.equalsIgnoreCase("et al")
+                    && !part.equalsIgnoreCase("others")) {
+                authors.add(stripEtAl(part));
+            }
+        }
+        return authors;
+    }
+
+    private static int separatorAt(String text, int i) {
+        if (i >= text.length()) {
+            return 0;
+        }
+        char c = text.charAt(i);
+        if (c == ',' || c == ';' || c == '&') {
+            return 1;
+        }
+        if (c == ' ' && text.startsWith(" and ", i)) {
+            return 5;
+        }
+        return 0;
+    }
+
+    /**
+     * "J."、"J. K."、"J.-P."、"JK" 这类只由首字母组成的片段
+     */
+    private static boolean isInitials(String part) {
+        int letters = 0;
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (Character.isLetter(c)) {
+                if (!Character.isUpperCase(c)) {
+                    return false;
+                }
+                letters++;
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return false;
+            }
+        }
+        return letters > 0 && letters <= 3 && (part.indexOf('.') >= 0 || part.length() <= 3);
+    }
+
+    private static boolean endsWithInitial(String text) {
+        int n = text.length();
+        return n >= 2 && text.charAt(n - 1) == '.' && Character.isUpperCase(text.charAt(n - 2))
+                && (n == 2 || !Character.isLetter(text.charAt(n - 3)));
+    }
+
+    private static String stripEtAl(String part) {
+        int etAl = part.indexOf(" et al");
+        return etAl > 0 ? part.substring(0, etAl).strip() : part;
+    }
+
+    /**
+     * 出处：去掉 "In " 前缀，截到年份、卷号或页码之前
+     */
+    private static String venueOf(String segment) {
+        String text = stripLeading(segment);
+        if (text.regionMatches(true, 0, "in ", 0, 3)) {
+            text = text.substring(3);
+        }
+        int end = sentenceEnd(text, 0);
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '(') {
+                int next = i + 1;
+                while (next < end && text.charAt(next) == ' ') {
+                    next++;
+                }
+                if (next < end && (Character.isDigit(text.charAt(next))
+                        || text.startsWith("vol", next) || text.startsWith("pp", next)
+                        || text.startsWith("Vol", next) || text.startsWith("no.", next))) {
+                    end = i;
+                    break;
+                }
+            }
+            if (Character.isDigit(c) && isYearAt(text, i)) {
+                end = i;
+                break;
+            }
+        }
+        return clean(text.substring(0, end));
+    }
+
+    private static int indexOfQuote(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '“' || c == '”') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String stripLeading(String text) {
+        int i = 0;
+        while (i < text.length() && (Character.isWhitespace(text.charAt(i)) || ".,:;".indexOf(text.charAt(i)) >= 0)) {
+            i++;
+        }
+        return text.substring(i);
+    }
+
+    /**
+     * 去掉首尾空白、标点和引号；空串返回 null
+     */
+    private static String clean(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && (Character.isWhitespace(value.charAt(start)) || "\"“”,.;:".indexOf(value.charAt(start)) >= 0)) {
+            start++;
+        }
+        while (end > start && (Character.isWhitespace(value.charAt(end - 1)) || "\"“”,.;:".indexOf(value.charAt(end - 1)) >= 0)) {
+            end--;
+        }
+        return end - start < 2 ? null : value.substring(start, end);
+    }
+
+    private static String collapseSpaces(CharSequence text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,338 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 滑动窗口切分：每块最多 chunkSize 个字符，相邻块大约重叠 chunkOverlap 个字符。
+ * <p>
+ * 块的结尾优先落在段落边界（空行），其次是句子边界，再次是单词边界，都找不到时才硬切；
+ * 下一块从重叠区域内的第一个句子或单词开头开始。边界通过直接扫描字符查找，
+ * 不使用 split/正则，整个过程只为最终的块内容分配字符串，startPosition/endPosition
+ * 是块内容在原文中的精确偏移。
+ * <p>
+ * 既可以一次性切分整段文本，也可以通过 {@link Session} 增量地逐页喂入文本，
+ * 此时内部缓冲区最多只保留一个窗口加一页的文本，与文档总长度无关。
+ */
+public class TextChunker {
+
+    private final int chunkSize;
+    private final int chunkOverlap;
+    // 结尾边界至少落在窗口的后半段，避免产生过小的块
+    private final int minBreakOffset;
+
+    public TextChunker(int chunkSize, int chunkOverlap) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (chunkOverlap < 0 || chunkOverlap >= chunkSize) {
+            throw new IllegalArgumentException("Chunk overlap must be in [0, chunkSize)");
+        }
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+        this.minBreakOffset = Math.max(1, Math.max(chunkSize / 2, chunkOverlap + 1));
+    }
+
+    public List<TextChunk> chunk(CharSequence text) {
+        List<TextChunk> chunks = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return chunks;
+        }
+        // 一次性切分时直接扫描原文，不复制到内部缓冲区
+        Session session = new Session(chunks::add, text);
+        session.recordPage(0, 0);
+        session.finish();
+        return chunks;
+    }
+
+    public Session newSession(Consumer<TextChunk> sink) {
+        return new Session(sink, null);
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public int chunkOverlap() {
+        return chunkOverlap;
+    }
+
+    /**
+     * 增量切分会话，非线程安全，一篇文档对应一个会话
+     */
+    public final class Session {
+
+        private final Consumer<TextChunk> sink;
+        // 增量模式下为 StringBuilder；一次性切分时直接是原文
+        private final CharSequence buffer;
+        private final StringBuilder appendBuffer;
+
+        // buffer[0] 在整篇文档中的偏移量
+        private int bufferStart;
+        // 下一个窗口在 buffer 中的起点
+        private int cursor;
+        // 已经输出到块中的文本末尾（文档偏移量）
+        private int emittedEnd;
+        private int nextChunkIndex;
+
+        // 段落计数：已扫描到的 buffer 位置和换行状态
+        private int paragraphScan;
+        private int paragraphNumber;
+        private boolean pendingNewline;
+        private boolean inParagraphBreak;
+
+        // 缓冲区内各页的起始偏移量与页码（按偏移递增）
+        private int[] pageStarts = new int[8];
+        private int[] pageNumbers = new int[8];
+        private int pageCount;
+
+        private Session(Consumer<TextChunk> sink, CharSequence fixedText) {
+            this.sink = sink;
+            this.appendBuffer = fixedText == null ? new StringBuilder() : null;
+            this.buffer = fixedText == null ? appendBuffer : fixedText;
+        }
+
+        public void append(CharSequence text, int pageNumber) {
+            if (appendBuffer == null) {
+                throw new IllegalStateException("Session was created for a fixed text");
+            }
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            recordPage(bufferStart + buffer.length(), pageNumber);
+            appendBuffer.append(text);
+            drain(false);
+        }
+
+        public void finish() {
+            drain(true);
+            if (appendBuffer != null) {
+                bufferStart += buffer.length();
+                paragraphScan = 0;
+                cursor = 0;
+                appendBuffer.setLength(0);
+            }
+        }
+
+        public int chunkCount() {
+            return nextChunkIndex;
+        }
+
+        private void drain(boolean last) {
+            while (true) {
+                int available = buffer.length() - cursor;
+                // 非最后一页时要求窗口之后仍有文本，保证边界判断不受页尾截断影响
+                if (available <= 0 || (!last && available <= chunkSize)) {
+                    break;
+                }
+                int windowEnd = cursor + Math.min(chunkSize, available);
+                if (windowEnd == buffer.length()) {
+                    emit(cursor, windowEnd);
+                    cursor = windowEnd;
+                    break;
+                }
+                int end = findBreak(cursor, windowEnd);
+                emit(cursor, end);
+                cursor = findNextStart(cursor, end);
+            }
+            compact();
+        }
+
+        /**
+         * 在 [from + minBreakOffset, to] 内从后往前找结尾：段落 > 句子 > 单词 > 硬切
+         */
+        private int findBreak(int from, int to) {
+            int lowest = from + minBreakOffset;
+            int sentenceBreak = -1;
+            int wordBreak = -1;
+            for (int p = to; p >= lowest; p--) {
+                char c = buffer.charAt(p);
+                if (c == '\n' && isBlankLineBefore(p, from)) {
+                    return p;
+                }
+                if (sentenceBreak < 0 && isSentenceBreak(p)) {
+                    sentenceBreak = p;
+                }
+                if (wordBreak < 0 && isWhitespace(c)) {
+                    wordBreak = p;
+                }
+            }
+            if (sentenceBreak >= 0) {
+                return sentenceBreak;
+            }
+            if (wordBreak >= 0) {
+                return wordBreak;
+            }
+            // 硬切不能把代理对拆到两个块里
+            return to - 1 > from && Character.isHighSurrogate(buffer.charAt(to - 1)) ? to - 1 : to;
+        }
+
+        /**
+         * 在重叠区域 [end - overlap, end) 内找下一块的起点：句子开头 > 单词开头
+         */
+        private int findNextStart(int start, int end) {
+            int from = Math.max(start + 1, end - chunkOverlap);
+            if (chunkOverlap == 0) {
+                return end;
+            }
+            int wordStart = -1;
+            for (int p = from; p < end; p++) {
+                if (isSentenceBreak(p)) {
+                    return p;
+                }
+                if (wordStart < 0 && p > 0 && isWhitespace(buffer.charAt(p - 1)) && !isWhitespace(buffer.charAt(p))) {
+                    wordStart = p;
+                }
+            }
+            if (wordStart >= 0) {
+                return wordStart;
+            }
+            // 起点不能落在代理对中间
+            if (Character.isLowSurrogate(buffer.charAt(from)) && Character.isHighSurrogate(buffer.charAt(from - 1))) {
+                return from - 1 > start ? from - 1 : from + 1;
+            }
+            return from;
+        }
+
+        // 位置 p 之前是一个空行：p 是换行符，往前跳过空格后又是换行符
+        private boolean isBlankLineBefore(int p, int floor) {
+            for (int i = p - 1; i > floor; i--) {
+                char c = buffer.charAt(i);
+                if (c == '\n') {
+                    return true;
+                }
+                if (c != ' ' && c != '\t' && c != '\r') {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        // p 是句子之后的位置：前面是句末标点（可带右引号/括号），后面是空白；中文句号后无需空白
+        private boolean isSentenceBreak(int p) {
+            if (p <= 0 || p >= buffer.length()) {
+                return false;
+            }
+            int i = p - 1;
+            char c = buffer.charAt(i);
+            if (c == '。' || c == '！' || c == '？') {
+                return true;
+            }
+            if (!isWhitespace(buffer.charAt(p))) {
+                return false;
+            }
+            while (i > 0 && (c == '"' || c == '\'' || c == ')' || c == '”' || c == '’')) {
+                c = buffer.charAt(--i);
+            }
+            if (c == '?' || c == '!') {
+                return true;
+            }
+            if (c != '.') {
+                return false;
+            }
+            // 排除 "J. Smith" 这类首字母缩写
+            if (i >= 1 && Character.isUpperCase(buffer.charAt(i - 1))
+                    && (i == 1 || !Character.isLetter(buffer.charAt(i - 2)))) {
+                return false;
+            }
+            // 排除 "e.g. attention" 这类后面仍是小写的缩写
+            int next = p;
+            while (next < buffer.length() && isWhitespace(buffer.charAt(next))) {
+                next++;
+            }
+            return next >= buffer.length() || !Character.isLowerCase(buffer.charAt(next));
+        }
+
+        private void emit(int from, int to) {
+            while (from < to && isWhitespace(buffer.charAt(from))) {
+                from++;
+            }
+            while (to > from && isWhitespace(buffer.charAt(to - 1))) {
+                to--;
+            }
+            int start = bufferStart + from;
+            int end = bufferStart + to;
+            // 全是空白，或完全落在上一块的重叠区内
+            if (from == to || end <= emittedEnd) {
+                return;
+            }
+            countParagraphsUpTo(from);
+            emittedEnd = end;
+
+            TextChunk.ChunkMetadata metadata = new TextChunk.ChunkMetadata(null, pageAt(start), paragraphNumber);
+            sink.accept(new TextChunk(buffer.subSequence(from, to).toString(), start, end, nextChunkIndex++, metadata));
+        }
+
+        private void countParagraphsUpTo(int limit) {
+            for (int i = paragraphScan; i < limit; i++) {
+                char c = buffer.charAt(i);
+                if (c == '\n') {
+                    if (pendingNewline && !inParagraphBreak) {
+                        paragraphNumber++;
+                        inParagraphBreak = true;
+                    }
+                    pendingNewline = true;
+                } else if (c != ' ' && c != '\t' && c != '\r') {
+                    pendingNewline = false;
+                    inParagraphBreak = false;
+                }
+            }
+            paragraphScan = Math.max(paragraphScan, limit);
+        }
+
+        // 丢弃 cursor 之前已处理的文本，只移动字符不分配新对象
+        private void compact() {
+            if (cursor == 0 || appendBuffer == null) {
+                return;
+            }
+            countParagraphsUpTo(cursor);
+            appendBuffer.delete(0, cursor);
+            bufferStart += cursor;
+            paragraphScan -= cursor;
+            cursor = 0;
+            dropPagesBefore(bufferStart);
+        }
+
+        private void recordPage(int offset, int pageNumber) {
+            if (pageCount > 0 && pageNumbers[pageCount - 1] == pageNumber) {
+                return;
+            }
+            if (pageCount == pageStarts.length) {
+                pageStarts = Arrays.copyOf(pageStarts, pageCount * 2);
+                pageNumbers = Arrays.copyOf(pageNumbers, pageCount * 2);
+            }
+            pageStarts[pageCount] = offset;
+            pageNumbers[pageCount] = pageNumber;
+            pageCount++;
+        }
+
+        private int pageAt(int offset) {
+            int page = pageCount > 0 ? pageNumbers[0] : 0;
+            for (int i = 0; i < pageCount && pageStarts[i] <= offset; i++) {
+                page = pageNumbers[i];
+            }
+            return page;
+        }
+
+        // 丢弃已经完全滑出缓冲区的页，保留覆盖 offset 的那一页
+        private void dropPagesBefore(int offset) {
+            int keepFrom = 0;
+            while (keepFrom + 1 < pageCount && pageStarts[keepFrom + 1] <= offset) {
+                keepFrom++;
+            }
+            if (keepFrom > 0) {
+                System.arraycopy(pageStarts, keepFrom, pageStarts, 0, pageCount - keepFrom);
+                System.arraycopy(pageNumbers, keepFrom, pageNumbers, 0, pageCount - keepFrom);
+                pageCount -= keepFrom;
+            }
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u00A0' || c == '\u3000';
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 向量相似度计算内核。
+ * <p>
+ * 运行时加载了 {@code jdk.incubator.vector} 模块（{@code --add-modules jdk.incubator.vector}）时使用
+ * SIMD 实现，否则退回标量循环；也可以通过 {@code -Dscholar-ai.vector-math=scalar} 强制使用标量实现。
+ * 两种实现在启动时二选一，调用点始终是单态的，可被 JIT 内联。
+ */
+public final class VectorMath {
+
+    private static final Kernel KERNEL = selectKernel();
+
+    private VectorMath() {
+    }
+
+    /**
+     * 当前是否使用 SIMD 内核
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    public static float dot(float[] a, float[] b) {
+        checkLength(a.length, b.length);
+        return KERNEL.dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * 两个数组各自从 offset 起、长度为 length 的片段的点积（用于按行连续存放的向量矩阵）
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return KERNEL.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * 与堆外缓冲区（如内存映射文件）中从 bOffset 起的一行求点积。
+     * JDK 21 的 Vector API 只能从 MemorySegment（预览特性）加载堆外数据，这里使用标量循环。
+     */
+    public static float dot(float[] a, FloatBuffer b, int bOffset, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b.get(bOffset + i);
+            s1 += a[i + 1] * b.get(bOffset + i + 1);
+            s2 += a[i + 2] * b.get(bOffset + i + 2);
+            s3 += a[i + 3] * b.get(bOffset + i + 3);
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b.get(bOffset + i);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    public static float norm(float[] vector) {
+        return (float) Math.sqrt(KERNEL.sumOfSquares(vector, 0, vector.length));
+    }
+
+    /**
+     * 已知两个向量的模时的余弦相似度。任一向量为零向量时结果为 NaN。
+     */
+    public static float cosine(float[] a, float aNorm, float[] b, float bNorm) {
+        return dot(a, b) / (aNorm * bNorm);
+    }
+
+    /**
+     * 批量打分：一个查询向量对按行连续存放的 rows 个向量求点积，结果写入 out
+     */
+    public static void dotAll(float[] query, float[] matrix, int rows, float[] out) {
+        int dimensions = query.length;
+        if (matrix.length < rows * dimensions) {
+            throw new IllegalArgumentException("Matrix holds fewer than " + rows + " rows");
+        }
+        for (int row = 0, offset = 0; row < rows; row++, offset += dimensions) {
+            out[row] = KERNEL.dot(query, 0, matrix, offset, dimensions);
+        }
+    }
+
+    /**
+     * 批量余弦相似度：一个查询向量对 N 个向量打分，norms 为各向量预先缓存的模
+     */
+    public static void cosineAll(float[] query, float queryNorm, float[][] vectors, float[] norms, float[] out) {
+        for (int i = 0; i < vectors.length; i++) {
+            checkLength(query.length, vectors[i].length);
+            out[i] = KERNEL.dot(query, 0, vectors[i], 0, query.length) / (queryNorm * norms[i]);
+        }
+    }
+
+    private static void checkLength(int a, int b) {
+        if (a != b) {
+            throw new IllegalArgumentException("Vector lengths differ: " + a + " vs " + b);
+        }
+    }
+
+    private static Kernel selectKernel() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("scholar-ai.vector-math"))) {
+            return new ScalarKernel();
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new SimdKernel();
+            } catch (LinkageError e) {
+                return new ScalarKernel();
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    interface Kernel {
+        float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+        float sumOfSquares(float[] a, int offset, int length);
+    }
+
+    static final class ScalarKernel implements Kernel {
+        @Override
+        public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+            // 四路累加打断循环依赖链
+            float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+            int i = 0;
+            for (int bound = length & ~3; i < bound; i += 4) {
+                s0 += a[aOffset + i] * b[bOffset + i];
+                s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+                s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+                s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+            }
+            for (; i < length; i++) {
+                s0 += a[aOffset + i] * b[bOffset + i];
+            }
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override
+        public float sumOfSquares(float[] a, int offset, int length) {
+            return dot(a, offset, a, offset, length);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
+
+import io.github.doubletree.scholarai.application.service.AskService;
+import io.github.doubletree.scholarai.domain.port.out.ChatPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.AskDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.mapper.PaperMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 把流式回答写成 Server-Sent Events：先发 sources（引用的文本块），然后每个模型片段一个 token 事件，
+ * 最后是带 TTFT 和生成速度的 done 事件，或者 error 事件。
+ * <p>
+ * 片段按 JSON 发送，保留前导空格和换行（SSE 的 data 行会吞掉一个前导空格）。
+ * 客户端断开、超时或写入失败时取消模型生成，不再为没人接收的输出付费。
+ */
+@Slf4j
+@Component
+public class AnswerEventStream {
+
+    private final AskService askService;
+    private final PaperMapper paperMapper;
+    private final long timeoutMillis;
+
+    public AnswerEventStream(AskService askService,
+                             PaperMapper paperMapper,
+                             @Value("${scholar-ai.chat.stream-timeout-seconds:120}") long timeoutSeconds) {
+        this.askService = askService;
+        this.paperMapper = paperMapper;
+        // 比模型侧超时稍长，正常情况下由模型侧先超时并发出 error 事件
+        this.timeoutMillis = (timeoutSeconds + 5) * 1000;
+    }
+
+    public SseEmitter open(AskService.PreparedAnswer prepared) {
+        return open(prepared, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter open(AskService.PreparedAnswer prepared, SseEmitter emitter) {
+        if (!send(emitter, "sources", paperMapper.toDto(prepared.sources()))) {
+            return emitter;
+        }
+
+        AtomicReference<ChatPort.StreamHandle> handle = new AtomicReference<>();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Runnable cancel = () -> {
+            abandoned.set(true);
+            ChatPort.StreamHandle current = handle.get();
+            if (current != null) {
+                current.cancel();
+            }
+        };
+
+        ChatPort.TokenListener listener = new ChatPort.TokenListener() {
+            @Override
+            public void onToken(String text) {
+                if (!send(emitter, "token", new AskDto.Token(text))) {
+                    cancel.run();
+                }
+            }
+
+            @Override
+            public void onComplete(ChatPort.StreamStats stats) {
+                send(emitter, "done", new AskDto.Done(stats.firstTokenMillis(), stats.tokens(),
+                        stats.durationMillis(), stats.tokensPerSecond(), prepared.isCached()));
+                emitter.complete();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                send(emitter, "error", new AskDto.Failure(error.getMessage()));
+                emitter.complete();
+            }
+        };
+
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        emitter.onCompletion(cancel);
+        handle.set(askService.stream(prepared, listener));
+        // 生成开始前客户端已经断开
+        if (abandoned.get()) {
+            handle.get().cancel();
+        }
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("🌐 [REST] Answer stream closed by client: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.EmbeddingBatcher;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.EmbeddingCache;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.SpringAiChatAdapter;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.SpringAiEmbeddingAdapter;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.cache.SemanticAnswerCache;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.graph.CitationGraphAdapter;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PaperInvalidationChannel;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PaperMetadataCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 运行时指标，用于容量规划（缓存大小、并发度等）
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final SpringAiEmbeddingAdapter embeddingAdapter;
+    private final EmbeddingCache embeddingCache;
+    private final SpringAiChatAdapter chatAdapter;
+    private final SemanticAnswerCache answerCache;
+    private final PaperMetadataCache paperCache;
+    private final PaperInvalidationChannel paperInvalidationChannel;
+    private final CitationGraphAdapter citationGraph;
+
+    @GetMapping("/embedding")
+    public ResponseEntity<EmbeddingMetrics> embedding() {
+        return ResponseEntity.ok(new EmbeddingMetrics(embeddingAdapter.stats(), embeddingCache.stats()));
+    }
+
+    // 流式问答：首个片段延迟（TTFT）和生成速度
+    @GetMapping("/chat")
+    public ResponseEntity<SpringAiChatAdapter.Stats> chat() {
+        return ResponseEntity.ok(chatAdapter.stats());
+    }
+
+    @GetMapping("/answer-cache")
+    public ResponseEntity<SemanticAnswerCache.Stats> answerCache() {
+        return ResponseEntity.ok(answerCache.stats());
+    }
+
+    @GetMapping("/paper-cache")
+    public ResponseEntity<PaperCacheMetrics> paperCache() {
+        return ResponseEntity.ok(new PaperCacheMetrics(
+                paperCache.stats(),
+                paperInvalidationChannel.publishedCount(),
+                paperInvalidationChannel.receivedCount()));
+    }
+
+    // 引用图规模、增量覆盖层大小和查询耗时
+    @GetMapping("/citation-graph")
+    public ResponseEntity<CitationGraphAdapter.Stats> citationGraph() {
+        return ResponseEntity.ok(citationGraph.stats());
+    }
+
+    public record EmbeddingMetrics(EmbeddingBatcher.Stats batcher, EmbeddingCache.Stats cache) {
+    }
+
+    public record PaperCacheMetrics(PaperMetadataCache.Stats cache,
+                                    long invalidationsPublished,
+                                    long invalidationsReceived) {
+    }
+}
@@ -1,25 +1,47 @@
 package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
 
+import io.github.doubletree.scholarai.application.service.AskService;
+import io.github.doubletree.scholarai.application.service.CitationGraphService;
 import io.github.doubletree.scholarai.application.service.DownloadPaperService;
+import io.github.doubletree.scholarai.application.service.DownloadPaperService.PaperDownload;
+import io.github.doubletree.scholarai.application.service.LoadPaperService;
+import io.github.doubletree.scholarai.application.service.RetrievalService;
+import io.github.doubletree.scholarai.application.service.SearchPaperService;
+import io.github.doubletree.scholarai.domain.model.Citation;
 import io.github.doubletree.scholarai.domain.model.Paper;
 import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperPage;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
 import io.github.doubletree.scholarai.domain.port.in.AnalyzePaperUseCase;
 import io.github.doubletree.scholarai.domain.port.in.UploadPaperUseCase;
+import io.github.doubletree.scholarai.domain.port.out.CitationGraphPort;
 import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.AskDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.BulkUploadDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.CitationDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.CitationGraphDto;
 import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperPageDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperSearchDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.RetrievalDto;
 import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.mapper.PaperMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -28,18 +50,55 @@ import java.util.List;
 @Slf4j
 public class PaperController {
 
+    private static final String FILE_NAME_HEADER = "X-File-Name";
+    private static final String CONTENT_SHA256_HEADER = "X-Content-SHA256";
+
     private final LoadPaperPort loadPaperPort;
     private final UploadPaperUseCase uploadPaperUseCase;
     private final AnalyzePaperUseCase analyzePaperUseCase;
     private final DownloadPaperService downloadPaperService;
+    private final LoadPaperService loadPaperService;
+    private final CitationGraphService citationGraphService;
+    private final SearchPaperService searchPaperService;
+    private final RetrievalService retrievalService;
+    private final AskService askService;
+    private final AnswerEventStream answerEventStream;
     private final PaperMapper paperMapper;
+    private final RangedFileResponder fileResponder;
+    private final ZipUploadReader zipUploadReader;
 
-    // 获取列表 (简单实现，实际应该分页)
+    // 获取列表：按上传时间倒序的键集分页，cursor 取自上一页的 next_cursor
     @GetMapping
-    public ResponseEntity<List<PaperDto>> getAllPapers() {
-        // 这里需要 LoadPaperPort 增加 findAll 方法，暂时先返回空列表或模拟
-        // 为了跑通前端，我们暂不实现 findAll 的数据库查询，留给你后续完善
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<PaperPageDto> getAllPapers(
+            @RequestParam(required = false) PaperMetadata.ProcessingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        PaperPage page = loadPaperService.list(status, paperMapper.decodeCursor(cursor), limit);
+        return ResponseEntity.ok(paperMapper.toDto(page));
+    }
+
+    // 关键词搜索：按相关度排序，next_offset 为下一页的 offset
+    @GetMapping("/search")
+    public ResponseEntity<PaperSearchDto> searchPapers(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("🌐 [REST] Search papers: {}", query);
+        return ResponseEntity.ok(paperMapper.toDto(searchPaperService.search(query, offset, limit)));
+    }
+
+    // 文本块混合检索（向量 + BM25，RRF 融合）；author 可重复，年份取自发表日期
+    @GetMapping("/retrieve")
+    public ResponseEntity<RetrievalDto> retrieveChunks(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(value = "author", required = false) List<String> authors,
+            @RequestParam(value = "year_from", required = false) Integer yearFrom,
+            @RequestParam(value = "year_to", required = false) Integer yearTo,
+            @RequestParam(value = "has_doi", required = false) Boolean hasDoi) {
+        log.info("🌐 [REST] Retrieve chunks: {}", query);
+        SearchFilter filter = new SearchFilter(authors, yearFrom, yearTo, hasDoi);
+        return ResponseEntity.ok(paperMapper.toDto(retrievalService.retrieve(query, limit, filter)));
     }
 
     @GetMapping("/{id}")
@@ -50,7 +109,55 @@ public class PaperController {
         return ResponseEntity.ok(paperMapper.toDto(paper));
     }
 
-    @PostMapping("/upload")
+    // 全文单独存储，只有这里才会读取
+    @GetMapping(value = "/{id}/text", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getPaperText(@PathVariable String id,
+                                               @RequestParam(required = false) Integer page) {
+        log.info("🌐 [REST] Get paper text: {}, page={}", id, page);
+        return loadPaperService.loadText(PaperId.fromString(id), page)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 分析时抽取的引用；type 为 REFERENCE_LIST 或 IN_TEXT，省略时两者都返回
+    @GetMapping("/{id}/citations")
+    public ResponseEntity<CitationDto> getCitations(@PathVariable String id,
+                                                    @RequestParam(required = false) Citation.CitationType type) {
+        log.info("🌐 [REST] Get citations: {}, type={}", id, type);
+        return ResponseEntity.ok(paperMapper.toCitationDto(loadPaperService.loadCitations(PaperId.fromString(id), type)));
+    }
+
+    // 库内引用了该论文的论文，按施引论文自身的被引次数排序
+    @GetMapping("/{id}/cited-by")
+    public ResponseEntity<CitationGraphDto> getCitedBy(@PathVariable String id,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        log.info("🌐 [REST] Get cited-by: {}, limit={}", id, limit);
+        return ResponseEntity.ok(paperMapper.toCitationGraphDto(
+                citationGraphService.citedBy(PaperId.fromString(id), limit)));
+    }
+
+    // 与该论文一起被同一篇论文引用的论文，weight 为共被引次数
+    @GetMapping("/{id}/co-cited")
+    public ResponseEntity<CitationGraphDto> getCoCited(@PathVariable String id,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        log.info("🌐 [REST] Get co-cited: {}, limit={}", id, limit);
+        return ResponseEntity.ok(paperMapper.toCitationGraphDto(
+                citationGraphService.coCited(PaperId.fromString(id), limit)));
+    }
+
+    // k 跳引用邻域；direction 为 CITES、CITED_BY 或 BOTH
+    @GetMapping("/{id}/neighborhood")
+    public ResponseEntity<CitationGraphDto> getNeighborhood(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "2") int hops,
+            @RequestParam(defaultValue = "BOTH") CitationGraphPort.Direction direction,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("🌐 [REST] Get citation neighborhood: {}, hops={}, direction={}", id, hops, direction);
+        return ResponseEntity.ok(paperMapper.toCitationGraphDto(
+                citationGraphService.neighborhood(PaperId.fromString(id), hops, direction, limit)));
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PaperDto> uploadPaper(@RequestParam("file") MultipartFile file) throws IOException {
         log.info("🌐 [REST] Uploading file: {}, size: {}", file.getOriginalFilename(), file.getSize());
 
@@ -61,36 +168,140 @@ public class PaperController {
                 null
         );
 
-        Paper paper = uploadPaperUseCase.upload(command);
-        log.info("✅ [REST] Upload success, id: {}", paper.id());
+        return toResponse(uploadPaperUseCase.upload(command));
+    }
+
+    // 流式上传：请求体就是 PDF 本身，不经过 multipart 临时文件，直接写到存储目录
+    @PostMapping(value = "/upload",
+            consumes = {MediaType.APPLICATION_PDF_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<PaperDto> uploadPaperStream(
+            @RequestHeader(FILE_NAME_HEADER) String encodedFileName,
+            @RequestHeader(value = CONTENT_SHA256_HEADER, required = false) String sha256,
+            HttpServletRequest request) throws IOException {
+        String fileName = URLDecoder.decode(encodedFileName, StandardCharsets.UTF_8);
+        long contentLength = request.getContentLengthLong();
+        log.info("🌐 [REST] Streaming upload: {}, size: {}", fileName, contentLength);
+
+        var command = new UploadPaperUseCase.UploadPaperCommand(
+                request.getInputStream(),
+                fileName,
+                contentLength >= 0 ? contentLength : UploadPaperUseCase.UploadPaperCommand.UNKNOWN_SIZE,
+                null,
+                sha256
+        );
+
+        return toResponse(uploadPaperUseCase.upload(command));
+    }
+
+    // 批量导入（multipart，字段名 files）：返回逐个文件的结果清单，单个文件失败不影响整批
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkUploadDto> bulkUpload(@RequestParam("files") List<MultipartFile> files) {
+        log.info("🌐 [REST] Bulk upload: {} files", files.size());
+        List<UploadPaperUseCase.BulkUploadItem> items = files.stream()
+                .map(file -> new UploadPaperUseCase.BulkUploadItem(file.getOriginalFilename(), file::getInputStream))
+                .toList();
+        return ResponseEntity.ok(paperMapper.toDto(uploadPaperUseCase.uploadAll(items)));
+    }
 
+    // 批量导入（zip 请求体）：只导入其中的 PDF 条目
+    @PostMapping(value = "/bulk", consumes = {"application/zip", "application/x-zip-compressed"})
+    public ResponseEntity<BulkUploadDto> bulkUploadZip(HttpServletRequest request) throws IOException {
+        log.info("🌐 [REST] Bulk upload (zip), size: {}", request.getContentLengthLong());
+        try (ZipUploadReader.Archive archive = zipUploadReader.read(request.getInputStream())) {
+            return ResponseEntity.ok(paperMapper.toDto(uploadPaperUseCase.uploadAll(archive.items())));
+        }
+    }
+
+    // 重复内容返回 200 和已有论文，新论文返回 201
+    private ResponseEntity<PaperDto> toResponse(UploadPaperUseCase.UploadResult result) {
+        Paper paper = result.paper();
+        if (result.duplicate()) {
+            log.info("✅ [REST] Duplicate upload, existing id: {}", paper.id());
+            return ResponseEntity.ok(paperMapper.toDto(paper));
+        }
+        log.info("✅ [REST] Upload success, id: {}", paper.id());
         return ResponseEntity.status(HttpStatus.CREATED).body(paperMapper.toDto(paper));
     }
 
+    // 支持 Range（PDF 阅读器按页取区间）和 If-None-Match，响应体由文件直接发送
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadPaper(@PathVariable String id) {
-        log.info("🌐 [REST] Download paper: {}", id);
+    public void downloadPaper(@PathVariable String id,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        log.info("🌐 [REST] Download paper: {}, range={}", id, request.getHeader(HttpHeaders.RANGE));
 
-        var inputStream = downloadPaperService.downloadPaper(id);
-        var originalFileName = downloadPaperService.getOriginalFileName(id);
+        PaperDownload download = downloadPaperService.prepareDownload(id);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(download.originalFileName(), StandardCharsets.UTF_8)
+                .build();
+        fileResponder.write(request, response, download.file(), download.contentHash(),
+                MediaType.APPLICATION_PDF, disposition);
+    }
 
-        InputStreamResource resource = new InputStreamResource(inputStream);
+    // 针对单篇论文提问，回答以 SSE 流式返回（事件格式见 AskDto）
+    @PostMapping(value = "/{id}/ask", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askPaper(@PathVariable String id, @RequestBody AskDto.Request request) {
+        log.info("🌐 [REST] Ask paper {}: {}", id, request.question());
+        return ask(PaperId.fromString(id), request);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + originalFileName + "\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(resource);
+    // 在全部论文中检索后回答，可带与 /retrieve 相同的过滤条件
+    @PostMapping(value = "/ask", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askCorpus(@RequestBody AskDto.Request request) {
+        log.info("🌐 [REST] Ask corpus: {}", request.question());
+        return ask(null, request);
+    }
+
+    // 检索在请求线程上同步完成，参数错误和论文不存在仍按普通 HTTP 错误返回
+    private SseEmitter ask(PaperId paperId, AskDto.Request request) {
+        SearchFilter filter = new SearchFilter(request.authors(), request.yearFrom(), request.yearTo(), request.hasDoi());
+        AskService.PreparedAnswer prepared = askService.prepare(paperId, request.question(), request.limit(), filter);
+        return answerEventStream.open(prepared);
     }
 
     @PostMapping("/{id}/analyze")
     public ResponseEntity<String> analyzePaper(@PathVariable String id) {
+        log.info("🌐 [REST] Analyze paper: {}", id);
         PaperId paperId = PaperId.fromString(id);
+        // 仅提交到后台流水线，不等待分析完成
         analyzePaperUseCase.analyze(paperId);
-        return ResponseEntity.ok("Analysis started");
+        return ResponseEntity.accepted().body("Analysis started");
     }
 
     @ExceptionHandler(LoadPaperPort.PaperNotFoundException.class)
     public ResponseEntity<String> handleNotFound(LoadPaperPort.PaperNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RetrievalService.RetrievalException.class)
+    public ResponseEntity<String> handleRetrievalFailed(RetrievalService.RetrievalException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(UploadPaperUseCase.DigestMismatchException.class)
+    public ResponseEntity<String> handleDigestMismatch(UploadPaperUseCase.DigestMismatchException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(UploadPaperUseCase.FileTooLargeException.class)
+    public ResponseEntity<String> handleFileTooLarge(UploadPaperUseCase.FileTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AnalyzePaperUseCase.PaperHasNoFileException.class)
+    public ResponseEntity<String> handleNoFile(AnalyzePaperUseCase.PaperHasNoFileException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AnalyzePaperUseCase.AnalysisRejectedException.class)
+    public ResponseEntity<String> handleAnalysisRejected(AnalyzePaperUseCase.AnalysisRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
 }
@@ -0,0 +1,162 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
+
+import io.github.doubletree.scholarai.domain.port.out.StoragePort;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 直接从本地文件发送响应体，支持单段 Range（206）、ETag/If-None-Match（304）和 If-Range。
+ * <p>
+ * 运行在 Tomcat 上且连接器支持 sendfile 时，只设置请求属性，由连接器用 sendfile 把文件区间直接写到 socket；
+ * 否则用 {@link FileChannel#transferTo} 写入响应流。两种方式都不经过应用层的字节数组缓冲。
+ * 多段 Range 和格式错误的 Range 按规范忽略，返回完整内容。
+ */
+@Slf4j
+@Component
+public class RangedFileResponder {
+
+    // org.apache.catalina.Globals 中的 sendfile 约定
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** 小于这个长度时 sendfile 的系统调用开销不划算（与 Tomcat DefaultServlet 的默认值一致） */
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    /**
+     * @param contentHash 内容的 SHA-256，作为强 ETag；为 null 时用文件大小和修改时间生成弱 ETag
+     */
+    public void write(HttpServletRequest request,
+                      HttpServletResponse response,
+                      StoragePort.StoredFile file,
+                      String contentHash,
+                      MediaType contentType,
+                      ContentDisposition contentDisposition) throws IOException {
+        long size = file.size();
+        String etag = contentHash != null
+                ? "\"" + contentHash + "\""
+                : "W/\"" + Long.toHexString(size) + "-" + Long.toHexString(file.lastModified().toEpochMilli()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified().toEpochMilli());
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString());
+
+        long start = 0;
+        long end = size - 1;
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                start = size;
+            }
+            if (start >= size || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        long length = Math.max(0, end - start + 1);
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (length >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file, start, length, response);
+    }
+
+    private void transfer(StoragePort.StoredFile file, long start, long length, HttpServletResponse response)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    throw new IOException("File truncated while sending: " + file.storedFileName());
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * 只处理单段 Range；If-Range 与当前强 ETag 不一致（包括弱 ETag）时发送完整内容
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && (etag.startsWith("W/") || !ifRange.trim().equals(etag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed Range header: {}", header);
+            return null;
+        }
+    }
+
+    /**
+     * If-None-Match 使用弱比较：忽略 W/ 前缀
+     */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
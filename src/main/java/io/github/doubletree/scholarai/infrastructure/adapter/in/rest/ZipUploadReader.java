@@ -0,0 +1,103 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
+
+import io.github.doubletree.scholarai.domain.port.in.UploadPaperUseCase.BulkUploadItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * 把上传的 zip 请求体落到临时文件，再用 {@link ZipFile} 按中央目录列出其中的 PDF。
+ * <p>
+ * 不直接用 ZipInputStream 边读边处理：那样只能顺序解压，无法并行写入存储。
+ * {@link ZipFile} 可以同时打开多个条目的输入流，每个条目在写入它的线程中才解压。
+ * 单个条目的大小由存储端的文件大小上限约束，这里只限制压缩包本身的大小。
+ */
+@Slf4j
+@Component
+public class ZipUploadReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long maxArchiveSize;
+
+    public ZipUploadReader(@Value("${scholar-ai.bulk-upload.max-archive-size:2GB}") DataSize maxArchiveSize) {
+        this.maxArchiveSize = maxArchiveSize.toBytes();
+    }
+
+    /**
+     * 调用方负责关闭返回的归档，关闭时删除临时文件
+     */
+    public Archive read(InputStream body) throws IOException {
+        Path spool = Files.createTempFile("bulk-upload-", ".zip");
+        try {
+            long size = 0;
+            try (body; OutputStream out = Files.newOutputStream(spool)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxArchiveSize) {
+                        throw new IllegalArgumentException("Archive exceeds maximum size of " + maxArchiveSize + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            ZipFile zip = new ZipFile(spool.toFile());
+            List<BulkUploadItem> items = new ArrayList<>();
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                String fileName = pdfFileName(entry);
+                if (fileName != null) {
+                    items.add(new BulkUploadItem(fileName, () -> zip.getInputStream(entry)));
+                }
+            }
+            log.info("🌐 [REST] Zip archive received: {} bytes, {} PDF entries", size, items.size());
+            return new Archive(zip, spool, List.copyOf(items));
+        } catch (ZipException e) {
+            Files.deleteIfExists(spool);
+            throw new IllegalArgumentException("Invalid zip archive", e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    /**
+     * 只取 PDF 条目，去掉目录部分；跳过目录、隐藏文件和 macOS 生成的 __MACOSX 资源文件
+     */
+    private static String pdfFileName(ZipEntry entry) {
+        String name = entry.getName().replace('\\', '/');
+        if (entry.isDirectory() || name.startsWith("__MACOSX/")) {
+            return null;
+        }
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        if (fileName.startsWith(".") || !fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+            return null;
+        }
+        return fileName;
+    }
+
+    public record Archive(ZipFile zip, Path spool, List<BulkUploadItem> items) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            try {
+                zip.close();
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * 问答请求体和 SSE 事件数据。事件顺序：sources（一次）→ token（多次）→ done 或 error（一次）。
+ */
+public final class AskDto {
+
+    private AskDto() {
+    }
+
+    public record Request(
+            @JsonProperty("question") String question,
+            @JsonProperty("limit") Integer limit,
+            @JsonProperty("authors") List<String> authors,
+            @JsonProperty("year_from") Integer yearFrom,
+            @JsonProperty("year_to") Integer yearTo,
+            @JsonProperty("has_doi") Boolean hasDoi
+    ) {}
+
+    public record Token(
+            @JsonProperty("text") String text
+    ) {}
+
+    public record Done(
+            @JsonProperty("ttft_ms") long ttftMs,
+            @JsonProperty("tokens") long tokens,
+            @JsonProperty("duration_ms") long durationMs,
+            @JsonProperty("tokens_per_second") double tokensPerSecond,
+            @JsonProperty("cached") boolean cached
+    ) {}
+
+    public record Failure(
+            @JsonProperty("message") String message
+    ) {}
+}
@@ -0,0 +1,20 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record BulkUploadDto(
+        @JsonProperty("total") int total,
+        @JsonProperty("created") long created,
+        @JsonProperty("duplicates") long duplicates,
+        @JsonProperty("failed") long failed,
+        @JsonProperty("elapsed_ms") long elapsedMillis,
+        @JsonProperty("items") List<Item> items
+) {
+    public record Item(
+            @JsonProperty("file_name") String fileName,
+            @JsonProperty("status") String status,
+            @JsonProperty("id") String id,
+            @JsonProperty("error") String error
+    ) {}
+}
@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record CitationDto(
+        @JsonProperty("items") List<Item> items
+) {
+    public record Item(
+            @JsonProperty("type") String type,
+            @JsonProperty("text") String text,
+            @JsonProperty("authors") List<String> authors,
+            @JsonProperty("year") Integer year,
+            @JsonProperty("title") String title,
+            @JsonProperty("venue") String venue,
+            @JsonProperty("doi") String doi,
+            @JsonProperty("page_number") int pageNumber
+    ) {}
+}
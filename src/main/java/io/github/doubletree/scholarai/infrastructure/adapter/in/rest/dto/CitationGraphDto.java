@@ -0,0 +1,15 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record CitationGraphDto(
+        @JsonProperty("items") List<Node> items
+) {
+    public record Node(
+            @JsonProperty("paper_id") String paperId,
+            @JsonProperty("title") String title,
+            @JsonProperty("hops") int hops,
+            @JsonProperty("weight") int weight
+    ) {}
+}
@@ -0,0 +1,9 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record PaperPageDto(
+        @JsonProperty("items") List<PaperSummaryDto> items,
+        @JsonProperty("next_cursor") String nextCursor
+) {}
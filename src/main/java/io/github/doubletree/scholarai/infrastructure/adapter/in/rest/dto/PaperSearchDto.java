@@ -0,0 +1,15 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import java.util.List;
+
+public record PaperSearchDto(
+        @JsonProperty("items") List<Hit> items,
+        @JsonProperty("next_offset") Integer nextOffset
+) {
+    public record Hit(
+            @JsonUnwrapped PaperSummaryDto paper,
+            @JsonProperty("score") double score
+    ) {}
+}
@@ -0,0 +1,16 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PaperSummaryDto(
+        @JsonProperty("id") String id,
+        @JsonProperty("title") String title,
+        @JsonProperty("authors") List<String> authors,
+        @JsonProperty("doi") String doi,
+        @JsonProperty("published_date") LocalDateTime publishedDate,
+        @JsonProperty("uploaded_at") LocalDateTime uploadedAt,
+        @JsonProperty("status") String status,
+        @JsonProperty("file_size") long fileSize
+) {}
@@ -0,0 +1,18 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record RetrievalDto(
+        @JsonProperty("items") List<Chunk> items
+) {
+    public record Chunk(
+            @JsonProperty("paper_id") String paperId,
+            @JsonProperty("chunk_index") int chunkIndex,
+            @JsonProperty("page_number") int pageNumber,
+            @JsonProperty("content") String content,
+            @JsonProperty("score") double score,
+            @JsonProperty("vector_rank") Integer vectorRank,
+            @JsonProperty("lexical_rank") Integer lexicalRank
+    ) {}
+}
@@ -1,9 +1,31 @@
 package io.github.doubletree.scholarai.infrastructure.adapter.in.rest.mapper;
 
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.GraphNeighbor;
 import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperCursor;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperPage;
+import io.github.doubletree.scholarai.domain.model.PaperSearchPage;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.port.in.UploadPaperUseCase;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.BulkUploadDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.CitationDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.CitationGraphDto;
 import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperPageDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperSearchDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.PaperSummaryDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.RetrievalDto;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
 @Component
 public class PaperMapper {
     public PaperDto toDto(Paper paper) {
@@ -20,6 +42,123 @@ public class PaperMapper {
         );
     }
 
+    public PaperSummaryDto toDto(PaperSummary summary) {
+        return new PaperSummaryDto(
+            summary.id().toString(),
+            summary.title(),
+            summary.authors(),
+            summary.doi(),
+            summary.publishedDate(),
+            summary.uploadedAt(),
+            summary.status().name(),
+            summary.fileSize()
+        );
+    }
+
+    public PaperPageDto toDto(PaperPage page) {
+        return new PaperPageDto(
+            page.items().stream().map(this::toDto).toList(),
+            page.hasMore() ? encodeCursor(page.nextCursor()) : null
+        );
+    }
+
+    public PaperSearchDto toDto(PaperSearchPage page) {
+        return new PaperSearchDto(
+            page.items().stream()
+                .map(hit -> new PaperSearchDto.Hit(toDto(hit.paper()), hit.score()))
+                .toList(),
+            page.hasMore() ? page.offset() + page.items().size() : null
+        );
+    }
+
+    /**
+     * 未被某一路检索命中时对应的名次字段为 null
+     */
+    public RetrievalDto toDto(List<RetrievedChunk> chunks) {
+        return new RetrievalDto(
+            chunks.stream()
+                .map(chunk -> new RetrievalDto.Chunk(
+                    chunk.paperId().toString(),
+                    chunk.chunkIndex(),
+                    chunk.pageNumber(),
+                    chunk.content(),
+                    chunk.score(),
+                    chunk.vectorRank() > 0 ? chunk.vectorRank() : null,
+                    chunk.lexicalRank() > 0 ? chunk.lexicalRank() : null))
+                .toList()
+        );
+    }
+
+    public CitationDto toCitationDto(List<Citation> citations) {
+        return new CitationDto(
+            citations.stream()
+                .map(citation -> new CitationDto.Item(
+                    citation.type().name(),
+                    citation.citationText(),
+                    citation.authors(),
+                    citation.year(),
+                    citation.title(),
+                    citation.venue(),
+                    citation.doi(),
+                    citation.pageNumber()))
+                .toList()
+        );
+    }
+
+    public CitationGraphDto toCitationGraphDto(List<GraphNeighbor> neighbors) {
+        return new CitationGraphDto(
+            neighbors.stream()
+                .map(neighbor -> new CitationGraphDto.Node(
+                    neighbor.paperId().toString(),
+                    neighbor.title(),
+                    neighbor.hops(),
+                    neighbor.weight()))
+                .toList()
+        );
+    }
+
+    public BulkUploadDto toDto(UploadPaperUseCase.BulkUploadResult result) {
+        return new BulkUploadDto(
+            result.items().size(),
+            result.count(UploadPaperUseCase.BulkItemStatus.CREATED),
+            result.count(UploadPaperUseCase.BulkItemStatus.DUPLICATE),
+            result.count(UploadPaperUseCase.BulkItemStatus.FAILED),
+            result.elapsedMillis(),
+            result.items().stream()
+                .map(item -> new BulkUploadDto.Item(
+                    item.fileName(),
+                    item.status().name(),
+                    item.paper() != null ? item.paper().id().toString() : null,
+                    item.error()))
+                .toList()
+        );
+    }
+
+    /**
+     * 游标对客户端不透明：base64url("uploadedAt|id")
+     */
+    public String encodeCursor(PaperCursor cursor) {
+        String raw = cursor.uploadedAt() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PaperCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PaperCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                PaperId.fromString(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
     public Paper toDomain(PaperDto dto) {
         throw new UnsupportedOperationException("Not implemented yet");
     }
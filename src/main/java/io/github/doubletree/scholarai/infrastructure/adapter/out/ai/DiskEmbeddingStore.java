@@ -0,0 +1,280 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 向量缓存的磁盘层：两代只追加的日志文件，每代一个内存中的 key → 位置索引。
+ * <p>
+ * 记录格式（小端）：
+ * <pre>
+ * int   magic 'EMBC'
+ * byte  textHash[32]      SHA-256(规范化文本)
+ * short modelLength
+ * byte  model[modelLength] UTF-8
+ * int   dimensions
+ * float vector[dimensions] 原始 float32
+ * </pre>
+ * 新记录只写入当前代。当前代超过 max-bytes 的一半时轮转：删除上一代的文件和索引，当前代变为上一代，
+ * 再新建一个空的当前代。上一代中被读到的记录会复制到当前代，常用的向量不会随轮转丢失，
+ * 整体近似按访问时间淘汰。磁盘占用和索引条目数都不超过 max-bytes 对应的量。
+ * <p>
+ * 启动时顺序扫描最新的两代重建索引，更早的文件直接删除；写到一半崩溃留下的残缺记录会被截断。
+ * 读取使用 FileChannel 的定位读，多线程并发安全；写入和轮转串行化。
+ */
+@Slf4j
+class DiskEmbeddingStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x454D4243;
+    private static final int MAX_DIMENSIONS = 0xFFFF;
+    private static final Pattern GENERATION_FILE = Pattern.compile("embeddings-(\\d+)\\.log");
+    // 轮转前的单文件格式，启动时改名为第 0 代
+    private static final String LEGACY_FILE = "embeddings.log";
+
+    /**
+     * 一代日志文件及其索引，值为 (向量数据偏移 << 16) | 维度
+     */
+    private static final class Generation {
+        final long sequence;
+        final Path file;
+        final FileChannel channel;
+        final Map<EmbeddingCacheKey, Long> index = new ConcurrentHashMap<>();
+        volatile long end;
+
+        Generation(long sequence, Path file) throws IOException {
+            this.sequence = sequence;
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+    }
+
+    private final Path directory;
+    private final long generationBytes;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    DiskEmbeddingStore(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("max-bytes must be positive");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.generationBytes = Math.max(1, maxBytes / 2);
+
+        Path legacy = directory.resolve(LEGACY_FILE);
+        if (Files.exists(legacy)) {
+            Files.move(legacy, fileOf(0));
+        }
+        List<Long> sequences = existingGenerations();
+        for (int i = 0; i < sequences.size() - 2; i++) {
+            Files.deleteIfExists(fileOf(sequences.get(i)));
+        }
+        if (sequences.size() >= 2) {
+            previous = open(sequences.get(sequences.size() - 2));
+        }
+        current = open(sequences.isEmpty() ? 0 : sequences.getLast());
+        if (current.end >= generationBytes) {
+            rotate();
+        }
+        log.info("🧠 [Cache] Disk embedding store at {}: {} entries, {} bytes (max {})",
+                directory.toAbsolutePath(), size(), sizeInBytes(), maxBytes);
+    }
+
+    float[] get(EmbeddingCacheKey key) throws IOException {
+        Generation generation = current;
+        Long location = generation.index.get(key);
+        if (location == null) {
+            generation = previous;
+            location = generation == null ? null : generation.index.get(key);
+            if (location == null) {
+                return null;
+            }
+        }
+        float[] vector;
+        try {
+            vector = read(generation, location);
+        } catch (ClosedChannelException e) {
+            // 读取期间这一代被轮转删除
+            return null;
+        }
+        if (generation != current) {
+            put(key, vector);
+        }
+        return vector;
+    }
+
+    synchronized void put(EmbeddingCacheKey key, float[] vector) throws IOException {
+        Generation generation = current;
+        if (generation.index.containsKey(key) || vector.length > MAX_DIMENSIONS) {
+            return;
+        }
+        byte[] model = key.model().getBytes(StandardCharsets.UTF_8);
+        int headerSize = Integer.BYTES + 32 + Short.BYTES + model.length + Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(headerSize + vector.length * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        key.writeHash(buffer);
+        buffer.putShort((short) model.length);
+        buffer.put(model);
+        buffer.putInt(vector.length);
+        buffer.asFloatBuffer().put(vector);
+        buffer.position(buffer.capacity());
+        buffer.flip();
+
+        long recordStart = generation.end;
+        long end = recordStart;
+        while (buffer.hasRemaining()) {
+            end += generation.channel.write(buffer, end);
+        }
+        generation.end = end;
+        generation.index.put(key, ((recordStart + headerSize) << 16) | vector.length);
+        if (end >= generationBytes) {
+            rotate();
+        }
+    }
+
+    int size() {
+        Generation old = previous;
+        return current.index.size() + (old == null ? 0 : old.index.size());
+    }
+
+    long sizeInBytes() {
+        Generation old = previous;
+        return current.end + (old == null ? 0 : old.end);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        current.channel.force(false);
+        current.channel.close();
+        if (previous != null) {
+            previous.channel.close();
+        }
+    }
+
+    private synchronized void rotate() throws IOException {
+        Generation dropped = previous;
+        Generation next = open(current.sequence + 1);
+        current.channel.force(false);
+        previous = current;
+        current = next;
+        if (dropped != null) {
+            dropped.channel.close();
+            Files.deleteIfExists(dropped.file);
+            log.debug("🧠 [Cache] Rotated embedding log, dropped {} entries ({} bytes)",
+                    dropped.index.size(), dropped.end);
+        }
+    }
+
+    private Generation open(long sequence) throws IOException {
+        Generation generation = new Generation(sequence, fileOf(sequence));
+        generation.end = rebuildIndex(generation);
+        return generation;
+    }
+
+    private Path fileOf(long sequence) {
+        return directory.resolve("embeddings-" + sequence + ".log");
+    }
+
+    private List<Long> existingGenerations() throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "embeddings-*.log")) {
+            for (Path file : files) {
+                Matcher matcher = GENERATION_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    sequences.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        sequences.sort(Comparator.naturalOrder());
+        return sequences;
+    }
+
+    private static float[] read(Generation generation, long location) throws IOException {
+        long offset = location >>> 16;
+        int dimensions = (int) (location & 0xFFFF);
+
+        ByteBuffer buffer = ByteBuffer.allocate(dimensions * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(generation.channel, buffer, offset);
+        float[] vector = new float[dimensions];
+        buffer.flip();
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static long rebuildIndex(Generation generation) throws IOException {
+        FileChannel channel = generation.channel;
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer fixed = ByteBuffer.allocate(Integer.BYTES + 32 + Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer intBuffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (position < size) {
+            long recordStart = position;
+            try {
+                fixed.clear();
+                readFully(channel, fixed, position);
+                fixed.flip();
+                if (fixed.getInt() != MAGIC) {
+                    throw new IOException("Bad magic at offset " + recordStart);
+                }
+                byte[] hash = new byte[32];
+                fixed.get(hash);
+                int modelLength = Short.toUnsignedInt(fixed.getShort());
+                position += fixed.capacity();
+
+                ByteBuffer modelBuffer = ByteBuffer.allocate(modelLength);
+                readFully(channel, modelBuffer, position);
+                position += modelLength;
+
+                intBuffer.clear();
+                readFully(channel, intBuffer, position);
+                int dimensions = intBuffer.flip().getInt();
+                position += Integer.BYTES;
+
+                long dataEnd = position + (long) dimensions * Float.BYTES;
+                if (dimensions <= 0 || dimensions > MAX_DIMENSIONS || dataEnd > size) {
+                    throw new IOException("Truncated record at offset " + recordStart);
+                }
+                String model = new String(modelBuffer.array(), StandardCharsets.UTF_8);
+                generation.index.put(EmbeddingCacheKey.of(hash, model), (position << 16) | dimensions);
+                position = dataEnd;
+            } catch (IOException e) {
+                log.warn("⚠️ [Cache] Discarding corrupt tail of {} from offset {}: {}",
+                        generation.file, recordStart, e.getMessage());
+                channel.truncate(recordStart);
+                return recordStart;
+            }
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += read;
+        }
+    }
+}
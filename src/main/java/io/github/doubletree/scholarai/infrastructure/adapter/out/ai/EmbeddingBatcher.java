@@ -0,0 +1,371 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort.EmbeddingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 跨论文合并向量化请求的批处理器。
+ * <p>
+ * 并发调用 {@link #embed(List)} 的线程把文本块放入共享队列后等待结果；单个 dispatcher 线程从队列中
+ * 凑批（受条数和 token 预算双重约束，最多等待 maxWait），在 in-flight 许可允许时异步发送给模型。
+ * <ul>
+ *     <li>批大小按 AIMD 自适应：请求耗时低于目标时线性增大，超过目标时减半</li>
+ *     <li>收到 429 时批大小减半，并对所有请求统一指数退避（带抖动）后重试</li>
+ * </ul>
+ * 只依赖 {@link EmbeddingModel} 接口，可以直接用本地桩模型测量吞吐。
+ */
+@Slf4j
+public class EmbeddingBatcher implements AutoCloseable {
+
+    public record Settings(
+            int minBatchSize,
+            int initialBatchSize,
+            int maxBatchSize,
+            int maxBatchTokens,
+            int maxInFlight,
+            long maxWaitMs,
+            long targetLatencyMs,
+            int maxRetries,
+            long initialBackoffMs,
+            long maxBackoffMs
+    ) {
+        public Settings {
+            if (minBatchSize <= 0 || minBatchSize > maxBatchSize) {
+                throw new IllegalArgumentException("Batch size bounds must satisfy 0 < min <= max");
+            }
+            if (initialBatchSize < minBatchSize || initialBatchSize > maxBatchSize) {
+                throw new IllegalArgumentException("Initial batch size must be within [min, max]");
+            }
+            if (maxBatchTokens <= 0 || maxInFlight <= 0) {
+                throw new IllegalArgumentException("Token budget and in-flight limit must be positive");
+            }
+            if (maxWaitMs < 0 || targetLatencyMs <= 0 || maxRetries < 0 || initialBackoffMs <= 0
+                    || maxBackoffMs < initialBackoffMs) {
+                throw new IllegalArgumentException("Invalid timing settings");
+            }
+        }
+    }
+
+    public record Stats(
+            long requests,
+            long chunks,
+            long rateLimited,
+            long failures,
+            int currentBatchSize,
+            int inFlight,
+            int queued
+    ) {
+    }
+
+    private record Pending(TextChunk chunk, CompletableFuture<float[]> result) {
+    }
+
+    private final EmbeddingModel embeddingModel;
+    private final String modelName;
+    private final Settings settings;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // 已经发出、尚未返回的批次
+    private final Set<List<Pending>> sending = ConcurrentHashMap.newKeySet();
+    private final Semaphore inFlight;
+    private final Thread dispatcher;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder chunkCount = new LongAdder();
+    private final LongAdder rateLimitedCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    private volatile int batchSize;
+    private volatile long pausedUntilNanos;
+    private volatile boolean running = true;
+
+    // 上一批因 token 预算放不下而留到下一批的请求，只由 dispatcher 线程访问
+    private Pending carryOver;
+
+    public EmbeddingBatcher(EmbeddingModel embeddingModel, String modelName, Settings settings) {
+        this.embeddingModel = embeddingModel;
+        this.modelName = modelName;
+        this.settings = settings;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        this.batchSize = settings.initialBatchSize();
+        this.dispatcher = Thread.ofVirtual().name("embedding-dispatcher").start(this::dispatchLoop);
+    }
+
+    /**
+     * 阻塞直到所有文本块都得到向量，返回顺序与输入一致
+     */
+    public List<Embedding> embed(List<TextChunk> chunks) {
+        if (!running) {
+            throw shutdownException();
+        }
+        List<CompletableFuture<float[]>> futures = new ArrayList<>(chunks.size());
+        for (TextChunk chunk : chunks) {
+            CompletableFuture<float[]> future = new CompletableFuture<>();
+            futures.add(future);
+            queue.add(new Pending(chunk, future));
+        }
+        if (!running) {
+            // close() 可能在上面的检查和入队之间清空了队列，这些请求不会再被处理
+            abandon(futures, shutdownException());
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            float[] vector;
+            try {
+                vector = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(futures, e);
+                throw new EmbeddingException("Interrupted while waiting for embeddings", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof EmbeddingException ee
+                        ? ee
+                        : new EmbeddingException("Embedding failed", e.getCause());
+            }
+            embeddings.add(new Embedding(vector, vector.length, modelName, chunks.get(i).chunkIndex()));
+        }
+        return embeddings;
+    }
+
+    public String modelName() {
+        return modelName;
+    }
+
+    public Stats stats() {
+        return new Stats(
+                requestCount.sum(),
+                chunkCount.sum(),
+                rateLimitedCount.sum(),
+                failureCount.sum(),
+                batchSize,
+                settings.maxInFlight() - inFlight.availablePermits(),
+                queue.size()
+        );
+    }
+
+    /**
+     * 排队中、凑批中和已经发出的请求都以异常结束，调用方不会一直等待下去；已经发出的请求返回时结果被忽略
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        EmbeddingException shutdown = shutdownException();
+        failQueued(shutdown);
+        for (List<Pending> batch : sending) {
+            for (Pending pending : batch) {
+                pending.result().completeExceptionally(shutdown);
+            }
+        }
+    }
+
+    /**
+     * 让尚未完成的请求以异常结束，并把它们从队列中移除（已经发出的批次完成时会忽略它们）
+     */
+    private void abandon(List<CompletableFuture<float[]>> futures, Throwable cause) {
+        for (CompletableFuture<float[]> future : futures) {
+            future.completeExceptionally(cause);
+        }
+        queue.removeIf(pending -> pending.result().isDone());
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (running) {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                try {
+                    collectBatch(batch);
+                    awaitBackoff();
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failAll(batch, e);
+                    return;
+                }
+
+                sending.add(batch);
+                if (!running) {
+                    // close() 遍历 sending 时这一批还没有登记
+                    sending.remove(batch);
+                    inFlight.release();
+                    failAll(batch, shutdownException());
+                    return;
+                }
+                Thread.ofVirtual().name("embedding-request").start(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        sending.remove(batch);
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            // close() 与凑批并发时，留到下一批的请求和之后入队的请求由这里结束
+            EmbeddingException shutdown = shutdownException();
+            if (carryOver != null) {
+                carryOver.result().completeExceptionally(shutdown);
+                carryOver = null;
+            }
+            failQueued(shutdown);
+        }
+    }
+
+    /**
+     * 凑批的请求直接放进 batch，凑批时被中断，调用方仍能让已取出的请求失败
+     */
+    private void collectBatch(List<Pending> batch) throws InterruptedException {
+        int limit = batchSize;
+        Pending first = carryOver != null ? carryOver : queue.take();
+        carryOver = null;
+        batch.add(first);
+        int tokens = first.chunk().estimatedTokens();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.maxWaitMs());
+        while (batch.size() < limit) {
+            Pending next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                    break;
+                }
+            }
+            int chunkTokens = next.chunk().estimatedTokens();
+            if (tokens + chunkTokens > settings.maxBatchTokens()) {
+                carryOver = next;
+                break;
+            }
+            batch.add(next);
+            tokens += chunkTokens;
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<String> texts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            texts.add(pending.chunk().content());
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                List<float[]> vectors = embeddingModel.embed(texts);
+                if (vectors.size() != batch.size()) {
+                    throw new IllegalStateException(String.format("Expected %d vectors but got %d",
+                            batch.size(), vectors.size()));
+                }
+                requestCount.increment();
+                chunkCount.add(batch.size());
+                onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().complete(vectors.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (isRateLimited(e) && attempt < settings.maxRetries() && running) {
+                    onRateLimited(attempt);
+                    try {
+                        awaitBackoff();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        failAll(batch, ie);
+                        return;
+                    }
+                    continue;
+                }
+                failureCount.increment();
+                log.error("❌ [AI] Embedding request failed: {} chunks", batch.size(), e);
+                failAll(batch, e);
+                return;
+            }
+        }
+    }
+
+    private void onSuccess(long latencyMs) {
+        int current = batchSize;
+        int adjusted = latencyMs <= settings.targetLatencyMs()
+                ? Math.min(settings.maxBatchSize(), current + settings.minBatchSize())
+                : Math.max(settings.minBatchSize(), current / 2);
+        if (adjusted != current) {
+            batchSize = adjusted;
+            log.debug("🧠 [AI] Embedding batch size {} -> {} (latency {} ms)", current, adjusted, latencyMs);
+        }
+    }
+
+    private void onRateLimited(int attempt) {
+        rateLimitedCount.increment();
+        batchSize = Math.max(settings.minBatchSize(), batchSize / 2);
+
+        long backoffMs = Math.min(settings.maxBackoffMs(), settings.initialBackoffMs() << Math.min(attempt, 20));
+        long jitteredMs = backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(jitteredMs);
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+        }
+        log.warn("⚠️ [AI] Embedding rate limited (attempt {}), backing off {} ms, batch size -> {}",
+                attempt + 1, jitteredMs, batchSize);
+    }
+
+    private void awaitBackoff() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = pausedUntilNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void failQueued(EmbeddingException cause) {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(cause);
+        }
+    }
+
+    private static EmbeddingException shutdownException() {
+        return new EmbeddingException("Embedding batcher is shut down", null);
+    }
+
+    private void failAll(List<Pending> batch, Throwable cause) {
+        EmbeddingException error = new EmbeddingException(
+                "Embedding request failed for " + batch.size() + " chunks", cause);
+        for (Pending pending : batch) {
+            pending.result().completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 只看 HTTP 状态码，不解析异常消息。Spring AI 的 429 由 {@link RateLimitAwareResponseErrorHandler}
+     * 转换为 {@link HttpClientErrorException.TooManyRequests}。
+     */
+    static boolean isRateLimited(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpClientErrorException.TooManyRequests) {
+                return true;
+            }
+            if (t instanceof RestClientResponseException http
+                    && http.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内容寻址的两级向量缓存：堆内 LRU 在前，磁盘日志在后（总大小受 max-disk-size 限制）。
+ * <p>
+ * 许可证声明、会议页眉、常见参考文献等样板文本在大量论文中重复出现，
+ * 按规范化文本哈希 + 模型名缓存后不必重复调用模型。磁盘层命中时回填堆内 LRU。
+ */
+@Slf4j
+@Component
+public class EmbeddingCache {
+
+    public record Stats(
+            long memoryHits,
+            long diskHits,
+            long misses,
+            long evictions,
+            long puts,
+            int memoryEntries,
+            int diskEntries,
+            long diskBytes,
+            double hitRatio
+    ) {
+    }
+
+    private final boolean enabled;
+    private final int maxMemoryEntries;
+    private final String directory;
+    private final long maxDiskBytes;
+
+    private final Map<EmbeddingCacheKey, float[]> memory;
+    private DiskEmbeddingStore disk;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public EmbeddingCache(@Value("${scholar-ai.embedding.cache.enabled:true}") boolean enabled,
+                          @Value("${scholar-ai.embedding.cache.max-entries:50000}") int maxMemoryEntries,
+                          @Value("${scholar-ai.embedding.cache.dir:./data/embedding-cache}") String directory,
+                          @Value("${scholar-ai.embedding.cache.max-disk-size:2GB}") DataSize maxDiskSize) {
+        this.enabled = enabled;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskSize.toBytes();
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EmbeddingCacheKey, float[]> eldest) {
+                if (size() > EmbeddingCache.this.maxMemoryEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("🧠 [Cache] Embedding cache disabled");
+            return;
+        }
+        try {
+            disk = new DiskEmbeddingStore(Paths.get(directory), maxDiskBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open embedding cache at " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (disk == null) {
+            return;
+        }
+        try {
+            disk.close();
+        } catch (IOException e) {
+            log.warn("⚠️ [Cache] Failed to close embedding cache", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    EmbeddingCacheKey keyFor(CharSequence text, String model) {
+        return EmbeddingCacheKey.of(text, model);
+    }
+
+    float[] get(EmbeddingCacheKey key) {
+        if (!enabled) {
+            return null;
+        }
+        float[] vector;
+        synchronized (memory) {
+            vector = memory.get(key);
+        }
+        if (vector != null) {
+            memoryHits.increment();
+            return vector;
+        }
+
+        try {
+            vector = disk.get(key);
+        } catch (IOException e) {
+            log.warn("⚠️ [Cache] Disk read failed, treating as miss", e);
+            vector = null;
+        }
+        if (vector == null) {
+            misses.increment();
+            return null;
+        }
+        diskHits.increment();
+        synchronized (memory) {
+            memory.put(key, vector);
+        }
+        return vector;
+    }
+
+    void put(EmbeddingCacheKey key, float[] vector) {
+        if (!enabled) {
+            return;
+        }
+        puts.increment();
+        synchronized (memory) {
+            memory.put(key, vector);
+        }
+        try {
+            disk.put(key, vector);
+        } catch (IOException e) {
+            log.warn("⚠️ [Cache] Disk write failed, entry kept in memory only", e);
+        }
+    }
+
+    public Stats stats() {
+        long memoryHitCount = memoryHits.sum();
+        long diskHitCount = diskHits.sum();
+        long missCount = misses.sum();
+        long lookups = memoryHitCount + diskHitCount + missCount;
+        int memoryEntries;
+        synchronized (memory) {
+            memoryEntries = memory.size();
+        }
+        return new Stats(
+                memoryHitCount,
+                diskHitCount,
+                missCount,
+                evictions.sum(),
+                puts.sum(),
+                memoryEntries,
+                disk != null ? disk.size() : 0,
+                disk != null ? disk.sizeInBytes() : 0L,
+                lookups == 0 ? 0.0 : (double) (memoryHitCount + diskHitCount) / lookups
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+
+/**
+ * 向量缓存的键：(SHA-256(规范化文本), 模型名)。
+ * 哈希拆成 4 个 long 保存，equals/hashCode 不涉及数组。
+ */
+record EmbeddingCacheKey(long h0, long h1, long h2, long h3, String model) {
+
+    static EmbeddingCacheKey of(CharSequence text, String model) {
+        byte[] hash = sha256(normalize(text));
+        return of(hash, model);
+    }
+
+    static EmbeddingCacheKey of(byte[] hash, String model) {
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        return new EmbeddingCacheKey(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), model);
+    }
+
+    /**
+     * 按原始摘要的字节顺序写入（与 {@link #of(byte[], String)} 对称，不受 buffer 字节序影响）
+     */
+    void writeHash(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.BIG_ENDIAN).putLong(h0).putLong(h1).putLong(h2).putLong(h3);
+        buffer.order(order);
+    }
+
+    /**
+     * Unicode NFC，首尾去空白，连续空白合并为一个空格。大小写保持不变（会影响向量）。
+     */
+    static String normalize(CharSequence text) {
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = !sb.isEmpty();
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import org.springframework.ai.autoconfigure.retry.SpringAiRetryProperties;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseErrorHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 替换 Spring AI 自动配置的 HTTP 错误处理器（容器中已有 ResponseErrorHandler 时自动配置不再注册默认实现）。
+ * <p>
+ * 默认实现把所有错误都转换成消息为 {@code "<status> - <body>"} 的 AiException，状态码只能从消息文本里猜。
+ * 这里 429 抛出带状态码的 {@link HttpClientErrorException.TooManyRequests}，由 {@link EmbeddingBatcher}
+ * 统一退避重试；其他状态码与默认实现一致，仍按 {@code spring.ai.retry.*} 区分可重试和不可重试。
+ */
+@Component
+public class RateLimitAwareResponseErrorHandler implements ResponseErrorHandler {
+
+    private final SpringAiRetryProperties properties;
+
+    public RateLimitAwareResponseErrorHandler(SpringAiRetryProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean hasError(ClientHttpResponse response) throws IOException {
+        return response.getStatusCode().isError();
+    }
+
+    @Override
+    public void handleError(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        if (!status.isError()) {
+            return;
+        }
+        byte[] body = response.getBody().readAllBytes();
+        if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throw HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(), body,
+                    StandardCharsets.UTF_8);
+        }
+        String message = "%s - %s".formatted(status.value(), new String(body, StandardCharsets.UTF_8));
+        if (properties.getOnHttpCodes().contains(status.value())) {
+            throw new TransientAiException(message);
+        }
+        if (!properties.isOnClientErrors() && status.is4xxClientError()) {
+            throw new NonTransientAiException(message);
+        }
+        if (properties.getExcludeOnHttpCodes() != null && properties.getExcludeOnHttpCodes().contains(status.value())) {
+            throw new NonTransientAiException(message);
+        }
+        throw new TransientAiException(message);
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import io.github.doubletree.scholarai.domain.port.out.ChatPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流式对话出口：订阅 {@link ChatModel#stream(Prompt)}，把每个响应片段的文本立即交给调用方，
+ * 同时记录首个片段的延迟（TTFT）和生成速度。
+ * <p>
+ * 只依赖 {@link ChatModel} 接口；配置 scholar-ai.chat.stub=true 时由 {@link StubChatModel} 代替真实模型。
+ */
+@Slf4j
+@Component
+public class SpringAiChatAdapter implements ChatPort {
+
+    public record Stats(
+            long streams,
+            long completed,
+            long failed,
+            long cancelled,
+            int inFlight,
+            long tokens,
+            double avgFirstTokenMillis,
+            long maxFirstTokenMillis,
+            double tokensPerSecond
+    ) {
+    }
+
+    private final ChatModel chatModel;
+    private final Duration timeout;
+
+    private final LongAdder streams = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder firstTokenSamples = new LongAdder();
+    private final LongAdder firstTokenMillisTotal = new LongAdder();
+    private final LongAccumulator maxFirstTokenMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder generationMillisTotal = new LongAdder();
+
+    public SpringAiChatAdapter(ChatModel chatModel,
+                               @Value("${scholar-ai.chat.stream-timeout-seconds:120}") long timeoutSeconds) {
+        if (timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Chat stream timeout must be positive");
+        }
+        this.chatModel = chatModel;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        log.info("🧠 [AI] Chat model ready: {} (stream timeout {}s)", chatModel.getClass().getSimpleName(), timeoutSeconds);
+    }
+
+    @Override
+    public StreamHandle stream(String systemPrompt, String userPrompt, TokenListener listener) {
+        Prompt prompt = new Prompt(List.of(new SystemMessage(systemPrompt), new UserMessage(userPrompt)));
+        StreamState state = new StreamState(System.nanoTime());
+        streams.increment();
+        inFlight.increment();
+        try {
+            // 同一个流的片段按顺序逐个投递，state 的计数字段只在投递线程上修改
+            Disposable subscription = chatModel.stream(prompt)
+                    .timeout(timeout)
+                    .doOnCancel(() -> {
+                        if (state.finish()) {
+                            cancelled.increment();
+                            log.debug("🧠 [AI] Chat stream cancelled after {} chunks", state.chunks);
+                        }
+                    })
+                    .subscribe(
+                            response -> onResponse(state, response, listener),
+                            error -> {
+                                if (state.finish()) {
+                                    failed.increment();
+                                    log.warn("⚠️ [AI] Chat stream failed after {} chunks", state.chunks, error);
+                                    listener.onError(new ChatException("Chat stream failed", error));
+                                }
+                            },
+                            () -> {
+                                if (state.finish()) {
+                                    listener.onComplete(complete(state));
+                                }
+                            });
+            return subscription::dispose;
+        } catch (RuntimeException e) {
+            // 模型客户端在订阅前就抛出（例如配置错误）
+            if (state.finish()) {
+                failed.increment();
+                listener.onError(new ChatException("Chat stream failed", e));
+            }
+            return () -> {
+            };
+        }
+    }
+
+    public Stats stats() {
+        long samples = firstTokenSamples.sum();
+        long generationMillis = generationMillisTotal.sum();
+        long tokenCount = tokens.sum();
+        return new Stats(
+                streams.sum(),
+                completed.sum(),
+                failed.sum(),
+                cancelled.sum(),
+                inFlight.intValue(),
+                tokenCount,
+                samples == 0 ? 0.0 : (double) firstTokenMillisTotal.sum() / samples,
+                maxFirstTokenMillis.get(),
+                generationMillis == 0 ? 0.0 : tokenCount * 1000.0 / generationMillis
+        );
+    }
+
+    private void onResponse(StreamState state, ChatResponse response, TokenListener listener) {
+        if (response.getMetadata() != null) {
+            Usage usage = response.getMetadata().getUsage();
+            if (usage != null && usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+                state.reportedTokens = usage.getCompletionTokens();
+            }
+        }
+        Generation generation = response.getResult();
+        String text = generation != null && generation.getOutput() != null ? generation.getOutput().getText() : null;
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        if (state.firstTokenNanos == 0) {
+            state.firstTokenNanos = System.nanoTime();
+        }
+        state.chunks++;
+        listener.onToken(text);
+    }
+
+    private StreamStats complete(StreamState state) {
+        long now = System.nanoTime();
+        long durationMillis = (now - state.startNanos) / 1_000_000;
+        long firstTokenMillis = state.firstTokenNanos == 0 ? -1 : (state.firstTokenNanos - state.startNanos) / 1_000_000;
+        long tokenCount = state.reportedTokens > 0 ? state.reportedTokens : state.chunks;
+
+        completed.increment();
+        tokens.add(tokenCount);
+        if (firstTokenMillis >= 0) {
+            firstTokenSamples.increment();
+            firstTokenMillisTotal.add(firstTokenMillis);
+            maxFirstTokenMillis.accumulate(firstTokenMillis);
+            generationMillisTotal.add(durationMillis - firstTokenMillis);
+        }
+        StreamStats stats = new StreamStats(firstTokenMillis, tokenCount, durationMillis);
+        log.info("🧠 [AI] Chat stream done: ttft={} ms, {} tokens in {} ms ({} tokens/s)",
+                firstTokenMillis, tokenCount, durationMillis, String.format("%.1f", stats.tokensPerSecond()));
+        return stats;
+    }
+
+    private final class StreamState {
+        final long startNanos;
+        final AtomicBoolean finished = new AtomicBoolean();
+        long firstTokenNanos;
+        long chunks;
+        long reportedTokens;
+
+        StreamState(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * 只有第一次结束（完成、失败或取消）返回 true
+         */
+        boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            inFlight.decrement();
+            return true;
+        }
+    }
+}
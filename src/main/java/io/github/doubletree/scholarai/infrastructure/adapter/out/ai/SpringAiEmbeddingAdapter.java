@@ -0,0 +1,111 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 向量化出口：先查 {@link EmbeddingCache}，未命中的文本块经 {@link EmbeddingBatcher} 跨论文合并后再调用模型
+ */
+@Slf4j
+@Component
+public class SpringAiEmbeddingAdapter implements EmbeddingPort {
+
+    private final EmbeddingBatcher batcher;
+    private final EmbeddingCache cache;
+
+    public SpringAiEmbeddingAdapter(
+            EmbeddingModel embeddingModel,
+            EmbeddingCache cache,
+            @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String modelName,
+            @Value("${scholar-ai.embedding.min-batch-size:8}") int minBatchSize,
+            @Value("${scholar-ai.embedding.initial-batch-size:64}") int initialBatchSize,
+            @Value("${scholar-ai.embedding.max-batch-size:256}") int maxBatchSize,
+            @Value("${scholar-ai.embedding.max-batch-tokens:100000}") int maxBatchTokens,
+            @Value("${scholar-ai.embedding.max-in-flight:4}") int maxInFlight,
+            @Value("${scholar-ai.embedding.max-wait-ms:20}") long maxWaitMs,
+            @Value("${scholar-ai.embedding.target-latency-ms:2000}") long targetLatencyMs,
+            @Value("${scholar-ai.embedding.max-retries:5}") int maxRetries,
+            @Value("${scholar-ai.embedding.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${scholar-ai.embedding.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.cache = cache;
+        this.batcher = new EmbeddingBatcher(embeddingModel, modelName, new EmbeddingBatcher.Settings(
+                minBatchSize, initialBatchSize, maxBatchSize, maxBatchTokens, maxInFlight,
+                maxWaitMs, targetLatencyMs, maxRetries, initialBackoffMs, maxBackoffMs));
+        log.info("🧠 [AI] Embedding batcher ready: model={}, batch={}..{}, in-flight={}",
+                modelName, minBatchSize, maxBatchSize, maxInFlight);
+    }
+
+    @Override
+    public List<Embedding> embed(List<TextChunk> chunks) {
+        if (chunks.isEmpty()) {
+            return List.of();
+        }
+        if (!cache.isEnabled()) {
+            return batcher.embed(chunks);
+        }
+
+        String modelName = batcher.modelName();
+        float[][] vectors = new float[chunks.size()][];
+        EmbeddingCacheKey[] keys = new EmbeddingCacheKey[chunks.size()];
+        // 同一次调用内重复的文本只请求一次
+        Map<EmbeddingCacheKey, TextChunk> misses = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunks.size(); i++) {
+            TextChunk chunk = chunks.get(i);
+            keys[i] = cache.keyFor(chunk.content(), modelName);
+            vectors[i] = cache.get(keys[i]);
+            if (vectors[i] == null) {
+                misses.putIfAbsent(keys[i], chunk);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<EmbeddingCacheKey> missKeys = new ArrayList<>(misses.keySet());
+            List<Embedding> computed = batcher.embed(new ArrayList<>(misses.values()));
+            Map<EmbeddingCacheKey, float[]> computedByKey = new HashMap<>();
+            for (int i = 0; i < computed.size(); i++) {
+                float[] vector = computed.get(i).vector();
+                cache.put(missKeys.get(i), vector);
+                computedByKey.put(missKeys.get(i), vector);
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                if (vectors[i] == null) {
+                    vectors[i] = computedByKey.get(keys[i]);
+                }
+            }
+        }
+        log.debug("🧠 [AI] Embedded {} chunks ({} from cache)", chunks.size(), chunks.size() - misses.size());
+
+        List<Embedding> embeddings = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            embeddings.add(new Embedding(vectors[i], vectors[i].length, modelName, chunks.get(i).chunkIndex()));
+        }
+        return embeddings;
+    }
+
+    @Override
+    public String modelName() {
+        return batcher.modelName();
+    }
+
+    public EmbeddingBatcher.Stats stats() {
+        return batcher.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batcher.close();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地桩模型（scholar-ai.chat.stub=true 时启用）：不调用外部服务，按固定的首字延迟和逐词间隔
+ * 流式回显问题，用于在没有 API key 的环境里联调 SSE 接口和测量端到端开销。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "scholar-ai.chat.stub", havingValue = "true")
+public class StubChatModel implements ChatModel {
+
+    private final Duration firstTokenDelay;
+    private final Duration tokenInterval;
+
+    public StubChatModel(@Value("${scholar-ai.chat.stub-first-token-ms:200}") long firstTokenMs,
+                         @Value("${scholar-ai.chat.stub-token-interval-ms:20}") long tokenIntervalMs) {
+        this.firstTokenDelay = Duration.ofMillis(firstTokenMs);
+        this.tokenInterval = Duration.ofMillis(tokenIntervalMs);
+        log.warn("⚠️ [AI] Using stub chat model, answers are not generated by an LLM");
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(String.join("", answer(prompt))))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        List<String> pieces = answer(prompt);
+        Flux<String> delayed = Flux.fromIterable(pieces.subList(1, pieces.size())).delayElements(tokenInterval);
+        return Flux.just(pieces.get(0))
+                .delaySubscription(firstTokenDelay)
+                .concatWith(delayed)
+                .map(piece -> new ChatResponse(List.of(new Generation(new AssistantMessage(piece)))));
+    }
+
+    /**
+     * 回显用户消息的最后一行（问题本身），按词切成带前导空格的片段，与真实模型的增量格式一致
+     */
+    private static List<String> answer(Prompt prompt) {
+        String question = "";
+        for (Message message : prompt.getInstructions()) {
+            if (message.getMessageType() == MessageType.USER) {
+                String text = message.getText().strip();
+                question = text.substring(text.lastIndexOf('\n') + 1);
+            }
+        }
+        String[] words = ("[stub] You asked: " + question).split(" ");
+        List<String> pieces = new ArrayList<>(words.length);
+        for (int i = 0; i < words.length; i++) {
+            pieces.add(i == 0 ? words[i] : " " + words[i]);
+        }
+        return pieces;
+    }
+}
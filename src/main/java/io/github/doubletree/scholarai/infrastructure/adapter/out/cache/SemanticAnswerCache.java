@@ -0,0 +1,299 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.cache;
+
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 问答的语义缓存：按范围（过滤条件 + 检索条数）分组，组内保存问题的单位向量，
+ * 与新问题的余弦相似度达到阈值即命中，命中时跳过检索和模型调用。
+ * <p>
+ * 全局按条目数限容，超出时淘汰最久未命中的条目；每个条目写入时记录过期时间，查找时顺带清理。
+ * 论文重新分析后丢弃限定在该论文上或引用了它的条目；全库范围的回答即使没有引用它也可能因此变化，
+ * 这部分依赖 TTL 刷新。
+ * <p>
+ * 生成期间的失效按论文记录：每次失效从全局序号取一个新值，记为该论文的失效序号。写回时只比较这条回答
+ * 涉及的论文（限定的论文和引用的论文），其中有论文的失效序号晚于生成前取得的序号才丢弃，
+ * 其他论文的重新分析不影响写回。失效序号每篇论文一个 long，随论文数增长。
+ * <p>
+ * 同一范围内的条目线性扫描（一次点积 / 条目）。条目按范围分组，而同一篇论文的相近问题通常只有几十到几百个。
+ */
+@Slf4j
+@Component
+public class SemanticAnswerCache implements AnswerCachePort {
+
+    public record Stats(
+            long hits,
+            long misses,
+            long puts,
+            long rejectedPuts,
+            long evictions,
+            long expirations,
+            long invalidations,
+            int entries,
+            int scopes,
+            double hitRatio
+    ) {
+    }
+
+    private static final class Entry {
+        final long id;
+        final Scope scope;
+        final float[] unitVector;
+        final CachedAnswer answer;
+        final Set<PaperId> papers;
+        final long expiresAtNanos;
+
+        Entry(long id, Scope scope, float[] unitVector, CachedAnswer answer, Set<PaperId> papers, long expiresAtNanos) {
+            this.id = id;
+            this.scope = scope;
+            this.unitVector = unitVector;
+            this.answer = answer;
+            this.papers = papers;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // 访问顺序即 LRU 顺序；byScope 是同一批条目按范围的索引，两者在同一把锁下维护
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Scope, List<Entry>> byScope = new HashMap<>();
+    private long nextId;
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<PaperId, Long> invalidatedAt = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder rejectedPuts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public SemanticAnswerCache(@Value("${scholar-ai.answer-cache.enabled:true}") boolean enabled,
+                               @Value("${scholar-ai.answer-cache.similarity-threshold:0.95}") double threshold,
+                               @Value("${scholar-ai.answer-cache.max-entries:10000}") int maxEntries,
+                               @Value("${scholar-ai.answer-cache.ttl-seconds:86400}") long ttlSeconds) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("Answer cache similarity threshold must be in (0, 1]");
+        }
+        if (maxEntries <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Answer cache size and TTL must be positive");
+        }
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        log.info("💾 [Cache] Semantic answer cache {} (threshold {}, max {} entries, ttl {}s)",
+                enabled ? "enabled" : "disabled", threshold, maxEntries, ttlSeconds);
+    }
+
+    @Override
+    public Optional<CachedAnswer> find(Scope scope, float[] queryVector) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        float[] unit = normalize(queryVector);
+        if (unit == null) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            List<Entry> candidates = byScope.get(scope);
+            Entry best = null;
+            float bestSimilarity = (float) threshold;
+            if (candidates != null) {
+                long now = System.nanoTime();
+                Iterator<Entry> iterator = candidates.iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (now - entry.expiresAtNanos >= 0) {
+                        iterator.remove();
+                        entries.remove(entry.id);
+                        expirations.increment();
+                        continue;
+                    }
+                    if (entry.unitVector.length != unit.length) {
+                        continue;
+                    }
+                    float similarity = VectorMath.dot(unit, entry.unitVector);
+                    if (similarity >= bestSimilarity) {
+                        best = entry;
+                        bestSimilarity = similarity;
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    byScope.remove(scope);
+                }
+            }
+            if (best == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            // 触碰一次，更新 LRU 顺序
+            entries.get(best.id);
+            hits.increment();
+            log.debug("💾 [Cache] Answer cache hit (similarity {})", bestSimilarity);
+            return Optional.of(best.answer);
+        }
+    }
+
+    @Override
+    public void put(Scope scope, float[] queryVector, CachedAnswer answer, long expectedEpoch) {
+        if (!enabled) {
+            return;
+        }
+        float[] unit = normalize(queryVector);
+        if (unit == null) {
+            return;
+        }
+        Set<PaperId> papers = papersOf(scope, answer);
+        synchronized (entries) {
+            for (PaperId paper : papers) {
+                Long invalidated = invalidatedAt.get(paper);
+                if (invalidated != null && invalidated > expectedEpoch) {
+                    rejectedPuts.increment();
+                    return;
+                }
+            }
+            List<Entry> scoped = byScope.computeIfAbsent(scope, key -> new ArrayList<>());
+            // 并发生成的近似问题只保留最新的一份
+            Iterator<Entry> iterator = scoped.iterator();
+            while (iterator.hasNext()) {
+                Entry existing = iterator.next();
+                if (existing.unitVector.length == unit.length
+                        && VectorMath.dot(unit, existing.unitVector) >= threshold) {
+                    iterator.remove();
+                    entries.remove(existing.id);
+                }
+            }
+            Entry entry = new Entry(nextId++, scope, unit, answer, papers, System.nanoTime() + ttlNanos);
+            scoped.add(entry);
+            entries.put(entry.id, entry);
+            puts.increment();
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                detach(evicted);
+                evictions.increment();
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(PaperId paperId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            invalidatedAt.put(paperId, epoch.incrementAndGet());
+            int removed = 0;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.papers.contains(paperId)) {
+                    iterator.remove();
+                    detach(entry);
+                    removed++;
+                }
+            }
+            invalidations.increment();
+            if (removed > 0) {
+                log.debug("💾 [Cache] Dropped {} cached answers for paper {}", removed, paperId);
+            }
+        }
+    }
+
+    @Override
+    public long epoch() {
+        return epoch.get();
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        int scopes;
+        synchronized (entries) {
+            size = entries.size();
+            scopes = byScope.size();
+        }
+        return new Stats(
+                hitCount,
+                missCount,
+                puts.sum(),
+                rejectedPuts.sum(),
+                evictions.sum(),
+                expirations.sum(),
+                invalidations.sum(),
+                size,
+                scopes,
+                lookups == 0 ? 0.0 : (double) hitCount / lookups
+        );
+    }
+
+    /**
+     * 回答涉及的论文：限定的论文和引用的论文
+     */
+    private static Set<PaperId> papersOf(Scope scope, CachedAnswer answer) {
+        Set<PaperId> papers = new HashSet<>();
+        for (RetrievedChunk source : answer.sources()) {
+            papers.add(source.paperId());
+        }
+        if (scope.filter().paperId() != null) {
+            papers.add(scope.filter().paperId());
+        }
+        return papers;
+    }
+
+    /**
+     * 调用方持有锁
+     */
+    private void detach(Entry entry) {
+        List<Entry> scoped = byScope.get(entry.scope);
+        if (scoped != null) {
+            scoped.remove(entry);
+            if (scoped.isEmpty()) {
+                byScope.remove(entry.scope);
+            }
+        }
+    }
+
+    private static float[] normalize(float[] vector) {
+        if (vector == null || vector.length == 0) {
+            return null;
+        }
+        float norm = VectorMath.norm(vector);
+        if (norm == 0 || Float.isNaN(norm)) {
+            return null;
+        }
+        float[] unit = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = vector[i] / norm;
+        }
+        return unit;
+    }
+}
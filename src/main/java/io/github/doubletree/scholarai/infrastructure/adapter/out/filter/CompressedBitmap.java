@@ -0,0 +1,435 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.filter;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * 非负 int 集合的压缩位图（Roaring 布局）。
+ * <p>
+ * 按高 16 位分成若干容器，键有序存放。容器内元素不超过 {@link #ARRAY_MAX} 个时是有序 char 数组，
+ * 超过后转为 1024 个 long 的定长位图（8 KB），两种形式都不超过每元素 2 字节。
+ * 集合运算逐容器进行，稀疏容器对稠密容器直接按位查找。
+ * <p>
+ * 不是线程安全的。{@link PaperFilterIndex} 在锁内维护可变位图，运算结果是新的实例，交给检索线程后不再修改。
+ */
+public final class CompressedBitmap {
+
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    /** char[]（有序数组容器）或 long[]（位图容器） */
+    private Object[] containers = new Object[4];
+    private int[] cardinalities = new int[4];
+    private int size;
+
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    public boolean contains(int value) {
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Object container = containers[index];
+        char low = (char) value;
+        if (container instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    public void add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int index = find(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new char[4]);
+        }
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof long[] bits) {
+            long bit = 1L << low;
+            if ((bits[low >>> 6] & bit) == 0) {
+                bits[low >>> 6] |= bit;
+                cardinalities[index]++;
+            }
+            return;
+        }
+        char[] values = (char[]) container;
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (cardinality == ARRAY_MAX) {
+            long[] bits = toBits(values, cardinality);
+            bits[low >>> 6] |= 1L << low;
+            containers[index] = bits;
+            cardinalities[index] = cardinality + 1;
+            return;
+        }
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            containers[index] = values;
+        }
+        System.arraycopy(values, position, values, position + 1, cardinality - position);
+        values[position] = low;
+        cardinalities[index] = cardinality + 1;
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof long[] bits) {
+            long bit = 1L << low;
+            if ((bits[low >>> 6] & bit) == 0) {
+                return;
+            }
+            bits[low >>> 6] &= ~bit;
+            cardinality--;
+            if (cardinality <= ARRAY_MAX) {
+                containers[index] = toArray(bits, cardinality);
+            }
+        } else {
+            char[] values = (char[]) container;
+            int position = Arrays.binarySearch(values, 0, cardinality, low);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            // 降级或大量删除后数组容量不再回落，元素不足四分之一时缩容，保持每元素不超过约 2 字节
+            if (cardinality > 0 && values.length > 8 && cardinality <= values.length / 4) {
+                containers[index] = Arrays.copyOf(values, values.length / 2);
+            }
+        }
+        if (cardinality == 0) {
+            removeContainer(index);
+        } else {
+            cardinalities[index] = cardinality;
+        }
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 按升序遍历，visitor 返回 false 时提前结束
+     *
+     * @return 是否遍历完全部元素
+     */
+    public boolean forEach(IntPredicate visitor) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[] bits) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        int low = (word << 6) | Long.numberOfTrailingZeros(remaining);
+                        if (!visitor.test(high | low)) {
+                            return false;
+                        }
+                        remaining &= remaining - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) container;
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    if (!visitor.test(high | values[j])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.containers = new Object[copy.keys.length];
+        copy.cardinalities = Arrays.copyOf(cardinalities, copy.keys.length);
+        copy.size = size;
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i] instanceof long[] bits
+                    ? bits.clone()
+                    : Arrays.copyOf((char[]) containers[i], cardinalities[i]);
+        }
+        return copy;
+    }
+
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                result.appendContainer(a.keys[i], intersect(a.containers[i], a.cardinalities[i],
+                        b.containers[j], b.cardinalities[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendCopy(a, i++);
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.appendCopy(b, j++);
+            } else {
+                result.appendContainer(a.keys[i], union(a.containers[i], a.cardinalities[i],
+                        b.containers[j], b.cardinalities[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * a 中不在 b 中的元素
+     */
+    public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                result.appendContainer(a.keys[i], difference(a.containers[i], a.cardinalities[i],
+                        b.containers[j], b.cardinalities[j]));
+            } else {
+                result.appendCopy(a, i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 估算占用的堆内存
+     */
+    public long sizeInBytes() {
+        long bytes = 64 + 14L * keys.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i] instanceof long[] ? 8L * BITMAP_WORDS + 16 : 2L * ((char[]) containers[i]).length + 16;
+        }
+        return bytes;
+    }
+
+    // ---- container operations: 每个结果是 {container, cardinality}，基数为 0 时不追加 ----
+
+    private record Container(Object values, int cardinality) {
+    }
+
+    private static Container intersect(Object a, int aCardinality, Object b, int bCardinality) {
+        if (a instanceof long[] aBits && b instanceof long[] bBits) {
+            long[] bits = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] = aBits[w] & bBits[w];
+                cardinality += Long.bitCount(bits[w]);
+            }
+            return normalized(bits, cardinality);
+        }
+        // 至少一侧是数组：遍历数组一侧，在另一侧查找
+        char[] values = a instanceof char[] array ? array : (char[]) b;
+        int count = a instanceof char[] ? aCardinality : bCardinality;
+        Object other = a instanceof char[] ? b : a;
+        int otherCount = a instanceof char[] ? bCardinality : aCardinality;
+        char[] result = new char[count];
+        int cardinality = 0;
+        for (int i = 0; i < count; i++) {
+            if (containsLow(other, otherCount, values[i])) {
+                result[cardinality++] = values[i];
+            }
+        }
+        return new Container(result, cardinality);
+    }
+
+    private static Container union(Object a, int aCardinality, Object b, int bCardinality) {
+        if (a instanceof char[] aValues && b instanceof char[] bValues && aCardinality + bCardinality <= ARRAY_MAX) {
+            char[] merged = new char[aCardinality + bCardinality];
+            int i = 0;
+            int j = 0;
+            int cardinality = 0;
+            while (i < aCardinality || j < bCardinality) {
+                char next;
+                if (j == bCardinality || (i < aCardinality && aValues[i] < bValues[j])) {
+                    next = aValues[i++];
+                } else if (i == aCardinality || aValues[i] > bValues[j]) {
+                    next = bValues[j++];
+                } else {
+                    next = aValues[i++];
+                    j++;
+                }
+                merged[cardinality++] = next;
+            }
+            return new Container(merged, cardinality);
+        }
+        long[] bits = a instanceof long[] aBits ? aBits.clone() : toBits((char[]) a, aCardinality);
+        if (b instanceof long[] bBits) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] |= bBits[w];
+            }
+        } else {
+            char[] bValues = (char[]) b;
+            for (int i = 0; i < bCardinality; i++) {
+                bits[bValues[i] >>> 6] |= 1L << bValues[i];
+            }
+        }
+        int cardinality = 0;
+        for (long word : bits) {
+            cardinality += Long.bitCount(word);
+        }
+        return normalized(bits, cardinality);
+    }
+
+    private static Container difference(Object a, int aCardinality, Object b, int bCardinality) {
+        if (a instanceof char[] aValues) {
+            char[] result = new char[aCardinality];
+            int cardinality = 0;
+            for (int i = 0; i < aCardinality; i++) {
+                if (!containsLow(b, bCardinality, aValues[i])) {
+                    result[cardinality++] = aValues[i];
+                }
+            }
+            return new Container(result, cardinality);
+        }
+        long[] bits = ((long[]) a).clone();
+        if (b instanceof long[] bBits) {
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                bits[w] &= ~bBits[w];
+            }
+        } else {
+            char[] bValues = (char[]) b;
+            for (int i = 0; i < bCardinality; i++) {
+                bits[bValues[i] >>> 6] &= ~(1L << bValues[i]);
+            }
+        }
+        int cardinality = 0;
+        for (long word : bits) {
+            cardinality += Long.bitCount(word);
+        }
+        return normalized(bits, cardinality);
+    }
+
+    private static Container normalized(long[] bits, int cardinality) {
+        return cardinality <= ARRAY_MAX ? new Container(toArray(bits, cardinality), cardinality)
+                : new Container(bits, cardinality);
+    }
+
+    private static boolean containsLow(Object container, int cardinality, char low) {
+        if (container instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinality, low) >= 0;
+    }
+
+    private static long[] toBits(char[] values, int cardinality) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    private static char[] toArray(long[] bits, int cardinality) {
+        char[] values = new char[Math.max(cardinality, 1)];
+        int count = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long remaining = bits[word];
+            while (remaining != 0) {
+                values[count++] = (char) ((word << 6) | Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+        return values;
+    }
+
+    // ---- key directory ----
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality() > 0) {
+            insertContainer(size, key, container.values());
+            cardinalities[size - 1] = container.cardinality();
+        }
+    }
+
+    private void appendCopy(CompressedBitmap source, int index) {
+        Object values = source.containers[index];
+        Object copy = values instanceof long[] bits ? bits.clone()
+                : Arrays.copyOf((char[]) values, source.cardinalities[index]);
+        insertContainer(size, source.keys[index], copy);
+        cardinalities[size - 1] = source.cardinalities[index];
+    }
+
+    private void insertContainer(int index, char key, Object container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+            cardinalities = Arrays.copyOf(cardinalities, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        cardinalities[index] = 0;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative");
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.filter;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PapersSavedEvent;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.RemotePaperChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 检索过滤条件的预计算位图，建立在 {@link PaperOrdinals} 的论文序号上：
+ * 每个作者（规范化后）一张、每个出版年份一张、有 DOI 的论文一张，外加全部论文一张。
+ * <p>
+ * 一次过滤只需把相关位图做 OR（同一条件内的多个作者、年份区间）和 AND（不同条件之间），
+ * 结果交给各个检索适配器在遍历时逐个文本块查位图，不需要回表。
+ * <p>
+ * 启动后在后台虚拟线程中从 paper 表构建，此后由 {@link PapersSavedEvent} 在事务提交后增量更新；
+ * 构建期间被更新过的论文不再用数据库中的旧值覆盖。
+ * <p>
+ * 多实例部署时，其他实例保存的论文经 {@link RemotePaperChangedEvent} 到达，从数据库重新读取后更新；
+ * 监听连接重连后（期间的消息可能丢失）从 paper 表整体重建一次。
+ * 未开启 {@code scholar-ai.paper-cache.cluster-invalidation} 时只能看到本实例保存的论文。
+ */
+@Slf4j
+@Component
+public class PaperFilterIndex {
+
+    private record Attributes(List<String> authors, int year, boolean hasDoi) {
+    }
+
+    private final LoadPaperPort loadPaperPort;
+    private final PaperOrdinals ordinals;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, CompressedBitmap> byAuthor = new HashMap<>();
+    private final TreeMap<Integer, CompressedBitmap> byYear = new TreeMap<>();
+    private final CompressedBitmap withDoi = new CompressedBitmap();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<Integer, Attributes> attributes = new HashMap<>();
+
+    private final Set<PaperId> updatedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmingUp = true;
+    // 整体重建互斥执行，重连时排队的重建依次进行
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // 从数据库完整构建过一次之后才知道论文全集
+    private volatile boolean complete;
+
+    public PaperFilterIndex(LoadPaperPort loadPaperPort, PaperOrdinals ordinals) {
+        this.loadPaperPort = loadPaperPort;
+        this.ordinals = ordinals;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.ofVirtual().name("filter-index-warm-up").start(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersSaved(PapersSavedEvent event) {
+        for (Paper paper : event.papers()) {
+            if (warmingUp) {
+                updatedDuringWarmUp.add(paper.id());
+            }
+            put(paper.id(), paper.authors(), paper.publishedDate(), paper.doi());
+        }
+    }
+
+    @EventListener
+    public void onRemotePaperChanged(RemotePaperChangedEvent event) {
+        if (event.isResync()) {
+            log.info("🔎 [Filter] Invalidation listener reconnected, rebuilding filter index");
+            Thread.ofVirtual().name("filter-index-rebuild").start(this::rebuild);
+            return;
+        }
+        // 先标记再读库：读到的是对方提交后的值，不能被正在进行的重建用旧值覆盖
+        if (warmingUp) {
+            updatedDuringWarmUp.add(event.paperId());
+        }
+        loadPaperPort.load(event.paperId())
+                .ifPresent(paper -> put(paper.id(), paper.authors(), paper.publishedDate(), paper.doi()));
+    }
+
+    /**
+     * 计算满足过滤条件的论文序号集合
+     *
+     * @return 新的位图，调用方独占；过滤条件为空时返回 null（不限制）
+     */
+    public CompressedBitmap resolve(SearchFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            CompressedBitmap result = null;
+            if (filter.paperId() != null) {
+                int ordinal = ordinals.find(filter.paperId());
+                result = ordinal >= 0 ? CompressedBitmap.of(ordinal) : new CompressedBitmap();
+            }
+            if (filter.authors() != null) {
+                CompressedBitmap matching = new CompressedBitmap();
+                for (String author : filter.authors()) {
+                    CompressedBitmap papers = byAuthor.get(normalizeAuthor(author));
+                    if (papers != null) {
+                        matching = CompressedBitmap.or(matching, papers);
+                    }
+                }
+                result = result == null ? matching : CompressedBitmap.and(result, matching);
+            }
+            if (filter.yearFrom() != null || filter.yearTo() != null) {
+                int from = filter.yearFrom() != null ? filter.yearFrom() : Integer.MIN_VALUE;
+                int to = filter.yearTo() != null ? filter.yearTo() : Integer.MAX_VALUE;
+                CompressedBitmap matching = new CompressedBitmap();
+                for (CompressedBitmap papers : byYear.subMap(from, true, to, true).values()) {
+                    matching = CompressedBitmap.or(matching, papers);
+                }
+                result = result == null ? matching : CompressedBitmap.and(result, matching);
+            }
+            if (filter.hasDoi() != null) {
+                CompressedBitmap base = result != null ? result : all;
+                result = filter.hasDoi()
+                        ? CompressedBitmap.and(base, withDoi)
+                        : CompressedBitmap.andNot(base, withDoi);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已建立索引的全部论文，用于把覆盖大部分论文的过滤结果改写成排除列表
+     *
+     * @return 新的位图，调用方独占；构建尚未完成或失败时返回 null（不知道全集）
+     */
+    public CompressedBitmap allPapers() {
+        if (!complete) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return all.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return attributes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        rebuildLock.lock();
+        try {
+            warmingUp = true;
+            long start = System.currentTimeMillis();
+            try {
+                loadPaperPort.forEachFilterAttributes((paperId, authors, publishedDate, doi) -> {
+                    if (!updatedDuringWarmUp.contains(paperId)) {
+                        put(paperId, authors, publishedDate, doi);
+                    }
+                });
+                complete = true;
+                log.info("🔎 [Filter] Indexed {} papers ({} authors, {} years) in {} ms",
+                        size(), authorCount(), yearCount(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("❌ [Filter] Rebuild failed, filters only see papers saved since the last complete build", e);
+            } finally {
+                warmingUp = false;
+                updatedDuringWarmUp.clear();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    static String normalizeAuthor(String author) {
+        return author.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void put(PaperId paperId, List<String> authors, LocalDateTime publishedDate, String doi) {
+        int ordinal = ordinals.ordinalOf(paperId);
+        Attributes updated = new Attributes(
+                authors == null ? List.of() : authors.stream()
+                        .filter(author -> author != null && !author.isBlank())
+                        .map(PaperFilterIndex::normalizeAuthor)
+                        .distinct()
+                        .toList(),
+                publishedDate == null ? Integer.MIN_VALUE : publishedDate.getYear(),
+                doi != null && !doi.isBlank());
+
+        lock.writeLock().lock();
+        try {
+            Attributes previous = attributes.put(ordinal, updated);
+            if (updated.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                for (String author : previous.authors()) {
+                    removeFrom(byAuthor, author, ordinal);
+                }
+                if (previous.year() != Integer.MIN_VALUE) {
+                    removeFrom(byYear, previous.year(), ordinal);
+                }
+            }
+            for (String author : updated.authors()) {
+                byAuthor.computeIfAbsent(author, a -> new CompressedBitmap()).add(ordinal);
+            }
+            if (updated.year() != Integer.MIN_VALUE) {
+                byYear.computeIfAbsent(updated.year(), y -> new CompressedBitmap()).add(ordinal);
+            }
+            if (updated.hasDoi()) {
+                withDoi.add(ordinal);
+            } else {
+                withDoi.remove(ordinal);
+            }
+            all.add(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, CompressedBitmap> bitmaps, K key, int ordinal) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private int authorCount() {
+        lock.readLock().lock();
+        try {
+            return byAuthor.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int yearCount() {
+        lock.readLock().lock();
+        try {
+            return byYear.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
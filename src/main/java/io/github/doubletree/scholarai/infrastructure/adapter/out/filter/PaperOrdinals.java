@@ -0,0 +1,57 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.filter;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内所有内存索引共用的论文序号。序号从 0 开始按首次出现的顺序分配，进程内不回收。
+ * <p>
+ * 向量索引和关键词索引的文本块标签都是 {@code (论文序号 << 32) | chunkIndex}，
+ * 过滤位图也建立在同一套序号上，所以检索时判断一个文本块是否满足过滤条件只需一次位图查找。
+ */
+@Component
+public class PaperOrdinals {
+
+    private final Map<PaperId, Integer> ordinals = new ConcurrentHashMap<>();
+    private final Map<Integer, PaperId> papersByOrdinal = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    /**
+     * 返回论文的序号，没有时分配一个
+     */
+    public int ordinalOf(PaperId paperId) {
+        return ordinals.computeIfAbsent(paperId, id -> {
+            int next = nextOrdinal.getAndIncrement();
+            papersByOrdinal.put(next, id);
+            return next;
+        });
+    }
+
+    /**
+     * 返回已分配的序号，没有时返回 -1（不分配）
+     */
+    public int find(PaperId paperId) {
+        Integer ordinal = ordinals.get(paperId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public PaperId paperOf(int ordinal) {
+        return papersByOrdinal.get(ordinal);
+    }
+
+    public static long label(int ordinal, int chunkIndex) {
+        return ((long) ordinal << 32) | (chunkIndex & 0xffffffffL);
+    }
+
+    public static int ordinal(long label) {
+        return (int) (label >>> 32);
+    }
+
+    public static int chunkIndex(long label) {
+        return (int) label;
+    }
+}
@@ -0,0 +1,402 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 有向引用图，节点是 {@link io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals} 的论文序号。
+ * <p>
+ * 出边（引用）和入边（被引）各存一份压缩稀疏行（CSR）：{@code offsets[n]..offsets[n + 1]} 是节点 n
+ * 在 {@code targets} 中的邻居区间，邻居按序号升序。查询只做数组下标访问，不分配邻居列表。
+ * <p>
+ * 更新一篇论文的出边时不重建 CSR：新的出边表，以及因此变化的各目标节点的入边表，整表写入增量覆盖层，
+ * 读取时覆盖层优先。覆盖层中的节点数超过 CSR 节点数的 1/4（且不少于 minDeltaNodes）时合并重建，
+ * 重建是一次 O(V + E) 的顺序拷贝，均摊到每次更新上是常数。
+ * <p>
+ * 非线程安全，由调用方加锁。
+ */
+public final class CitationGraph {
+
+    /**
+     * @param weight 含义见各查询方法
+     */
+    public record Neighbor(int node, int hops, int weight) {
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int minDeltaNodes;
+
+    private int[] outOffsets = {0};
+    private int[] outTargets = EMPTY;
+    private int[] inOffsets = {0};
+    private int[] inTargets = EMPTY;
+    // CSR 覆盖的节点数；序号更大的节点只可能在覆盖层中
+    private int baseNodes;
+
+    private final Map<Integer, int[]> outDelta = new HashMap<>();
+    private final Map<Integer, int[]> inDelta = new HashMap<>();
+
+    private int nodeCount;
+    private long edgeCount;
+    private long compactions;
+
+    public CitationGraph(int minDeltaNodes) {
+        if (minDeltaNodes <= 0) {
+            throw new IllegalArgumentException("Delta threshold must be positive");
+        }
+        this.minDeltaNodes = minDeltaNodes;
+    }
+
+    /**
+     * 整体替换节点的出边；重复的目标、指向自身和负数的目标被忽略
+     */
+    public void setReferences(int node, int[] targets) {
+        checkNode(node);
+        int[] updated = normalize(node, targets);
+        int[] current = view(node, false);
+        Slice old = slice(node, false);
+
+        // 两个有序表归并，找出删掉和新增的目标
+        int i = old.start;
+        int j = 0;
+        while (i < old.end || j < updated.length) {
+            int removed = i < old.end ? current[i] : Integer.MAX_VALUE;
+            int added = j < updated.length ? updated[j] : Integer.MAX_VALUE;
+            if (removed == added) {
+                i++;
+                j++;
+            } else if (removed < added) {
+                inDelta.put(removed, without(removed, node));
+                i++;
+            } else {
+                inDelta.put(added, with(added, node));
+                j++;
+            }
+        }
+        edgeCount += updated.length - (old.end - old.start);
+        outDelta.put(node, updated);
+        nodeCount = Math.max(nodeCount, node + 1);
+        if (updated.length > 0) {
+            nodeCount = Math.max(nodeCount, updated[updated.length - 1] + 1);
+        }
+        if (outDelta.size() + inDelta.size() > Math.max(minDeltaNodes, baseNodes / 4)) {
+            compact();
+        }
+    }
+
+    /**
+     * 给节点追加一条出边（新论文入库后补上此前无法解析的引用）
+     *
+     * @return 边原本不存在时返回 true
+     */
+    public boolean addReference(int node, int target) {
+        checkNode(node);
+        checkNode(target);
+        if (node == target || contains(node, target, false)) {
+            return false;
+        }
+        Slice old = slice(node, false);
+        int[] current = view(node, false);
+        int[] updated = new int[old.end - old.start + 1];
+        System.arraycopy(current, old.start, updated, 0, old.end - old.start);
+        updated[updated.length - 1] = target;
+        setReferences(node, updated);
+        return true;
+    }
+
+    /**
+     * 节点引用的节点，升序
+     */
+    public int[] references(int node) {
+        return copy(node, false);
+    }
+
+    /**
+     * 引用了该节点的节点，升序
+     */
+    public int[] citedBy(int node) {
+        return copy(node, true);
+    }
+
+    public int outDegree(int node) {
+        Slice slice = slice(node, false);
+        return slice.end - slice.start;
+    }
+
+    public int inDegree(int node) {
+        Slice slice = slice(node, true);
+        return slice.end - slice.start;
+    }
+
+    /**
+     * 引用了该节点的节点，按它们自身的被引次数（weight）降序
+     */
+    public List<Neighbor> citedByRanked(int node, int limit) {
+        if (node < 0 || node >= nodeCount) {
+            return List.of();
+        }
+        int[] citing = citedBy(node);
+        long[] ranked = new long[citing.length];
+        for (int i = 0; i < citing.length; i++) {
+            ranked[i] = pack(inDegree(citing[i]), citing[i]);
+        }
+        return top(ranked, ranked.length, 1, limit);
+    }
+
+    /**
+     * 共被引：与该节点同时被同一篇论文引用的节点，weight 是共同出现的次数
+     */
+    public List<Neighbor> coCited(int node, int limit) {
+        if (node < 0 || node >= nodeCount) {
+            return List.of();
+        }
+        int[] counts = new int[nodeCount];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        Slice citing = slice(node, true);
+        int[] citingNodes = view(node, true);
+        for (int c = citing.start; c < citing.end; c++) {
+            int citingNode = citingNodes[c];
+            Slice refs = slice(citingNode, false);
+            int[] targets = view(citingNode, false);
+            for (int r = refs.start; r < refs.end; r++) {
+                int other = targets[r];
+                if (other == node) {
+                    continue;
+                }
+                if (counts[other]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touched.length * 2);
+                    }
+                    touched[touchedCount++] = other;
+                }
+            }
+        }
+        long[] ranked = new long[touchedCount];
+        for (int i = 0; i < touchedCount; i++) {
+            ranked[i] = pack(counts[touched[i]], touched[i]);
+        }
+        return top(ranked, touchedCount, 1, limit);
+    }
+
+    /**
+     * 广度优先走至多 hops 步。结果按距离升序，同一层按 weight（与上一层相连的边数）降序；
+     * 访问的节点数达到 maxVisited 后不再扩展，用于约束高被引论文上的查询开销。
+     */
+    public List<Neighbor> neighborhood(int node, int hops, boolean followReferences, boolean followCitedBy,
+                                       int limit, int maxVisited) {
+        if (node < 0 || node >= nodeCount || hops <= 0 || limit <= 0) {
+            return List.of();
+        }
+        BitSet visited = new BitSet(nodeCount);
+        visited.set(node);
+        int visitedCount = 1;
+        int[] counts = new int[nodeCount];
+        int[] frontier = {node};
+        List<Neighbor> result = new ArrayList<>();
+
+        for (int hop = 1; hop <= hops && frontier.length > 0 && result.size() < limit; hop++) {
+            int[] next = new int[16];
+            int nextCount = 0;
+            for (int from : frontier) {
+                for (int direction = 0; direction < 2; direction++) {
+                    boolean incoming = direction == 1;
+                    if (incoming ? !followCitedBy : !followReferences) {
+                        continue;
+                    }
+                    Slice slice = slice(from, incoming);
+                    int[] neighbors = view(from, incoming);
+                    for (int k = slice.start; k < slice.end; k++) {
+                        int to = neighbors[k];
+                        if (visited.get(to)) {
+                            continue;
+                        }
+                        if (counts[to]++ == 0) {
+                            if (visitedCount + nextCount >= maxVisited) {
+                                counts[to] = 0;
+                                continue;
+                            }
+                            if (nextCount == next.length) {
+                                next = Arrays.copyOf(next, next.length * 2);
+                            }
+                            next[nextCount++] = to;
+                        }
+                    }
+                }
+            }
+            long[] ranked = new long[nextCount];
+            for (int i = 0; i < nextCount; i++) {
+                ranked[i] = pack(counts[next[i]], next[i]);
+                visited.set(next[i]);
+            }
+            visitedCount += nextCount;
+            result.addAll(top(ranked, nextCount, hop, limit - result.size()));
+            frontier = Arrays.copyOf(next, nextCount);
+        }
+        return result;
+    }
+
+    /**
+     * 把覆盖层合并进 CSR
+     */
+    public void compact() {
+        int[][] out = rebuild(false);
+        int[][] in = rebuild(true);
+        outOffsets = out[0];
+        outTargets = out[1];
+        inOffsets = in[0];
+        inTargets = in[1];
+        baseNodes = nodeCount;
+        outDelta.clear();
+        inDelta.clear();
+        compactions++;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    public int deltaNodes() {
+        return outDelta.size() + inDelta.size();
+    }
+
+    public long compactions() {
+        return compactions;
+    }
+
+    /**
+     * CSR 与覆盖层占用的字节数（估算，覆盖层按数组长度计）
+     */
+    public long sizeInBytes() {
+        long bytes = 4L * (outOffsets.length + outTargets.length + inOffsets.length + inTargets.length);
+        for (int[] list : outDelta.values()) {
+            bytes += 4L * list.length + 16;
+        }
+        for (int[] list : inDelta.values()) {
+            bytes += 4L * list.length + 16;
+        }
+        return bytes;
+    }
+
+    private int[][] rebuild(boolean incoming) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int n = 0; n < nodeCount; n++) {
+            Slice slice = slice(n, incoming);
+            offsets[n + 1] = offsets[n] + (slice.end - slice.start);
+        }
+        int[] targets = new int[offsets[nodeCount]];
+        for (int n = 0; n < nodeCount; n++) {
+            Slice slice = slice(n, incoming);
+            System.arraycopy(view(n, incoming), slice.start, targets, offsets[n], slice.end - slice.start);
+        }
+        return new int[][]{offsets, targets};
+    }
+
+    private record Slice(int start, int end) {
+    }
+
+    private static final Slice EMPTY_SLICE = new Slice(0, 0);
+
+    /**
+     * 节点邻居表所在的数组：覆盖层中的整表，或 CSR 的 targets
+     */
+    private int[] view(int node, boolean incoming) {
+        int[] delta = (incoming ? inDelta : outDelta).get(node);
+        if (delta != null) {
+            return delta;
+        }
+        return incoming ? inTargets : outTargets;
+    }
+
+    /**
+     * 邻居在 {@link #view} 返回的数组中的区间
+     */
+    private Slice slice(int node, boolean incoming) {
+        int[] delta = (incoming ? inDelta : outDelta).get(node);
+        if (delta != null) {
+            return new Slice(0, delta.length);
+        }
+        if (node < 0 || node >= baseNodes) {
+            return EMPTY_SLICE;
+        }
+        int[] offsets = incoming ? inOffsets : outOffsets;
+        return new Slice(offsets[node], offsets[node + 1]);
+    }
+
+    private int[] copy(int node, boolean incoming) {
+        Slice slice = slice(node, incoming);
+        return Arrays.copyOfRange(view(node, incoming), slice.start, slice.end);
+    }
+
+    private boolean contains(int node, int target, boolean incoming) {
+        Slice slice = slice(node, incoming);
+        return Arrays.binarySearch(view(node, incoming), slice.start, slice.end, target) >= 0;
+    }
+
+    private int[] with(int node, int citing) {
+        Slice slice = slice(node, true);
+        int[] list = view(node, true);
+        int position = -Arrays.binarySearch(list, slice.start, slice.end, citing) - 1;
+        int[] updated = new int[slice.end - slice.start + 1];
+        System.arraycopy(list, slice.start, updated, 0, position - slice.start);
+        updated[position - slice.start] = citing;
+        System.arraycopy(list, position, updated, position - slice.start + 1, slice.end - position);
+        return updated;
+    }
+
+    private int[] without(int node, int citing) {
+        Slice slice = slice(node, true);
+        int[] list = view(node, true);
+        int position = Arrays.binarySearch(list, slice.start, slice.end, citing);
+        int[] updated = new int[slice.end - slice.start - 1];
+        System.arraycopy(list, slice.start, updated, 0, position - slice.start);
+        System.arraycopy(list, position + 1, updated, position - slice.start, slice.end - position - 1);
+        return updated;
+    }
+
+    private static int[] normalize(int node, int[] targets) {
+        int[] sorted = targets.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            int target = sorted[i];
+            if (target < 0 || target == node || (count > 0 && sorted[count - 1] == target)) {
+                continue;
+            }
+            sorted[count++] = target;
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+
+    private static void checkNode(int node) {
+        if (node < 0) {
+            throw new IllegalArgumentException("Node must be non-negative: " + node);
+        }
+    }
+
+    /**
+     * weight 在高 32 位、节点在低 32 位，降序排序后同权重的节点序号小的在后
+     */
+    private static long pack(int weight, int node) {
+        return ((long) weight << 32) | (node & 0xffffffffL);
+    }
+
+    private static List<Neighbor> top(long[] ranked, int count, int hops, int limit) {
+        Arrays.sort(ranked, 0, count);
+        int size = Math.min(count, Math.max(0, limit));
+        List<Neighbor> result = new ArrayList<>(size);
+        for (int i = count - 1; i >= count - size; i--) {
+            result.add(new Neighbor((int) ranked[i], hops, (int) (ranked[i] >>> 32)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,349 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.graph;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.GraphNeighbor;
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.port.out.CitationGraphPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadCitationPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.domain.service.CitationKeys;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PapersSavedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 进程内引用图，节点是 {@link PaperOrdinals} 的论文序号，邻接表见 {@link CitationGraph}。
+ * <p>
+ * 参考文献条目先按 DOI、再按规范化标题（{@link CitationKeys}）对应到库内论文。启动后在后台虚拟线程中
+ * 从 paper 和 paper_citation 表构建；此后分析流水线通过 {@link #updateReferences} 替换一篇论文的出边，
+ * 新论文入库（{@link PapersSavedEvent}）时用一次查询按整批论文的 DOI / 标题键反查 paper_citation，
+ * 把此前没有对上的引用补成入边。构建期间被流水线更新过的论文不再用数据库中的旧值覆盖。
+ * <p>
+ * 论文的 DOI 或标题修改后，旧键已经对上的边保留到施引论文重新分析为止。
+ */
+@Slf4j
+@Component
+public class CitationGraphAdapter implements CitationGraphPort {
+
+    public record Stats(
+            int papers,
+            int nodes,
+            long edges,
+            int deltaNodes,
+            long compactions,
+            long sizeBytes,
+            long queries,
+            double avgQueryMicros
+    ) {
+    }
+
+    private record Identity(String title, String doiKey, String titleKey) {
+    }
+
+    private final LoadPaperPort loadPaperPort;
+    private final LoadCitationPort loadCitationPort;
+    private final PaperOrdinals ordinals;
+    private final int maxVisited;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CitationGraph graph;
+    private final Map<Integer, Identity> identities = new HashMap<>();
+    private final Map<String, Integer> byDoi = new HashMap<>();
+    private final Map<String, Integer> byTitle = new HashMap<>();
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    private final Set<PaperId> identitiesUpdatedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private final Set<PaperId> referencesUpdatedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmingUp = true;
+
+    public CitationGraphAdapter(LoadPaperPort loadPaperPort,
+                                LoadCitationPort loadCitationPort,
+                                PaperOrdinals ordinals,
+                                @Value("${scholar-ai.citation-graph.min-compact-delta:1024}") int minCompactDelta,
+                                @Value("${scholar-ai.citation-graph.max-visited:100000}") int maxVisited) {
+        this.loadPaperPort = loadPaperPort;
+        this.loadCitationPort = loadCitationPort;
+        this.ordinals = ordinals;
+        this.maxVisited = maxVisited;
+        this.graph = new CitationGraph(minCompactDelta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.ofVirtual().name("citation-graph-warm-up").start(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                loadPaperPort.forEachIdentity((paperId, title, doi) -> {
+                    if (!identitiesUpdatedDuringWarmUp.contains(paperId)) {
+                        register(paperId, title, doi);
+                    }
+                });
+                // 同一篇论文的条目连续到达，攒齐后一次替换出边
+                PaperId[] current = {null};
+                List<String[]> keys = new ArrayList<>();
+                loadCitationPort.forEachReference((paperId, doi, title) -> {
+                    if (!paperId.equals(current[0])) {
+                        flush(current[0], keys);
+                        current[0] = paperId;
+                    }
+                    keys.add(new String[]{CitationKeys.doiKey(doi), CitationKeys.titleKey(title)});
+                });
+                flush(current[0], keys);
+                lock.writeLock().lock();
+                try {
+                    graph.compact();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                Stats stats = stats();
+                log.info("🔎 [Graph] Linked {} citations between {} papers ({} KB) in {} ms",
+                        stats.edges(), stats.papers(), stats.sizeBytes() / 1024, System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("❌ [Graph] Warm-up failed, citation graph only contains newly analyzed papers", e);
+            } finally {
+                warmingUp = false;
+                identitiesUpdatedDuringWarmUp.clear();
+                referencesUpdatedDuringWarmUp.clear();
+            }
+        });
+    }
+
+    /**
+     * 论文入库或元数据变化后登记它们的匹配键；整批中键有变化的论文合并成一次查询，反查哪些已分析的论文引用了它们
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPapersSaved(PapersSavedEvent event) {
+        Map<String, List<Integer>> targetsByDoi = new HashMap<>();
+        Map<String, List<Integer>> targetsByTitle = new HashMap<>();
+        for (Paper paper : event.papers()) {
+            if (warmingUp) {
+                identitiesUpdatedDuringWarmUp.add(paper.id());
+            }
+            Identity identity = register(paper.id(), paper.title(), paper.doi());
+            if (identity == null) {
+                continue;
+            }
+            int target = ordinals.ordinalOf(paper.id());
+            if (identity.doiKey() != null) {
+                targetsByDoi.computeIfAbsent(identity.doiKey(), key -> new ArrayList<>(1)).add(target);
+            }
+            if (identity.titleKey() != null) {
+                targetsByTitle.computeIfAbsent(identity.titleKey(), key -> new ArrayList<>(1)).add(target);
+            }
+        }
+        if (targetsByDoi.isEmpty() && targetsByTitle.isEmpty()) {
+            return;
+        }
+        List<LoadCitationPort.CitingReference> citing =
+                loadCitationPort.findCitingPapers(targetsByDoi.keySet(), targetsByTitle.keySet());
+        if (citing.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int added = 0;
+            for (LoadCitationPort.CitingReference reference : citing) {
+                int source = ordinals.ordinalOf(reference.citingPaper());
+                added += link(source, targetsByDoi.get(reference.doiKey()));
+                added += link(source, targetsByTitle.get(reference.titleKey()));
+            }
+            log.debug("🔎 [Graph] Linked {} existing citations to {} saved papers", added, event.papers().size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateReferences(PaperId citingPaper, List<Citation> references) {
+        if (warmingUp) {
+            referencesUpdatedDuringWarmUp.add(citingPaper);
+        }
+        List<String[]> keys = new ArrayList<>(references.size());
+        for (Citation reference : references) {
+            if (reference.type() == Citation.CitationType.REFERENCE_LIST) {
+                keys.add(new String[]{CitationKeys.doiKey(reference.doi()), CitationKeys.titleKey(reference.title())});
+            }
+        }
+        setReferences(citingPaper, keys);
+        log.debug("🔎 [Graph] Updated references: paper={}, linked={}",
+                citingPaper, outDegree(citingPaper));
+    }
+
+    @Override
+    public List<GraphNeighbor> citedBy(PaperId paperId, int limit) {
+        return query(paperId, node -> graph.citedByRanked(node, limit));
+    }
+
+    @Override
+    public List<GraphNeighbor> coCited(PaperId paperId, int limit) {
+        return query(paperId, node -> graph.coCited(node, limit));
+    }
+
+    @Override
+    public List<GraphNeighbor> neighborhood(PaperId paperId, int hops, Direction direction, int limit) {
+        boolean references = direction != Direction.CITED_BY;
+        boolean citedBy = direction != Direction.CITES;
+        return query(paperId, node -> graph.neighborhood(node, hops, references, citedBy, limit, maxVisited));
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long queryCount = queries.sum();
+            return new Stats(
+                    identities.size(),
+                    graph.nodeCount(),
+                    graph.edgeCount(),
+                    graph.deltaNodes(),
+                    graph.compactions(),
+                    graph.sizeInBytes(),
+                    queryCount,
+                    queryCount == 0 ? 0 : queryNanos.sum() / 1_000.0 / queryCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private interface NodeQuery {
+        List<CitationGraph.Neighbor> run(int node);
+    }
+
+    private List<GraphNeighbor> query(PaperId paperId, NodeQuery query) {
+        int node = ordinals.find(paperId);
+        if (node < 0) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            List<CitationGraph.Neighbor> neighbors = query.run(node);
+            List<GraphNeighbor> result = new ArrayList<>(neighbors.size());
+            for (CitationGraph.Neighbor neighbor : neighbors) {
+                Identity identity = identities.get(neighbor.node());
+                result.add(new GraphNeighbor(ordinals.paperOf(neighbor.node()),
+                        identity == null ? null : identity.title(), neighbor.hops(), neighbor.weight()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+            queries.increment();
+            queryNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void flush(PaperId citingPaper, List<String[]> keys) {
+        if (citingPaper != null && !referencesUpdatedDuringWarmUp.contains(citingPaper)) {
+            setReferences(citingPaper, keys);
+        }
+        keys.clear();
+    }
+
+    private void setReferences(PaperId citingPaper, List<String[]> keys) {
+        int node = ordinals.ordinalOf(citingPaper);
+        lock.writeLock().lock();
+        try {
+            int[] targets = new int[keys.size()];
+            int count = 0;
+            for (String[] key : keys) {
+                Integer target = key[0] != null ? byDoi.get(key[0]) : null;
+                if (target == null && key[1] != null) {
+                    target = byTitle.get(key[1]);
+                }
+                if (target != null) {
+                    targets[count++] = target;
+                }
+            }
+            graph.setReferences(node, count == targets.length ? targets : Arrays.copyOf(targets, count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 匹配键有变化（包括第一次登记）且至少有一个键时返回新的身份，否则返回 null
+     */
+    private Identity register(PaperId paperId, String title, String doi) {
+        int ordinal = ordinals.ordinalOf(paperId);
+        Identity updated = new Identity(title, CitationKeys.doiKey(doi), CitationKeys.titleKey(title));
+        lock.writeLock().lock();
+        try {
+            Identity previous = identities.put(ordinal, updated);
+            if (previous != null
+                    && Objects.equals(previous.doiKey(), updated.doiKey())
+                    && Objects.equals(previous.titleKey(), updated.titleKey())) {
+                return null;
+            }
+            if (previous != null) {
+                removeKey(byDoi, previous.doiKey(), ordinal);
+                removeKey(byTitle, previous.titleKey(), ordinal);
+            }
+            // 两篇论文撞键时先登记的优先
+            if (updated.doiKey() != null) {
+                byDoi.putIfAbsent(updated.doiKey(), ordinal);
+            }
+            if (updated.titleKey() != null) {
+                byTitle.putIfAbsent(updated.titleKey(), ordinal);
+            }
+            return updated.doiKey() != null || updated.titleKey() != null ? updated : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int outDegree(PaperId paperId) {
+        return locked(() -> graph.outDegree(ordinals.ordinalOf(paperId)));
+    }
+
+    private <T> T locked(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 调用方持有写锁
+     *
+     * @return 新增的边数
+     */
+    private int link(int source, List<Integer> targets) {
+        if (targets == null) {
+            return 0;
+        }
+        int added = 0;
+        for (int target : targets) {
+            if (graph.addReference(source, target)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static void removeKey(Map<String, Integer> keys, String key, int ordinal) {
+        if (key != null) {
+            keys.remove(key, ordinal);
+        }
+    }
+}
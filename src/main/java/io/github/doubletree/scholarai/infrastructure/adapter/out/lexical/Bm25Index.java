@@ -0,0 +1,593 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.vector.FloatIntHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 内存 BM25 倒排索引。
+ * <p>
+ * 每个文档（文本块）按写入顺序分配递增的文档号，倒排表见 {@link PostingList}；文档长度、标签和删除位图
+ * 都是按文档号寻址的原始数组。标签到文档号的映射是开放寻址的 long→int 表，同一标签再次写入时先删除旧文档。
+ * <p>
+ * 查询使用 MaxScore：按每个词项的分数上界从小到大排序，上界前缀和不超过当前第 k 名分数的词项只用于补分，
+ * 不再驱动候选文档；补分时先用剩余上界判断能否进入 top-k，不能就不再读取其余倒排表。
+ * 候选文档推进时按块最后文档号跳过整块，不解码。结果与逐文档打分完全一致。
+ * <p>
+ * 过滤有两种方式：按标签判断的过滤条件在选出候选文档后、打分之前检查；满足条件的文档很少时，
+ * 调用方可以直接给出候选标签（{@link #searchLabels}），由候选文档驱动各倒排表跳跃前进，不再遍历整条倒排表。
+ * <p>
+ * 删除只打墓碑。被删文档超过存活文档的 1/4 且不少于 {@link #COMPACT_MIN_DELETED} 个时重写全部倒排表并重新编号。
+ * 写入和压缩持有写锁，查询持有读锁，可以并发。
+ */
+public final class Bm25Index {
+
+    static final int COMPACT_MIN_DELETED = 10_000;
+
+    private final float k1;
+    private final float b;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private HashMap<String, PostingList> postings = new HashMap<>();
+    private long[] labels = new long[1024];
+    private int[] lengths = new int[1024];
+    private long[] deleted = new long[16];
+    private LabelMap docsByLabel = new LabelMap(1024);
+    private int docCount;
+    private int deletedCount;
+    private long liveLength;
+
+    public Bm25Index(double k1, double b) {
+        if (k1 < 0 || b < 0 || b > 1) {
+            throw new IllegalArgumentException("BM25 requires k1 >= 0 and 0 <= b <= 1");
+        }
+        this.k1 = (float) k1;
+        this.b = (float) b;
+    }
+
+    public record Result(long label, float score) {
+    }
+
+    public record Stats(int documents, int deletedDocuments, int terms, long postings, long postingBytes) {
+    }
+
+    /**
+     * 写入一个文档；同一标签已存在时替换
+     */
+    public void add(long label, CharSequence text) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] length = new int[1];
+        LexicalTokenizer.tokenize(text, token -> {
+            frequencies.computeIfAbsent(token, t -> new int[1])[0]++;
+            length[0]++;
+        });
+
+        lock.writeLock().lock();
+        try {
+            int previous = docsByLabel.get(label);
+            if (previous >= 0) {
+                markDeleted(previous);
+            }
+            int doc = docCount;
+            ensureCapacity(doc + 1);
+            labels[doc] = label;
+            lengths[doc] = length[0];
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new PostingList()).add(doc, entry.getValue()[0]);
+            }
+            docsByLabel.put(label, doc);
+            docCount++;
+            liveLength += length[0];
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean delete(long label) {
+        lock.writeLock().lock();
+        try {
+            int doc = docsByLabel.get(label);
+            if (doc < 0) {
+                return false;
+            }
+            markDeleted(doc);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                postingCount += list.length();
+                bytes += list.sizeInBytes();
+            }
+            return new Stats(docCount - deletedCount, deletedCount, postings.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * MaxScore top-k 检索
+     *
+     * @return 按分数降序排列的结果
+     */
+    public List<Result> search(CharSequence query, int k) {
+        return search(query, k, null);
+    }
+
+    /**
+     * 只返回标签满足 filter 的文档（filter 为 null 时不过滤）
+     */
+    public List<Result> search(CharSequence query, int k, LongPredicate filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Cursor[] cursors = cursors(query);
+            if (cursors.length == 0) {
+                return List.of();
+            }
+            Arrays.sort(cursors, (x, y) -> Float.compare(x.upperBound, y.upperBound));
+            float[] prefix = new float[cursors.length];
+            float sum = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                sum += cursors[i].upperBound;
+                prefix[i] = sum;
+            }
+
+            float[] norms = lengthNorms();
+            FloatIntHeap heap = new FloatIntHeap(k, false);
+            float threshold = 0;
+            int firstEssential = 0;
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < cursors.length; i++) {
+                    doc = Math.min(doc, cursors[i].doc);
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+                if (isDeleted(doc) || (filter != null && !filter.test(labels[doc]))) {
+                    for (int i = firstEssential; i < cursors.length; i++) {
+                        if (cursors[i].doc == doc) {
+                            cursors[i].next();
+                        }
+                    }
+                    continue;
+                }
+                float norm = norm(norms, doc);
+                float score = 0;
+                for (int i = firstEssential; i < cursors.length; i++) {
+                    Cursor cursor = cursors[i];
+                    if (cursor.doc == doc) {
+                        score += cursor.score(norm);
+                        cursor.next();
+                    }
+                }
+                for (int i = firstEssential - 1; i >= 0; i--) {
+                    if (score + prefix[i] <= threshold) {
+                        break;
+                    }
+                    Cursor cursor = cursors[i];
+                    cursor.advance(doc);
+                    if (cursor.doc == doc) {
+                        score += cursor.score(norm);
+                    }
+                }
+                if (heap.size() < k) {
+                    heap.push(doc, score);
+                } else if (score > threshold) {
+                    heap.pop();
+                    heap.push(doc, score);
+                } else {
+                    continue;
+                }
+                if (heap.size() == k) {
+                    threshold = heap.peekScore();
+                    while (firstEssential < cursors.length && prefix[firstEssential] <= threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+            return drain(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 只在给定标签的文档中检索，不存在的标签被忽略
+     *
+     * @param candidates 候选标签，只读取前 count 个
+     */
+    public List<Result> searchLabels(CharSequence query, int k, long[] candidates, int count) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Cursor[] cursors = cursors(query);
+            if (cursors.length == 0) {
+                return List.of();
+            }
+            int[] docs = new int[count];
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = docsByLabel.get(candidates[i]);
+                if (doc >= 0) {
+                    docs[found++] = doc;
+                }
+            }
+            Arrays.sort(docs, 0, found);
+
+            float[] norms = lengthNorms();
+            FloatIntHeap heap = new FloatIntHeap(k, false);
+            for (int i = 0; i < found; i++) {
+                int doc = docs[i];
+                float norm = norm(norms, doc);
+                float score = 0;
+                for (Cursor cursor : cursors) {
+                    cursor.advance(doc);
+                    if (cursor.doc == doc) {
+                        score += cursor.score(norm);
+                    }
+                }
+                if (score <= 0) {
+                    continue;
+                }
+                if (heap.size() < k) {
+                    heap.push(doc, score);
+                } else if (score > heap.peekScore()) {
+                    heap.pop();
+                    heap.push(doc, score);
+                }
+            }
+            return drain(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 逐词项累加全部文档分数后取 top-k，作为 {@link #search} 的对照基准
+     */
+    public List<Result> searchExhaustive(CharSequence query, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Cursor[] cursors = cursors(query);
+            float[] norms = lengthNorms();
+            float[] scores = new float[docCount];
+            for (Cursor cursor : cursors) {
+                while (cursor.doc != Integer.MAX_VALUE) {
+                    scores[cursor.doc] += cursor.score(norm(norms, cursor.doc));
+                    cursor.next();
+                }
+            }
+            FloatIntHeap heap = new FloatIntHeap(k, false);
+            for (int doc = 0; doc < docCount; doc++) {
+                float score = scores[doc];
+                if (score <= 0 || isDeleted(doc)) {
+                    continue;
+                }
+                if (heap.size() < k) {
+                    heap.push(doc, score);
+                } else if (score > heap.peekScore()) {
+                    heap.pop();
+                    heap.push(doc, score);
+                }
+            }
+            return drain(heap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Cursor[] cursors(CharSequence query) {
+        Map<String, int[]> weights = new LinkedHashMap<>();
+        LexicalTokenizer.tokenize(query, token -> weights.computeIfAbsent(token, t -> new int[1])[0]++);
+        int live = docCount - deletedCount;
+        List<Cursor> cursors = new ArrayList<>(weights.size());
+        for (Map.Entry<String, int[]> entry : weights.entrySet()) {
+            PostingList list = postings.get(entry.getKey());
+            if (list == null || live == 0) {
+                continue;
+            }
+            // 文档频率包含尚未压缩掉的已删除文档，只让 idf 略偏低，不影响排序的正确性
+            int df = Math.min(list.length(), live);
+            float idf = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+            float weight = idf * entry.getValue()[0];
+            float maxTf = list.maxTf();
+            float upperBound = weight * (k1 + 1) * maxTf / (maxTf + k1 * (1 - b));
+            cursors.add(new Cursor(list, weight, upperBound));
+        }
+        return cursors.toArray(new Cursor[0]);
+    }
+
+    /**
+     * 返回 {k1·(1-b), k1·b/avgdl}，文档的长度归一项为 norms[0] + norms[1]·len
+     */
+    private float[] lengthNorms() {
+        int live = docCount - deletedCount;
+        float averageLength = live == 0 || liveLength == 0 ? 1 : (float) liveLength / live;
+        return new float[]{k1 * (1 - b), k1 * b / averageLength};
+    }
+
+    private float norm(float[] norms, int doc) {
+        return norms[0] + norms[1] * lengths[doc];
+    }
+
+    private List<Result> drain(FloatIntHeap heap) {
+        int count = heap.size();
+        int[] docs = new int[count];
+        float[] scores = new float[count];
+        heap.drainDescending(docs, scores);
+        List<Result> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new Result(labels[docs[i]], scores[i]));
+        }
+        return results;
+    }
+
+    private boolean isDeleted(int doc) {
+        return (deleted[doc >>> 6] & (1L << doc)) != 0;
+    }
+
+    private void markDeleted(int doc) {
+        if (isDeleted(doc)) {
+            return;
+        }
+        deleted[doc >>> 6] |= 1L << doc;
+        deletedCount++;
+        liveLength -= lengths[doc];
+        docsByLabel.remove(labels[doc]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > labels.length) {
+            int grown = Math.max(capacity, labels.length + (labels.length >> 1));
+            labels = Arrays.copyOf(labels, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+        int words = (capacity + 63) >>> 6;
+        if (words > deleted.length) {
+            deleted = Arrays.copyOf(deleted, Math.max(words, deleted.length * 2));
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount * 4L <= docCount - deletedCount) {
+            return;
+        }
+        int live = docCount - deletedCount;
+        int[] remap = new int[docCount];
+        long[] newLabels = new long[Math.max(1024, live)];
+        int[] newLengths = new int[newLabels.length];
+        LabelMap newDocsByLabel = new LabelMap(live);
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (isDeleted(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                newLabels[next] = labels[doc];
+                newLengths[next] = lengths[doc];
+                newDocsByLabel.put(labels[doc], next);
+                next++;
+            }
+        }
+
+        HashMap<String, PostingList> rewritten = new HashMap<>(postings.size() * 2);
+        int[] docs = new int[PostingList.BLOCK_SIZE];
+        int[] tfs = new int[PostingList.BLOCK_SIZE];
+        for (Iterator<Map.Entry<String, PostingList>> it = postings.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, PostingList> entry = it.next();
+            PostingList source = entry.getValue();
+            PostingList target = new PostingList();
+            for (int block = 0; block < source.blocks(); block++) {
+                int count = source.decode(block, docs, tfs);
+                for (int i = 0; i < count; i++) {
+                    int mapped = remap[docs[i]];
+                    if (mapped >= 0) {
+                        target.add(mapped, tfs[i]);
+                    }
+                }
+            }
+            it.remove();
+            if (target.length() > 0) {
+                rewritten.put(entry.getKey(), target);
+            }
+        }
+
+        postings = rewritten;
+        labels = newLabels;
+        lengths = newLengths;
+        deleted = new long[Math.max(16, (newLabels.length + 63) >>> 6)];
+        docsByLabel = newDocsByLabel;
+        docCount = live;
+        deletedCount = 0;
+    }
+
+    /**
+     * 单个词项的倒排表游标；doc 为 {@link Integer#MAX_VALUE} 表示已读完
+     */
+    private final class Cursor {
+        private final PostingList list;
+        private final float weight;
+        private final float upperBound;
+        private final int[] docs = new int[PostingList.BLOCK_SIZE];
+        private final int[] tfs = new int[PostingList.BLOCK_SIZE];
+        private int block;
+        private int count;
+        private int position;
+        private int doc;
+
+        Cursor(PostingList list, float weight, float upperBound) {
+            this.list = list;
+            this.weight = weight;
+            this.upperBound = upperBound;
+            load(0);
+        }
+
+        float score(float norm) {
+            float tf = tfs[position];
+            return weight * tf * (k1 + 1) / (tf + norm);
+        }
+
+        void next() {
+            if (++position < count) {
+                doc = docs[position];
+            } else {
+                load(block + 1);
+            }
+        }
+
+        /**
+         * 移动到第一个不小于 target 的文档
+         */
+        void advance(int target) {
+            if (doc >= target) {
+                return;
+            }
+            if (target > docs[count - 1]) {
+                load(list.findBlock(block + 1, target));
+                if (doc >= target) {
+                    return;
+                }
+            }
+            while (docs[position] < target) {
+                position++;
+            }
+            doc = docs[position];
+        }
+
+        private void load(int block) {
+            this.block = block;
+            if (block >= list.blocks()) {
+                count = 0;
+                doc = Integer.MAX_VALUE;
+                return;
+            }
+            count = list.decode(block, docs, tfs);
+            position = 0;
+            doc = docs[0];
+        }
+    }
+
+    /**
+     * 标签到文档号的开放寻址表（线性探测，删除时回移），不存在时返回 -1
+     */
+    private static final class LabelMap {
+        private static final long FREE = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LabelMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, FREE);
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                long existing = keys[slot];
+                if (existing == key) {
+                    return values[slot];
+                }
+                if (existing == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != FREE && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == FREE) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == FREE) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            size--;
+            // 把后续同一探测链上的条目回移到空出的位置
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = FREE;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, FREE);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
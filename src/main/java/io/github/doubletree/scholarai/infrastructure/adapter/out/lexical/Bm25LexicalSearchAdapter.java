@@ -0,0 +1,187 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import io.github.doubletree.scholarai.domain.model.LexicalMatch;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.out.LexicalSearchPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.CompressedBitmap;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内 BM25 关键词检索。
+ * <p>
+ * 与内存向量索引相同：启动后在后台虚拟线程中从 paper_chunk 表重建，此后由分析流水线增量维护，
+ * 重建期间被流水线更新过的论文不再从数据库加载。文档标签为 {@code (论文序号 << 32) | chunkIndex}，
+ * 论文序号来自共享的 {@link PaperOrdinals}。
+ * <p>
+ * 带过滤条件时，满足条件的文本块不超过 exact-threshold 个就只对它们打分，否则在 MaxScore 遍历中按标签查位图。
+ */
+@Slf4j
+@Component
+public class Bm25LexicalSearchAdapter implements LexicalSearchPort {
+
+    private final LoadChunkPort loadChunkPort;
+    private final PaperOrdinals ordinals;
+    private final PaperFilterIndex filterIndex;
+    private final boolean enabled;
+    private final int exactThreshold;
+    private final Bm25Index index;
+
+    private final Map<PaperId, int[]> chunksByPaper = new ConcurrentHashMap<>();
+
+    private final Set<PaperId> updatedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmingUp = true;
+
+    public Bm25LexicalSearchAdapter(LoadChunkPort loadChunkPort,
+                                    PaperOrdinals ordinals,
+                                    PaperFilterIndex filterIndex,
+                                    @Value("${scholar-ai.lexical-search.enabled:true}") boolean enabled,
+                                    @Value("${scholar-ai.lexical-search.k1:1.2}") double k1,
+                                    @Value("${scholar-ai.lexical-search.b:0.75}") double b,
+                                    @Value("${scholar-ai.search-filter.exact-threshold:20000}") int exactThreshold) {
+        this.loadChunkPort = loadChunkPort;
+        this.ordinals = ordinals;
+        this.filterIndex = filterIndex;
+        this.enabled = enabled;
+        this.exactThreshold = exactThreshold;
+        this.index = new Bm25Index(k1, b);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            warmingUp = false;
+            return;
+        }
+        Thread.ofVirtual().name("bm25-warm-up").start(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                loadChunkPort.forEachChunkText((paperId, chunkIndex, content) -> {
+                    if (!updatedDuringWarmUp.contains(paperId)) {
+                        add(paperId, chunkIndex, content);
+                    }
+                });
+                Bm25Index.Stats stats = index.stats();
+                log.info("🔎 [BM25] Indexed {} chunks ({} terms, {} postings, {} KB) in {} ms",
+                        stats.documents(), stats.terms(), stats.postings(), stats.postingBytes() / 1024,
+                        System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("❌ [BM25] Warm-up failed, index only contains newly analyzed papers", e);
+            } finally {
+                warmingUp = false;
+                updatedDuringWarmUp.clear();
+            }
+        });
+    }
+
+    @Override
+    public List<LexicalMatch> search(String query, int topK, SearchFilter filter) {
+        if (!enabled || query == null || query.isBlank() || topK <= 0) {
+            return List.of();
+        }
+        CompressedBitmap papers = filterIndex.resolve(filter);
+        if (papers == null) {
+            return toMatches(index.search(query, topK));
+        }
+        if (papers.isEmpty()) {
+            return List.of();
+        }
+        if (papers.cardinality() <= exactThreshold) {
+            long[][] labels = {new long[64]};
+            int[] count = {0};
+            boolean small = papers.forEach(ordinal -> {
+                PaperId paperId = ordinals.paperOf(ordinal);
+                int[] chunkIndexes = paperId == null ? null : chunksByPaper.get(paperId);
+                if (chunkIndexes == null) {
+                    return true;
+                }
+                if (count[0] + chunkIndexes.length > exactThreshold) {
+                    return false;
+                }
+                if (count[0] + chunkIndexes.length > labels[0].length) {
+                    labels[0] = Arrays.copyOf(labels[0], Math.max(count[0] + chunkIndexes.length, labels[0].length * 2));
+                }
+                for (int chunkIndex : chunkIndexes) {
+                    labels[0][count[0]++] = PaperOrdinals.label(ordinal, chunkIndex);
+                }
+                return true;
+            });
+            if (small) {
+                return toMatches(index.searchLabels(query, topK, labels[0], count[0]));
+            }
+        }
+        return toMatches(index.search(query, topK, label -> papers.contains(PaperOrdinals.ordinal(label))));
+    }
+
+    @Override
+    public void index(PaperId paperId, List<TextChunk> chunks) {
+        if (!enabled) {
+            return;
+        }
+        markUpdated(paperId);
+        for (TextChunk chunk : chunks) {
+            add(paperId, chunk.chunkIndex(), chunk.content());
+        }
+    }
+
+    @Override
+    public void remove(PaperId paperId) {
+        if (!enabled) {
+            return;
+        }
+        markUpdated(paperId);
+        int[] chunkIndexes = chunksByPaper.remove(paperId);
+        int ordinal = ordinals.find(paperId);
+        if (chunkIndexes != null && ordinal >= 0) {
+            for (int chunkIndex : chunkIndexes) {
+                index.delete(PaperOrdinals.label(ordinal, chunkIndex));
+            }
+            log.debug("🔎 [BM25] Removed {} chunks of paper {}", chunkIndexes.length, paperId);
+        }
+    }
+
+    public Bm25Index.Stats stats() {
+        return index.stats();
+    }
+
+    private List<LexicalMatch> toMatches(List<Bm25Index.Result> results) {
+        List<LexicalMatch> matches = new ArrayList<>(results.size());
+        for (Bm25Index.Result result : results) {
+            PaperId paperId = ordinals.paperOf(PaperOrdinals.ordinal(result.label()));
+            if (paperId != null) {
+                matches.add(new LexicalMatch(paperId, PaperOrdinals.chunkIndex(result.label()), result.score()));
+            }
+        }
+        return matches;
+    }
+
+    private void add(PaperId paperId, int chunkIndex, String content) {
+        index.add(PaperOrdinals.label(ordinals.ordinalOf(paperId), chunkIndex), content);
+        chunksByPaper.merge(paperId, new int[]{chunkIndex}, (existing, added) -> {
+            int[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = added[0];
+            return merged;
+        });
+    }
+
+    private void markUpdated(PaperId paperId) {
+        if (warmingUp) {
+            updatedDuringWarmUp.add(paperId);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 关键词索引与查询共用的分词规则。
+ * <p>
+ * 连续的字母和数字组成一个词并转为小写；词内部夹在两个字母数字之间的 '.' 和 '-' 保留，
+ * 因此 "Theorem 3.2"、"IL-6"、"COVID-19" 这类精确术语整体可查。带连字符的词同时产出各个组成部分，
+ * "state-of-the-art" 也能被 "art" 命中。汉字等表意文字逐字成词。
+ * 去掉少量英文停用词和超长的词（通常是公式或编码残留）。
+ */
+public final class LexicalTokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "were", "with");
+
+    private LexicalTokenizer() {
+    }
+
+    public static void tokenize(CharSequence text, Consumer<String> sink) {
+        StringBuilder token = new StringBuilder(32);
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = Character.codePointAt(text, i);
+            int next = i + Character.charCount(codePoint);
+            if (Character.isIdeographic(codePoint)) {
+                emit(token, sink);
+                sink.accept(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if ((codePoint == '.' || codePoint == '-') && !token.isEmpty()
+                    && next < length && isWordCharacter(Character.codePointAt(text, next))) {
+                token.append((char) codePoint);
+            } else {
+                emit(token, sink);
+            }
+            i = next;
+        }
+        emit(token, sink);
+    }
+
+    private static boolean isWordCharacter(int codePoint) {
+        return Character.isLetterOrDigit(codePoint) && !Character.isIdeographic(codePoint);
+    }
+
+    private static void emit(StringBuilder token, Consumer<String> sink) {
+        if (token.isEmpty()) {
+            return;
+        }
+        if (token.length() <= MAX_TOKEN_LENGTH) {
+            String value = token.toString();
+            accept(value, sink);
+            if (value.indexOf('-') > 0) {
+                for (String part : value.split("-")) {
+                    accept(part, sink);
+                }
+            }
+        }
+        token.setLength(0);
+    }
+
+    private static void accept(String value, Consumer<String> sink) {
+        if (!STOP_WORDS.contains(value)) {
+            sink.accept(value);
+        }
+    }
+}
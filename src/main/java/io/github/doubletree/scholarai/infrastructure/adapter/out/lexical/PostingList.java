@@ -0,0 +1,201 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import java.util.Arrays;
+
+/**
+ * 一个词项的倒排表。文档号只增不减，按 {@link #BLOCK_SIZE} 条一块做差分编码和定宽位打包，全部存放在 int 数组中。
+ * <p>
+ * 每块在 data 中先写一个头（低 8 位为条目数 - 1，其后 6 位为文档号差值的位宽，再 6 位为 tf - 1 的位宽），
+ * 随后依次位打包全部差值和全部 tf - 1。块内第一个差值相对于上一块的最后一个文档号。
+ * 未满一块的尾部以原始数组形式保存，攒满后再压缩。blockLastDoc / blockOffset 记录每块的最后文档号和起始位置，
+ * 查询时据此跳过整块而不解码。
+ * <p>
+ * 不是线程安全的，由 {@link Bm25Index} 的读写锁保护。
+ */
+final class PostingList {
+
+    static final int BLOCK_SIZE = 128;
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] data = EMPTY;
+    private int dataLength;
+    private int[] blockLastDoc = EMPTY;
+    private int[] blockOffset = EMPTY;
+    private int blockCount;
+
+    private int[] tailDocs = new int[2];
+    private int[] tailTfs = new int[2];
+    private int tailCount;
+
+    private int lastDoc = -1;
+    private int length;
+    private int maxTf;
+
+    void add(int doc, int tf) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Documents must be added in increasing order");
+        }
+        if (tf <= 0) {
+            throw new IllegalArgumentException("Term frequency must be positive");
+        }
+        if (tailCount == tailDocs.length) {
+            int capacity = Math.min(BLOCK_SIZE, tailDocs.length * 2);
+            tailDocs = Arrays.copyOf(tailDocs, capacity);
+            tailTfs = Arrays.copyOf(tailTfs, capacity);
+        }
+        tailDocs[tailCount] = doc;
+        tailTfs[tailCount] = tf;
+        tailCount++;
+        lastDoc = doc;
+        length++;
+        maxTf = Math.max(maxTf, tf);
+        if (tailCount == BLOCK_SIZE) {
+            compressTail();
+        }
+    }
+
+    /**
+     * 包含尚未压缩的尾部在内的块数
+     */
+    int blocks() {
+        return blockCount + (tailCount > 0 ? 1 : 0);
+    }
+
+    int lastDocOfBlock(int block) {
+        return block < blockCount ? blockLastDoc[block] : lastDoc;
+    }
+
+    /**
+     * 从 from 开始第一个最后文档号不小于 target 的块；没有时返回 {@link #blocks()}
+     */
+    int findBlock(int from, int target) {
+        int blocks = blocks();
+        if (from >= blocks || lastDoc < target) {
+            return blocks;
+        }
+        int low = from;
+        int high = blocks - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lastDocOfBlock(mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 把一块解码到 docs / tfs（长度至少为 {@link #BLOCK_SIZE}）
+     *
+     * @return 条目数
+     */
+    int decode(int block, int[] docs, int[] tfs) {
+        if (block == blockCount) {
+            System.arraycopy(tailDocs, 0, docs, 0, tailCount);
+            System.arraycopy(tailTfs, 0, tfs, 0, tailCount);
+            return tailCount;
+        }
+        int offset = blockOffset[block];
+        int header = data[offset];
+        int count = (header & 0xff) + 1;
+        int docBits = (header >>> 8) & 0x3f;
+        int tfBits = (header >>> 14) & 0x3f;
+
+        int in = offset + 1;
+        long buffer = 0;
+        int buffered = 0;
+        int doc = block == 0 ? -1 : blockLastDoc[block - 1];
+        for (int i = 0; i < count; i++) {
+            while (buffered < docBits) {
+                buffer |= (data[in++] & 0xffffffffL) << buffered;
+                buffered += 32;
+            }
+            doc += (int) (buffer & ((1L << docBits) - 1));
+            buffer >>>= docBits;
+            buffered -= docBits;
+            docs[i] = doc;
+        }
+        for (int i = 0; i < count; i++) {
+            while (buffered < tfBits) {
+                buffer |= (data[in++] & 0xffffffffL) << buffered;
+                buffered += 32;
+            }
+            tfs[i] = 1 + (int) (buffer & ((1L << tfBits) - 1));
+            buffer >>>= tfBits;
+            buffered -= tfBits;
+        }
+        return count;
+    }
+
+    int length() {
+        return length;
+    }
+
+    int maxTf() {
+        return maxTf;
+    }
+
+    long sizeInBytes() {
+        return 4L * (data.length + blockLastDoc.length + blockOffset.length + tailDocs.length + tailTfs.length) + 64;
+    }
+
+    private void compressTail() {
+        int previous = blockCount == 0 ? -1 : blockLastDoc[blockCount - 1];
+        int maxDelta = 0;
+        int maxTfMinusOne = 0;
+        for (int i = 0; i < tailCount; i++) {
+            maxDelta = Math.max(maxDelta, tailDocs[i] - (i == 0 ? previous : tailDocs[i - 1]));
+            maxTfMinusOne = Math.max(maxTfMinusOne, tailTfs[i] - 1);
+        }
+        int docBits = bitWidth(maxDelta);
+        int tfBits = bitWidth(maxTfMinusOne);
+        int words = 1 + (int) (((long) (docBits + tfBits) * tailCount + 31) / 32);
+
+        if (dataLength + words > data.length) {
+            data = Arrays.copyOf(data, Math.max(dataLength + words, data.length + (data.length >> 1)));
+        }
+        if (blockCount == blockLastDoc.length) {
+            int capacity = Math.max(4, blockCount * 2);
+            blockLastDoc = Arrays.copyOf(blockLastDoc, capacity);
+            blockOffset = Arrays.copyOf(blockOffset, capacity);
+        }
+        blockLastDoc[blockCount] = tailDocs[tailCount - 1];
+        blockOffset[blockCount] = dataLength;
+        blockCount++;
+
+        data[dataLength] = (tailCount - 1) | (docBits << 8) | (tfBits << 14);
+        int out = dataLength + 1;
+        long buffer = 0;
+        int buffered = 0;
+        for (int i = 0; i < tailCount; i++) {
+            buffer |= (long) (tailDocs[i] - (i == 0 ? previous : tailDocs[i - 1])) << buffered;
+            buffered += docBits;
+            if (buffered >= 32) {
+                data[out++] = (int) buffer;
+                buffer >>>= 32;
+                buffered -= 32;
+            }
+        }
+        for (int i = 0; i < tailCount; i++) {
+            buffer |= (long) (tailTfs[i] - 1) << buffered;
+            buffered += tfBits;
+            if (buffered >= 32) {
+                data[out++] = (int) buffer;
+                buffer >>>= 32;
+                buffered -= 32;
+            }
+        }
+        if (buffered > 0) {
+            data[out++] = (int) buffer;
+        }
+        dataLength = out;
+        tailCount = 0;
+    }
+
+    private static int bitWidth(int value) {
+        return 32 - Integer.numberOfLeadingZeros(value);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.pdf;
+
+import io.github.doubletree.scholarai.domain.port.out.StoragePort;
+import io.github.doubletree.scholarai.domain.port.out.TextExtractionPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 基于 PDFBox 的逐页文本提取。
+ * PDFTextStripper 的输出写入一个可复用的页缓冲区，每页结束时交给回调并清空，
+ * 内存中最多只保留一页文本。PDF 直接从存储中的文件按需分页读取（不先把整个文件读进堆），
+ * 解码后的 PDF 流缓存到临时文件而不是堆上。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PdfBoxTextExtractionAdapter implements TextExtractionPort {
+
+    private final StoragePort storagePort;
+
+    @Override
+    public int extractPages(String storedFileName, PageConsumer consumer) throws InterruptedException {
+        log.debug("📄 [PDF] Extracting text page by page: {}", storedFileName);
+
+        try (RandomAccessReadBufferedFile file =
+                     new RandomAccessReadBufferedFile(storagePort.resolve(storedFileName).path().toFile());
+             PDDocument document = Loader.loadPDF(file, IOUtils.createTempFileOnlyStreamCache())) {
+            PageStreamingStripper stripper = new PageStreamingStripper(consumer);
+            stripper.writeText(document, stripper.pageBuffer);
+            log.debug("📄 [PDF] Extracted {} pages from {}", document.getNumberOfPages(), storedFileName);
+            return document.getNumberOfPages();
+        } catch (PageConsumerInterrupted e) {
+            throw e.cause;
+        } catch (IOException e) {
+            throw new TextExtractionException("Failed to extract text from " + storedFileName, e);
+        }
+    }
+
+    private static final class PageStreamingStripper extends PDFTextStripper {
+
+        private final PageConsumer consumer;
+        private final PageBuffer pageBuffer = new PageBuffer();
+
+        private PageStreamingStripper(PageConsumer consumer) {
+            this.consumer = consumer;
+            // 段落之间输出空行，供切分器识别段落边界
+            setParagraphEnd(getLineSeparator());
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            try {
+                consumer.accept(getCurrentPageNo(), pageBuffer.text);
+            } catch (InterruptedException e) {
+                throw new PageConsumerInterrupted(e);
+            } finally {
+                pageBuffer.text.setLength(0);
+            }
+        }
+    }
+
+    private static final class PageBuffer extends Writer {
+
+        private final StringBuilder text = new StringBuilder(4096);
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            text.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            text.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 回调线程被中断时用来穿过 PDFBox 的 IOException 签名
+     */
+    private static final class PageConsumerInterrupted extends RuntimeException {
+
+        private final InterruptedException cause;
+
+        private PageConsumerInterrupted(InterruptedException cause) {
+            super(cause);
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperCursor;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
+import io.github.doubletree.scholarai.domain.model.PaperText;
+import io.github.doubletree.scholarai.domain.port.out.FullTextPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 在 {@link PostgresPaperAdapter} 前面加一层按 id 的元数据缓存，其余查询直接透传。
+ * <p>
+ * 缓存里的论文不带全文：每次返回时挂上新的按需加载 supplier，避免全文被缓存条目长期引用。
+ * 保存论文时立即失效本地条目，事务结束后再失效一次（防止并发读在提交前把旧值放回缓存），
+ * 并通过 {@link PaperInvalidationChannel} 通知其他实例。
+ * 每次保存都发布 {@link PapersSavedEvent}，供检索过滤索引等进程内派生数据更新。
+ */
+@Primary
+@Component
+@RequiredArgsConstructor
+public class CachingPaperAdapter implements LoadPaperPort, SavePaperPort {
+
+    private final PostgresPaperAdapter delegate;
+    private final PaperMetadataCache cache;
+    private final PaperInvalidationChannel invalidationChannel;
+    private final FullTextPort fullTextPort;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Optional<Paper> load(PaperId paperId) {
+        return cache.get(paperId, id -> delegate.load(id).map(paper -> paper.withFullText(null)))
+                .map(this::withLazyFullText);
+    }
+
+    @Override
+    public Optional<Paper> loadByDoi(String doi) {
+        return delegate.loadByDoi(doi);
+    }
+
+    @Override
+    public Optional<Paper> loadByContentHash(String sha256) {
+        return delegate.loadByContentHash(sha256);
+    }
+
+    @Override
+    public Map<String, Paper> loadByContentHashes(Collection<String> sha256s) {
+        return delegate.loadByContentHashes(sha256s);
+    }
+
+    @Override
+    public List<PaperSummary> loadSummaries(PaperMetadata.ProcessingStatus status, PaperCursor after, int limit) {
+        return delegate.loadSummaries(status, after, limit);
+    }
+
+    @Override
+    public void forEachFilterAttributes(FilterAttributesVisitor visitor) {
+        delegate.forEachFilterAttributes(visitor);
+    }
+
+    @Override
+    public void forEachIdentity(IdentityVisitor visitor) {
+        delegate.forEachIdentity(visitor);
+    }
+
+    @Override
+    public Set<String> findReferencedFileNames(Collection<String> storedFileNames) {
+        return delegate.findReferencedFileNames(storedFileNames);
+    }
+
+    @Override
+    @Transactional
+    public Paper save(Paper paper) {
+        Paper saved = delegate.save(paper);
+        invalidate(paper.id());
+        eventPublisher.publishEvent(new PapersSavedEvent(List.of(saved)));
+        return saved;
+    }
+
+    /**
+     * 新论文不可能在任何实例的缓存里，不需要失效；仍然通知其他实例，让它们的检索过滤索引收录这篇论文
+     */
+    @Override
+    public Paper insert(Paper paper) {
+        Paper saved = delegate.insert(paper);
+        invalidationChannel.publish(saved.id());
+        eventPublisher.publishEvent(new PapersSavedEvent(List.of(saved)));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<Paper> saveAll(List<Paper> papers) {
+        List<Paper> saved = delegate.saveAll(papers);
+        papers.forEach(paper -> invalidate(paper.id()));
+        eventPublisher.publishEvent(new PapersSavedEvent(saved));
+        return saved;
+    }
+
+    @Override
+    public boolean exists(PaperId paperId) {
+        return delegate.exists(paperId);
+    }
+
+    @Override
+    public boolean existsByDoi(String doi) {
+        return delegate.existsByDoi(doi);
+    }
+
+    private void invalidate(PaperId paperId) {
+        cache.invalidate(paperId);
+        invalidationChannel.publish(paperId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(paperId);
+                }
+            });
+        }
+    }
+
+    private Paper withLazyFullText(Paper paper) {
+        PaperId paperId = paper.id();
+        return paper.withFullText(PaperText.lazy(() -> fullTextPort.load(paperId).orElse(null)));
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多实例部署时通过 Postgres LISTEN/NOTIFY 广播论文元数据失效。
+ * <p>
+ * 发送方在保存论文的同一个事务里执行 pg_notify，Postgres 只在事务提交后投递，回滚则不投递。
+ * 每个实例用一条独立连接（不占连接池）监听频道，消息格式为 {@code 实例id:论文id}，忽略自己发出的消息。
+ * 监听连接断开期间可能漏掉消息，所以重连成功后清空整个本地缓存。
+ * <p>
+ * 收到的消息同时以 {@link RemotePaperChangedEvent} 在本进程内发布，检索过滤索引等派生数据据此更新；
+ * 重连后发布一次全量重建事件。即使关闭了元数据缓存，只要开启 cluster-invalidation 就会监听。
+ */
+@Slf4j
+@Component
+public class PaperInvalidationChannel {
+
+    private static final String CHANNEL = "paper_invalidation";
+
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', ?)";
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+
+    private final PaperMetadataCache cache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PaperInvalidationChannel(PaperMetadataCache cache,
+                                    JdbcTemplate jdbcTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${scholar-ai.paper-cache.cluster-invalidation:false}") boolean enabled,
+                                    @Value("${spring.datasource.url}") String url,
+                                    @Value("${spring.datasource.username:}") String username,
+                                    @Value("${spring.datasource.password:}") String password) {
+        this.cache = cache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofVirtual().name("paper-cache-listener").start(this::listen);
+        log.info("💾 [Cache] Listening for paper invalidations on channel '{}' (node {})", CHANNEL, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    public long publishedCount() {
+        return published.sum();
+    }
+
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    /**
+     * 在当前事务中通知其他实例；没有事务时立即投递
+     */
+    public void publish(PaperId paperId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.query(NOTIFY, rs -> null, nodeId + ":" + paperId);
+            published.increment();
+        } catch (DataAccessException e) {
+            // 通知失败不影响保存本身，其他实例的条目会在 TTL 到期后刷新
+            log.warn("⚠️ [Cache] Failed to publish invalidation for paper {}", paperId, e);
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 500;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                cache.invalidateAll();
+                if (reconnecting) {
+                    eventPublisher.publishEvent(RemotePaperChangedEvent.resync());
+                }
+                backoffMs = 500;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                reconnecting = true;
+                log.warn("⚠️ [Cache] Invalidation listener disconnected, retrying in {} ms", backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RECONNECT_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        PaperId paperId;
+        try {
+            paperId = PaperId.fromString(payload.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ [Cache] Ignoring malformed invalidation message: {}", payload);
+            return;
+        }
+        cache.invalidate(paperId);
+        received.increment();
+        try {
+            eventPublisher.publishEvent(new RemotePaperChangedEvent(paperId));
+        } catch (RuntimeException e) {
+            // 监听方的失败不能让监听线程退出
+            log.warn("⚠️ [Cache] Failed to apply remote change for paper {}", paperId, e);
+        }
+    }
+}
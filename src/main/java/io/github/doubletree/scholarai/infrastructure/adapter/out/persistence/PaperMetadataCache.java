@@ -0,0 +1,252 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 论文元数据的堆内读穿缓存（不含全文）。
+ * <p>
+ * 按估算的字节数限容，超出时淘汰最久未访问的条目；每个条目写入时记录自己的过期时间。
+ * 同一篇论文同时未命中时只有一个线程查库，其余线程等待同一次加载（single-flight）。
+ * 加载期间如果该论文被失效，加载结果只返回给等待者，不写入缓存，避免把旧值放回去。
+ * 查不到的论文不缓存。
+ */
+@Slf4j
+@Component
+public class PaperMetadataCache {
+
+    /** 每个条目的固定开销估算：对象头、记录字段、LocalDateTime、Map 等 */
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    public record Stats(
+            long hits,
+            long misses,
+            long coalescedLoads,
+            long loads,
+            long evictions,
+            long expirations,
+            long invalidations,
+            int entries,
+            long weightBytes,
+            long maxWeightBytes,
+            double hitRatio
+    ) {
+    }
+
+    private record Entry(Paper paper, long weight, long expiresAtNanos) {
+    }
+
+    private final boolean enabled;
+    private final long maxWeightBytes;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<PaperId, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<PaperId, CompletableFuture<Optional<Paper>>> inFlight = new ConcurrentHashMap<>();
+    private long weightBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PaperMetadataCache(@Value("${scholar-ai.paper-cache.enabled:true}") boolean enabled,
+                              @Value("${scholar-ai.paper-cache.max-size:32MB}") DataSize maxSize,
+                              @Value("${scholar-ai.paper-cache.ttl-seconds:300}") long ttlSeconds) {
+        if (maxSize.toBytes() <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Paper cache size and TTL must be positive");
+        }
+        this.enabled = enabled;
+        this.maxWeightBytes = maxSize.toBytes();
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        log.info("💾 [Cache] Paper metadata cache {} (max {} bytes, ttl {}s)",
+                enabled ? "enabled" : "disabled", maxWeightBytes, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 命中直接返回；未命中时调用 loader，同一 id 的并发未命中共享一次加载
+     */
+    public Optional<Paper> get(PaperId paperId, Function<PaperId, Optional<Paper>> loader) {
+        if (!enabled) {
+            return loader.apply(paperId);
+        }
+        Paper cached = lookup(paperId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+
+        CompletableFuture<Optional<Paper>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<Paper>> existing = inFlight.putIfAbsent(paperId, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return await(existing);
+        }
+
+        try {
+            // 注册之前可能刚有另一次加载完成
+            cached = lookup(paperId);
+            Optional<Paper> result = cached != null ? Optional.of(cached) : load(paperId, loader);
+            if (inFlight.remove(paperId, flight) && cached == null) {
+                result.ifPresent(paper -> put(paperId, paper));
+            }
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(paperId, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(PaperId paperId) {
+        if (!enabled) {
+            return;
+        }
+        invalidations.increment();
+        // 先摘掉进行中的加载，它的结果就不会再写回缓存
+        inFlight.remove(paperId);
+        synchronized (entries) {
+            Entry removed = entries.remove(paperId);
+            if (removed != null) {
+                weightBytes -= removed.weight();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        invalidations.increment();
+        inFlight.clear();
+        synchronized (entries) {
+            entries.clear();
+            weightBytes = 0;
+        }
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        int size;
+        long weight;
+        synchronized (entries) {
+            size = entries.size();
+            weight = weightBytes;
+        }
+        return new Stats(
+                hitCount,
+                missCount,
+                coalescedLoads.sum(),
+                loads.sum(),
+                evictions.sum(),
+                expirations.sum(),
+                invalidations.sum(),
+                size,
+                weight,
+                maxWeightBytes,
+                lookups == 0 ? 0.0 : (double) hitCount / lookups
+        );
+    }
+
+    private Optional<Paper> load(PaperId paperId, Function<PaperId, Optional<Paper>> loader) {
+        loads.increment();
+        return loader.apply(paperId);
+    }
+
+    private Paper lookup(PaperId paperId) {
+        synchronized (entries) {
+            Entry entry = entries.get(paperId);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+                entries.remove(paperId);
+                weightBytes -= entry.weight();
+                expirations.increment();
+                return null;
+            }
+            return entry.paper();
+        }
+    }
+
+    private void put(PaperId paperId, Paper paper) {
+        long weight = estimateBytes(paper);
+        if (weight > maxWeightBytes) {
+            return;
+        }
+        Entry entry = new Entry(paper, weight, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            Entry previous = entries.put(paperId, entry);
+            if (previous != null) {
+                weightBytes -= previous.weight();
+            }
+            weightBytes += weight;
+            Iterator<Map.Entry<PaperId, Entry>> eldest = entries.entrySet().iterator();
+            while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                weightBytes -= evicted.weight();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static Optional<Paper> await(CompletableFuture<Optional<Paper>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 按字符串长度粗略估算条目占用，每字符按 2 字节取上界
+     */
+    static long estimateBytes(Paper paper) {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        bytes += sizeOf(paper.title()) + sizeOf(paper.abstractText()) + sizeOf(paper.doi());
+        for (String author : paper.authors()) {
+            bytes += 16 + sizeOf(author);
+        }
+        bytes += sizeOf(paper.metadata().sourceUrl()) + sizeOf(paper.metadata().fileName());
+        for (Map.Entry<String, String> property : paper.metadata().additionalProperties().entrySet()) {
+            bytes += 32 + sizeOf(property.getKey()) + sizeOf(property.getValue());
+        }
+        return bytes;
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+
+import java.util.List;
+
+/**
+ * 论文元数据已保存（在保存所在的事务中发布，监听方通常在提交后处理）
+ */
+public record PapersSavedEvent(List<Paper> papers) {
+    public PapersSavedEvent {
+        papers = List.copyOf(papers);
+    }
+}
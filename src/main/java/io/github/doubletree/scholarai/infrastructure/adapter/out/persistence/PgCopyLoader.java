@@ -0,0 +1,205 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import com.pgvector.PGvector;
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用 {@code COPY ... FROM STDIN} 批量写入新行：整批数据在一个流里发送，没有逐行的语句往返和参数绑定。
+ * <p>
+ * 使用调用方传入的连接（通常是当前事务的连接），COPY 与同一事务中的其他语句一起提交或回滚。
+ * 数据按 COPY 的 text 格式编码：字段以制表符分隔，NULL 写作 {@code \N}，反斜杠、制表符和换行需要转义。
+ * COPY 不处理冲突，任意一行主键已存在时整批失败，所以只用于确定是新数据的场景。
+ */
+@Component
+public class PgCopyLoader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String COPY_PAPERS = """
+            COPY paper (id, title, authors, abstract_text, doi, published_date, uploaded_at, processed_at,
+                        status, file_name, file_size, content_hash)
+            FROM STDIN
+            """;
+
+    private static final String COPY_CHUNKS = """
+            COPY paper_chunk (paper_id, chunk_index, content, start_position, end_position,
+                              page_number, embedding, embedding_model)
+            FROM STDIN
+            """;
+
+    /**
+     * 实体中为空的上传时间和状态按 {@link PaperEntity} 的 @PrePersist 规则补齐
+     *
+     * @return 写入的行数
+     */
+    public long copyPapers(Connection connection, List<PaperEntity> papers) throws SQLException {
+        return copy(connection, COPY_PAPERS, out -> {
+            for (PaperEntity paper : papers) {
+                uuid(out, paper.getId().toString());
+                text(out, paper.getTitle());
+                textArray(out, paper.getAuthors());
+                text(out, paper.getAbstractText());
+                text(out, paper.getDoi());
+                timestamp(out, paper.getPublishedDate());
+                timestamp(out, paper.getUploadedAt() != null ? paper.getUploadedAt() : LocalDateTime.now());
+                timestamp(out, paper.getProcessedAt());
+                text(out, (paper.getStatus() != null ? paper.getStatus() : PaperEntity.ProcessingStatus.PENDING).name());
+                text(out, paper.getFileName());
+                raw(out, paper.getFileSize() != null ? paper.getFileSize().toString() : null);
+                last(out, paper.getContentHash() != null ? escape(paper.getContentHash()) : null);
+            }
+        });
+    }
+
+    /**
+     * @param embeddingsByChunk 按 chunkIndex 索引的向量，没有向量的块写入 NULL
+     * @return 写入的行数
+     */
+    public long copyChunks(Connection connection,
+                           PaperId paperId,
+                           List<TextChunk> chunks,
+                           Map<Integer, Embedding> embeddingsByChunk) throws SQLException {
+        String paper = paperId.value().toString();
+        return copy(connection, COPY_CHUNKS, out -> {
+            for (TextChunk chunk : chunks) {
+                Embedding embedding = embeddingsByChunk.get(chunk.chunkIndex());
+                uuid(out, paper);
+                number(out, chunk.chunkIndex());
+                text(out, chunk.content());
+                number(out, chunk.startPosition());
+                number(out, chunk.endPosition());
+                number(out, chunk.metadata().pageNumber());
+                raw(out, embedding != null ? new PGvector(embedding.vector()).getValue() : null);
+                last(out, embedding != null ? escape(embedding.model()) : null);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Writer out) throws IOException;
+    }
+
+    private static long copy(Connection connection, String sql, RowWriter rows) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        PGCopyOutputStream stream = new PGCopyOutputStream(pgConnection, sql, BUFFER_SIZE);
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            rows.write(out);
+            out.flush();
+            return stream.endCopy();
+        } catch (IOException e) {
+            if (stream.isActive()) {
+                stream.cancelCopy();
+            }
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("COPY failed", e);
+        }
+    }
+
+    private static void uuid(Writer out, String value) throws IOException {
+        out.write(value);
+        out.write('\t');
+    }
+
+    private static void number(Writer out, long value) throws IOException {
+        out.write(Long.toString(value));
+        out.write('\t');
+    }
+
+    private static void text(Writer out, String value) throws IOException {
+        raw(out, value != null ? escape(value) : null);
+    }
+
+    private static void timestamp(Writer out, LocalDateTime value) throws IOException {
+        raw(out, value != null ? value.toString() : null);
+    }
+
+    /**
+     * 数组字面量 {"a","b"}：元素内的双引号和反斜杠先按数组语法转义，整个字面量再按 COPY 语法转义
+     */
+    private static void textArray(Writer out, String[] values) throws IOException {
+        if (values == null) {
+            raw(out, null);
+            return;
+        }
+        StringBuilder literal = new StringBuilder().append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            if (values[i] == null) {
+                literal.append("NULL");
+                continue;
+            }
+            literal.append('"');
+            for (int j = 0; j < values[i].length(); j++) {
+                char c = values[i].charAt(j);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        text(out, literal.append('}').toString());
+    }
+
+    private static void raw(Writer out, String value) throws IOException {
+        out.write(value != null ? value : "\\N");
+        out.write('\t');
+    }
+
+    private static void last(Writer out, String value) throws IOException {
+        out.write(value != null ? value : "\\N");
+        out.write('\n');
+    }
+
+    /**
+     * COPY text 格式的转义；Postgres 的 text 不能包含 NUL，直接去掉
+     */
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case '\t' -> "\\t";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\0' -> "";
+                default -> null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import com.pgvector.PGvector;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort.PersistenceException;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.CompressedBitmap;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 默认向量检索实现：直接在 paper_chunk 表上用 pgvector 的余弦距离排序（走 HNSW 索引）。
+ * <p>
+ * HNSW 查询最多只返回 {@code hnsw.ef_search} 行（pgvector 默认 40），过滤条件在索引扫描之后才生效，
+ * 所以每次查询都在一个只读事务里用 {@code set_config(..., true)}（即 SET LOCAL）把 ef_search 提高到不小于 topK，
+ * 并打开 {@code hnsw.iterative_scan}（pgvector 0.8+），过滤掉的候选太多时索引扫描会继续向外扩展，
+ * 而不是静默地少返回结果。relaxed_order 模式下索引返回的顺序可能略有颠倒，外层查询再按距离排一次。
+ * <p>
+ * 带过滤条件时先用 {@link PaperFilterIndex} 的位图算出满足条件的论文：
+ * <ul>
+ *   <li>论文不超过 {@code exact-scan-max-papers} 篇时不走 HNSW，按主键取出这些论文的全部文本块精确排序，
+ *       结果不受近似索引影响；</li>
+ *   <li>否则走 HNSW + 迭代扫描；满足条件的论文超过全集一半时改为绑定被排除的论文（{@code <> ALL}），
+ *       数组长度不超过论文总数的一半。</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "scholar-ai.vector-search.type", havingValue = "pgvector", matchIfMissing = true)
+@Slf4j
+public class PgVectorSearchAdapter implements VectorSearchPort {
+
+    private static final Set<String> ITERATIVE_SCAN_MODES = Set.of("off", "relaxed_order", "strict_order");
+
+    private static final String SEARCH = """
+            WITH candidates AS MATERIALIZED (
+                SELECT paper_id, chunk_index, embedding <=> ? AS distance
+                FROM paper_chunk
+                WHERE embedding IS NOT NULL
+                ORDER BY distance
+                LIMIT ?
+            )
+            SELECT paper_id, chunk_index, 1 - distance AS similarity
+            FROM candidates
+            ORDER BY distance
+            """;
+
+    private static final String SEARCH_PAPERS = """
+            WITH candidates AS MATERIALIZED (
+                SELECT paper_id, chunk_index, embedding <=> ? AS distance
+                FROM paper_chunk
+                WHERE embedding IS NOT NULL AND paper_id = ANY(?::uuid[])
+                ORDER BY distance
+                LIMIT ?
+            )
+            SELECT paper_id, chunk_index, 1 - distance AS similarity
+            FROM candidates
+            ORDER BY distance
+            """;
+
+    private static final String SEARCH_EXCLUDING_PAPERS = """
+            WITH candidates AS MATERIALIZED (
+                SELECT paper_id, chunk_index, embedding <=> ? AS distance
+                FROM paper_chunk
+                WHERE embedding IS NOT NULL AND paper_id <> ALL(?::uuid[])
+                ORDER BY distance
+                LIMIT ?
+            )
+            SELECT paper_id, chunk_index, 1 - distance AS similarity
+            FROM candidates
+            ORDER BY distance
+            """;
+
+    // 排序表达式加 0 后不再匹配 HNSW 索引的运算符，规划器只能按主键取出这些论文的文本块再精确排序
+    private static final String SEARCH_PAPERS_EXACT = """
+            SELECT paper_id, chunk_index, 1 - (embedding <=> ?) AS similarity
+            FROM paper_chunk
+            WHERE embedding IS NOT NULL AND paper_id = ANY(?::uuid[])
+            ORDER BY (embedding <=> ?) + 0
+            LIMIT ?
+            """;
+
+    private static final RowMapper<VectorMatch> MATCH_MAPPER = (rs, rowNum) -> new VectorMatch(
+            new PaperId(rs.getObject("paper_id", UUID.class)),
+            rs.getInt("chunk_index"),
+            rs.getDouble("similarity"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PaperFilterIndex filterIndex;
+    private final PaperOrdinals ordinals;
+    private final int efSearch;
+    private final String iterativeScan;
+    private final int exactScanMaxPapers;
+
+    public PgVectorSearchAdapter(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 PaperFilterIndex filterIndex,
+                                 PaperOrdinals ordinals,
+                                 @Value("${scholar-ai.vector-search.pgvector.ef-search:100}") int efSearch,
+                                 @Value("${scholar-ai.vector-search.pgvector.iterative-scan:relaxed_order}") String iterativeScan,
+                                 @Value("${scholar-ai.vector-search.pgvector.exact-scan-max-papers:200}") int exactScanMaxPapers) {
+        if (efSearch <= 0 || exactScanMaxPapers < 0) {
+            throw new IllegalArgumentException("ef-search must be positive and exact-scan-max-papers non-negative");
+        }
+        String mode = iterativeScan.strip().toLowerCase(Locale.ROOT);
+        if (!ITERATIVE_SCAN_MODES.contains(mode)) {
+            throw new IllegalArgumentException("iterative-scan must be one of " + ITERATIVE_SCAN_MODES);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.filterIndex = filterIndex;
+        this.ordinals = ordinals;
+        this.efSearch = efSearch;
+        this.iterativeScan = mode;
+        this.exactScanMaxPapers = exactScanMaxPapers;
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, double minSimilarity, SearchFilter filter) {
+        if (topK <= 0) {
+            return List.of();
+        }
+        PGvector vector = new PGvector(query);
+        CompressedBitmap papers = filterIndex.resolve(filter);
+        if (papers != null && papers.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<VectorMatch> matches = readOnlyTransaction.execute(status -> papers == null
+                    ? searchIndexed(SEARCH, vector, null, topK)
+                    : searchFiltered(vector, papers, topK));
+            // 结果按距离有序，过滤阈值不会打乱顺序
+            return matches.stream()
+                    .filter(match -> match.similarity() >= minSimilarity)
+                    .toList();
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Vector search failed", e);
+        }
+    }
+
+    private List<VectorMatch> searchFiltered(PGvector vector, CompressedBitmap papers, int topK) {
+        if (papers.cardinality() <= exactScanMaxPapers) {
+            UUID[] paperIds = paperIds(papers);
+            return jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SEARCH_PAPERS_EXACT);
+                ps.setObject(1, vector);
+                ps.setArray(2, connection.createArrayOf("uuid", paperIds));
+                ps.setObject(3, vector);
+                ps.setInt(4, topK);
+                return ps;
+            }, MATCH_MAPPER);
+        }
+        CompressedBitmap all = filterIndex.allPapers();
+        if (all != null) {
+            CompressedBitmap excluded = CompressedBitmap.andNot(all, papers);
+            if (excluded.cardinality() < papers.cardinality()) {
+                return searchIndexed(SEARCH_EXCLUDING_PAPERS, vector, paperIds(excluded), topK);
+            }
+        }
+        return searchIndexed(SEARCH_PAPERS, vector, paperIds(papers), topK);
+    }
+
+    /**
+     * 在当前事务内调整 HNSW 参数后执行查询
+     *
+     * @param paperIds 绑定到查询第二个参数的论文数组；不带过滤条件时为 null
+     */
+    private List<VectorMatch> searchIndexed(String sql, PGvector vector, UUID[] paperIds, int topK) {
+        // set_config 的第三个参数为 true 时与 SET LOCAL 相同，事务结束后恢复，不会污染连接池里的连接
+        jdbcTemplate.queryForObject("SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                Integer.toString(Math.max(efSearch, topK)));
+        if (!"off".equals(iterativeScan)) {
+            jdbcTemplate.queryForObject("SELECT set_config('hnsw.iterative_scan', ?, true)", String.class,
+                    iterativeScan);
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = 1;
+            ps.setObject(index++, vector);
+            if (paperIds != null) {
+                ps.setArray(index++, connection.createArrayOf("uuid", paperIds));
+            }
+            ps.setInt(index, topK);
+            return ps;
+        }, MATCH_MAPPER);
+    }
+
+    private UUID[] paperIds(CompressedBitmap papers) {
+        List<UUID> ids = new ArrayList<>(papers.cardinality());
+        papers.forEach(ordinal -> {
+            PaperId paperId = ordinals.paperOf(ordinal);
+            if (paperId != null) {
+                ids.add(paperId.value());
+            }
+            return true;
+        });
+        return ids.toArray(new UUID[0]);
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import com.pgvector.PGvector;
+import io.github.doubletree.scholarai.domain.model.ChunkRef;
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveAnalysisPort;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 文本块与向量直接通过 JDBC 写入 paper_chunk 表（表结构见 schema.sql）：
+ * 块数达到 chunk-copy-threshold 时用 COPY，否则用批量 INSERT。
+ */
+@Component
+@Slf4j
+public class PostgresAnalysisAdapter implements SaveAnalysisPort, LoadChunkPort {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String DELETE_CHUNKS = "DELETE FROM paper_chunk WHERE paper_id = ?";
+
+    private static final String INSERT_CHUNK = """
+            INSERT INTO paper_chunk (paper_id, chunk_index, content, start_position, end_position,
+                                     page_number, embedding, embedding_model)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_EMBEDDINGS = """
+            SELECT paper_id, chunk_index, embedding::text AS embedding
+            FROM paper_chunk
+            WHERE embedding IS NOT NULL
+            """;
+
+    private static final String SELECT_CHUNK_TEXTS = """
+            SELECT paper_id, chunk_index, content
+            FROM paper_chunk
+            """;
+
+    private static final String SELECT_VECTORS = """
+            SELECT c.paper_id, c.chunk_index, c.embedding::text AS embedding
+            FROM paper_chunk c
+            JOIN unnest(?::uuid[], ?::int[]) AS k(paper_id, chunk_index)
+              ON c.paper_id = k.paper_id AND c.chunk_index = k.chunk_index
+            WHERE c.embedding IS NOT NULL
+            """;
+
+    private static final String SELECT_CHUNKS = """
+            SELECT c.paper_id, c.chunk_index, c.content, c.start_position, c.end_position, c.page_number
+            FROM paper_chunk c
+            JOIN unnest(?::uuid[], ?::int[]) AS k(paper_id, chunk_index)
+              ON c.paper_id = k.paper_id AND c.chunk_index = k.chunk_index
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgCopyLoader copyLoader;
+    private final int copyThreshold;
+
+    public PostgresAnalysisAdapter(JdbcTemplate jdbcTemplate,
+                                   PgCopyLoader copyLoader,
+                                   @Value("${scholar-ai.persistence.chunk-copy-threshold:16}") int copyThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyLoader = copyLoader;
+        this.copyThreshold = copyThreshold;
+    }
+
+    @Override
+    @Transactional
+    public void deleteChunks(PaperId paperId) {
+        try {
+            int deleted = jdbcTemplate.update(DELETE_CHUNKS, paperId.value());
+            log.debug("💾 [DB] Deleted {} chunks: paper={}", deleted, paperId);
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to delete chunks for paper " + paperId, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void saveChunks(PaperId paperId, List<TextChunk> chunks, List<Embedding> embeddings) {
+        log.debug("💾 [DB] Save chunks: paper={}, count={}", paperId, chunks.size());
+
+        Map<Integer, Embedding> embeddingsByChunk = new HashMap<>();
+        for (Embedding embedding : embeddings) {
+            embeddingsByChunk.put(embedding.chunkIndex(), embedding);
+        }
+
+        try {
+            if (chunks.size() >= copyThreshold) {
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                        copyLoader.copyChunks(connection, paperId, chunks, embeddingsByChunk));
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_CHUNK, chunks, BATCH_SIZE, (ps, chunk) -> {
+                Embedding embedding = embeddingsByChunk.get(chunk.chunkIndex());
+                ps.setObject(1, paperId.value());
+                ps.setInt(2, chunk.chunkIndex());
+                ps.setString(3, chunk.content());
+                ps.setInt(4, chunk.startPosition());
+                ps.setInt(5, chunk.endPosition());
+                ps.setInt(6, chunk.metadata().pageNumber());
+                ps.setObject(7, embedding != null ? new PGvector(embedding.vector()) : null);
+                ps.setString(8, embedding != null ? embedding.model() : null);
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to save chunks for paper " + paperId, e);
+        }
+    }
+
+    /**
+     * PostgreSQL 驱动只有在事务内才按 fetchSize 分批拉取，否则会一次性读入整个结果集
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachEmbedding(EmbeddingVisitor visitor) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_EMBEDDINGS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                visitor.visit(new PaperId(rs.getObject("paper_id", UUID.class)),
+                        rs.getInt("chunk_index"),
+                        new PGvector(rs.getString("embedding")).toArray());
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load embeddings", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachChunkText(ChunkTextVisitor visitor) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_CHUNK_TEXTS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                visitor.visit(new PaperId(rs.getObject("paper_id", UUID.class)),
+                        rs.getInt("chunk_index"),
+                        rs.getString("content"));
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load chunk texts", e);
+        }
+    }
+
+    @Override
+    public Map<ChunkRef, float[]> loadVectors(Collection<ChunkRef> refs) {
+        if (refs.isEmpty()) {
+            return Map.of();
+        }
+        UUID[] paperIds = new UUID[refs.size()];
+        Integer[] chunkIndexes = new Integer[refs.size()];
+        int i = 0;
+        for (ChunkRef ref : refs) {
+            paperIds[i] = ref.paperId().value();
+            chunkIndexes[i++] = ref.chunkIndex();
+        }
+
+        Map<ChunkRef, float[]> vectors = new HashMap<>();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_VECTORS);
+                ps.setArray(1, connection.createArrayOf("uuid", paperIds));
+                ps.setArray(2, connection.createArrayOf("int4", chunkIndexes));
+                return ps;
+            }, rs -> {
+                vectors.put(new ChunkRef(new PaperId(rs.getObject("paper_id", UUID.class)), rs.getInt("chunk_index")),
+                        new PGvector(rs.getString("embedding")).toArray());
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load vectors", e);
+        }
+        return vectors;
+    }
+
+    @Override
+    public Map<ChunkRef, TextChunk> loadChunks(Collection<ChunkRef> refs) {
+        if (refs.isEmpty()) {
+            return Map.of();
+        }
+        UUID[] paperIds = new UUID[refs.size()];
+        Integer[] chunkIndexes = new Integer[refs.size()];
+        int i = 0;
+        for (ChunkRef ref : refs) {
+            paperIds[i] = ref.paperId().value();
+            chunkIndexes[i++] = ref.chunkIndex();
+        }
+
+        Map<ChunkRef, TextChunk> chunks = new HashMap<>();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_CHUNKS);
+                ps.setArray(1, connection.createArrayOf("uuid", paperIds));
+                ps.setArray(2, connection.createArrayOf("int4", chunkIndexes));
+                return ps;
+            }, rs -> {
+                int chunkIndex = rs.getInt("chunk_index");
+                chunks.put(new ChunkRef(new PaperId(rs.getObject("paper_id", UUID.class)), chunkIndex),
+                        new TextChunk(rs.getString("content"),
+                                rs.getInt("start_position"),
+                                rs.getInt("end_position"),
+                                chunkIndex,
+                                new TextChunk.ChunkMetadata(null, rs.getInt("page_number"), 0)));
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load chunks", e);
+        }
+        return chunks;
+    }
+}
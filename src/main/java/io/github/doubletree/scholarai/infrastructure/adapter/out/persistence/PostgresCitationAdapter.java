@@ -0,0 +1,175 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.port.out.LoadCitationPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveCitationPort;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort.PersistenceException;
+import io.github.doubletree.scholarai.domain.service.CitationKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * 引用直接通过 JDBC 写入 paper_citation 表（表结构见 schema.sql），citation_index 是在文中的出现顺序。
+ * 参考文献条目同时写入 DOI 和标题的匹配键（{@link CitationKeys}），新论文入库时据此反查哪些论文引用了它。
+ */
+@Component
+@Slf4j
+public class PostgresCitationAdapter implements SaveCitationPort, LoadCitationPort {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String DELETE_CITATIONS = "DELETE FROM paper_citation WHERE paper_id = ?";
+
+    private static final String INSERT_CITATION = """
+            INSERT INTO paper_citation (paper_id, citation_index, type, raw_text, authors, year, title, venue,
+                                        doi, page_number, doi_key, title_key)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_CITATIONS = """
+            SELECT type, raw_text, authors, year, title, venue, doi, page_number
+            FROM paper_citation
+            WHERE paper_id = ?
+            ORDER BY citation_index
+            """;
+
+    private static final String SELECT_CITATIONS_BY_TYPE = """
+            SELECT type, raw_text, authors, year, title, venue, doi, page_number
+            FROM paper_citation
+            WHERE paper_id = ? AND type = ?
+            ORDER BY citation_index
+            """;
+
+    private static final String SELECT_REFERENCES = """
+            SELECT paper_id, doi, title
+            FROM paper_citation
+            WHERE type = 'REFERENCE_LIST'
+            ORDER BY paper_id, citation_index
+            """;
+
+    // 两个条件分别命中 doi_key / title_key 上的部分索引，规划器用 BitmapOr 合并
+    private static final String SELECT_CITING_PAPERS = """
+            SELECT paper_id, doi_key, title_key
+            FROM paper_citation
+            WHERE (doi_key = ANY (?) OR title_key = ANY (?)) AND type = 'REFERENCE_LIST'
+            """;
+
+    private static final RowMapper<Citation> CITATION_MAPPER = (rs, rowNum) -> {
+        Array authors = rs.getArray("authors");
+        return new Citation(
+                rs.getString("raw_text"),
+                authors == null ? List.of() : Arrays.asList((String[]) authors.getArray()),
+                rs.getObject("year", Integer.class),
+                rs.getString("title"),
+                rs.getString("venue"),
+                rs.getString("doi"),
+                rs.getInt("page_number"),
+                Citation.CitationType.valueOf(rs.getString("type")));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresCitationAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void saveCitations(PaperId paperId, List<Citation> citations) {
+        log.debug("💾 [DB] Save citations: paper={}, count={}", paperId, citations.size());
+        List<Integer> indexes = IntStream.range(0, citations.size()).boxed().toList();
+        try {
+            jdbcTemplate.update(DELETE_CITATIONS, paperId.value());
+            jdbcTemplate.batchUpdate(INSERT_CITATION, indexes, BATCH_SIZE, (ps, index) -> {
+                Citation citation = citations.get(index);
+                ps.setObject(1, paperId.value());
+                ps.setInt(2, index);
+                ps.setString(3, citation.type().name());
+                ps.setString(4, citation.citationText());
+                ps.setArray(5, ps.getConnection().createArrayOf("text", citation.authors().toArray()));
+                ps.setObject(6, citation.year());
+                ps.setString(7, citation.title());
+                ps.setString(8, citation.venue());
+                ps.setString(9, citation.doi());
+                ps.setInt(10, citation.pageNumber());
+                boolean reference = citation.type() == Citation.CitationType.REFERENCE_LIST;
+                ps.setString(11, reference ? CitationKeys.doiKey(citation.doi()) : null);
+                ps.setString(12, reference ? CitationKeys.titleKey(citation.title()) : null);
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to save citations for paper " + paperId, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteCitations(PaperId paperId) {
+        try {
+            int deleted = jdbcTemplate.update(DELETE_CITATIONS, paperId.value());
+            log.debug("💾 [DB] Deleted {} citations: paper={}", deleted, paperId);
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to delete citations for paper " + paperId, e);
+        }
+    }
+
+    @Override
+    public List<Citation> loadCitations(PaperId paperId, Citation.CitationType type) {
+        try {
+            return type == null
+                    ? jdbcTemplate.query(SELECT_CITATIONS, CITATION_MAPPER, paperId.value())
+                    : jdbcTemplate.query(SELECT_CITATIONS_BY_TYPE, CITATION_MAPPER, paperId.value(), type.name());
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load citations for paper " + paperId, e);
+        }
+    }
+
+    /**
+     * PostgreSQL 驱动只有在事务内才按 fetchSize 分批拉取，否则会一次性读入整个结果集
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachReference(ReferenceVisitor visitor) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_REFERENCES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                visitor.visit(new PaperId(rs.getObject("paper_id", UUID.class)), rs.getString("doi"), rs.getString("title"));
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load references", e);
+        }
+    }
+
+    @Override
+    public List<CitingReference> findCitingPapers(Collection<String> doiKeys, Collection<String> titleKeys) {
+        if (doiKeys.isEmpty() && titleKeys.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return jdbcTemplate.query(SELECT_CITING_PAPERS,
+                    (rs, rowNum) -> new CitingReference(new PaperId(rs.getObject("paper_id", UUID.class)),
+                            rs.getString("doi_key"), rs.getString("title_key")),
+                    doiKeys.toArray(String[]::new), titleKeys.toArray(String[]::new));
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to find citing papers", e);
+        }
+    }
+}
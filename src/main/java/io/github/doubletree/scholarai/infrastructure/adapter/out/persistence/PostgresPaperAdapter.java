@@ -1,25 +1,121 @@
 package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
 
 import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperCursor;
 import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
+import io.github.doubletree.scholarai.domain.model.PaperText;
+import io.github.doubletree.scholarai.domain.port.out.FullTextPort;
 import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
 import io.github.doubletree.scholarai.domain.port.out.SavePaperPort;
 import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
 import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.mapper.PaperEntityMapper;
 import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository.PaperJpaRepository;
-import lombok.RequiredArgsConstructor;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository.PaperSummaryView;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class PostgresPaperAdapter implements LoadPaperPort, SavePaperPort {
+    // IN 列表的参数个数上限，远低于 Postgres 单条语句 32767 个参数的限制
+    private static final int MAX_IN_PARAMETERS = 1000;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_FILTER_ATTRIBUTES = "SELECT id, authors, published_date, doi FROM paper";
+    private static final String SELECT_IDENTITIES = "SELECT id, title, doi FROM paper";
+    private static final String SELECT_REFERENCED_FILE_NAMES =
+            "SELECT DISTINCT file_name FROM paper WHERE file_name = ANY (?)";
+
+    // 见 schema.sql
+    private static final String CONTENT_HASH_CONSTRAINT = "uq_paper_content_hash";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // 第一页和后续页共用同一个查询形状，只是第一页没有游标条件，结果集合完全一致（status 为 NULL 的论文只在不限状态时出现）。
+    // 行值比较 (uploaded_at, id) < (?, ?) 是索引 (uploaded_at, id) / (status, uploaded_at, id) 上的单个范围边界，
+    // 深翻页时直接从游标位置开始倒序扫描索引；写成 a < ? OR (a = ? AND b < ?) 时规划器无法这样做
+    private static final String SELECT_SUMMARIES = """
+            SELECT id, title, authors, doi, published_date, uploaded_at, processed_at, status, file_name, file_size
+            FROM paper
+            WHERE %s
+            ORDER BY uploaded_at DESC, id DESC
+            LIMIT ?
+            """;
+    private static final String SELECT_SUMMARIES_FIRST = SELECT_SUMMARIES.formatted("TRUE");
+    private static final String SELECT_SUMMARIES_FIRST_WITH_STATUS = SELECT_SUMMARIES.formatted("status = ?");
+    private static final String SELECT_SUMMARIES_BEFORE = SELECT_SUMMARIES.formatted("(uploaded_at, id) < (?, ?)");
+    private static final String SELECT_SUMMARIES_BEFORE_WITH_STATUS =
+            SELECT_SUMMARIES.formatted("status = ? AND (uploaded_at, id) < (?, ?)");
+
+    private static final RowMapper<PaperSummaryView> SUMMARY_VIEW_MAPPER = (rs, rowNum) -> {
+        Array authors = rs.getArray("authors");
+        Timestamp publishedDate = rs.getTimestamp("published_date");
+        Timestamp processedAt = rs.getTimestamp("processed_at");
+        String status = rs.getString("status");
+        return new PaperSummaryView(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                authors != null ? (String[]) authors.getArray() : null,
+                rs.getString("doi"),
+                publishedDate != null ? publishedDate.toLocalDateTime() : null,
+                rs.getTimestamp("uploaded_at").toLocalDateTime(),
+                processedAt != null ? processedAt.toLocalDateTime() : null,
+                status != null ? PaperEntity.ProcessingStatus.valueOf(status) : null,
+                rs.getString("file_name"),
+                rs.getObject("file_size", Long.class));
+    };
+
     private final PaperJpaRepository jpaRepository;
     private final PaperEntityMapper entityMapper;
+    private final FullTextPort fullTextPort;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final PgCopyLoader copyLoader;
+    private final int batchSize;
+    private final int copyThreshold;
+
+    public PostgresPaperAdapter(PaperJpaRepository jpaRepository,
+                                PaperEntityMapper entityMapper,
+                                FullTextPort fullTextPort,
+                                EntityManager entityManager,
+                                JdbcTemplate jdbcTemplate,
+                                PgCopyLoader copyLoader,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}") int batchSize,
+                                @Value("${scholar-ai.persistence.copy-threshold:100}") int copyThreshold) {
+        this.jpaRepository = jpaRepository;
+        this.entityMapper = entityMapper;
+        this.fullTextPort = fullTextPort;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyLoader = copyLoader;
+        this.batchSize = Math.max(1, batchSize);
+        this.copyThreshold = copyThreshold;
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -29,7 +125,7 @@ public class PostgresPaperAdapter implements LoadPaperPort, SavePaperPort {
         Optional<PaperEntity> entityOptional = jpaRepository.findById(paperId.value());
         
         Optional<Paper> paperOptional = entityOptional.map(entity -> {
-            Paper paper = entityMapper.toDomain(entity);
+            Paper paper = toDomain(entity);
             log.debug("✅ [DB] Found: {}", paper.title());
             return paper;
         });
@@ -48,12 +144,109 @@ public class PostgresPaperAdapter implements LoadPaperPort, SavePaperPort {
         
         return jpaRepository.findByDoi(doi)
             .map(entity -> {
-                Paper paper = entityMapper.toDomain(entity);
+                Paper paper = toDomain(entity);
                 log.debug("✅ [DB] Found by DOI: {}", paper.title());
                 return paper;
             });
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Paper> loadByContentHash(String sha256) {
+        log.debug("💾 [DB] Query by content hash: {}", sha256);
+        return jpaRepository.findFirstByContentHashOrderByUploadedAtAsc(sha256).map(this::toDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Paper> loadByContentHashes(Collection<String> sha256s) {
+        log.debug("💾 [DB] Query by {} content hashes", sha256s.size());
+        Map<String, PaperEntity> earliest = new HashMap<>();
+        Comparator<PaperEntity> byUploadedAt = Comparator.comparing(PaperEntity::getUploadedAt);
+        for (List<String> chunk : chunks(List.copyOf(new HashSet<>(sha256s)), MAX_IN_PARAMETERS)) {
+            for (PaperEntity entity : jpaRepository.findByContentHashIn(chunk)) {
+                earliest.merge(entity.getContentHash(), entity, (a, b) -> byUploadedAt.compare(a, b) <= 0 ? a : b);
+            }
+        }
+        Map<String, Paper> papers = new HashMap<>(earliest.size() * 2);
+        earliest.forEach((hash, entity) -> papers.put(hash, toDomain(entity)));
+        return papers;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaperSummary> loadSummaries(PaperMetadata.ProcessingStatus status, PaperCursor after, int limit) {
+        log.debug("💾 [DB] Query summaries: status={}, after={}, limit={}", status, after, limit);
+
+        return querySummaries(status, after, limit).stream().map(entityMapper::toSummary).toList();
+    }
+
+    private List<PaperSummaryView> querySummaries(PaperMetadata.ProcessingStatus status, PaperCursor after, int limit) {
+        List<Object> args = new ArrayList<>(4);
+        if (status != null) {
+            args.add(entityMapper.mapStatus(status).name());
+        }
+        if (after != null) {
+            args.add(after.uploadedAt());
+            args.add(after.id().value());
+        }
+        args.add(limit);
+        String sql = after == null
+            ? (status != null ? SELECT_SUMMARIES_FIRST_WITH_STATUS : SELECT_SUMMARIES_FIRST)
+            : (status != null ? SELECT_SUMMARIES_BEFORE_WITH_STATUS : SELECT_SUMMARIES_BEFORE);
+        try {
+            return jdbcTemplate.query(sql, SUMMARY_VIEW_MAPPER, args.toArray());
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load paper summaries", e);
+        }
+    }
+
+    /**
+     * PostgreSQL 驱动只有在事务内才按 fetchSize 分批拉取，否则会一次性读入整个结果集
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachFilterAttributes(FilterAttributesVisitor visitor) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_FILTER_ATTRIBUTES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                Array authors = rs.getArray("authors");
+                Timestamp publishedDate = rs.getTimestamp("published_date");
+                visitor.visit(new PaperId(rs.getObject("id", UUID.class)),
+                        authors == null ? List.of() : Arrays.asList((String[]) authors.getArray()),
+                        publishedDate == null ? null : publishedDate.toLocalDateTime(),
+                        rs.getString("doi"));
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load paper filter attributes", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachIdentity(IdentityVisitor visitor) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_IDENTITIES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                visitor.visit(new PaperId(rs.getObject("id", UUID.class)), rs.getString("title"), rs.getString("doi"));
+            });
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to load paper identities", e);
+        }
+    }
+
+    /**
+     * 只保存元数据；全文通过 {@link FullTextPort} 单独写入，保存后的对象沿用原来的全文 supplier。
+     * 实体不是新建的，Hibernate 会先按 id 查询再决定 INSERT 或 UPDATE；已知是新论文时用 {@link #insert}。
+     */
     @Override
     @Transactional
     public Paper save(Paper paper) {
@@ -64,7 +257,125 @@ public class PostgresPaperAdapter implements LoadPaperPort, SavePaperPort {
         
         log.info("✅ [DB] Saved: id={}", savedEntity.getId());
         
-        return entityMapper.toDomain(savedEntity);
+        return entityMapper.toDomain(savedEntity, paper.fullText());
+    }
+
+    /**
+     * 实体标记为新建，直接 persist，不先 SELECT；插入的内容就是传入的论文，所以原样返回，不再从实体映射回来
+     */
+    @Override
+    @Transactional
+    public Paper insert(Paper paper) {
+        log.info("💾 [DB] Insert: id={}, title={}", paper.id(), paper.title());
+        try {
+            // 立即 flush，唯一约束冲突在这里抛出而不是在提交时
+            jpaRepository.saveAndFlush(entityMapper.toNewEntity(paper));
+        } catch (RuntimeException e) {
+            throw translateContentConflict(e, "Content of paper " + paper.id() + " already exists");
+        }
+        return paper;
+    }
+
+    /**
+     * 一次查询区分新旧论文。新论文达到 copy-threshold 时用 COPY 写入，否则 persist 后
+     * 每 batch_size 条 flush 一次，由 Hibernate 合并成 JDBC batch；已存在的论文走 merge。
+     */
+    @Override
+    @Transactional
+    public List<Paper> saveAll(List<Paper> papers) {
+        if (papers.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return saveAllInTransaction(papers);
+        } catch (RuntimeException e) {
+            throw translateContentConflict(e, "Content of a paper in the batch already exists");
+        }
+    }
+
+    private List<Paper> saveAllInTransaction(List<Paper> papers) {
+        log.info("💾 [DB] Batch save: {} papers", papers.size());
+
+        Set<UUID> existingIds = new HashSet<>();
+        List<UUID> ids = papers.stream().map(paper -> paper.id().value()).toList();
+        for (List<UUID> chunk : chunks(ids, MAX_IN_PARAMETERS)) {
+            existingIds.addAll(jpaRepository.findExistingIds(chunk));
+        }
+
+        List<PaperEntity> inserts = papers.stream()
+                .filter(paper -> !existingIds.contains(paper.id().value()))
+                .map(entityMapper::toNewEntity)
+                .toList();
+        if (inserts.size() >= copyThreshold) {
+            long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                    copyLoader.copyPapers(connection, inserts));
+            log.debug("💾 [DB] Copied {} new papers", copied);
+        } else {
+            for (int i = 0; i < inserts.size(); i++) {
+                entityManager.persist(inserts.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        List<Paper> saved = new ArrayList<>(papers.size());
+        for (Paper paper : papers) {
+            if (existingIds.contains(paper.id().value())) {
+                PaperEntity merged = entityManager.merge(entityMapper.toEntity(paper));
+                saved.add(entityMapper.toDomain(merged, paper.fullText()));
+            } else {
+                saved.add(paper);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        log.info("✅ [DB] Batch saved: {} papers ({} inserted)", saved.size(), inserts.size());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findReferencedFileNames(Collection<String> storedFileNames) {
+        Set<String> referenced = new HashSet<>();
+        try {
+            for (List<String> chunk : chunks(List.copyOf(new HashSet<>(storedFileNames)), MAX_IN_PARAMETERS)) {
+                referenced.addAll(jdbcTemplate.queryForList(SELECT_REFERENCED_FILE_NAMES, String.class,
+                        (Object) chunk.toArray(String[]::new)));
+            }
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to look up referenced files", e);
+        }
+        return referenced;
+    }
+
+    /**
+     * 内容哈希唯一约束冲突转换为 {@link DuplicateContentException}，其他异常原样返回。
+     * 约束名在 Postgres 的错误消息中（SQLSTATE 23505），JPA 和 COPY 两条路径抛出的异常类型不同，所以沿异常链查找。
+     */
+    private static RuntimeException translateContentConflict(RuntimeException e, String message) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())
+                    && sql.getMessage() != null && sql.getMessage().contains(CONTENT_HASH_CONSTRAINT)) {
+                return new DuplicateContentException(message, e);
+            }
+        }
+        return e;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += size) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + size)));
+        }
+        return chunks;
+    }
+
+    private Paper toDomain(PaperEntity entity) {
+        PaperId paperId = new PaperId(entity.getId());
+        return entityMapper.toDomain(entity, PaperText.lazy(() -> fullTextPort.load(paperId).orElse(null)));
     }
 
     @Override
@@ -0,0 +1,83 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.PaperSearchHit;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort.PersistenceException;
+import io.github.doubletree.scholarai.domain.port.out.SearchPaperPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.mapper.PaperEntityMapper;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository.PaperSummaryView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 基于 paper.search_vector（生成列 + GIN 索引）和标题 trigram 索引的关键词搜索（见 schema.sql）。
+ * <p>
+ * 两个条件用 OR 连接，Postgres 对两个 GIN 索引分别做位图扫描再合并，只访问命中的行，
+ * 耗时取决于命中数而不是表的大小。分数 = 全文相关度（ts_rank_cd，归一化到 [0, 1)）与标题词相似度的加权和。
+ * 查询词同时以参数出现在 WHERE 和 ORDER BY 中，而不是放进 CTE，保证规划器能把它们当作索引条件。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresPaperSearchAdapter implements SearchPaperPort {
+
+    private static final String SEARCH = """
+            SELECT p.id, p.title, p.authors, p.doi, p.published_date, p.uploaded_at, p.processed_at,
+                   p.status, p.file_name, p.file_size,
+                   0.7 * ts_rank_cd(p.search_vector, websearch_to_tsquery('english', ?), 32)
+                 + 0.3 * word_similarity(?, lower(p.title)) AS score
+            FROM paper p
+            WHERE p.search_vector @@ websearch_to_tsquery('english', ?)
+               OR ? <% lower(p.title)
+            ORDER BY score DESC, p.id
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PaperEntityMapper entityMapper;
+
+    @Override
+    public List<PaperSearchHit> search(String query, int offset, int limit) {
+        String lowered = query.toLowerCase(Locale.ROOT);
+        long start = System.nanoTime();
+        try {
+            List<PaperSearchHit> hits = jdbcTemplate.query(SEARCH, (rs, rowNum) -> {
+                PaperSummaryView view = new PaperSummaryView(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("title"),
+                        toStringArray(rs.getArray("authors")),
+                        rs.getString("doi"),
+                        toLocalDateTime(rs.getTimestamp("published_date")),
+                        toLocalDateTime(rs.getTimestamp("uploaded_at")),
+                        toLocalDateTime(rs.getTimestamp("processed_at")),
+                        rs.getString("status") != null ? PaperEntity.ProcessingStatus.valueOf(rs.getString("status")) : null,
+                        rs.getString("file_name"),
+                        rs.getObject("file_size", Long.class));
+                return new PaperSearchHit(entityMapper.toSummary(view), rs.getDouble("score"));
+            }, query, lowered, query, lowered, limit, offset);
+            log.debug("💾 [DB] Search '{}' returned {} hits in {} ms", query, hits.size(), (System.nanoTime() - start) / 1_000_000);
+            return hits;
+        } catch (DataAccessException e) {
+            throw new PersistenceException("Failed to search papers", e);
+        }
+    }
+
+    private static String[] toStringArray(Array array) throws SQLException {
+        return array != null ? (String[]) array.getArray() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
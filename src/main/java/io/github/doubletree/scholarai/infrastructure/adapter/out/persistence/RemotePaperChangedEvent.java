@@ -0,0 +1,19 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+
+/**
+ * 其他实例保存了论文（经 {@link PaperInvalidationChannel} 收到，已在对方事务提交之后）。
+ * <p>
+ * paperId 为 null 表示监听连接断开后重新连上，期间的消息可能丢失，进程内派生数据需要整体重建。
+ */
+public record RemotePaperChangedEvent(PaperId paperId) {
+
+    public static RemotePaperChangedEvent resync() {
+        return new RemotePaperChangedEvent(null);
+    }
+
+    public boolean isResync() {
+        return paperId == null;
+    }
+}
@@ -4,21 +4,30 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * id 由领域层生成，Spring Data 无法根据 id 是否为空判断新旧，默认会先 SELECT 再决定 INSERT 还是 UPDATE。
+ * 实现 {@link Persistable}：映射器创建新论文的实体时标记为新，{@code save} 直接 persist；
+ * 从数据库加载或持久化之后的实体视为已存在。
+ */
 @Entity
 @Table(name = "paper", indexes = {
     @Index(name = "idx_papers_doi", columnList = "doi"),
-    @Index(name = "idx_papers_title", columnList = "title")
+    @Index(name = "idx_papers_title", columnList = "title"),
+    @Index(name = "idx_papers_uploaded_at_id", columnList = "uploaded_at, id"),
+    @Index(name = "idx_papers_status_uploaded_at_id", columnList = "status, uploaded_at, id")
 })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class PaperEntity {
+public class PaperEntity implements Persistable<UUID> {
     @Id
     @Column(name = "id", nullable = false)
     private UUID id;
@@ -32,9 +41,6 @@ public class PaperEntity {
     @Column(name = "abstract_text", columnDefinition = "TEXT")
     private String abstractText;
 
-    @Column(name = "full_text", columnDefinition = "TEXT")
-    private String fullText;
-
     @Column(name = "doi", length = 100)
     private String doi;
 
@@ -57,6 +63,26 @@ public class PaperEntity {
     @Column(name = "file_size")
     private Long fileSize;
 
+    // 文件内容的 SHA-256（十六进制）
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private boolean newEntity = false;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
     public enum ProcessingStatus {
         PENDING, PROCESSING, COMPLETED, FAILED
     }
@@ -3,15 +3,22 @@ package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.ma
 import io.github.doubletree.scholarai.domain.model.Paper;
 import io.github.doubletree.scholarai.domain.model.PaperId;
 import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.PaperSummary;
+import io.github.doubletree.scholarai.domain.model.PaperText;
 import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository.PaperSummaryView;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Component
 public class PaperEntityMapper {
-    public Paper toDomain(PaperEntity entity) {
+    /**
+     * @param fullText 全文不在 paper 表中，由调用方提供按需加载的 supplier
+     */
+    public Paper toDomain(PaperEntity entity, Supplier<PaperText> fullText) {
         if (entity == null) return null;
 
         List<String> authors = entity.getAuthors() != null 
@@ -23,6 +30,7 @@ public class PaperEntityMapper {
             entity.getFileName(),
             entity.getFileSize() != null ? entity.getFileSize() : 0L,
             "application/pdf",
+            entity.getContentHash(),
             entity.getUploadedAt(),
             entity.getProcessedAt(),
             mapStatus(entity.getStatus()),
@@ -34,13 +42,39 @@ public class PaperEntityMapper {
             entity.getTitle(),
             authors,
             entity.getAbstractText(),
-            entity.getFullText(),
+            fullText,
             entity.getPublishedDate(),
             entity.getDoi(),
             metadata
         );
     }
 
+    public PaperSummary toSummary(PaperSummaryView view) {
+        if (view == null) return null;
+
+        return new PaperSummary(
+            new PaperId(view.id()),
+            view.title(),
+            view.authors() != null ? Arrays.asList(view.authors()) : List.of(),
+            view.doi(),
+            view.publishedDate(),
+            view.uploadedAt(),
+            view.processedAt(),
+            mapStatus(view.status()),
+            view.fileName(),
+            view.fileSize() != null ? view.fileSize() : 0L
+        );
+    }
+
+    /**
+     * 新论文的实体：{@link PaperEntity#isNew()} 为 true，保存时直接 INSERT
+     */
+    public PaperEntity toNewEntity(Paper paper) {
+        PaperEntity entity = toEntity(paper);
+        entity.setNewEntity(true);
+        return entity;
+    }
+
     public PaperEntity toEntity(Paper paper) {
         if (paper == null) return null;
 
@@ -51,7 +85,6 @@ public class PaperEntityMapper {
             .title(paper.title())
             .authors(authorsArray)
             .abstractText(paper.abstractText())
-            .fullText(paper.fullText())
             .doi(paper.doi())
             .publishedDate(paper.publishedDate())
             .uploadedAt(paper.metadata().uploadedAt())
@@ -59,10 +92,11 @@ public class PaperEntityMapper {
             .status(mapStatus(paper.metadata().status()))
             .fileName(paper.metadata().fileName())
             .fileSize(paper.metadata().fileSize())
+            .contentHash(paper.metadata().contentHash())
             .build();
     }
 
-    private PaperEntity.ProcessingStatus mapStatus(PaperMetadata.ProcessingStatus domainStatus) {
+    public PaperEntity.ProcessingStatus mapStatus(PaperMetadata.ProcessingStatus domainStatus) {
         if (domainStatus == null) return PaperEntity.ProcessingStatus.PENDING;
         return switch (domainStatus) {
             case PENDING -> PaperEntity.ProcessingStatus.PENDING;
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,8 +17,12 @@ public interface PaperJpaRepository extends JpaRepository<PaperEntity, UUID> {
     
     boolean existsByDoi(String doi);
 
-    @Query("SELECT p FROM PaperEntity p WHERE LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Optional<PaperEntity> findByTitleContainingIgnoreCase(@Param("keyword") String keyword);
+    Optional<PaperEntity> findFirstByContentHashOrderByUploadedAtAsc(String contentHash);
+
+    List<PaperEntity> findByContentHashIn(Collection<String> contentHashes);
+
+    @Query("SELECT p.id FROM PaperEntity p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
 
     @Query("SELECT p FROM PaperEntity p WHERE p.status = 'COMPLETED' AND p.processedAt IS NOT NULL")
     java.util.List<PaperEntity> findAllProcessed();
@@ -0,0 +1,23 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository;
+
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.entity.PaperEntity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 列表查询的构造器投影，SELECT 中不包含 abstract_text 和 full_text
+ */
+public record PaperSummaryView(
+        UUID id,
+        String title,
+        String[] authors,
+        String doi,
+        LocalDateTime publishedDate,
+        LocalDateTime uploadedAt,
+        LocalDateTime processedAt,
+        PaperEntity.ProcessingStatus status,
+        String fileName,
+        Long fileSize
+) {
+}
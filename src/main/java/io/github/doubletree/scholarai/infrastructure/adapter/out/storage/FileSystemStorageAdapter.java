@@ -5,64 +5,315 @@ import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 本地文件系统存储。
+ * <p>
+ * 上传先写入同目录下的临时文件（{@code .upload-*.part}），同一遍读取中计算大小和 SHA-256，
+ * fsync 后再原子重命名为最终文件名；中途失败或超出大小限制时删除临时文件，最终目录中不会出现半截文件。
+ * <p>
+ * 文件按内容寻址：最终文件名是 {@code <sha256><扩展名>}，相同内容已存在时直接丢弃临时文件。
+ * <p>
+ * 目录布局见 {@link ShardedLayout}。可以配置多个存储根目录（通常是不同的挂载点）：新文件轮流写入各个根目录，
+ * 临时文件和最终位置总在同一个根目录下，重命名不会跨文件系统；读取时依次探测各根目录的分片位置。
+ * 因为不按哈希固定根目录，增减挂载点不需要搬动已有文件。
+ * 早期平铺在 upload-dir 下的文件仍可读取，并由 {@link LegacyLayoutMigrator} 在后台移入分片目录。
+ */
 @Slf4j
 @Component
 public class FileSystemStorageAdapter implements StoragePort {
 
-    private final Path rootLocation;
+    private static final String TEMP_PREFIX = ".upload-";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // 启动时只清理足够旧的临时文件，避免误删共享目录中其他实例正在写入的文件
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+    private static final int LOCK_STRIPES = 64;
 
-    public FileSystemStorageAdapter(@Value("${scholar-ai.storage.upload-dir:./data/uploads}") String uploadDir) {
-        this.rootLocation = Paths.get(uploadDir);
+    private final Path legacyRoot;
+    private final List<Path> roots;
+    private final List<Path> probeRoots;
+    private final AtomicInteger nextRoot = new AtomicInteger();
+    private final ReentrantLock[] nameLocks = new ReentrantLock[LOCK_STRIPES];
+    private final long maxFileSize;
+
+    public FileSystemStorageAdapter(@Value("${scholar-ai.storage.upload-dir:./data/uploads}") String uploadDir,
+                                    @Value("${scholar-ai.storage.roots:}") List<String> roots,
+                                    @Value("${scholar-ai.storage.max-file-size:50MB}") DataSize maxFileSize) {
+        this.legacyRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+        List<Path> configured = roots == null ? List.of() : roots.stream()
+                .filter(root -> root != null && !root.isBlank())
+                .map(root -> Paths.get(root.trim()).toAbsolutePath().normalize())
+                .distinct()
+                .toList();
+        this.roots = configured.isEmpty() ? List.of(legacyRoot) : configured;
+        Set<Path> probe = new LinkedHashSet<>(this.roots);
+        probe.add(legacyRoot);
+        this.probeRoots = List.copyOf(probe);
+        this.maxFileSize = maxFileSize.toBytes();
+        Arrays.setAll(nameLocks, i -> new ReentrantLock());
     }
 
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(rootLocation);
-            log.info("📂 [Storage] Storage initialized at: {}", rootLocation.toAbsolutePath());
+            for (Path root : probeRoots) {
+                Files.createDirectories(root);
+                deleteStaleTempFiles(root);
+            }
+            log.info("📂 [Storage] Storage initialized at: {} (legacy flat files in {})", roots, legacyRoot);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage location", e);
         }
     }
 
     @Override
-    public String save(InputStream inputStream, String originalFileName) throws IOException {
-        // 生成唯一文件名防止冲突
-        String fileExtension = getFileExtension(originalFileName);
-        String storedFileName = UUID.randomUUID().toString() + fileExtension;
-
-        Path destinationFile = this.rootLocation.resolve(Paths.get(storedFileName)).normalize().toAbsolutePath();
+    public StoredContent save(InputStream inputStream, String originalFileName) throws IOException {
+        String fileExtension = getFileExtension(originalFileName).toLowerCase(Locale.ROOT);
+        Path root = roots.get(Math.floorMod(nextRoot.getAndIncrement(), roots.size()));
 
-        if (!destinationFile.getParent().equals(this.rootLocation.toAbsolutePath())) {
-            throw new SecurityException("Cannot store file outside current directory.");
+        MessageDigest digest = sha256();
+        long size = 0;
+        Path tempFile = Files.createTempFile(root, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (inputStream; FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize) {
+                        throw new SizeLimitExceededException(maxFileSize);
+                    }
+                    digest.update(buffer, 0, read);
+                    wrapper.clear().limit(read);
+                    while (wrapper.hasRemaining()) {
+                        channel.write(wrapper);
+                    }
+                }
+                channel.force(true);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
         }
 
-        try (inputStream) {
-            Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        String storedFileName = sha256 + fileExtension;
+        ShardedLayout.validateName(storedFileName);
+        try {
+            ReentrantLock lock = lockFor(storedFileName);
+            lock.lock();
+            try {
+                Path existing = locate(storedFileName);
+                if (existing != null) {
+                    Files.delete(tempFile);
+                    // 刷新修改时间，后台清理据此判断文件是否刚被复用
+                    Files.setLastModifiedTime(existing, FileTime.from(Instant.now()));
+                    log.debug("💾 [Storage] Content already stored: {} -> {}", originalFileName, storedFileName);
+                } else {
+                    Path destinationFile = ShardedLayout.shardedPath(root, storedFileName);
+                    Files.createDirectories(destinationFile.getParent());
+                    // 其他实例并发上传相同内容时后到的 rename 会覆盖先到的，内容相同所以无妨
+                    Files.move(tempFile, destinationFile, StandardCopyOption.ATOMIC_MOVE);
+                    log.debug("💾 [Storage] File stored: {} -> {} ({} bytes)", originalFileName, destinationFile, size);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
         }
-
-        log.debug("💾 [Storage] File stored: {} -> {}", originalFileName, storedFileName);
-        return storedFileName;
+        return new StoredContent(storedFileName, size, sha256);
     }
 
     @Override
     public InputStream load(String storedFileName) throws IOException {
-        Path file = rootLocation.resolve(storedFileName);
-        if (!Files.exists(file) || !Files.isReadable(file)) {
+        Path file = locate(storedFileName);
+        if (file == null || !Files.isReadable(file)) {
             throw new IOException("Could not read file: " + storedFileName);
         }
         return Files.newInputStream(file);
     }
 
+    @Override
+    public StoredFile resolve(String storedFileName) throws IOException {
+        Path file = locate(storedFileName);
+        if (file == null) {
+            throw new NoSuchFileException(storedFileName);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new StoredFile(storedFileName, file, attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    @Override
+    public void forEachStoredFile(StoredFileVisitor visitor) throws IOException {
+        for (Path root : probeRoots) {
+            try (DirectoryStream<Path> level1 = Files.newDirectoryStream(root, ShardedLayout::isShardDirectory)) {
+                for (Path first : level1) {
+                    try (DirectoryStream<Path> level2 = Files.newDirectoryStream(first, ShardedLayout::isShardDirectory)) {
+                        for (Path second : level2) {
+                            visitFiles(second, visitor);
+                        }
+                    }
+                }
+            }
+        }
+        visitFiles(legacyRoot, visitor);
+    }
+
+    @Override
+    public boolean deleteIfUnmodifiedSince(String storedFileName, Instant cutoff) throws IOException {
+        ReentrantLock lock = lockFor(storedFileName);
+        lock.lock();
+        try {
+            Path file = locate(storedFileName);
+            if (file == null || !Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                return false;
+            }
+            boolean deleted = Files.deleteIfExists(file);
+            if (deleted) {
+                log.debug("💾 [Storage] File deleted: {}", storedFileName);
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void visitFiles(Path directory, StoredFileVisitor visitor) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                entry -> !entry.getFileName().toString().startsWith(".") && Files.isRegularFile(entry))) {
+            for (Path file : files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue; // 遍历期间被迁移或删除
+                }
+                visitor.visit(new StoredFile(file.getFileName().toString(), file,
+                        attributes.size(), attributes.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    /**
+     * 同一文件名的 save（复用已有内容）和 deleteIfUnmodifiedSince 互斥；按文件名分段加锁，不同文件互不影响
+     */
+    private ReentrantLock lockFor(String storedFileName) {
+        return nameLocks[Math.floorMod(storedFileName.hashCode(), nameLocks.length)];
+    }
+
+    /**
+     * 把 upload-dir 下平铺的旧文件移入同一根目录下的分片位置（同一文件系统内的原子重命名）
+     *
+     * @return 本次移动的文件数
+     */
+    int migrateLegacyFiles() throws IOException {
+        int migrated = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(legacyRoot,
+                entry -> !entry.getFileName().toString().startsWith(".") && Files.isRegularFile(entry))) {
+            for (Path flat : entries) {
+                String name = flat.getFileName().toString();
+                Path target = ShardedLayout.shardedPath(legacyRoot, name);
+                Files.createDirectories(target.getParent());
+                // 与 save / 后台清理对同一文件名互斥，避免移动途中文件被清理
+                ReentrantLock lock = lockFor(name);
+                lock.lock();
+                try {
+                    if (!Files.isRegularFile(flat)) {
+                        continue;
+                    }
+                    if (Files.exists(target)) {
+                        // 分片位置已有同名文件（同内容重复上传），只保留一份
+                        if (Files.size(target) == Files.size(flat)) {
+                            Files.delete(flat);
+                        } else {
+                            log.warn("⚠️ [Storage] Not migrating {}: a different file already exists at {}", flat, target);
+                        }
+                        continue;
+                    }
+                    Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    lock.unlock();
+                }
+                if (++migrated % 10_000 == 0) {
+                    log.info("📂 [Storage] Migrated {} legacy files so far", migrated);
+                }
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * 依次查找各根目录的分片位置和旧的平铺位置。迁移器可能恰好在两次检查之间移动了文件，
+     * 所以平铺位置找不到时再查一遍分片位置。
+     */
+    private Path locate(String storedFileName) {
+        ShardedLayout.validateName(storedFileName);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            for (Path root : probeRoots) {
+                Path sharded = ShardedLayout.shardedPath(root, storedFileName);
+                if (Files.isRegularFile(sharded)) {
+                    return sharded;
+                }
+            }
+            Path flat = legacyRoot.resolve(storedFileName);
+            if (Files.isRegularFile(flat)) {
+                return flat;
+            }
+        }
+        return null;
+    }
+
+    private void deleteStaleTempFiles(Path root) throws IOException {
+        Instant cutoff = Instant.now().minus(STALE_TEMP_AGE);
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(root, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path temp : temps) {
+                if (Files.getLastModifiedTime(temp).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(temp);
+                    log.info("📂 [Storage] Removed stale partial upload: {}", temp);
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     private String getFileExtension(String fileName) {
         if (fileName == null || fileName.lastIndexOf(".") == -1) {
             return ".pdf"; // 默认
@@ -0,0 +1,46 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 启动后在后台把旧版本平铺存放的文件移入分片目录。迁移期间读取不受影响：
+ * {@link FileSystemStorageAdapter} 同时查找分片位置和平铺位置。
+ */
+@Slf4j
+@Component
+public class LegacyLayoutMigrator {
+
+    private final FileSystemStorageAdapter storage;
+    private final boolean enabled;
+
+    public LegacyLayoutMigrator(FileSystemStorageAdapter storage,
+                                @Value("${scholar-ai.storage.migrate-legacy:true}") boolean enabled) {
+        this.storage = storage;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("storage-migrator").start(() -> {
+            long start = System.nanoTime();
+            try {
+                int migrated = storage.migrateLegacyFiles();
+                if (migrated > 0) {
+                    log.info("📂 [Storage] Migrated {} legacy files into sharded layout in {} ms",
+                            migrated, (System.nanoTime() - start) / 1_000_000);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("❌ [Storage] Legacy layout migration failed, will retry on next start", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.storage;
+
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.domain.port.out.StoragePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 后台定期清理没有论文引用的存储文件（入库失败、摘要校验不符、并发上传落败后留下的文件）。
+ * <p>
+ * 存储按内容寻址，请求路径上不能删除文件：同一文件可能正被另一个并发上传复用，它的论文还没入库。
+ * 这里只处理修改时间早于宽限期的文件；{@link StoragePort#save} 复用已有内容时会刷新修改时间，
+ * 而上传总是在保存文件后立即入库，所以宽限期内仍查不到引用的文件不会再被引用。
+ * 删除前由 {@link StoragePort#deleteIfUnmodifiedSince} 在锁内复查修改时间，排除查询之后刚被复用的文件。
+ */
+@Slf4j
+@Component
+public class OrphanFileSweeper {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final StoragePort storagePort;
+    private final LoadPaperPort loadPaperPort;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration gracePeriod;
+
+    public OrphanFileSweeper(StoragePort storagePort,
+                             LoadPaperPort loadPaperPort,
+                             @Value("${scholar-ai.storage.orphan-sweep.enabled:true}") boolean enabled,
+                             @Value("${scholar-ai.storage.orphan-sweep.interval:6h}") Duration interval,
+                             @Value("${scholar-ai.storage.orphan-sweep.grace-period:1h}") Duration gracePeriod) {
+        if (interval.isNegative() || interval.isZero() || gracePeriod.isNegative()) {
+            throw new IllegalArgumentException("Orphan sweep interval must be positive and grace period non-negative");
+        }
+        this.storagePort = storagePort;
+        this.loadPaperPort = loadPaperPort;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.gracePeriod = gracePeriod;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("storage-orphan-sweeper").start(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    sweep();
+                } catch (IOException | RuntimeException e) {
+                    log.error("❌ [Storage] Orphan sweep failed, will retry in {}", interval, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return 删除的文件数
+     */
+    int sweep() throws IOException {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        List<String> candidates = new ArrayList<>(BATCH_SIZE);
+        int[] deleted = {0};
+        storagePort.forEachStoredFile(file -> {
+            if (file.lastModified().isBefore(cutoff)) {
+                candidates.add(file.storedFileName());
+                if (candidates.size() == BATCH_SIZE) {
+                    deleted[0] += deleteUnreferenced(candidates, cutoff);
+                    candidates.clear();
+                }
+            }
+        });
+        deleted[0] += deleteUnreferenced(candidates, cutoff);
+        if (deleted[0] > 0) {
+            log.info("📂 [Storage] Removed {} orphaned files in {} ms",
+                    deleted[0], (System.nanoTime() - start) / 1_000_000);
+        }
+        return deleted[0];
+    }
+
+    private int deleteUnreferenced(List<String> candidates, Instant cutoff) throws IOException {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenced = loadPaperPort.findReferencedFileNames(candidates);
+        int deleted = 0;
+        for (String name : candidates) {
+            if (!referenced.contains(name) && storagePort.deleteIfUnmodifiedSince(name, cutoff)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
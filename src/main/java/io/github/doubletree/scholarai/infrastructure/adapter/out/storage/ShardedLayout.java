@@ -0,0 +1,70 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * 两级哈希目录布局：{@code <root>/ab/cd/<文件名>}，每级 256 个目录，百万级文件时每个目录只有十几个条目。
+ * <p>
+ * 按内容寻址的文件名（sha256）和旧的 UUID 文件名都以十六进制开头且分布均匀，直接取前 4 个字符；
+ * 其他文件名先取自身的 SHA-256 再分片。
+ */
+final class ShardedLayout {
+
+    private static final int PREFIX_CHARS = 4;
+
+    private ShardedLayout() {
+    }
+
+    /**
+     * 存储文件名只能是单个路径段，防止越出存储目录
+     */
+    static void validateName(String storedFileName) {
+        if (storedFileName == null || storedFileName.isBlank()
+                || storedFileName.indexOf('/') >= 0 || storedFileName.indexOf('\\') >= 0
+                || storedFileName.equals(".") || storedFileName.equals("..")
+                || storedFileName.indexOf('\0') >= 0) {
+            throw new SecurityException("Invalid stored file name: " + storedFileName);
+        }
+    }
+
+    static Path shardedPath(Path root, String storedFileName) {
+        String prefix = shardPrefix(storedFileName);
+        return root.resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)).resolve(storedFileName);
+    }
+
+    static String shardPrefix(String storedFileName) {
+        if (storedFileName.length() >= PREFIX_CHARS && isHex(storedFileName, PREFIX_CHARS)) {
+            return storedFileName.substring(0, PREFIX_CHARS).toLowerCase(Locale.ROOT);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(storedFileName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, PREFIX_CHARS / 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 分片目录名：两位十六进制小写字符
+     */
+    static boolean isShardDirectory(Path directory) {
+        String name = directory.getFileName().toString();
+        return name.length() == 2 && isHex(name, 2) && name.equals(name.toLowerCase(Locale.ROOT))
+                && Files.isDirectory(directory);
+    }
+
+    private static boolean isHex(String value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
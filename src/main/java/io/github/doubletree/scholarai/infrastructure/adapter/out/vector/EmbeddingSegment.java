@@ -0,0 +1,733 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * 追加写、定长行的内存映射向量段文件。
+ * <p>
+ * 两个文件行号一一对应：
+ * <pre>
+ * embeddings.seg  header(64B): magic 'EMBS' | version | dimensions | flags | rowCount(long @16)
+ *                 flags:       bit0 = 已完成导入，bit1 = 已被压缩后的新文件替换，bit2 = 压缩输出已写完
+ *                 row:         dimensions × float32（小端，写入前已归一化，相似度即点积）
+ * embeddings.ids  row(24B):    paperId msb | paperId lsb | chunkIndex | flags（bit0 = 已删除）
+ * </pre>
+ * 文件按固定大小的区域分段映射（单个 MappedByteBuffer 不能超过 2 GB），读取直接访问页缓存，
+ * 不做反序列化也不拷贝到堆上，因此重启无需加载，同一主机上的多个 JVM 可以共享同一份向量。
+ * <p>
+ * 只允许一个写入方（embeddings.lock 上的文件锁保证），其他进程以只读方式打开。写入方先写完行数据和侧表，
+ * 再以 release 语义更新头部的 rowCount；读取方以 acquire 语义读取 rowCount，只扫描已提交的行。
+ * 崩溃后未提交的行会在下次追加时被覆盖。
+ * <p>
+ * 删除只在侧表中打标记。{@link #compact()} 把存活行重写到 {@code .compact} 文件后改名替换原文件，
+ * 旧文件头部置“已替换”标记，只读方据此重新打开；改名过程中崩溃时，下次以写入方打开会按新文件的完成标记
+ * 继续改名或丢弃新文件。写入方在内存中按论文维护存活行号（首次使用时扫描一遍侧表建立），删除论文不再扫描整个侧表。
+ * <p>
+ * 不提供图索引：段文件的目标是重启免加载、多个 JVM 共享同一份页缓存，而图索引要么每次启动在堆上重建，
+ * 要么需要另一套带崩溃一致性的磁盘格式；需要近似检索时使用 hnsw / quantized / pgvector。
+ */
+public final class EmbeddingSegment implements Closeable {
+
+    public static final String VECTOR_FILE = "embeddings.seg";
+    public static final String ID_FILE = "embeddings.ids";
+    public static final String LOCK_FILE = "embeddings.lock";
+    public static final String COMPACT_SUFFIX = ".compact";
+
+    private static final int MAGIC = 0x454D4253; // 'EMBS'
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int HEADER_FLAGS_OFFSET = 12;
+    private static final int HEADER_FLAG_IMPORTED = 1;
+    private static final int HEADER_FLAG_SUPERSEDED = 2;
+    private static final int HEADER_FLAG_COMPLETE = 4;
+    private static final int COUNT_OFFSET = 16;
+    private static final int ID_STRIDE = 24;
+    private static final int FLAGS_OFFSET = 20;
+    private static final int FLAG_DELETED = 1;
+    private static final long REGION_BYTES = 64L << 20;
+    private static final int SCAN_BLOCK_ROWS = 16;
+    // 只读方打开时恰好遇到写入方替换文件，重试的次数
+    private static final int OPEN_ATTEMPTS = 5;
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final int dimensions;
+    private final int rowsPerRegion;
+    private final boolean writable;
+    private final FileChannel vectorChannel;
+    private final FileChannel idChannel;
+    private final FileChannel lockChannel;
+    private final FileLock writeLock;
+    private final MappedByteBuffer header;
+    // 压缩后写锁移交给新段，旧段关闭时不再释放
+    private boolean ownsLock;
+
+    // 仅写入方：论文 -> 存活行号，首次使用时建立；deletedRows 在建立后才有效
+    private Map<PaperId, RowList> rowsByPaper;
+    private int deletedRows;
+
+    private volatile MappedByteBuffer[] vectorMaps = new MappedByteBuffer[0];
+    private volatile FloatBuffer[] vectorRegions = new FloatBuffer[0];
+    private volatile MappedByteBuffer[] idRegions = new MappedByteBuffer[0];
+
+    public record Hit(int row, PaperId paperId, int chunkIndex, float similarity) {
+    }
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(int row, PaperId paperId, int chunkIndex);
+    }
+
+    private EmbeddingSegment(Path directory, int dimensions, FileChannel vectorChannel, FileChannel idChannel,
+                             FileChannel lockChannel, FileLock writeLock, MappedByteBuffer header) {
+        this.directory = directory;
+        this.dimensions = dimensions;
+        this.rowsPerRegion = (int) Math.max(1, REGION_BYTES / ((long) dimensions * Float.BYTES));
+        this.writable = writeLock != null;
+        this.vectorChannel = vectorChannel;
+        this.idChannel = idChannel;
+        this.lockChannel = lockChannel;
+        this.writeLock = writeLock;
+        this.ownsLock = writable;
+        this.header = header;
+        if (writable && size() == 0) {
+            rowsByPaper = new HashMap<>();
+        }
+    }
+
+    /**
+     * 打开（必要时创建）段文件
+     *
+     * @param writable 是否作为写入方打开；同一时刻只能有一个写入方
+     */
+    public static EmbeddingSegment open(Path directory, int dimensions, boolean writable) throws IOException {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive");
+        }
+        return writable ? openWriter(directory, dimensions) : openReader(directory, dimensions);
+    }
+
+    private static EmbeddingSegment openWriter(Path directory, int dimensions) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Segment " + directory + " is already open for writing");
+            }
+            recoverCompaction(directory);
+            return openFiles(directory, directory.resolve(VECTOR_FILE), directory.resolve(ID_FILE), dimensions,
+                    lockChannel, lock);
+        } catch (IOException | RuntimeException e) {
+            if (lock != null) {
+                lock.release();
+            }
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 只读方打开。写入方替换文件期间，新文件一旦写完就优先打开新文件；
+     * 两个文件分别打开，若中间恰好发生替换，打开的旧头部一定已带“已替换”标记，此时重新打开。
+     */
+    private static EmbeddingSegment openReader(Path directory, int dimensions) throws IOException {
+        Path compactVectors = directory.resolve(VECTOR_FILE + COMPACT_SUFFIX);
+        Path compactIds = directory.resolve(ID_FILE + COMPACT_SUFFIX);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Path vectors = directory.resolve(VECTOR_FILE);
+                Path ids = directory.resolve(ID_FILE);
+                if (isCompleteCompaction(compactVectors)) {
+                    vectors = compactVectors;
+                    if (Files.exists(compactIds)) {
+                        ids = compactIds;
+                    }
+                }
+                EmbeddingSegment segment = openFiles(directory, vectors, ids, dimensions, null, null);
+                if (!segment.isSuperseded()) {
+                    return segment;
+                }
+                segment.close();
+            } catch (NoSuchFileException e) {
+                if (attempt >= OPEN_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            if (attempt >= OPEN_ATTEMPTS) {
+                throw new IOException("Segment " + directory + " kept being replaced while opening");
+            }
+        }
+    }
+
+    private static EmbeddingSegment openFiles(Path directory, Path vectorFile, Path idFile, int dimensions,
+                                              FileChannel lockChannel, FileLock lock) throws IOException {
+        boolean writable = lock != null;
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ};
+        FileChannel vectors = FileChannel.open(vectorFile, options);
+        FileChannel ids = null;
+        try {
+            ids = FileChannel.open(idFile, options);
+            boolean fresh = vectors.size() == 0;
+            if (fresh && !writable) {
+                throw new IOException("Segment " + directory + " does not exist");
+            }
+            MappedByteBuffer header = vectors.map(
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (fresh) {
+                header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, dimensions);
+                header.putLong(COUNT_OFFSET, 0L);
+                header.force();
+            } else {
+                validateHeader(header, dimensions, directory);
+            }
+            return new EmbeddingSegment(directory, dimensions, vectors, ids, lockChannel, lock, header);
+        } catch (IOException | RuntimeException e) {
+            if (ids != null) {
+                ids.close();
+            }
+            vectors.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 写入方打开前处理上次压缩留下的文件：新文件已写完则补完改名，否则丢弃
+     */
+    private static void recoverCompaction(Path directory) throws IOException {
+        Path vectors = directory.resolve(VECTOR_FILE);
+        Path compactVectors = directory.resolve(VECTOR_FILE + COMPACT_SUFFIX);
+        Path compactIds = directory.resolve(ID_FILE + COMPACT_SUFFIX);
+        if (!isCompleteCompaction(compactVectors)) {
+            Files.deleteIfExists(compactVectors);
+            Files.deleteIfExists(compactIds);
+            return;
+        }
+        // 崩溃可能发生在旧头部置标记之前，仍映射着旧文件的只读方要靠这个标记重新打开
+        if (Files.exists(vectors)) {
+            try (FileChannel channel = FileChannel.open(vectors, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() >= HEADER_BYTES) {
+                    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                    header.order(ByteOrder.LITTLE_ENDIAN);
+                    setFlag(header, HEADER_FLAG_SUPERSEDED);
+                }
+            }
+        }
+        if (Files.exists(compactIds)) {
+            Files.move(compactIds, directory.resolve(ID_FILE), StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(compactVectors, vectors, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isCompleteCompaction(Path vectorFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(vectorFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // 读满头部
+            }
+            int flags = header.getInt(HEADER_FLAGS_OFFSET);
+            return !header.hasRemaining() && header.getInt(0) == MAGIC
+                    && (flags & HEADER_FLAG_COMPLETE) != 0 && (flags & HEADER_FLAG_SUPERSEDED) == 0;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static void validateHeader(MappedByteBuffer header, int dimensions, Path directory) throws IOException {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not an embedding segment: " + directory);
+        }
+        int stored = header.getInt(8);
+        if (stored != dimensions) {
+            throw new IOException("Segment " + directory + " holds " + stored
+                    + "-dimensional vectors, expected " + dimensions);
+        }
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * 已提交的行数
+     */
+    public int size() {
+        return (int) (long) LONG_VIEW.getAcquire(header, COUNT_OFFSET);
+    }
+
+    /**
+     * 是否已经完整导入过外部数据（由调用方通过 {@link #markImported()} 标记）
+     */
+    public boolean isImported() {
+        return ((int) INT_VIEW.getAcquire(header, HEADER_FLAGS_OFFSET) & HEADER_FLAG_IMPORTED) != 0;
+    }
+
+    /**
+     * 文件是否已被压缩后的新文件替换；只读方应重新打开
+     */
+    public boolean isSuperseded() {
+        return ((int) INT_VIEW.getAcquire(header, HEADER_FLAGS_OFFSET) & HEADER_FLAG_SUPERSEDED) != 0;
+    }
+
+    /**
+     * 先把已写入的行刷盘，再持久化导入完成标记，保证标记落盘时数据已经完整
+     */
+    public synchronized void markImported() {
+        force();
+        setFlag(header, HEADER_FLAG_IMPORTED);
+    }
+
+    /**
+     * 追加一行，返回行号
+     */
+    public synchronized int append(PaperId paperId, int chunkIndex, float[] vector) {
+        checkWritable();
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        float norm = VectorMath.norm(vector);
+        return writeRow(paperId, chunkIndex, vector, norm == 0f ? 0f : 1f / norm);
+    }
+
+    private int writeRow(PaperId paperId, int chunkIndex, float[] vector, float scale) {
+        int row = size();
+        FloatBuffer vectors = vectorRegion(row);
+        int base = (row % rowsPerRegion) * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            vectors.put(base + i, vector[i] * scale);
+        }
+
+        MappedByteBuffer ids = idRegion(row);
+        int idBase = (row % rowsPerRegion) * ID_STRIDE;
+        UUID uuid = paperId.value();
+        ids.putLong(idBase, uuid.getMostSignificantBits());
+        ids.putLong(idBase + 8, uuid.getLeastSignificantBits());
+        ids.putInt(idBase + 16, chunkIndex);
+        ids.putInt(idBase + FLAGS_OFFSET, 0);
+
+        LONG_VIEW.setRelease(header, COUNT_OFFSET, (long) row + 1);
+        if (rowsByPaper != null) {
+            rowsByPaper.computeIfAbsent(paperId, id -> new RowList()).add(row);
+        }
+        return row;
+    }
+
+    public synchronized void markDeleted(int row) {
+        checkWritable();
+        checkRow(row);
+        MappedByteBuffer ids = idRegion(row);
+        int offset = (row % rowsPerRegion) * ID_STRIDE + FLAGS_OFFSET;
+        int flags = (int) INT_VIEW.getAcquire(ids, offset);
+        if ((flags & FLAG_DELETED) != 0) {
+            return;
+        }
+        INT_VIEW.setRelease(ids, offset, flags | FLAG_DELETED);
+        if (rowsByPaper != null) {
+            PaperId paperId = paperId(row);
+            RowList rows = rowsByPaper.get(paperId);
+            if (rows != null && rows.remove(row) && rows.count == 0) {
+                rowsByPaper.remove(paperId);
+            }
+            deletedRows++;
+        }
+    }
+
+    /**
+     * 已标记删除、尚未被压缩掉的行数（仅写入方）
+     */
+    public synchronized int deletedCount() {
+        checkWritable();
+        rowIndex();
+        return deletedRows;
+    }
+
+    public boolean isDeleted(int row) {
+        MappedByteBuffer ids = idRegion(row);
+        return ((int) INT_VIEW.getAcquire(ids, (row % rowsPerRegion) * ID_STRIDE + FLAGS_OFFSET) & FLAG_DELETED) != 0;
+    }
+
+    public PaperId paperId(int row) {
+        MappedByteBuffer ids = idRegion(row);
+        int base = (row % rowsPerRegion) * ID_STRIDE;
+        return new PaperId(new UUID(ids.getLong(base), ids.getLong(base + 8)));
+    }
+
+    public int chunkIndex(int row) {
+        return idRegion(row).getInt((row % rowsPerRegion) * ID_STRIDE + 16);
+    }
+
+    /**
+     * 顺序遍历全部未删除的行（只读侧表）
+     */
+    public void forEachLiveRow(RowVisitor visitor) {
+        int size = size();
+        for (int row = 0; row < size; row++) {
+            if (!isDeleted(row)) {
+                visitor.visit(row, paperId(row), chunkIndex(row));
+            }
+        }
+    }
+
+    /**
+     * 某篇论文未删除的全部行。写入方查内存中的行号索引，只读方顺序扫描侧表。
+     */
+    public int[] rowsOf(PaperId paperId) {
+        return writable ? indexedRowsOf(paperId) : scanRowsOf(paperId);
+    }
+
+    private synchronized int[] indexedRowsOf(PaperId paperId) {
+        RowList rows = rowIndex().get(paperId);
+        return rows == null ? new int[0] : Arrays.copyOf(rows.rows, rows.count);
+    }
+
+    private int[] scanRowsOf(PaperId paperId) {
+        long msb = paperId.value().getMostSignificantBits();
+        long lsb = paperId.value().getLeastSignificantBits();
+        int[] rows = new int[8];
+        int count = 0;
+        int size = size();
+        for (int row = 0; row < size; row++) {
+            MappedByteBuffer ids = idRegion(row);
+            int base = (row % rowsPerRegion) * ID_STRIDE;
+            if (ids.getLong(base) == msb && ids.getLong(base + 8) == lsb && !isDeleted(row)) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * 读取一行（拷贝，用于重排等少量访问）
+     */
+    public float[] vector(int row) {
+        checkRow(row);
+        float[] vector = new float[dimensions];
+        vectorRegion(row).get((row % rowsPerRegion) * dimensions, vector);
+        return vector;
+    }
+
+    /**
+     * 查询向量（需已归一化）与某一行的余弦相似度，直接读映射内存
+     */
+    public float similarity(float[] normalizedQuery, int row) {
+        return VectorMath.dot(normalizedQuery, vectorRegion(row), (row % rowsPerRegion) * dimensions, dimensions);
+    }
+
+    /**
+     * 暴力 top-k，逐行扫描映射区域
+     */
+    public List<Hit> search(float[] query, int k, double minSimilarity) {
+        return search(query, k, minSimilarity, null);
+    }
+
+    /**
+     * 暴力 top-k，只有 rowFilter 接受的行进入结果（为 null 时不过滤）。
+     * 过滤条件在分数足以进入 top-k 之后才检查，大部分行不需要读取侧表。
+     */
+    public List<Hit> search(float[] query, int k, double minSimilarity, IntPredicate rowFilter) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + dimensions + " dimensions but got " + query.length);
+        }
+        if (k <= 0) {
+            return List.of();
+        }
+        float norm = VectorMath.norm(query);
+        float[] normalized = new float[dimensions];
+        for (int i = 0; i < dimensions && norm > 0f; i++) {
+            normalized[i] = query[i] / norm;
+        }
+
+        FloatIntHeap top = new FloatIntHeap(k + 1, false);
+        int size = size();
+        // 映射内存无法直接交给 SIMD 内核，按小块批量拷进可复用的缓冲区（留在 L2 内）再整块打分
+        float[] block = new float[SCAN_BLOCK_ROWS * dimensions];
+        float[] blockScores = new float[SCAN_BLOCK_ROWS];
+        for (int start = 0; start < size; ) {
+            FloatBuffer region = vectorRegion(start);
+            int inRegion = start % rowsPerRegion;
+            int rows = Math.min(SCAN_BLOCK_ROWS, Math.min(size - start, rowsPerRegion - inRegion));
+            region.get(inRegion * dimensions, block, 0, rows * dimensions);
+            VectorMath.dotAll(normalized, block, rows, blockScores);
+            for (int i = 0; i < rows; i++) {
+                float score = blockScores[i];
+                int row = start + i;
+                if (score < minSimilarity || (top.size() == k && score <= top.peekScore()) || isDeleted(row)
+                        || (rowFilter != null && !rowFilter.test(row))) {
+                    continue;
+                }
+                top.push(row, score);
+                if (top.size() > k) {
+                    top.pop();
+                }
+            }
+            start += rows;
+        }
+
+        int[] rows = new int[top.size()];
+        float[] scores = new float[rows.length];
+        int count = top.drainDescending(rows, scores);
+        List<Hit> hits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hits.add(new Hit(rows[i], paperId(rows[i]), chunkIndex(rows[i]), scores[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * 按原顺序把未删除的行重写到新文件并替换当前文件，返回接管写入（和写锁）的新段。
+     * 当前段随即被标记为已替换，不能再写入，调用方切换到新段后关闭它。
+     * <p>
+     * 顺序：新文件写完刷盘后置完成标记 → 旧头部置已替换标记 → 改名侧表 → 改名向量文件。
+     * 改名侧表之前失败时撤销并保留当前文件；之后失败时新段已经生效，下次以写入方打开时补完改名。
+     */
+    public synchronized EmbeddingSegment compact() throws IOException {
+        checkWritable();
+        Path compactVectors = directory.resolve(VECTOR_FILE + COMPACT_SUFFIX);
+        Path compactIds = directory.resolve(ID_FILE + COMPACT_SUFFIX);
+        Files.deleteIfExists(compactVectors);
+        Files.deleteIfExists(compactIds);
+        EmbeddingSegment target = openFiles(directory, compactVectors, compactIds, dimensions, lockChannel, writeLock);
+        try {
+            int size = size();
+            float[] vector = new float[dimensions];
+            for (int row = 0; row < size; row++) {
+                if (!isDeleted(row)) {
+                    // 已经归一化过，原样复制
+                    vectorRegion(row).get((row % rowsPerRegion) * dimensions, vector);
+                    target.writeRow(paperId(row), chunkIndex(row), vector, 1f);
+                }
+            }
+            target.force();
+            setFlag(target.header, HEADER_FLAG_COMPLETE | (isImported() ? HEADER_FLAG_IMPORTED : 0));
+            setFlag(header, HEADER_FLAG_SUPERSEDED);
+            Files.move(compactIds, directory.resolve(ID_FILE), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            clearFlag(header, HEADER_FLAG_SUPERSEDED);
+            target.discard(compactVectors, compactIds);
+            throw e;
+        }
+        try {
+            Files.move(compactVectors, directory.resolve(VECTOR_FILE), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 侧表已经替换，新段就是当前数据；向量文件留在 .compact，下次以写入方打开时补完改名
+        }
+        ownsLock = false;
+        return target;
+    }
+
+    /**
+     * 放弃未生效的压缩输出：先置已替换标记让可能已打开它的只读方重新打开，再删除文件
+     */
+    private void discard(Path vectorFile, Path idFile) throws IOException {
+        ownsLock = false;
+        try {
+            setFlag(header, HEADER_FLAG_SUPERSEDED);
+            close();
+        } finally {
+            Files.deleteIfExists(vectorFile);
+            Files.deleteIfExists(idFile);
+        }
+    }
+
+    /**
+     * 把已写入的数据刷到磁盘
+     */
+    public synchronized void force() {
+        checkWritable();
+        for (MappedByteBuffer region : vectorMaps) {
+            region.force();
+        }
+        for (MappedByteBuffer region : idRegions) {
+            region.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!vectorChannel.isOpen()) {
+            return;
+        }
+        // 先映射全部已提交的区域，关闭后仍在进行的检索不会再访问通道
+        int size = size();
+        if (size > 0) {
+            mapRegions((size - 1) / rowsPerRegion);
+        }
+        if (writable) {
+            header.force();
+        }
+        if (ownsLock) {
+            writeLock.release();
+            lockChannel.close();
+        }
+        idChannel.close();
+        vectorChannel.close();
+    }
+
+    private static void setFlag(MappedByteBuffer header, int flag) {
+        INT_VIEW.setRelease(header, HEADER_FLAGS_OFFSET, (int) INT_VIEW.getAcquire(header, HEADER_FLAGS_OFFSET) | flag);
+        header.force();
+    }
+
+    private static void clearFlag(MappedByteBuffer header, int flag) {
+        INT_VIEW.setRelease(header, HEADER_FLAGS_OFFSET, (int) INT_VIEW.getAcquire(header, HEADER_FLAGS_OFFSET) & ~flag);
+        header.force();
+    }
+
+    /**
+     * 写入方的行号索引，首次使用时扫描一遍侧表建立（调用方持有 this 的锁）
+     */
+    private Map<PaperId, RowList> rowIndex() {
+        if (rowsByPaper == null) {
+            Map<PaperId, RowList> index = new HashMap<>();
+            int deleted = 0;
+            int size = size();
+            for (int row = 0; row < size; row++) {
+                if (isDeleted(row)) {
+                    deleted++;
+                } else {
+                    index.computeIfAbsent(paperId(row), id -> new RowList()).add(row);
+                }
+            }
+            rowsByPaper = index;
+            deletedRows = deleted;
+        }
+        return rowsByPaper;
+    }
+
+    private FloatBuffer vectorRegion(int row) {
+        int region = row / rowsPerRegion;
+        FloatBuffer[] regions = vectorRegions;
+        if (region < regions.length) {
+            return regions[region];
+        }
+        mapRegions(region);
+        return vectorRegions[region];
+    }
+
+    private MappedByteBuffer idRegion(int row) {
+        int region = row / rowsPerRegion;
+        MappedByteBuffer[] regions = idRegions;
+        if (region < regions.length) {
+            return regions[region];
+        }
+        mapRegions(region);
+        return idRegions[region];
+    }
+
+    /**
+     * 映射到第 region 个区域为止的所有区域。写入方以读写方式映射，文件随之（稀疏地）增长。
+     */
+    private synchronized void mapRegions(int region) {
+        int mapped = vectorRegions.length;
+        if (region < mapped) {
+            return;
+        }
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        long vectorBytes = (long) rowsPerRegion * dimensions * Float.BYTES;
+        long idBytes = (long) rowsPerRegion * ID_STRIDE;
+
+        MappedByteBuffer[] maps = Arrays.copyOf(vectorMaps, region + 1);
+        FloatBuffer[] floats = Arrays.copyOf(vectorRegions, region + 1);
+        MappedByteBuffer[] ids = Arrays.copyOf(idRegions, region + 1);
+        try {
+            for (int r = mapped; r <= region; r++) {
+                maps[r] = vectorChannel.map(mode, HEADER_BYTES + r * vectorBytes, vectorBytes);
+                maps[r].order(ByteOrder.LITTLE_ENDIAN);
+                floats[r] = maps[r].asFloatBuffer();
+                ids[r] = idChannel.map(mode, r * idBytes, idBytes);
+                ids[r].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment region " + region, e);
+        }
+        vectorMaps = maps;
+        idRegions = ids;
+        vectorRegions = floats;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IllegalArgumentException("Unknown row: " + row);
+        }
+    }
+
+    private void checkWritable() {
+        if (!writable) {
+            throw new IllegalStateException("Segment is open read-only");
+        }
+        if (!ownsLock) {
+            throw new IllegalStateException("Segment has been replaced by compaction");
+        }
+    }
+
+    /**
+     * 一篇论文的存活行号，按追加顺序递增
+     */
+    private static final class RowList {
+        int[] rows = new int[4];
+        int count;
+
+        void add(int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = row;
+        }
+
+        boolean remove(int row) {
+            int i = Arrays.binarySearch(rows, 0, count, row);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(rows, i + 1, rows, i, count - i - 1);
+            count--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import java.util.Arrays;
+
+/**
+ * 以 float 分数为键、int 节点号为值的二叉堆，分数与节点号存放在并行数组中
+ */
+public final class FloatIntHeap {
+    private final boolean maxHeap;
+    private float[] scores;
+    private int[] nodes;
+    private int size;
+
+    public FloatIntHeap(int initialCapacity, boolean maxHeap) {
+        this.maxHeap = maxHeap;
+        this.scores = new float[Math.max(initialCapacity, 4)];
+        this.nodes = new int[scores.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public float peekScore() {
+        return scores[0];
+    }
+
+    public void push(int node, float score) {
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(score, scores[parent])) {
+                break;
+            }
+            scores[i] = scores[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        scores[i] = score;
+        nodes[i] = node;
+    }
+
+    public int pop() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            float score = scores[size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!before(scores[child], score)) {
+                    break;
+                }
+                scores[i] = scores[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            scores[i] = score;
+            nodes[i] = node;
+        }
+        return top;
+    }
+
+    /**
+     * 按分数从高到低取出全部元素（最小堆使用），堆随之清空
+     *
+     * @return 元素个数
+     */
+    public int drainDescending(int[] nodesOut, float[] scoresOut) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            scoresOut[i] = scores[0];
+            nodesOut[i] = pop();
+        }
+        return count;
+    }
+
+    private boolean before(float a, float b) {
+        return maxHeap ? a > b : a < b;
+    }
+}
@@ -0,0 +1,672 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * 内存 HNSW 近似最近邻索引（余弦相似度）。
+ * <p>
+ * 存储全部基于分页的原始数组：向量按节点号连续存放在 {@code float[]} 页中（写入前先归一化，
+ * 相似度即点积），第 0 层邻接表存放在 {@code int[]} 页中，每个节点占 {@code 1 + 2M} 个槽位
+ * （槽 0 为邻居数）。只有约 1/M 的节点拥有上层，其上层邻接表单独分配。
+ * <p>
+ * 并发模型：插入并发执行，修改某个节点的邻接表时持有该节点所在分段的锁；读取完全无锁。
+ * 邻接表槽位通过 release/acquire 语义写入和读取，因此读线程经由邻居发现新节点时，
+ * 一定能看到该节点已完整写入的向量。被裁剪的邻接表可能被读线程读到新旧混合的内容，
+ * 但其中每个值都是合法节点号，对近似检索无害。
+ * <p>
+ * 删除采用墓碑标记：被删节点仍参与图遍历，只是不出现在结果中。墓碑不在原地回收，
+ * 调用方在墓碑比例过高时用 {@link #vector(int)} 把存活节点写入新索引后整体替换。
+ * <p>
+ * 节点号由 {@code add} 预先分配，写完向量和标签后才计入 {@link #size()}（已发布水位）：
+ * 所有小于水位的节点都已完整写入，暴力检索只扫描水位以下的节点，不会读到尚未写入的槽位。
+ * <p>
+ * 带过滤的检索照常沿图遍历，但只有标签满足过滤条件的节点进入结果集，终止条件也只看结果集，
+ * 结果由满足条件的节点填满，而不是先取 top-k 再过滤。满足条件的节点很少时遍历范围会变大，
+ * 调用方应改用 {@link #exactSearch(float[], int[], int, int, double)} 只对这些节点打分。
+ */
+public final class HnswIndex {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int LOCK_STRIPES = 1024;
+    private static final long EMPTY = -1L;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinks0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+
+    private volatile float[][] vectorPages = new float[0][];
+    private volatile int[][] linkPages = new int[0][];
+    private volatile int[][][][] upperLinkPages = new int[0][][][];
+    private volatile long[][] labelPages = new long[0][];
+    private volatile long[][] deletedPages = new long[0][];
+    private volatile long[][] writtenPages = new long[0][];
+
+    private final AtomicInteger nextNode = new AtomicInteger();
+    /** 已发布水位：[0, published) 内的节点都已写入向量和标签 */
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicInteger deletedCount = new AtomicInteger();
+    /** (maxLevel << 32) | entryNode；空索引为 -1 */
+    private volatile long entryPoint = EMPTY;
+
+    private final Object growLock = new Object();
+    private final Object entryLock = new Object();
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final ConcurrentLinkedQueue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param dimensions     向量维度
+     * @param maxLinks       上层每个节点的最大邻居数 M（第 0 层为 2M）
+     * @param efConstruction 构建时的候选集大小
+     */
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive");
+        }
+        if (maxLinks < 2) {
+            throw new IllegalArgumentException("M must be at least 2");
+        }
+        if (efConstruction < maxLinks) {
+            throw new IllegalArgumentException("efConstruction must be at least M");
+        }
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinks0 = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxLinks);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public record Result(int node, long label, float similarity) {
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * 已发布的节点数（含墓碑）；并发插入中尚未写完的节点不计入
+     */
+    public int size() {
+        return published.get();
+    }
+
+    public int deletedCount() {
+        return deletedCount.get();
+    }
+
+    /**
+     * 插入一个向量，返回节点号。可被多个线程并发调用。
+     *
+     * @param label 调用方自定义的标签，随检索结果返回
+     */
+    public int add(float[] vector, long label) {
+        checkDimensions(vector);
+        int node = nextNode.getAndIncrement();
+        ensureCapacity(node);
+
+        float[] normalized = normalize(vector);
+        System.arraycopy(normalized, 0, vectorPages[page(node)], offset(node) * dimensions, dimensions);
+        labelPages[page(node)][offset(node)] = label;
+        publish(node);
+
+        int level = randomLevel();
+        if (level > 0) {
+            int[][] upper = new int[level][maxLinks + 1];
+            upperLinkPages[page(node)][offset(node)] = upper;
+        }
+
+        long entry = entryPoint;
+        if (entry == EMPTY) {
+            synchronized (entryLock) {
+                if (entryPoint == EMPTY) {
+                    entryPoint = pack(node, level);
+                    return node;
+                }
+                entry = entryPoint;
+            }
+        }
+
+        Scratch scratch = acquireScratch();
+        try {
+            int current = entryNode(entry);
+            int topLevel = entryLevel(entry);
+            float currentScore = similarity(normalized, current);
+            for (int l = topLevel; l > level; l--) {
+                current = greedyClosest(normalized, current, currentScore, l);
+                currentScore = similarity(normalized, current);
+            }
+
+            for (int l = Math.min(level, topLevel); l >= 0; l--) {
+                FloatIntHeap results = searchLayer(normalized, current, currentScore, efConstruction, l, scratch, null);
+                int[] nodes = new int[results.size()];
+                float[] scores = new float[results.size()];
+                int count = results.drainDescending(nodes, scores);
+                int capacity = l == 0 ? maxLinks0 : maxLinks;
+                int[] selected = selectNeighbors(nodes, scores, count, maxLinks);
+
+                int[] ownLinks = links(node, l);
+                int base = linkBase(node, l);
+                lock(node);
+                try {
+                    for (int i = 0; i < selected.length; i++) {
+                        INTS.setRelease(ownLinks, base + 1 + i, selected[i]);
+                    }
+                    INTS.setRelease(ownLinks, base, selected.length);
+                } finally {
+                    unlock(node);
+                }
+
+                for (int neighbor : selected) {
+                    connect(neighbor, node, l, capacity);
+                }
+
+                // 下一层从本层最近的候选出发
+                current = nodes[0];
+                currentScore = scores[0];
+            }
+        } finally {
+            releaseScratch(scratch);
+        }
+
+        if (level > entryLevel(entryPoint)) {
+            synchronized (entryLock) {
+                if (level > entryLevel(entryPoint)) {
+                    entryPoint = pack(node, level);
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 将节点标记为已删除，检索结果中不再出现
+     */
+    public void markDeleted(int node) {
+        if (node < 0 || node >= nextNode.get()) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        long[] page = deletedPages[page(node)];
+        int word = offset(node) >>> 6;
+        long bit = 1L << (node & 63);
+        long previous = (long) LONGS.getAndBitwiseOr(page, word, bit);
+        if ((previous & bit) == 0) {
+            deletedCount.incrementAndGet();
+        }
+    }
+
+    public boolean isDeleted(int node) {
+        long[] page = deletedPages[page(node)];
+        return ((long) LONGS.getAcquire(page, offset(node) >>> 6) & (1L << (node & 63))) != 0;
+    }
+
+    public long label(int node) {
+        return labelPages[page(node)][offset(node)];
+    }
+
+    /**
+     * 节点的向量副本（写入时已归一化）
+     */
+    public float[] vector(int node) {
+        if (node < 0 || node >= nextNode.get() || !isWritten(node)) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        int base = offset(node) * dimensions;
+        return Arrays.copyOfRange(vectorPages[page(node)], base, base + dimensions);
+    }
+
+    /**
+     * 近似 top-k 检索。无锁，可与插入并发执行。
+     *
+     * @param ef            第 0 层候选集大小，越大召回越高、越慢（实际取 max(ef, k)）
+     * @param minSimilarity 相似度下限
+     */
+    public List<Result> search(float[] query, int k, int ef, double minSimilarity) {
+        return search(query, k, ef, minSimilarity, null);
+    }
+
+    /**
+     * 只返回标签满足 filter 的节点（filter 为 null 时不过滤）
+     */
+    public List<Result> search(float[] query, int k, int ef, double minSimilarity, LongPredicate filter) {
+        checkDimensions(query);
+        if (k <= 0) {
+            return List.of();
+        }
+        long entry = entryPoint;
+        if (entry == EMPTY) {
+            return List.of();
+        }
+
+        float[] normalized = normalize(query);
+        Scratch scratch = acquireScratch();
+        try {
+            int current = entryNode(entry);
+            float currentScore = similarity(normalized, current);
+            for (int l = entryLevel(entry); l > 0; l--) {
+                current = greedyClosest(normalized, current, currentScore, l);
+                currentScore = similarity(normalized, current);
+            }
+            // 墓碑节点占用候选位，按比例放大 ef 以保持召回
+            int effectiveEf = Math.max(ef, k) + Math.min(k, deletedCount.get());
+            FloatIntHeap candidates = searchLayer(normalized, current, currentScore, effectiveEf, 0, scratch, filter);
+            return collect(candidates, k, minSimilarity);
+        } finally {
+            releaseScratch(scratch);
+        }
+    }
+
+    /**
+     * 精确暴力检索，用于小规模索引和召回率评估
+     */
+    public List<Result> exactSearch(float[] query, int k, double minSimilarity) {
+        checkDimensions(query);
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        FloatIntHeap top = new FloatIntHeap(k + 1, false);
+        int size = published.get();
+        float[][] pages = vectorPages;
+        float[] scores = new float[PAGE_SIZE];
+        // 每页是按行连续存放的向量矩阵，整页批量打分
+        for (int page = 0; page * PAGE_SIZE < size && page < pages.length; page++) {
+            int rows = Math.min(PAGE_SIZE, size - page * PAGE_SIZE);
+            VectorMath.dotAll(normalized, pages[page], rows, scores);
+            for (int row = 0; row < rows; row++) {
+                int node = (page << PAGE_BITS) | row;
+                float score = scores[row];
+                if (top.size() < k) {
+                    if (!isDeleted(node)) {
+                        top.push(node, score);
+                    }
+                } else if (score > top.peekScore() && !isDeleted(node)) {
+                    top.pop();
+                    top.push(node, score);
+                }
+            }
+        }
+        return collect(top, k, minSimilarity);
+    }
+
+    /**
+     * 只在给定节点中精确检索，用于过滤后候选很少的场景
+     *
+     * @param nodes 候选节点，只读取前 count 个
+     */
+    public List<Result> exactSearch(float[] query, int[] nodes, int count, int k, double minSimilarity) {
+        checkDimensions(query);
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        FloatIntHeap top = new FloatIntHeap(k + 1, false);
+        for (int i = 0; i < count; i++) {
+            int node = nodes[i];
+            if (isDeleted(node)) {
+                continue;
+            }
+            float score = similarity(normalized, node);
+            if (top.size() < k) {
+                top.push(node, score);
+            } else if (score > top.peekScore()) {
+                top.pop();
+                top.push(node, score);
+            }
+        }
+        return collect(top, k, minSimilarity);
+    }
+
+    // ---- graph operations ----
+
+    private int greedyClosest(float[] query, int start, float startScore, int level) {
+        int current = start;
+        float currentScore = startScore;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] links = links(current, level);
+            int base = linkBase(current, level);
+            int count = (int) INTS.getAcquire(links, base);
+            for (int i = 1; i <= count; i++) {
+                int candidate = (int) INTS.getAcquire(links, base + i);
+                float score = similarity(query, candidate);
+                if (score > currentScore) {
+                    current = candidate;
+                    currentScore = score;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 返回结果堆（最小堆，堆顶为当前最差结果）。filter 不为 null 时不满足条件的节点仍作为候选继续扩展，
+     * 但不进入结果堆。
+     */
+    private FloatIntHeap searchLayer(float[] query, int entry, float entryScore, int ef, int level, Scratch scratch,
+                                     LongPredicate filter) {
+        scratch.reset(nextNode.get());
+        FloatIntHeap candidates = scratch.candidates;
+        FloatIntHeap results = new FloatIntHeap(ef + 1, false);
+
+        scratch.visit(entry);
+        candidates.push(entry, entryScore);
+        if (filter == null || filter.test(label(entry))) {
+            results.push(entry, entryScore);
+        }
+
+        while (candidates.size() > 0) {
+            float candidateScore = candidates.peekScore();
+            if (results.size() >= ef && candidateScore < results.peekScore()) {
+                break;
+            }
+            int candidate = candidates.pop();
+
+            int[] links = links(candidate, level);
+            int base = linkBase(candidate, level);
+            int count = (int) INTS.getAcquire(links, base);
+            for (int i = 1; i <= count; i++) {
+                int neighbor = (int) INTS.getAcquire(links, base + i);
+                if (!scratch.visit(neighbor)) {
+                    continue;
+                }
+                float score = similarity(query, neighbor);
+                if (results.size() < ef || score > results.peekScore()) {
+                    candidates.push(neighbor, score);
+                    if (filter == null || filter.test(label(neighbor))) {
+                        results.push(neighbor, score);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * HNSW 论文中的启发式邻居选择：候选按相似度从高到低遍历，只保留离查询点比离任何已选邻居
+     * 都更近的候选，使邻居在不同方向上分散；不足 M 个时用被跳过的候选补齐。
+     */
+    private int[] selectNeighbors(int[] nodes, float[] scores, int count, int limit) {
+        if (count <= limit) {
+            return Arrays.copyOf(nodes, count);
+        }
+        int[] selected = new int[limit];
+        int selectedCount = 0;
+        int[] skipped = new int[count];
+        int skippedCount = 0;
+
+        for (int i = 0; i < count && selectedCount < limit; i++) {
+            int candidate = nodes[i];
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (similarity(candidate, selected[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount++] = candidate;
+            } else {
+                skipped[skippedCount++] = candidate;
+            }
+        }
+        for (int i = 0; i < skippedCount && selectedCount < limit; i++) {
+            selected[selectedCount++] = skipped[i];
+        }
+        return selectedCount == limit ? selected : Arrays.copyOf(selected, selectedCount);
+    }
+
+    /**
+     * 在 {@code node} 的第 {@code level} 层邻接表中加入 {@code neighbor}，超出容量时重新裁剪
+     */
+    private void connect(int node, int neighbor, int level, int capacity) {
+        int[] links = links(node, level);
+        int base = linkBase(node, level);
+        lock(node);
+        try {
+            int count = (int) INTS.getAcquire(links, base);
+            for (int i = 1; i <= count; i++) {
+                if ((int) INTS.getAcquire(links, base + i) == neighbor) {
+                    return;
+                }
+            }
+            if (count < capacity) {
+                INTS.setRelease(links, base + 1 + count, neighbor);
+                INTS.setRelease(links, base, count + 1);
+                return;
+            }
+
+            FloatIntHeap pool = new FloatIntHeap(count + 1, false);
+            for (int i = 1; i <= count; i++) {
+                int existing = (int) INTS.getAcquire(links, base + i);
+                pool.push(existing, similarity(node, existing));
+            }
+            pool.push(neighbor, similarity(node, neighbor));
+
+            int[] nodes = new int[pool.size()];
+            float[] scores = new float[pool.size()];
+            int[] kept = selectNeighbors(nodes, scores, pool.drainDescending(nodes, scores), capacity);
+            for (int i = 0; i < kept.length; i++) {
+                INTS.setRelease(links, base + 1 + i, kept[i]);
+            }
+            INTS.setRelease(links, base, kept.length);
+        } finally {
+            unlock(node);
+        }
+    }
+
+    private List<Result> collect(FloatIntHeap heap, int k, double minSimilarity) {
+        int[] nodes = new int[heap.size()];
+        float[] scores = new float[heap.size()];
+        int count = heap.drainDescending(nodes, scores);
+        List<Result> results = new ArrayList<>(Math.min(k, count));
+        for (int i = 0; i < count && results.size() < k; i++) {
+            if (scores[i] < minSimilarity) {
+                break;
+            }
+            if (!isDeleted(nodes[i])) {
+                results.add(new Result(nodes[i], label(nodes[i]), scores[i]));
+            }
+        }
+        return results;
+    }
+
+    // ---- storage ----
+
+    /**
+     * 标记节点已写入，并把发布水位推进到第一个尚未写完的节点。
+     * 标记的写入和读取都用 volatile 语义：两个线程各自写完节点后互相检查对方的标记时，
+     * 至少有一方能看到对方已写完，水位不会停在两个都已写完的节点之前。
+     */
+    private void publish(int node) {
+        LONGS.getAndBitwiseOr(writtenPages[page(node)], offset(node) >>> 6, 1L << (node & 63));
+        while (true) {
+            int watermark = published.get();
+            if (watermark >= nextNode.get() || !isWritten(watermark)) {
+                return;
+            }
+            published.compareAndSet(watermark, watermark + 1);
+        }
+    }
+
+    private boolean isWritten(int node) {
+        long[][] pages = writtenPages;
+        if (page(node) >= pages.length) {
+            return false;
+        }
+        return ((long) LONGS.getVolatile(pages[page(node)], offset(node) >>> 6) & (1L << (node & 63))) != 0;
+    }
+
+    private int[] links(int node, int level) {
+        if (level == 0) {
+            return linkPages[page(node)];
+        }
+        return upperLinkPages[page(node)][offset(node)][level - 1];
+    }
+
+    private int linkBase(int node, int level) {
+        return level == 0 ? offset(node) * (maxLinks0 + 1) : 0;
+    }
+
+    private float similarity(float[] query, int node) {
+        return VectorMath.dot(query, 0, vectorPages[page(node)], offset(node) * dimensions, dimensions);
+    }
+
+    private float similarity(int a, int b) {
+        return VectorMath.dot(vectorPages[page(a)], offset(a) * dimensions,
+                vectorPages[page(b)], offset(b) * dimensions, dimensions);
+    }
+
+    private void ensureCapacity(int node) {
+        int page = page(node);
+        if (page < vectorPages.length) {
+            return;
+        }
+        synchronized (growLock) {
+            while (page >= vectorPages.length) {
+                int pages = vectorPages.length + 1;
+                // 先扩其余数组，最后发布 vectorPages，读线程以它为准判断页是否存在
+                long[][] labels = Arrays.copyOf(labelPages, pages);
+                labels[pages - 1] = new long[PAGE_SIZE];
+                labelPages = labels;
+                long[][] deleted = Arrays.copyOf(deletedPages, pages);
+                deleted[pages - 1] = new long[PAGE_SIZE / 64];
+                deletedPages = deleted;
+                long[][] written = Arrays.copyOf(writtenPages, pages);
+                written[pages - 1] = new long[PAGE_SIZE / 64];
+                writtenPages = written;
+                int[][][][] upper = Arrays.copyOf(upperLinkPages, pages);
+                upper[pages - 1] = new int[PAGE_SIZE][][];
+                upperLinkPages = upper;
+                int[][] links = Arrays.copyOf(linkPages, pages);
+                links[pages - 1] = new int[PAGE_SIZE * (maxLinks0 + 1)];
+                linkPages = links;
+                float[][] vectors = Arrays.copyOf(vectorPages, pages);
+                vectors[pages - 1] = new float[PAGE_SIZE * dimensions];
+                vectorPages = vectors;
+            }
+        }
+    }
+
+    private int randomLevel() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        return (int) Math.min(16, Math.floor(-Math.log(1.0 - r) * levelMultiplier));
+    }
+
+    private void lock(int node) {
+        stripes[node & (LOCK_STRIPES - 1)].lock();
+    }
+
+    private void unlock(int node) {
+        stripes[node & (LOCK_STRIPES - 1)].unlock();
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+    }
+
+    private static float[] normalize(float[] vector) {
+        float norm = VectorMath.norm(vector);
+        float[] normalized = new float[vector.length];
+        if (norm == 0f) {
+            return normalized;
+        }
+        float scale = 1f / norm;
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static int page(int node) {
+        return node >>> PAGE_BITS;
+    }
+
+    private static int offset(int node) {
+        return node & PAGE_MASK;
+    }
+
+    private static long pack(int node, int level) {
+        return ((long) level << 32) | (node & 0xffffffffL);
+    }
+
+    private static int entryNode(long entry) {
+        return (int) entry;
+    }
+
+    private static int entryLevel(long entry) {
+        return entry == EMPTY ? -1 : (int) (entry >>> 32);
+    }
+
+    private Scratch acquireScratch() {
+        Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch();
+    }
+
+    private void releaseScratch(Scratch scratch) {
+        scratchPool.offer(scratch);
+    }
+
+    /**
+     * 单次检索的可复用工作区：基于世代号的 visited 标记（无需每次清零）和候选堆
+     */
+    private static final class Scratch {
+        private int[] visitedEpoch = new int[PAGE_SIZE];
+        private int epoch;
+        private final FloatIntHeap candidates = new FloatIntHeap(64, true);
+
+        void reset(int nodes) {
+            if (visitedEpoch.length < nodes) {
+                visitedEpoch = new int[Math.max(nodes, visitedEpoch.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(visitedEpoch, 0);
+                epoch = 1;
+            }
+            candidates.clear();
+        }
+
+        /**
+         * @return 首次访问时为 true
+         */
+        boolean visit(int node) {
+            if (node >= visitedEpoch.length) {
+                // 检索开始后并发插入的新节点
+                visitedEpoch = Arrays.copyOf(visitedEpoch, Math.max(node + 1, visitedEpoch.length * 2));
+            }
+            if (visitedEpoch[node] == epoch) {
+                return false;
+            }
+            visitedEpoch[node] = epoch;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 进程内 HNSW 向量检索，替代 pgvector 查询
+ */
+@Component
+@ConditionalOnProperty(name = "scholar-ai.vector-search.type", havingValue = "hnsw")
+public class HnswVectorSearchAdapter extends InMemoryVectorSearchAdapter<HnswIndex> {
+
+    private final int efSearch;
+
+    public HnswVectorSearchAdapter(LoadChunkPort loadChunkPort,
+                                   PaperOrdinals ordinals,
+                                   PaperFilterIndex filterIndex,
+                                   @Value("${scholar-ai.search-filter.exact-threshold:20000}") int exactThreshold,
+                                   @Value("${scholar-ai.vector-search.hnsw.dimensions:1536}") int dimensions,
+                                   @Value("${scholar-ai.vector-search.hnsw.m:16}") int m,
+                                   @Value("${scholar-ai.vector-search.hnsw.ef-construction:200}") int efConstruction,
+                                   @Value("${scholar-ai.vector-search.hnsw.ef-search:64}") int efSearch,
+                                   @Value("${scholar-ai.vector-search.rebuild.min-deleted:10000}") int rebuildMinDeleted,
+                                   @Value("${scholar-ai.vector-search.rebuild.deleted-ratio:0.25}") double rebuildDeletedRatio) {
+        super(loadChunkPort, ordinals, filterIndex, exactThreshold,
+                () -> new HnswIndex(dimensions, m, efConstruction), rebuildMinDeleted, rebuildDeletedRatio);
+        this.efSearch = efSearch;
+    }
+
+    @Override
+    protected List<VectorMatch> search(HnswIndex index, float[] query, int topK, double minSimilarity,
+                                       LongPredicate filter) {
+        return toMatches(filter == null
+                ? index.search(query, topK, efSearch, minSimilarity)
+                : index.search(query, topK, efSearch, minSimilarity, filter));
+    }
+
+    @Override
+    protected List<VectorMatch> searchNodes(HnswIndex index, float[] query, int[] nodes, int count, int topK,
+                                            double minSimilarity) {
+        return toMatches(index.exactSearch(query, nodes, count, topK, minSimilarity));
+    }
+
+    @Override
+    protected int insert(HnswIndex index, float[] vector, long label) {
+        return index.add(vector, label);
+    }
+
+    @Override
+    protected int copy(HnswIndex source, int node, HnswIndex target) {
+        return target.add(source.vector(node), source.label(node));
+    }
+
+    @Override
+    protected void delete(HnswIndex index, int node) {
+        index.markDeleted(node);
+    }
+
+    @Override
+    protected int size(HnswIndex index) {
+        return index.size();
+    }
+
+    @Override
+    protected int deletedCount(HnswIndex index) {
+        return index.deletedCount();
+    }
+
+    @Override
+    protected String name() {
+        return "HNSW";
+    }
+
+    private List<VectorMatch> toMatches(List<HnswIndex.Result> results) {
+        List<VectorMatch> matches = new ArrayList<>(results.size());
+        for (HnswIndex.Result result : results) {
+            VectorMatch match = toMatch(result.label(), result.similarity());
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+}
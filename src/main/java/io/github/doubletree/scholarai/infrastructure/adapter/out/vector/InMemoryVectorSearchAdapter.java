@@ -0,0 +1,357 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.CompressedBitmap;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * 进程内向量索引适配器的公共部分，检索不再经过网络也不占用主库。
+ * <p>
+ * 启动后在后台虚拟线程中从 paper_chunk 表重建索引，此后由分析流水线增量维护。
+ * 重建期间被流水线更新过的论文不再从数据库加载，避免旧向量覆盖新结果；
+ * 预热对同一篇论文的“检查是否已更新 + 写入”与流水线的写入/删除持有同一把论文分段锁，不会交错。
+ * 节点标签为 {@code (论文序号 << 32) | chunkIndex}，论文序号来自共享的 {@link PaperOrdinals}。
+ * <p>
+ * 带过滤条件的检索先用 {@link PaperFilterIndex} 算出满足条件的论文位图。满足条件的节点不超过 exact-threshold 个时
+ * 直接对这些节点打分；否则在遍历索引时按标签查位图，只让满足条件的节点进入结果。
+ * <p>
+ * 删除只打墓碑。墓碑数达到 rebuild-min-deleted 且占索引的比例超过 rebuild-deleted-ratio 时，
+ * 在后台把存活节点复制到新索引，再把索引和论文到节点的映射作为一个整体替换。
+ * 重建期间写入（流水线和预热）等待，检索继续使用旧索引。
+ *
+ * @param <I> 具体的索引结构
+ */
+@Slf4j
+abstract class InMemoryVectorSearchAdapter<I> implements VectorSearchPort {
+
+    private static final int PAPER_LOCK_STRIPES = 64;
+
+    /**
+     * 一代索引：索引本身和论文到节点号的映射总是一起替换，检索读到的两者一定一致
+     */
+    private record Generation<I>(I index, Map<PaperId, PaperNodes> nodesByPaper) {
+    }
+
+    private final LoadChunkPort loadChunkPort;
+    private final PaperOrdinals ordinals;
+    private final PaperFilterIndex filterIndex;
+    private final int exactThreshold;
+    private final Supplier<I> indexFactory;
+    private final int rebuildMinDeleted;
+    private final double rebuildDeletedRatio;
+
+    private volatile Generation<I> generation;
+
+    // 写入之间共享，重建时独占
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReentrantLock[] paperLocks = new ReentrantLock[PAPER_LOCK_STRIPES];
+
+    private final Set<PaperId> updatedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmingUp = true;
+
+    protected InMemoryVectorSearchAdapter(LoadChunkPort loadChunkPort,
+                                          PaperOrdinals ordinals,
+                                          PaperFilterIndex filterIndex,
+                                          int exactThreshold,
+                                          Supplier<I> indexFactory,
+                                          int rebuildMinDeleted,
+                                          double rebuildDeletedRatio) {
+        if (rebuildMinDeleted < 0 || !(rebuildDeletedRatio > 0.0 && rebuildDeletedRatio <= 1.0)) {
+            throw new IllegalArgumentException("rebuild-min-deleted must be >= 0 and rebuild-deleted-ratio in (0, 1]");
+        }
+        this.loadChunkPort = loadChunkPort;
+        this.ordinals = ordinals;
+        this.filterIndex = filterIndex;
+        this.exactThreshold = exactThreshold;
+        this.indexFactory = indexFactory;
+        this.rebuildMinDeleted = rebuildMinDeleted;
+        this.rebuildDeletedRatio = rebuildDeletedRatio;
+        this.generation = new Generation<>(indexFactory.get(), new ConcurrentHashMap<>());
+        for (int i = 0; i < PAPER_LOCK_STRIPES; i++) {
+            paperLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 遍历索引检索，filter 不为 null 时只让标签满足 filter 的节点进入结果
+     */
+    protected abstract List<VectorMatch> search(I index, float[] query, int topK, double minSimilarity,
+                                                LongPredicate filter);
+
+    /**
+     * 只对给定节点（nodes 的前 count 个）打分
+     */
+    protected abstract List<VectorMatch> searchNodes(I index, float[] query, int[] nodes, int count, int topK,
+                                                     double minSimilarity);
+
+    /**
+     * 写入一个向量，返回节点号
+     */
+    protected abstract int insert(I index, float[] vector, long label);
+
+    /**
+     * 把 source 中的一个存活节点复制到 target，返回新节点号
+     */
+    protected abstract int copy(I source, int node, I target);
+
+    protected abstract void delete(I index, int node);
+
+    /**
+     * 索引中的节点数（含已删除）
+     */
+    protected abstract int size(I index);
+
+    protected abstract int deletedCount(I index);
+
+    protected abstract String name();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.ofVirtual().name(name().toLowerCase() + "-warm-up").start(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                loadChunkPort.forEachEmbedding((paperId, chunkIndex, vector) -> {
+                    rebuildLock.readLock().lock();
+                    ReentrantLock paperLock = lockFor(paperId);
+                    paperLock.lock();
+                    try {
+                        if (!updatedDuringWarmUp.contains(paperId)) {
+                            add(generation, paperId, chunkIndex, vector);
+                        }
+                    } finally {
+                        paperLock.unlock();
+                        rebuildLock.readLock().unlock();
+                    }
+                });
+                log.info("🧭 [{}] Loaded {} vectors in {} ms", name(), size(), System.currentTimeMillis() - start);
+            } catch (RuntimeException e) {
+                log.error("❌ [{}] Warm-up failed, index only contains newly analyzed papers", name(), e);
+            } finally {
+                warmingUp = false;
+                updatedDuringWarmUp.clear();
+            }
+        });
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, double minSimilarity) {
+        Generation<I> current = generation;
+        return search(current.index(), query, topK, minSimilarity, null);
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, double minSimilarity, SearchFilter filter) {
+        CompressedBitmap papers = filterIndex.resolve(filter);
+        if (papers == null) {
+            return search(query, topK, minSimilarity);
+        }
+        if (papers.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+        Generation<I> current = generation;
+        if (papers.cardinality() <= exactThreshold) {
+            int[][] nodes = {new int[64]};
+            int[] count = {0};
+            boolean small = papers.forEach(ordinal -> {
+                PaperId paperId = ordinals.paperOf(ordinal);
+                PaperNodes paperNodes = paperId == null ? null : current.nodesByPaper().get(paperId);
+                if (paperNodes == null) {
+                    return true;
+                }
+                int[] snapshot = paperNodes.snapshot();
+                if (count[0] + snapshot.length > exactThreshold) {
+                    return false;
+                }
+                if (count[0] + snapshot.length > nodes[0].length) {
+                    nodes[0] = Arrays.copyOf(nodes[0], Math.max(count[0] + snapshot.length, nodes[0].length * 2));
+                }
+                System.arraycopy(snapshot, 0, nodes[0], count[0], snapshot.length);
+                count[0] += snapshot.length;
+                return true;
+            });
+            if (small) {
+                return searchNodes(current.index(), query, nodes[0], count[0], topK, minSimilarity);
+            }
+        }
+        return search(current.index(), query, topK, minSimilarity,
+                label -> papers.contains(PaperOrdinals.ordinal(label)));
+    }
+
+    @Override
+    public void index(PaperId paperId, List<Embedding> embeddings) {
+        rebuildLock.readLock().lock();
+        ReentrantLock paperLock = lockFor(paperId);
+        paperLock.lock();
+        try {
+            markUpdated(paperId);
+            Generation<I> current = generation;
+            for (Embedding embedding : embeddings) {
+                add(current, paperId, embedding.chunkIndex(), embedding.vector());
+            }
+        } finally {
+            paperLock.unlock();
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(PaperId paperId) {
+        rebuildLock.readLock().lock();
+        ReentrantLock paperLock = lockFor(paperId);
+        paperLock.lock();
+        try {
+            markUpdated(paperId);
+            Generation<I> current = generation;
+            PaperNodes nodes = current.nodesByPaper().remove(paperId);
+            if (nodes != null) {
+                int[] removed = nodes.snapshot();
+                for (int node : removed) {
+                    delete(current.index(), node);
+                }
+                log.debug("🧭 [{}] Removed {} vectors of paper {}", name(), removed.length, paperId);
+            }
+        } finally {
+            paperLock.unlock();
+            rebuildLock.readLock().unlock();
+        }
+        if (needsRebuild() && rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name(name().toLowerCase() + "-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 索引中的节点数（含已删除）
+     */
+    final int size() {
+        return size(generation.index());
+    }
+
+    final int deletedCount() {
+        return deletedCount(generation.index());
+    }
+
+    /**
+     * 把存活节点复制到新索引并整体替换，丢弃所有墓碑
+     */
+    final void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            Generation<I> old = generation;
+            int before = size(old.index());
+            I fresh = indexFactory.get();
+            Map<PaperId, PaperNodes> nodesByPaper = new ConcurrentHashMap<>(old.nodesByPaper().size());
+            for (Map.Entry<PaperId, PaperNodes> entry : old.nodesByPaper().entrySet()) {
+                int[] nodes = entry.getValue().snapshot();
+                PaperNodes copied = new PaperNodes(nodes.length);
+                for (int node : nodes) {
+                    copied.add(copy(old.index(), node, fresh));
+                }
+                nodesByPaper.put(entry.getKey(), copied);
+            }
+            generation = new Generation<>(fresh, nodesByPaper);
+            log.info("♻️ [{}] Rebuilt index without tombstones: {} -> {} vectors in {} ms",
+                    name(), before, size(fresh), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("❌ [{}] Rebuild failed, keeping the current index", name(), e);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把节点标签还原为检索结果；论文序号未知时返回 null
+     */
+    protected final VectorMatch toMatch(long label, double similarity) {
+        PaperId paperId = paperOf(label);
+        return paperId == null ? null : new VectorMatch(paperId, chunkIndex(label), similarity);
+    }
+
+    protected final PaperId paperOf(long label) {
+        return ordinals.paperOf(PaperOrdinals.ordinal(label));
+    }
+
+    protected static int chunkIndex(long label) {
+        return PaperOrdinals.chunkIndex(label);
+    }
+
+    private boolean needsRebuild() {
+        I index = generation.index();
+        int deleted = deletedCount(index);
+        return deleted >= rebuildMinDeleted && deleted > rebuildDeletedRatio * size(index);
+    }
+
+    /**
+     * 调用方持有该论文的分段锁
+     */
+    private void add(Generation<I> current, PaperId paperId, int chunkIndex, float[] vector) {
+        int node = insert(current.index(), vector, PaperOrdinals.label(ordinals.ordinalOf(paperId), chunkIndex));
+        current.nodesByPaper().computeIfAbsent(paperId, id -> new PaperNodes(8)).add(node);
+    }
+
+    private ReentrantLock lockFor(PaperId paperId) {
+        return paperLocks[Math.floorMod(paperId.hashCode(), PAPER_LOCK_STRIPES)];
+    }
+
+    private void markUpdated(PaperId paperId) {
+        if (warmingUp) {
+            updatedDuringWarmUp.add(paperId);
+        }
+    }
+
+    /**
+     * 一篇论文的节点号，追加摊还 O(1)。只在持有论文分段锁时追加；
+     * 检索线程无锁读取：先读 count 再读数组，数组扩容时先发布新数组再推进 count，读到的前缀总是完整的。
+     */
+    private static final class PaperNodes {
+        private volatile int[] nodes;
+        private volatile int count;
+
+        PaperNodes(int capacity) {
+            this.nodes = new int[Math.max(1, capacity)];
+        }
+
+        void add(int node) {
+            int[] current = nodes;
+            int size = count;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                nodes = current;
+            }
+            current[size] = node;
+            count = size + 1;
+        }
+
+        int[] snapshot() {
+            int size = count;
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.ChunkRef;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * 量化向量检索：内存中只保留 1-bit 与 int8 编码，重排所需的全精度向量按需从 paper_chunk 取回
+ */
+@Component
+@ConditionalOnProperty(name = "scholar-ai.vector-search.type", havingValue = "quantized")
+public class QuantizedVectorSearchAdapter extends InMemoryVectorSearchAdapter<QuantizedVectorStore> {
+
+    private final LoadChunkPort loadChunkPort;
+
+    public QuantizedVectorSearchAdapter(
+            LoadChunkPort loadChunkPort,
+            PaperOrdinals ordinals,
+            PaperFilterIndex filterIndex,
+            @Value("${scholar-ai.search-filter.exact-threshold:20000}") int exactThreshold,
+            @Value("${scholar-ai.vector-search.quantized.dimensions:1536}") int dimensions,
+            @Value("${scholar-ai.vector-search.quantized.binary-oversample:32}") int binaryOversample,
+            @Value("${scholar-ai.vector-search.quantized.rerank-oversample:4}") int rerankOversample,
+            @Value("${scholar-ai.vector-search.rebuild.min-deleted:10000}") int rebuildMinDeleted,
+            @Value("${scholar-ai.vector-search.rebuild.deleted-ratio:0.25}") double rebuildDeletedRatio) {
+        super(loadChunkPort, ordinals, filterIndex, exactThreshold,
+                () -> new QuantizedVectorStore(dimensions, binaryOversample, rerankOversample),
+                rebuildMinDeleted, rebuildDeletedRatio);
+        this.loadChunkPort = loadChunkPort;
+    }
+
+    @Override
+    protected List<VectorMatch> search(QuantizedVectorStore store, float[] query, int topK, double minSimilarity,
+                                       LongPredicate filter) {
+        return toMatches(filter == null
+                ? store.search(query, topK, minSimilarity, this::fetch)
+                : store.search(query, topK, minSimilarity, this::fetch, filter));
+    }
+
+    @Override
+    protected List<VectorMatch> searchNodes(QuantizedVectorStore store, float[] query, int[] nodes, int count,
+                                            int topK, double minSimilarity) {
+        return toMatches(store.search(query, nodes, count, topK, minSimilarity, this::fetch));
+    }
+
+    private List<VectorMatch> toMatches(List<QuantizedVectorStore.Result> results) {
+        List<VectorMatch> matches = new ArrayList<>(results.size());
+        for (QuantizedVectorStore.Result result : results) {
+            VectorMatch match = toMatch(result.label(), result.similarity());
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+
+    private float[][] fetch(long[] labels) {
+        ChunkRef[] refs = new ChunkRef[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            PaperId paperId = paperOf(labels[i]);
+            refs[i] = paperId == null ? null : new ChunkRef(paperId, chunkIndex(labels[i]));
+        }
+        Map<ChunkRef, float[]> vectors = loadChunkPort.loadVectors(
+                Arrays.stream(refs).filter(Objects::nonNull).toList());
+
+        float[][] result = new float[labels.length][];
+        for (int i = 0; i < labels.length; i++) {
+            result[i] = refs[i] == null ? null : vectors.get(refs[i]);
+        }
+        return result;
+    }
+
+    @Override
+    protected int insert(QuantizedVectorStore store, float[] vector, long label) {
+        return store.add(vector, label);
+    }
+
+    @Override
+    protected int copy(QuantizedVectorStore source, int node, QuantizedVectorStore target) {
+        return target.copyFrom(source, node);
+    }
+
+    @Override
+    protected void delete(QuantizedVectorStore store, int node) {
+        store.markDeleted(node);
+    }
+
+    @Override
+    protected int size(QuantizedVectorStore store) {
+        return store.size();
+    }
+
+    @Override
+    protected int deletedCount(QuantizedVectorStore store) {
+        return store.deletedCount();
+    }
+
+    @Override
+    protected String name() {
+        return "Quantized";
+    }
+}
@@ -0,0 +1,356 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.service.VectorMath;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 量化向量存储：每个向量只在内存中保留两种紧凑编码，全精度向量留在外部存储。
+ * <ul>
+ *   <li>1-bit 符号码：每维 1 bit，{@code dims / 64} 个 long，用 popcount 计算汉明距离</li>
+ *   <li>int8 码：向量归一化后按自身最大绝对值缩放到 [-127, 127]，外加一个 float 缩放系数</li>
+ * </ul>
+ * 检索分三级：汉明距离全量扫描取 {@code k × binaryOversample} 个候选 →
+ * int8 点积重排取 {@code k × rerankOversample} 个 → 从外部取回全精度向量精确打分取 top-k。
+ * 1536 维时每个向量约 1.7 KB，float32 为 6 KB。
+ * <p>
+ * 写入串行化（synchronized），写完后才推进 volatile 的 size；读取只扫描 [0, size)，无锁。
+ */
+public final class QuantizedVectorStore {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int dimensions;
+    private final int words;
+    private final int binaryOversample;
+    private final int rerankOversample;
+
+    private volatile long[][] bitPages = new long[0][];
+    private volatile byte[][] codePages = new byte[0][];
+    private volatile float[][] scalePages = new float[0][];
+    private volatile long[][] labelPages = new long[0][];
+    private volatile long[][] deletedPages = new long[0][];
+    private volatile int size;
+    private volatile int deletedCount;
+
+    /**
+     * 按标签取回全精度向量（顺序与 labels 一致，已不存在的返回 null）
+     */
+    @FunctionalInterface
+    public interface FullPrecisionSource {
+        float[][] fetch(long[] labels);
+    }
+
+    public record Result(int node, long label, float similarity) {
+    }
+
+    public QuantizedVectorStore(int dimensions, int binaryOversample, int rerankOversample) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive");
+        }
+        if (binaryOversample < 1 || rerankOversample < 1 || rerankOversample > binaryOversample) {
+            throw new IllegalArgumentException("Require 1 <= rerankOversample <= binaryOversample");
+        }
+        this.dimensions = dimensions;
+        this.words = (dimensions + 63) >>> 6;
+        this.binaryOversample = binaryOversample;
+        this.rerankOversample = rerankOversample;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int deletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * 每个向量在内存中占用的字节数（符号码 + int8 码 + 缩放系数 + 标签）
+     */
+    public int bytesPerVector() {
+        return words * Long.BYTES + dimensions + Float.BYTES + Long.BYTES;
+    }
+
+    public synchronized int add(float[] vector, long label) {
+        checkDimensions(vector);
+        int node = size;
+        ensureCapacity(node);
+        int page = node >>> PAGE_BITS;
+        int offset = node & PAGE_MASK;
+
+        encodeBits(vector, bitPages[page], offset * words);
+        scalePages[page][offset] = encodeInt8(vector, codePages[page], offset * dimensions);
+        labelPages[page][offset] = label;
+        size = node + 1;
+        return node;
+    }
+
+    /**
+     * 复制另一个存储中的节点（编码原样复制，不重新量化），用于重建时丢弃墓碑
+     */
+    public synchronized int copyFrom(QuantizedVectorStore source, int sourceNode) {
+        if (source.dimensions != dimensions) {
+            throw new IllegalArgumentException("Dimensions differ: " + source.dimensions + " vs " + dimensions);
+        }
+        if (sourceNode < 0 || sourceNode >= source.size) {
+            throw new IllegalArgumentException("Unknown node: " + sourceNode);
+        }
+        int node = size;
+        ensureCapacity(node);
+        int page = node >>> PAGE_BITS;
+        int offset = node & PAGE_MASK;
+        int sourcePage = sourceNode >>> PAGE_BITS;
+        int sourceOffset = sourceNode & PAGE_MASK;
+
+        System.arraycopy(source.bitPages[sourcePage], sourceOffset * words, bitPages[page], offset * words, words);
+        System.arraycopy(source.codePages[sourcePage], sourceOffset * dimensions,
+                codePages[page], offset * dimensions, dimensions);
+        scalePages[page][offset] = source.scalePages[sourcePage][sourceOffset];
+        labelPages[page][offset] = source.labelPages[sourcePage][sourceOffset];
+        size = node + 1;
+        return node;
+    }
+
+    public synchronized void markDeleted(int node) {
+        if (node < 0 || node >= size) {
+            throw new IllegalArgumentException("Unknown node: " + node);
+        }
+        long[] page = deletedPages[node >>> PAGE_BITS];
+        int word = (node & PAGE_MASK) >>> 6;
+        long bit = 1L << (node & 63);
+        long previous = (long) LONGS.getAcquire(page, word);
+        if ((previous & bit) == 0) {
+            LONGS.setRelease(page, word, previous | bit);
+            deletedCount++;
+        }
+    }
+
+    public long label(int node) {
+        return labelPages[node >>> PAGE_BITS][node & PAGE_MASK];
+    }
+
+    /**
+     * 三级检索，最终分数为全精度余弦相似度
+     */
+    public List<Result> search(float[] query, int k, double minSimilarity, FullPrecisionSource source) {
+        return search(query, k, minSimilarity, source, null);
+    }
+
+    /**
+     * 汉明距离扫描时跳过标签不满足 filter 的节点（filter 为 null 时不过滤）
+     */
+    public List<Result> search(float[] query, int k, double minSimilarity, FullPrecisionSource source,
+                               LongPredicate filter) {
+        checkDimensions(query);
+        if (k <= 0) {
+            return List.of();
+        }
+        int[] candidates = binaryPass(query, k * binaryOversample, null, size, filter);
+        int[] shortlist = int8Pass(query, candidates, k * rerankOversample);
+        return rerank(query, shortlist, k, minSimilarity, source);
+    }
+
+    /**
+     * 只在给定节点中检索，用于过滤后候选很少的场景
+     *
+     * @param nodes 候选节点，只读取前 count 个
+     */
+    public List<Result> search(float[] query, int[] nodes, int count, int k, double minSimilarity,
+                               FullPrecisionSource source) {
+        checkDimensions(query);
+        if (k <= 0) {
+            return List.of();
+        }
+        int[] candidates = binaryPass(query, k * binaryOversample, nodes, count, null);
+        int[] shortlist = int8Pass(query, candidates, k * rerankOversample);
+        return rerank(query, shortlist, k, minSimilarity, source);
+    }
+
+    /**
+     * 只用 int8 码打分（不重排），用于评估量化本身的召回损失
+     */
+    public List<Result> searchApproximate(float[] query, int k) {
+        checkDimensions(query);
+        int[] candidates = binaryPass(query, k * binaryOversample, null, size, null);
+        int[] shortlist = int8Pass(query, candidates, k);
+        List<Result> results = new ArrayList<>(shortlist.length);
+        byte[] queryCodes = new byte[dimensions];
+        float queryScale = encodeInt8(query, queryCodes, 0);
+        for (int node : shortlist) {
+            results.add(new Result(node, label(node), int8Similarity(queryCodes, queryScale, node)));
+        }
+        return results;
+    }
+
+    /**
+     * @param nodes 为 null 时扫描 [0, count) 的全部节点，否则只扫描 nodes 的前 count 个
+     */
+    private int[] binaryPass(float[] query, int limit, int[] nodes, int count, LongPredicate filter) {
+        long[] queryBits = new long[words];
+        encodeBits(query, queryBits, 0);
+
+        long[][] bits = bitPages;
+        // 最小堆，堆顶是当前保留的最差候选；分数取 -汉明距离
+        FloatIntHeap heap = new FloatIntHeap(limit + 1, false);
+        for (int i = 0; i < count; i++) {
+            int node = nodes == null ? i : nodes[i];
+            if (isDeleted(node) || (filter != null && !filter.test(label(node)))) {
+                continue;
+            }
+            long[] page = bits[node >>> PAGE_BITS];
+            int base = (node & PAGE_MASK) * words;
+            int distance = 0;
+            for (int w = 0; w < words; w++) {
+                distance += Long.bitCount(page[base + w] ^ queryBits[w]);
+            }
+            float score = -distance;
+            if (heap.size() < limit) {
+                heap.push(node, score);
+            } else if (score > heap.peekScore()) {
+                heap.pop();
+                heap.push(node, score);
+            }
+        }
+        int[] candidates = new int[heap.size()];
+        heap.drainDescending(candidates, new float[candidates.length]);
+        return candidates;
+    }
+
+    private int[] int8Pass(float[] query, int[] candidates, int limit) {
+        if (candidates.length <= limit) {
+            return candidates;
+        }
+        byte[] queryCodes = new byte[dimensions];
+        float queryScale = encodeInt8(query, queryCodes, 0);
+
+        FloatIntHeap heap = new FloatIntHeap(limit + 1, false);
+        for (int node : candidates) {
+            float score = int8Similarity(queryCodes, queryScale, node);
+            if (heap.size() < limit) {
+                heap.push(node, score);
+            } else if (score > heap.peekScore()) {
+                heap.pop();
+                heap.push(node, score);
+            }
+        }
+        int[] nodes = new int[heap.size()];
+        heap.drainDescending(nodes, new float[nodes.length]);
+        return nodes;
+    }
+
+    private List<Result> rerank(float[] query, int[] shortlist, int k, double minSimilarity,
+                                FullPrecisionSource source) {
+        long[] labels = new long[shortlist.length];
+        for (int i = 0; i < shortlist.length; i++) {
+            labels[i] = label(shortlist[i]);
+        }
+        float[][] vectors = source.fetch(labels);
+
+        float queryNorm = VectorMath.norm(query);
+        FloatIntHeap heap = new FloatIntHeap(shortlist.length + 1, false);
+        for (int i = 0; i < shortlist.length; i++) {
+            float[] vector = vectors[i];
+            if (vector == null || vector.length != dimensions) {
+                continue;
+            }
+            float similarity = VectorMath.cosine(query, queryNorm, vector, VectorMath.norm(vector));
+            if (!Float.isNaN(similarity)) {
+                heap.push(i, similarity);
+            }
+        }
+
+        int[] order = new int[heap.size()];
+        float[] scores = new float[order.length];
+        int count = heap.drainDescending(order, scores);
+        List<Result> results = new ArrayList<>(Math.min(k, count));
+        for (int i = 0; i < count && results.size() < k && scores[i] >= minSimilarity; i++) {
+            results.add(new Result(shortlist[order[i]], labels[order[i]], scores[i]));
+        }
+        return results;
+    }
+
+    private float int8Similarity(byte[] queryCodes, float queryScale, int node) {
+        byte[] page = codePages[node >>> PAGE_BITS];
+        int base = (node & PAGE_MASK) * dimensions;
+        int dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += queryCodes[i] * page[base + i];
+        }
+        return dot * queryScale * scalePages[node >>> PAGE_BITS][node & PAGE_MASK];
+    }
+
+    private boolean isDeleted(int node) {
+        long[] page = deletedPages[node >>> PAGE_BITS];
+        return ((long) LONGS.getAcquire(page, (node & PAGE_MASK) >>> 6) & (1L << (node & 63))) != 0;
+    }
+
+    private void encodeBits(float[] vector, long[] target, int base) {
+        Arrays.fill(target, base, base + words, 0L);
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] > 0f) {
+                target[base + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+    }
+
+    /**
+     * 归一化后按最大绝对值缩放到 int8，返回还原系数（code × 系数 ≈ 归一化分量）
+     */
+    private float encodeInt8(float[] vector, byte[] target, int base) {
+        float norm = VectorMath.norm(vector);
+        float max = 0f;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        if (norm == 0f || max == 0f) {
+            Arrays.fill(target, base, base + dimensions, (byte) 0);
+            return 0f;
+        }
+        float scale = 127f / max;
+        for (int i = 0; i < dimensions; i++) {
+            target[base + i] = (byte) Math.round(vector[i] * scale);
+        }
+        return 1f / (scale * norm);
+    }
+
+    private void ensureCapacity(int node) {
+        int page = node >>> PAGE_BITS;
+        if (page < bitPages.length) {
+            return;
+        }
+        int pages = page + 1;
+        long[][] bits = Arrays.copyOf(bitPages, pages);
+        bits[page] = new long[PAGE_SIZE * words];
+        byte[][] codes = Arrays.copyOf(codePages, pages);
+        codes[page] = new byte[PAGE_SIZE * dimensions];
+        float[][] scales = Arrays.copyOf(scalePages, pages);
+        scales[page] = new float[PAGE_SIZE];
+        long[][] labels = Arrays.copyOf(labelPages, pages);
+        labels[page] = new long[PAGE_SIZE];
+        long[][] deleted = Arrays.copyOf(deletedPages, pages);
+        deleted[page] = new long[PAGE_SIZE / 64];
+
+        codePages = codes;
+        scalePages = scales;
+        labelPages = labels;
+        deletedPages = deleted;
+        bitPages = bits;
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.CompressedBitmap;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 基于内存映射段文件的向量检索。向量不进堆，重启后直接可用；
+ * 只读实例（read-only: true）可与同一主机上的写入实例共享同一个目录。
+ * <p>
+ * 首次启用时在后台从 paper_chunk 表导入，完成后在段文件头部记下标记；导入失败或进程中途退出时，
+ * 下次（失败后退避重试，或重启后）从已导入的部分继续。
+ * <p>
+ * 本身就是逐行扫描，过滤条件直接在扫描中生效：分数足以进入 top-k 的行再查论文过滤位图。
+ * <p>
+ * 删除只在侧表打标记。已删除行数达到 rebuild-min-deleted 且占比超过 rebuild-deleted-ratio 时，
+ * 在后台把存活行压缩到新文件并切换过去；压缩期间写入等待，检索继续使用旧段。
+ * 只读实例在检索时发现段文件已被替换就重新打开。
+ */
+@Component
+@ConditionalOnProperty(name = "scholar-ai.vector-search.type", havingValue = "segment")
+@Slf4j
+public class SegmentVectorSearchAdapter implements VectorSearchPort {
+
+    private static final long INITIAL_RETRY_DELAY_MS = 30_000;
+    private static final long MAX_RETRY_DELAY_MS = 600_000;
+
+    private final Path directory;
+    private final int dimensions;
+    private final LoadChunkPort loadChunkPort;
+    private final PaperOrdinals ordinals;
+    private final PaperFilterIndex filterIndex;
+    private final boolean readOnly;
+    private final int compactMinDeleted;
+    private final double compactDeletedRatio;
+
+    private volatile EmbeddingSegment segment;
+
+    // 写入之间共享，压缩时独占
+    private final ReentrantReadWriteLock compactLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ReentrantLock reopenLock = new ReentrantLock();
+
+    private final Set<PaperId> updatedDuringImport = ConcurrentHashMap.newKeySet();
+    private volatile boolean importing;
+    private volatile boolean closed;
+
+    public SegmentVectorSearchAdapter(LoadChunkPort loadChunkPort,
+                                      PaperOrdinals ordinals,
+                                      PaperFilterIndex filterIndex,
+                                      @Value("${scholar-ai.vector-search.segment.dir:./data/vector-segment}") String dir,
+                                      @Value("${scholar-ai.vector-search.segment.dimensions:1536}") int dimensions,
+                                      @Value("${scholar-ai.vector-search.segment.read-only:false}") boolean readOnly,
+                                      @Value("${scholar-ai.vector-search.rebuild.min-deleted:10000}") int compactMinDeleted,
+                                      @Value("${scholar-ai.vector-search.rebuild.deleted-ratio:0.25}") double compactDeletedRatio) {
+        if (compactMinDeleted < 0 || !(compactDeletedRatio > 0.0 && compactDeletedRatio <= 1.0)) {
+            throw new IllegalArgumentException("rebuild-min-deleted must be >= 0 and rebuild-deleted-ratio in (0, 1]");
+        }
+        this.directory = Path.of(dir).toAbsolutePath().normalize();
+        this.dimensions = dimensions;
+        try {
+            this.segment = EmbeddingSegment.open(directory, dimensions, !readOnly);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open embedding segment in " + dir, e);
+        }
+        this.compactMinDeleted = compactMinDeleted;
+        this.compactDeletedRatio = compactDeletedRatio;
+        this.loadChunkPort = loadChunkPort;
+        this.ordinals = ordinals;
+        this.filterIndex = filterIndex;
+        this.readOnly = readOnly;
+        log.info("🧭 [Segment] Opened {} ({} rows, {})", dir, segment.size(), readOnly ? "read-only" : "writer");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importIfIncomplete() {
+        if (readOnly || segment.isImported()) {
+            return;
+        }
+        importing = true;
+        Thread.ofVirtual().name("segment-import").start(() -> {
+            try {
+                long delayMs = INITIAL_RETRY_DELAY_MS;
+                while (!closed && !importOnce()) {
+                    log.warn("⚠️ [Segment] Retrying import in {} s", delayMs / 1000);
+                    Thread.sleep(delayMs);
+                    delayMs = Math.min(delayMs * 2, MAX_RETRY_DELAY_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                importing = false;
+                updatedDuringImport.clear();
+            }
+        });
+    }
+
+    /**
+     * 导入 paper_chunk 中段文件里还没有的向量。段文件里已有的 (论文, 文本块) 不再重复追加，
+     * 因此中途失败或进程重启后再次执行就是从断点继续；全部导入后才在头部写入完成标记。
+     *
+     * @return 是否导入完成
+     */
+    private boolean importOnce() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<PaperId, BitSet> present = new HashMap<>();
+            int existing;
+            compactLock.readLock().lock();
+            try {
+                segment.forEachLiveRow((row, paperId, chunkIndex) ->
+                        present.computeIfAbsent(paperId, id -> new BitSet()).set(chunkIndex));
+                existing = segment.size();
+            } finally {
+                compactLock.readLock().unlock();
+            }
+            loadChunkPort.forEachEmbedding((paperId, chunkIndex, vector) -> {
+                if (updatedDuringImport.contains(paperId)) {
+                    return;
+                }
+                BitSet chunks = present.get(paperId);
+                if (chunks == null || !chunks.get(chunkIndex)) {
+                    compactLock.readLock().lock();
+                    try {
+                        segment.append(paperId, chunkIndex, vector);
+                    } finally {
+                        compactLock.readLock().unlock();
+                    }
+                }
+            });
+            compactLock.readLock().lock();
+            try {
+                segment.markImported();
+            } finally {
+                compactLock.readLock().unlock();
+            }
+            log.info("🧭 [Segment] Imported {} vectors ({} already present) in {} ms",
+                    segment.size() - existing, existing, System.currentTimeMillis() - start);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("❌ [Segment] Import failed after {} rows, will resume from there", segment.size(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public List<VectorMatch> search(float[] query, int topK, double minSimilarity, SearchFilter filter) {
+        CompressedBitmap papers = filterIndex.resolve(filter);
+        if (papers != null && papers.isEmpty()) {
+            return List.of();
+        }
+        EmbeddingSegment current = currentSegment();
+        IntPredicate rowFilter = papers == null ? null : row -> {
+            int ordinal = ordinals.find(current.paperId(row));
+            return ordinal >= 0 && papers.contains(ordinal);
+        };
+        return current.search(query, topK, minSimilarity, rowFilter).stream()
+                .map(hit -> new VectorMatch(hit.paperId(), hit.chunkIndex(), hit.similarity()))
+                .toList();
+    }
+
+    @Override
+    public void index(PaperId paperId, List<Embedding> embeddings) {
+        if (readOnly) {
+            return;
+        }
+        markUpdated(paperId);
+        compactLock.readLock().lock();
+        try {
+            for (Embedding embedding : embeddings) {
+                segment.append(paperId, embedding.chunkIndex(), embedding.vector());
+            }
+        } finally {
+            compactLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(PaperId paperId) {
+        if (readOnly) {
+            return;
+        }
+        markUpdated(paperId);
+        boolean compactionDue;
+        compactLock.readLock().lock();
+        try {
+            EmbeddingSegment current = segment;
+            int[] rows = current.rowsOf(paperId);
+            for (int row : rows) {
+                current.markDeleted(row);
+            }
+            if (rows.length > 0) {
+                log.debug("🧭 [Segment] Removed {} vectors of paper {}", rows.length, paperId);
+            }
+            int deleted = current.deletedCount();
+            compactionDue = deleted >= compactMinDeleted && deleted > compactDeletedRatio * current.size();
+        } finally {
+            compactLock.readLock().unlock();
+        }
+        if (compactionDue && !closed && compacting.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("segment-compact").start(() -> {
+                try {
+                    compact();
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * 段文件中的行数（含已删除）
+     */
+    final int size() {
+        return segment.size();
+    }
+
+    final int deletedCount() {
+        compactLock.readLock().lock();
+        try {
+            return segment.deletedCount();
+        } finally {
+            compactLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 把存活行压缩到新文件并切换过去。失败时继续使用当前段，下次删除后再尝试。
+     */
+    final void compact() {
+        compactLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            EmbeddingSegment old = segment;
+            int before = old.size();
+            segment = old.compact();
+            old.close();
+            log.info("♻️ [Segment] Compacted deleted rows: {} -> {} rows in {} ms",
+                    before, segment.size(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ [Segment] Compaction failed, keeping the current files", e);
+        } finally {
+            compactLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        compactLock.writeLock().lock();
+        try {
+            closed = true;
+            if (!readOnly) {
+                segment.force();
+            }
+            segment.close();
+        } finally {
+            compactLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 只读实例发现写入方已压缩替换了文件时重新打开；旧段关闭前已映射全部区域，进行中的检索不受影响
+     */
+    private EmbeddingSegment currentSegment() {
+        EmbeddingSegment current = segment;
+        if (!readOnly || !current.isSuperseded()) {
+            return current;
+        }
+        reopenLock.lock();
+        try {
+            current = segment;
+            if (current.isSuperseded() && !closed) {
+                segment = EmbeddingSegment.open(directory, dimensions, false);
+                current.close();
+                log.info("🧭 [Segment] Reopened {} after compaction ({} rows)", directory, segment.size());
+            }
+            return segment;
+        } catch (IOException e) {
+            log.warn("⚠️ [Segment] Could not reopen {}, searching the replaced files", directory, e);
+            return current;
+        } finally {
+            reopenLock.unlock();
+        }
+    }
+
+    private void markUpdated(PaperId paperId) {
+        if (importing) {
+            updatedDuringImport.add(paperId);
+        }
+    }
+}
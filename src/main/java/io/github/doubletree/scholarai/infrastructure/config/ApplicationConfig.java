@@ -1,5 +1,9 @@
 package io.github.doubletree.scholarai.infrastructure.config;
 
+import io.github.doubletree.scholarai.domain.service.CitationExtractor;
+import io.github.doubletree.scholarai.domain.service.TextChunker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -8,4 +12,16 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableJpaRepositories(basePackages = "io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.repository")
 @EnableTransactionManagement
 public class ApplicationConfig {
+
+    @Bean
+    public TextChunker textChunker(@Value("${scholar-ai.processing.chunk-size:1000}") int chunkSize,
+                                   @Value("${scholar-ai.processing.chunk-overlap:200}") int chunkOverlap) {
+        return new TextChunker(chunkSize, chunkOverlap);
+    }
+
+    @Bean
+    public CitationExtractor citationExtractor(@Value("${scholar-ai.citations.max-references:2000}") int maxReferences,
+                                               @Value("${scholar-ai.citations.max-in-text-markers:20000}") int maxMarkers) {
+        return new CitationExtractor(maxReferences, maxMarkers);
+    }
 }
@@ -0,0 +1,90 @@
+-- Tables not managed by Hibernate (written through plain JDBC).
+-- Executed after Hibernate DDL (spring.jpa.defer-datasource-initialization=true).
+
+CREATE EXTENSION IF NOT EXISTS vector;
+
+CREATE TABLE IF NOT EXISTS paper_chunk (
+    paper_id        UUID         NOT NULL REFERENCES paper (id) ON DELETE CASCADE,
+    chunk_index     INT          NOT NULL,
+    content         TEXT         NOT NULL,
+    start_position  INT          NOT NULL,
+    end_position    INT          NOT NULL,
+    page_number     INT          NOT NULL DEFAULT 0,
+    embedding       vector(1536),
+    embedding_model VARCHAR(100),
+    PRIMARY KEY (paper_id, chunk_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_paper_chunk_embedding
+    ON paper_chunk USING hnsw (embedding vector_cosine_ops);
+
+-- Full text lives outside the paper row: zstd-compressed UTF-8 plus per-page start offsets (in chars).
+CREATE TABLE IF NOT EXISTS paper_text (
+    paper_id     UUID        PRIMARY KEY REFERENCES paper (id) ON DELETE CASCADE,
+    codec        VARCHAR(16) NOT NULL,
+    raw_bytes    INT         NOT NULL,
+    char_count   INT         NOT NULL,
+    page_offsets INT[]       NOT NULL,
+    content      BYTEA       NOT NULL
+);
+
+-- Already compressed: store out of line without another pglz pass.
+ALTER TABLE paper_text ALTER COLUMN content SET STORAGE EXTERNAL;
+
+-- paper.full_text was never populated (uploads store null, analysis streams pages); drop the leftover column.
+ALTER TABLE paper DROP COLUMN IF EXISTS full_text;
+
+-- Keyword search: weighted tsvector over title (A), authors (B) and abstract (C), kept in sync by Postgres.
+-- array_to_string is only STABLE, so wrap it to use it in a generated column (the text[] input has no locale dependence).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION paper_authors_text(authors TEXT[]) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+    AS 'SELECT array_to_string(authors, '' '')';
+
+ALTER TABLE paper ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(paper_authors_text(authors), '')), 'B') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(abstract_text, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_paper_search_vector ON paper USING gin (search_vector);
+
+-- Fuzzy title matching (typos, partial words) via word_similarity / <%.
+CREATE INDEX IF NOT EXISTS idx_paper_title_trgm ON paper USING gin (lower(title) gin_trgm_ops);
+
+-- One paper per file content, enforced by the database so concurrent uploads of the same bytes cannot both insert.
+-- Older duplicates (from before the constraint) keep their file but give up the hash; lookups always returned
+-- the earliest upload anyway.
+UPDATE paper p SET content_hash = NULL
+WHERE content_hash IS NOT NULL
+  AND EXISTS (SELECT 1 FROM paper q
+              WHERE q.content_hash = p.content_hash AND (q.uploaded_at, q.id) < (p.uploaded_at, p.id));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_paper_content_hash ON paper (content_hash) WHERE content_hash IS NOT NULL;
+DROP INDEX IF EXISTS idx_papers_content_hash;
+
+-- Orphan file sweep: which stored files are still referenced.
+CREATE INDEX IF NOT EXISTS idx_paper_file_name ON paper (file_name);
+
+-- Citations extracted during analysis: reference-list entries and in-text markers, in document order.
+CREATE TABLE IF NOT EXISTS paper_citation (
+    paper_id       UUID        NOT NULL REFERENCES paper (id) ON DELETE CASCADE,
+    citation_index INT         NOT NULL,
+    type           VARCHAR(20) NOT NULL,
+    raw_text       TEXT        NOT NULL,
+    authors        TEXT[]      NOT NULL,
+    year           INT,
+    title          TEXT,
+    venue          TEXT,
+    doi            TEXT,
+    page_number    INT         NOT NULL DEFAULT 0,
+    PRIMARY KEY (paper_id, citation_index)
+);
+
+-- Match keys for linking reference-list entries to papers in the library (see CitationKeys).
+ALTER TABLE paper_citation ADD COLUMN IF NOT EXISTS doi_key TEXT;
+ALTER TABLE paper_citation ADD COLUMN IF NOT EXISTS title_key TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_paper_citation_doi_key ON paper_citation (doi_key) WHERE doi_key IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_paper_citation_title_key ON paper_citation (title_key) WHERE title_key IS NOT NULL;
@@ -0,0 +1,192 @@
+package io.github.doubletree.scholarai.application.pipeline;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.PaperAnalysis;
+import io.github.doubletree.scholarai.domain.model.PaperMetadata;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.in.AnalyzePaperUseCase.AnalysisFailedException;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.port.out.CitationGraphPort;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.FullTextPort;
+import io.github.doubletree.scholarai.domain.port.out.LexicalSearchPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveAnalysisPort;
+import io.github.doubletree.scholarai.domain.port.out.SaveCitationPort;
+import io.github.doubletree.scholarai.domain.port.out.SavePaperPort;
+import io.github.doubletree.scholarai.domain.port.out.TextExtractionPort;
+import io.github.doubletree.scholarai.domain.port.out.VectorSearchPort;
+import io.github.doubletree.scholarai.domain.service.CitationExtractor;
+import io.github.doubletree.scholarai.domain.service.TextChunker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 某个批次失败时，仍在运行的批次要先结束，清理才能执行，否则清理过的文本块会被重新写回；
+ * 停机时未完成的论文重置为 PENDING，不触发失败清理。
+ */
+class AnalysisPipelineTest {
+
+    private static final String FILE_NAME = "ab/abcdef.pdf";
+    private static final String PAGE = "alpha beta gamma delta epsilon zeta eta theta iota kappa lambda mu. ".repeat(3);
+
+    private final TextExtractionPort textExtractionPort = mock(TextExtractionPort.class);
+    private final EmbeddingPort embeddingPort = mock(EmbeddingPort.class);
+    private final SaveAnalysisPort saveAnalysisPort = mock(SaveAnalysisPort.class);
+    private final SaveCitationPort saveCitationPort = mock(SaveCitationPort.class);
+    private final CitationGraphPort citationGraphPort = mock(CitationGraphPort.class);
+    private final SavePaperPort savePaperPort = mock(SavePaperPort.class);
+    private final VectorSearchPort vectorSearchPort = mock(VectorSearchPort.class);
+    private final LexicalSearchPort lexicalSearchPort = mock(LexicalSearchPort.class);
+    private final FullTextPort fullTextPort = mock(FullTextPort.class);
+    private final AnswerCachePort answerCachePort = mock(AnswerCachePort.class);
+
+    private AnalysisPipeline pipeline;
+    private Paper paper;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new AnalysisPipeline(textExtractionPort, new TextChunker(60, 0), new CitationExtractor(100, 100),
+                embeddingPort, saveAnalysisPort, saveCitationPort, citationGraphPort, savePaperPort,
+                vectorSearchPort, lexicalSearchPort, fullTextPort, answerCachePort, 16, 1, 2, 1, 1);
+        pipeline.start();
+        paper = Paper.create("Okapi at TREC", List.of("Robertson"), null, null, null, null)
+                .withMetadata(new PaperMetadata(null, FILE_NAME, 1L, "application/pdf", null,
+                        LocalDateTime.now(), null, PaperMetadata.ProcessingStatus.PENDING, Map.of()));
+        when(savePaperPort.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fullTextPort.openWriter(any())).thenReturn(mock(FullTextPort.TextWriter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void failureWaitsForInFlightBatchesBeforeCleaningUp() throws Exception {
+        givenPages(3);
+        CountDownLatch persisting = new CountDownLatch(1);
+        CountDownLatch resumePersist = new CountDownLatch(1);
+        // 第一批落库时阻塞，第二批在第一批开始落库之后向量化失败
+        when(embeddingPort.embed(anyList())).thenAnswer(invocation -> {
+            List<TextChunk> chunks = invocation.getArgument(0);
+            if (chunks.get(0).chunkIndex() == 1) {
+                persisting.await();
+                throw new IllegalStateException("embedding service unavailable");
+            }
+            return chunks.stream().map(chunk -> new Embedding(new float[]{1f, 0f}, 2, "stub", chunk.chunkIndex()))
+                    .toList();
+        });
+        doAnswer(invocation -> {
+            persisting.countDown();
+            resumePersist.await();
+            return null;
+        }).when(saveAnalysisPort).saveChunks(eq(paper.id()), anyList(), anyList());
+
+        CompletableFuture<PaperAnalysis.AnalysisMetrics> result = pipeline.submit(paper);
+        assertThat(persisting.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(embeddingPort, timeout(5_000).atLeast(2)).embed(anyList());
+
+        // 第一批还没有写完，不能清理，也不能提前结束 future
+        Thread.sleep(50);
+        assertThat(result).isNotDone();
+        verify(saveAnalysisPort, times(1)).deleteChunks(paper.id());
+        verify(saveCitationPort, never()).deleteCitations(paper.id());
+
+        resumePersist.countDown();
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AnalysisFailedException.class)
+                .hasRootCauseMessage("embedding service unavailable");
+
+        InOrder order = inOrder(saveAnalysisPort, saveCitationPort);
+        order.verify(saveAnalysisPort).saveChunks(eq(paper.id()), anyList(), anyList());
+        order.verify(saveAnalysisPort).deleteChunks(paper.id());
+        order.verify(saveCitationPort).deleteCitations(paper.id());
+        // 失败之后写完的批次不再建索引
+        verify(vectorSearchPort, never()).index(any(), anyList());
+        assertThat(lastSavedStatus()).isEqualTo(PaperMetadata.ProcessingStatus.FAILED);
+    }
+
+    @Test
+    void successfulAnalysisPersistsEveryBatchBeforeCompleting() throws Exception {
+        givenPages(2);
+        when(embeddingPort.embed(anyList())).thenAnswer(invocation -> {
+            List<TextChunk> chunks = invocation.getArgument(0);
+            return chunks.stream().map(chunk -> new Embedding(new float[]{1f, 0f}, 2, "stub", chunk.chunkIndex()))
+                    .toList();
+        });
+
+        PaperAnalysis.AnalysisMetrics metrics = pipeline.submit(paper).get(5, TimeUnit.SECONDS);
+
+        assertThat(metrics.pageCount()).isEqualTo(2);
+        assertThat(metrics.chunkCount()).isGreaterThan(2);
+        verify(saveAnalysisPort, times(metrics.chunkCount())).saveChunks(eq(paper.id()), anyList(), anyList());
+        verify(lexicalSearchPort, times(metrics.chunkCount())).index(eq(paper.id()), anyList());
+        verify(saveAnalysisPort, times(1)).deleteChunks(paper.id());
+        assertThat(lastSavedStatus()).isEqualTo(PaperMetadata.ProcessingStatus.COMPLETED);
+    }
+
+    @Test
+    void shutdownResetsUnfinishedPapersToPending() throws Exception {
+        CountDownLatch extracting = new CountDownLatch(1);
+        when(textExtractionPort.extractPages(eq(FILE_NAME), any())).thenAnswer(invocation -> {
+            extracting.countDown();
+            new CountDownLatch(1).await();
+            return 0;
+        });
+
+        CompletableFuture<PaperAnalysis.AnalysisMetrics> result = pipeline.submit(paper);
+        assertThat(extracting.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.shutdown();
+
+        assertThat(result).isCancelled();
+        assertThat(lastSavedStatus()).isEqualTo(PaperMetadata.ProcessingStatus.PENDING);
+        // 被中断的任务不走失败清理
+        Thread.sleep(50);
+        verify(saveCitationPort, never()).deleteCitations(paper.id());
+        assertThat(lastSavedStatus()).isEqualTo(PaperMetadata.ProcessingStatus.PENDING);
+    }
+
+    private void givenPages(int pages) throws InterruptedException {
+        when(textExtractionPort.extractPages(eq(FILE_NAME), any())).thenAnswer(invocation -> {
+            TextExtractionPort.PageConsumer consumer = invocation.getArgument(1);
+            for (int page = 1; page <= pages; page++) {
+                consumer.accept(page, PAGE);
+            }
+            return pages;
+        });
+    }
+
+    private PaperMetadata.ProcessingStatus lastSavedStatus() {
+        ArgumentCaptor<Paper> saved = ArgumentCaptor.forClass(Paper.class);
+        verify(savePaperPort, atLeast(1)).save(saved.capture());
+        return saved.getValue().metadata().status();
+    }
+}
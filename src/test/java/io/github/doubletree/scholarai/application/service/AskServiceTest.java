@@ -0,0 +1,187 @@
+package io.github.doubletree.scholarai.application.service;
+
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.port.out.ChatPort;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AskServiceTest {
+
+    private static final int MAX_CONTEXT_TOKENS = 10;
+    private static final String QUESTION = "How is BM25 scored?";
+    private static final float[] QUERY_VECTOR = {0.1f, 0.2f, 0.3f};
+
+    @Mock
+    private RetrievalService retrievalService;
+    @Mock
+    private EmbeddingPort embeddingPort;
+    @Mock
+    private AnswerCachePort answerCachePort;
+    @Mock
+    private LoadPaperPort loadPaperPort;
+    @Mock
+    private ChatPort chatPort;
+
+    private AskService askService;
+    private Paper paper;
+
+    @BeforeEach
+    void setUp() {
+        askService = new AskService(retrievalService, embeddingPort, answerCachePort, loadPaperPort, chatPort,
+                MAX_CONTEXT_TOKENS);
+        paper = Paper.create("Okapi at TREC", List.of("Robertson"), null, null, null, null);
+        when(retrievalService.checkRequest(QUESTION, null)).thenReturn(5);
+        when(embeddingPort.embedQuery(QUESTION)).thenReturn(QUERY_VECTOR);
+        when(answerCachePort.epoch()).thenReturn(7L);
+    }
+
+    @Test
+    void packsChunksInRankOrderUntilTokenBudgetIsSpent() {
+        // 每 4 个字符约 1 个 token：前两块共 8 个 token，第三块放不下，其后更短的块也不再装入
+        RetrievedChunk first = chunk(0, "aaaaaaaaaaaaaaaa");
+        RetrievedChunk second = chunk(1, "bbbbbbbbbbbbbbbb");
+        RetrievedChunk third = chunk(2, "cccccccccccccccc");
+        RetrievedChunk fourth = chunk(3, "dddd");
+        givenCacheMissAndRetrieved(List.of(first, second, third, fourth));
+
+        AskService.PreparedAnswer prepared = askService.prepare(null, QUESTION, null, null);
+
+        assertThat(prepared.isCached()).isFalse();
+        assertThat(prepared.sources()).containsExactly(first, second);
+        assertThat(prepared.userPrompt())
+                .contains("[1] Okapi at TREC, p. 1\naaaaaaaaaaaaaaaa")
+                .contains("[2] Okapi at TREC, p. 2\nbbbbbbbbbbbbbbbb")
+                .doesNotContain("cccc")
+                .doesNotContain("dddd")
+                .endsWith("Question:\n" + QUESTION);
+        assertThat(prepared.cacheEpoch()).isEqualTo(7L);
+        // 同一篇论文的标题只查一次
+        verify(loadPaperPort, times(1)).load(paper.id());
+    }
+
+    @Test
+    void truncatesFirstChunkThatAloneExceedsBudget() {
+        String content = "x".repeat(MAX_CONTEXT_TOKENS * 4) + "y".repeat(60);
+        givenCacheMissAndRetrieved(List.of(chunk(0, content), chunk(1, "zzzz")));
+
+        AskService.PreparedAnswer prepared = askService.prepare(null, QUESTION, null, null);
+
+        assertThat(prepared.sources()).hasSize(1);
+        assertThat(prepared.userPrompt())
+                .contains("x".repeat(MAX_CONTEXT_TOKENS * 4))
+                .doesNotContain("y")
+                .doesNotContain("zzzz");
+    }
+
+    @Test
+    void emptyRetrievalStillProducesPrompt() {
+        givenCacheMissAndRetrieved(List.of());
+
+        AskService.PreparedAnswer prepared = askService.prepare(null, QUESTION, null, null);
+
+        assertThat(prepared.sources()).isEmpty();
+        assertThat(prepared.userPrompt()).startsWith("Context: (no relevant passages found)");
+    }
+
+    @Test
+    void cacheHitSkipsRetrievalAndModel() {
+        RetrievedChunk source = chunk(0, "cached passage");
+        CachedAnswer cached = new CachedAnswer("BM25 saturates term frequency [1].", List.of(source), 9);
+        when(answerCachePort.find(any(), eq(QUERY_VECTOR))).thenReturn(Optional.of(cached));
+
+        AskService.PreparedAnswer prepared = askService.prepare(null, QUESTION, null, null);
+
+        assertThat(prepared.isCached()).isTrue();
+        assertThat(prepared.userPrompt()).isNull();
+        assertThat(prepared.sources()).containsExactly(source);
+        verify(retrievalService, never()).retrieve(anyString(), any(), anyInt(), any());
+        verifyNoInteractions(loadPaperPort);
+
+        RecordingListener listener = new RecordingListener();
+        askService.stream(prepared, listener);
+
+        assertThat(listener.tokens).containsExactly(cached.answer());
+        assertThat(listener.completed.tokens()).isEqualTo(9);
+        verifyNoInteractions(chatPort);
+    }
+
+    @Test
+    void completedAnswerIsCachedWithPrepareEpoch() {
+        givenCacheMissAndRetrieved(List.of(chunk(0, "passage")));
+        AskService.PreparedAnswer prepared = askService.prepare(null, QUESTION, null, null);
+        ArgumentCaptor<ChatPort.TokenListener> model = ArgumentCaptor.forClass(ChatPort.TokenListener.class);
+        when(chatPort.stream(eq(AskService.SYSTEM_PROMPT), eq(prepared.userPrompt()), model.capture()))
+                .thenReturn(() -> {
+                });
+
+        RecordingListener listener = new RecordingListener();
+        askService.stream(prepared, listener);
+        model.getValue().onToken("Term");
+        model.getValue().onToken(" saturation.");
+        model.getValue().onComplete(new ChatPort.StreamStats(5, 2, 20));
+
+        assertThat(listener.tokens).containsExactly("Term", " saturation.");
+        ArgumentCaptor<CachedAnswer> answer = ArgumentCaptor.forClass(CachedAnswer.class);
+        verify(answerCachePort).put(eq(prepared.scope()), eq(QUERY_VECTOR), answer.capture(), eq(7L));
+        assertThat(answer.getValue().answer()).isEqualTo("Term saturation.");
+        assertThat(answer.getValue().sources()).isEqualTo(prepared.sources());
+    }
+
+    private void givenCacheMissAndRetrieved(List<RetrievedChunk> retrieved) {
+        when(answerCachePort.find(any(), eq(QUERY_VECTOR))).thenReturn(Optional.empty());
+        when(retrievalService.retrieve(QUESTION, QUERY_VECTOR, 5, SearchFilter.NONE)).thenReturn(retrieved);
+        if (!retrieved.isEmpty()) {
+            when(loadPaperPort.load(paper.id())).thenReturn(Optional.of(paper));
+        }
+    }
+
+    private RetrievedChunk chunk(int index, String content) {
+        return new RetrievedChunk(paper.id(), index, index + 1, content, 1.0 / (index + 1), index + 1, 0);
+    }
+
+    private static final class RecordingListener implements ChatPort.TokenListener {
+        final List<String> tokens = new ArrayList<>();
+        ChatPort.StreamStats completed;
+
+        @Override
+        public void onToken(String text) {
+            tokens.add(text);
+        }
+
+        @Override
+        public void onComplete(ChatPort.StreamStats stats) {
+            completed = stats;
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            throw new AssertionError("Unexpected stream error", error);
+        }
+    }
+}
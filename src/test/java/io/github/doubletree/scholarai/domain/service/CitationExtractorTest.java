@@ -0,0 +1,134 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 逐页喂入完整文档：参考文献区的定位与结束、三种条目样式的切分、跨行与跨页条目、连字符断词，
+ * 以及正文标记与参考文献区内编号的区分
+ */
+class CitationExtractorTest {
+
+    private final CitationExtractor extractor = new CitationExtractor(100, 100);
+
+    @Test
+    void bracketNumberedEntriesSpanningLinesAndPages() {
+        CitationExtractor.Result result = extract(
+                "1 Introduction\nDense retrieval [1] beats BM25 [2, 3] on open-domain QA [1-3].\nWe follow [3].\n",
+                "R EFERENCES\n"
+                        + "[1] V. Karpukhin, B. Oguz, S. Min, P. Lewis, L. Wu, S. Edunov, D. Chen, and\n"
+                        + "W. Yih, \"Dense passage retrieval for open-domain question answering,\"\n"
+                        + "in Proc. EMNLP, 2020, pp. 6769-6781.\n"
+                        + "[2] S. E. Robertson and H. Zaragoza. The probabilistic relevance frame-\n"
+                        + "work: BM25 and beyond. Foundations and Trends in Information Retrieval,\n"
+                        + "3(4):333-389, 2009.\n"
+                        + "7\n",
+                "[3] J. Johnson, M. Douze, and H. Jégou, \"Billion-scale similarity search with\n"
+                        + "GPUs,\" IEEE Trans. Big Data, vol. 7, no. 3, pp. 535-547, 2021,\n"
+                        + "doi: 10.1109/TBDATA.2019.2921572.\n"
+                        + "Appendix A\n"
+                        + "More text [4] here.\n");
+
+        assertThat(result.references()).hasSize(3);
+        Citation first = result.references().get(0);
+        assertThat(first.authors()).hasSize(8).endsWith("W. Yih");
+        assertThat(first.title()).isEqualTo("Dense passage retrieval for open-domain question answering");
+        assertThat(first.year()).isEqualTo(2020);
+        assertThat(first.pageNumber()).isEqualTo(2);
+        // 行尾连字符断开的 "frame-work" 重新拼接，单独一行的页码被跳过
+        Citation second = result.references().get(1);
+        assertThat(second.title()).isEqualTo("The probabilistic relevance framework: BM25 and beyond");
+        assertThat(second.citationText()).doesNotContain(" 7 ");
+        Citation third = result.references().get(2);
+        assertThat(third.title()).isEqualTo("Billion-scale similarity search with GPUs");
+        assertThat(third.doi()).isEqualTo("10.1109/TBDATA.2019.2921572");
+        assertThat(third.pageNumber()).isEqualTo(3);
+
+        // 参考文献区里的 [1] [2] [3] 不是正文引用；附录结束了参考文献区，其中的 [4] 保留
+        assertThat(result.inTextMarkers()).extracting(Citation::citationText)
+                .containsExactly("[1]", "[2, 3]", "[1-3]", "[3]", "[4]");
+        assertThat(result.inTextMarkers()).extracting(Citation::pageNumber).containsExactly(1, 1, 1, 1, 3);
+    }
+
+    @Test
+    void authorYearEntriesSplitOnSurnameAndBlankLines() {
+        CitationExtractor.Result result = extract(
+                "Prior work (Robertson and Zaragoza, 2009) and Malkov and Yashunin (2020) matter.\n\nReferences\n\n",
+                "Malkov, Y. A., & Yashunin, D. A. (2020). Efficient and robust approximate\n"
+                        + "nearest neighbor search using hierarchical navigable small world graphs. IEEE\n"
+                        + "Transactions on Pattern Analysis and Machine Intelligence, 42(4), 824-836.\n"
+                        + "https://doi.org/10.1109/TPAMI.2018.2889473\n"
+                        + "Robertson, S., & Zaragoza, H. (2009). The probabilistic relevance framework:\n"
+                        + "BM25 and beyond. Foundations and Trends in Information Retrieval, 3(4),\n"
+                        + "333-389.\n"
+                        + "\n"
+                        + "Vaswani, A., Shazeer, N., Parmar, N., Uszkoreit, J., Jones, L., Gomez, A. N.,\n"
+                        + "Kaiser, L., & Polosukhin, I. (2017). Attention is all you need. In Advances\n"
+                        + "in Neural Information Processing Systems (pp. 5998-6008).\n");
+
+        assertThat(result.references()).extracting(Citation::year).containsExactly(2020, 2009, 2017);
+        assertThat(result.references()).extracting(citation -> citation.authors().getFirst())
+                .containsExactly("Y. A. Malkov", "S. Robertson", "A. Vaswani");
+        assertThat(result.references().get(0).doi()).isEqualTo("10.1109/TPAMI.2018.2889473");
+        assertThat(result.references().get(0).venue())
+                .isEqualTo("IEEE Transactions on Pattern Analysis and Machine Intelligence");
+        // 以 "Kaiser, L., &" 开头的续行不会被当成新条目：上一行没有年份
+        assertThat(result.references().get(2).authors()).hasSize(8);
+        assertThat(result.references().get(2).venue()).isEqualTo("Advances in Neural Information Processing Systems");
+        assertThat(result.references()).allSatisfy(citation -> assertThat(citation.pageNumber()).isEqualTo(2));
+
+        assertThat(result.inTextMarkers()).extracting(Citation::citationText)
+                .containsExactly("(Robertson and Zaragoza, 2009)", "Malkov and Yashunin (2020)");
+    }
+
+    @Test
+    void numberedEntriesOnlyStartAtNextSequenceNumber() {
+        CitationExtractor.Result result = extract(
+                "Text cites 2 and 3.\n\nREFERENCES\n"
+                        + "1. Lewis P, Perez E, Piktus A, et al. Retrieval-augmented generation for\n"
+                        + "knowledge-intensive NLP tasks. Adv Neural Inf Process Syst. 2020;33:9459-\n"
+                        + "9474.\n"
+                        + "2. Johnson J, Douze M, Jégou H. Billion-scale similarity search with GPUs.\n"
+                        + "IEEE Trans Big Data. 2021;7(3):535-547. doi:10.1109/TBDATA.2019.2921572\n"
+                        + "3. Manning CD, Raghavan P, Schütze H. Introduction to Information Retrieval.\n"
+                        + "Cambridge University Press; 2008.\n");
+
+        assertThat(result.references()).hasSize(3);
+        assertThat(result.references()).extracting(Citation::title).containsExactly(
+                "Retrieval-augmented generation for knowledge-intensive NLP tasks",
+                "Billion-scale similarity search with GPUs",
+                "Introduction to Information Retrieval");
+        assertThat(result.references()).extracting(Citation::year).containsExactly(2020, 2021, 2008);
+        assertThat(result.references().get(1).doi()).isEqualTo("10.1109/TBDATA.2019.2921572");
+        assertThat(result.references().get(2).authors()).containsExactly("Manning CD", "Raghavan P", "Schütze H");
+        assertThat(result.references().getFirst().citationText()).startsWith("1. Lewis P");
+        assertThat(result.inTextMarkers()).isEmpty();
+    }
+
+    @Test
+    void tableOfContentsHeadingWithoutEntriesKeepsMarkers() {
+        CitationExtractor.Result result = extract("Contents\nReferences\nIntroduction\nAs shown in [5], it works.\n");
+
+        assertThat(result.references()).isEmpty();
+        assertThat(result.inTextMarkers()).extracting(Citation::citationText).containsExactly("[5]");
+    }
+
+    @Test
+    void referenceLimitCapsEntries() {
+        CitationExtractor limited = new CitationExtractor(2, 100);
+        CitationExtractor.Session session = limited.newSession();
+        session.appendPage("References\n[1] A. Smith. One. 2001.\n[2] B. Lee. Two. 2002.\n[3] C. King. Three. 2003.\n", 1);
+
+        assertThat(session.finish().references()).extracting(Citation::year).containsExactly(2001, 2002);
+    }
+
+    private CitationExtractor.Result extract(String... pages) {
+        CitationExtractor.Session session = extractor.newSession();
+        for (int page = 0; page < pages.length; page++) {
+            session.appendPage(pages[page], page + 1);
+        }
+        return session.finish();
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 编号、括号内作者-年份和叙述式三种标记的识别，以及不应识别为标记的括号内容、跨页喂入和放弃候选后的重新开始
+ */
+class InTextMarkerScannerTest {
+
+    @Test
+    void numberedMarkers() {
+        List<Citation> markers = scan("Dense retrieval [12] and sparse methods [3-5], see also [3, 5-7], [1; 4] and [8–10].");
+
+        assertThat(markers).extracting(Citation::citationText)
+                .containsExactly("[12]", "[3-5]", "[3, 5-7]", "[1; 4]", "[8–10]");
+        assertThat(markers).allSatisfy(marker -> {
+            assertThat(marker.authors()).isEmpty();
+            assertThat(marker.year()).isNull();
+            assertThat(marker.type()).isEqualTo(Citation.CitationType.IN_TEXT);
+        });
+    }
+
+    @Test
+    void parentheticalAuthorYearMarkers() {
+        List<Citation> markers = scan("BM25 remains strong (Smith et al., 2020). Others disagree "
+                + "(Robertson and Zaragoza, 2009; Lee & Park 2019b) while (O'Neil, 2018a) agrees.");
+
+        assertThat(markers).extracting(Citation::citationText).containsExactly(
+                "(Smith et al., 2020)",
+                "(Robertson and Zaragoza, 2009; Lee & Park 2019b)",
+                "(O'Neil, 2018a)");
+        assertThat(markers).extracting(marker -> marker.authors().getFirst())
+                .containsExactly("Smith", "Robertson", "O'Neil");
+        assertThat(markers).extracting(Citation::year).containsExactly(2020, 2009, 2018);
+    }
+
+    @Test
+    void narrativeMarkersTakeAuthorsFromPrecedingText() {
+        List<Citation> markers = scan("As Karpukhin et al. (2020) show, and as Robertson and Zaragoza (2009) note, "
+                + "van Rijsbergen (1979) defined it.");
+
+        assertThat(markers).extracting(Citation::citationText).containsExactly(
+                "Karpukhin et al. (2020)", "Robertson and Zaragoza (2009)", "Rijsbergen (1979)");
+        assertThat(markers).extracting(marker -> marker.authors().getFirst())
+                .containsExactly("Karpukhin", "Robertson", "Rijsbergen");
+        assertThat(markers).extracting(Citation::year).containsExactly(2020, 2009, 1979);
+    }
+
+    @Test
+    void ignoresBracketsAndParenthesesThatAreNotCitations() {
+        List<Citation> markers = scan("The interval [0, 1] and the array a[i] in f(x) (see above) were measured "
+                + "in (2020) at 3pm (1850) with [12345] samples and (Smith) alone or (Smith, 20) and [7a].");
+
+        assertThat(markers).isEmpty();
+    }
+
+    @Test
+    void abandonedCandidateRestartsOnOpeningBracket() {
+        List<Citation> markers = scan("nested [[7] and ((Lee, 2018) and (see [4]) and [x(Park, 2021)");
+
+        assertThat(markers).extracting(Citation::citationText)
+                .containsExactly("[7]", "(Lee, 2018)", "[4]", "(Park, 2021)");
+    }
+
+    @Test
+    void markerSpanningPagesIsAttributedToItsFirstPage() {
+        InTextMarkerScanner scanner = new InTextMarkerScanner(100);
+        scanner.feed("end of page one (Smith et", 1);
+        scanner.feed(" al., 2020) and [1", 2);
+        scanner.feed("2] on page three", 3);
+
+        List<Citation> markers = scanner.markers(offset -> false);
+
+        assertThat(markers).extracting(Citation::citationText).containsExactly("(Smith et al., 2020)", "[12]");
+        assertThat(markers).extracting(Citation::pageNumber).containsExactly(1, 2);
+    }
+
+    @Test
+    void excludedOffsetsAndMarkerLimit() {
+        InTextMarkerScanner scanner = new InTextMarkerScanner(2);
+        String text = "[1] first [2] second [3] third";
+        scanner.feed(text, 1);
+
+        assertThat(scanner.markers(offset -> false)).extracting(Citation::citationText).containsExactly("[1]", "[2]");
+        assertThat(scanner.markers(offset -> offset == text.indexOf("[2]")))
+                .extracting(Citation::citationText).containsExactly("[1]");
+    }
+
+    private static List<Citation> scan(String text) {
+        InTextMarkerScanner scanner = new InTextMarkerScanner(100);
+        scanner.feed(text, 1);
+        return scanner.markers(offset -> false);
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.Citation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 真实文献条目（APA、IEEE、ACM、Vancouver，带和不带 DOI）解析出的作者、年份、标题、出处和 DOI
+ */
+class ReferenceParserTest {
+
+    @Test
+    void apaWithManyAuthors() {
+        Citation citation = parse("Vaswani, A., Shazeer, N., Parmar, N., Uszkoreit, J., Jones, L., Gomez, A. N., "
+                + "Kaiser, L., & Polosukhin, I. (2017). Attention is all you need. "
+                + "Advances in Neural Information Processing Systems, 30, 5998-6008.");
+
+        assertThat(citation.authors()).containsExactly("A. Vaswani", "N. Shazeer", "N. Parmar", "J. Uszkoreit",
+                "L. Jones", "A. N. Gomez", "L. Kaiser", "I. Polosukhin");
+        assertThat(citation.year()).isEqualTo(2017);
+        assertThat(citation.title()).isEqualTo("Attention is all you need");
+        assertThat(citation.venue()).isEqualTo("Advances in Neural Information Processing Systems");
+        assertThat(citation.doi()).isNull();
+        assertThat(citation.type()).isEqualTo(Citation.CitationType.REFERENCE_LIST);
+    }
+
+    @Test
+    void apaWithDoiUrl() {
+        Citation citation = parse("Robertson, S., & Zaragoza, H. (2009). The probabilistic relevance framework: "
+                + "BM25 and beyond. Foundations and Trends in Information Retrieval, 3(4), 333-389. "
+                + "https://doi.org/10.1561/1500000019");
+
+        assertThat(citation.authors()).containsExactly("S. Robertson", "H. Zaragoza");
+        assertThat(citation.year()).isEqualTo(2009);
+        assertThat(citation.title()).isEqualTo("The probabilistic relevance framework: BM25 and beyond");
+        assertThat(citation.venue()).isEqualTo("Foundations and Trends in Information Retrieval");
+        assertThat(citation.doi()).isEqualTo("10.1561/1500000019");
+    }
+
+    @Test
+    void apaWithDoiPrefix() {
+        Citation citation = parse("Malkov, Y. A., & Yashunin, D. A. (2020). Efficient and robust approximate "
+                + "nearest neighbor search using hierarchical navigable small world graphs. IEEE Transactions on "
+                + "Pattern Analysis and Machine Intelligence, 42(4), 824-836. doi:10.1109/TPAMI.2018.2889473");
+
+        assertThat(citation.authors()).containsExactly("Y. A. Malkov", "D. A. Yashunin");
+        assertThat(citation.year()).isEqualTo(2020);
+        assertThat(citation.title()).startsWith("Efficient and robust").endsWith("small world graphs");
+        assertThat(citation.venue()).isEqualTo("IEEE Transactions on Pattern Analysis and Machine Intelligence");
+        assertThat(citation.doi()).isEqualTo("10.1109/TPAMI.2018.2889473");
+    }
+
+    @Test
+    void ieeeWithQuotedTitleAndEtAl() {
+        Citation citation = parse("A. Vaswani et al., “Attention is all you need,” in Proc. NeurIPS, 2017, "
+                + "pp. 5998–6008.");
+
+        assertThat(citation.authors()).containsExactly("A. Vaswani");
+        assertThat(citation.year()).isEqualTo(2017);
+        assertThat(citation.title()).isEqualTo("Attention is all you need");
+        assertThat(citation.venue()).isEqualTo("Proc. NeurIPS");
+    }
+
+    @Test
+    void ieeeWithDoiContainingSlashesAndDots() {
+        Citation citation = parse("V. Karpukhin, B. Oguz, S. Min, P. Lewis, L. Wu, S. Edunov, D. Chen, and W. Yih, "
+                + "\"Dense passage retrieval for open-domain question answering,\" in Proc. EMNLP, 2020, "
+                + "pp. 6769-6781, doi: 10.18653/v1/2020.emnlp-main.550.");
+
+        assertThat(citation.authors()).hasSize(8).startsWith("V. Karpukhin").endsWith("W. Yih");
+        assertThat(citation.year()).isEqualTo(2020);
+        assertThat(citation.title()).isEqualTo("Dense passage retrieval for open-domain question answering");
+        assertThat(citation.venue()).isEqualTo("Proc. EMNLP");
+        assertThat(citation.doi()).isEqualTo("10.18653/v1/2020.emnlp-main.550");
+    }
+
+    @Test
+    void acmWithYearAfterAuthors() {
+        Citation citation = parse("Jacob Devlin, Ming-Wei Chang, Kenton Lee, and Kristina Toutanova. 2019. "
+                + "BERT: Pre-training of Deep Bidirectional Transformers for Language Understanding. "
+                + "In Proceedings of NAACL-HLT. 4171–4186.");
+
+        assertThat(citation.authors()).containsExactly("Jacob Devlin", "Ming-Wei Chang", "Kenton Lee",
+                "Kristina Toutanova");
+        assertThat(citation.year()).isEqualTo(2019);
+        assertThat(citation.title())
+                .isEqualTo("BERT: Pre-training of Deep Bidirectional Transformers for Language Understanding");
+        assertThat(citation.venue()).isEqualTo("Proceedings of NAACL-HLT");
+    }
+
+    @Test
+    void initialsFirstWithYearAtEnd() {
+        Citation citation = parse("S. E. Robertson and H. Zaragoza. The probabilistic relevance framework: "
+                + "BM25 and beyond. Foundations and Trends in Information Retrieval, 3(4):333–389, 2009.");
+
+        assertThat(citation.authors()).containsExactly("S. E. Robertson", "H. Zaragoza");
+        assertThat(citation.year()).isEqualTo(2009);
+        assertThat(citation.title()).isEqualTo("The probabilistic relevance framework: BM25 and beyond");
+        assertThat(citation.venue()).isEqualTo("Foundations and Trends in Information Retrieval");
+    }
+
+    @Test
+    void vancouverAuthorsWithoutDottedInitials() {
+        Citation etAl = parse("Lewis P, Perez E, Piktus A, et al. Retrieval-augmented generation for "
+                + "knowledge-intensive NLP tasks. Adv Neural Inf Process Syst. 2020;33:9459-9474.");
+        Citation withDoi = parse("Johnson J, Douze M, Jégou H. Billion-scale similarity search with GPUs. "
+                + "IEEE Trans Big Data. 2021;7(3):535-547. doi:10.1109/TBDATA.2019.2921572");
+
+        assertThat(etAl.authors()).containsExactly("Lewis P", "Perez E", "Piktus A");
+        assertThat(etAl.year()).isEqualTo(2020);
+        assertThat(etAl.title()).isEqualTo("Retrieval-augmented generation for knowledge-intensive NLP tasks");
+        assertThat(etAl.venue()).isEqualTo("Adv Neural Inf Process Syst");
+        assertThat(withDoi.authors()).containsExactly("Johnson J", "Douze M", "Jégou H");
+        assertThat(withDoi.title()).isEqualTo("Billion-scale similarity search with GPUs");
+        assertThat(withDoi.venue()).isEqualTo("IEEE Trans Big Data");
+        assertThat(withDoi.doi()).isEqualTo("10.1109/TBDATA.2019.2921572");
+    }
+
+    @Test
+    void vancouverDetectionRejectsOtherAuthorStyles() {
+        assertThat(ReferenceParser.vancouverAuthorsEnd("Manning CD, Raghavan P, Schütze H. Introduction."))
+                .isEqualTo("Manning CD, Raghavan P, Schütze H".length());
+        assertThat(ReferenceParser.vancouverAuthorsEnd("S. E. Robertson and H. Zaragoza. The framework.")).isEqualTo(-1);
+        assertThat(ReferenceParser.vancouverAuthorsEnd("Jacob Devlin, Kenton Lee. 2019. BERT.")).isEqualTo(-1);
+        assertThat(ReferenceParser.vancouverAuthorsEnd("WHO. Global report. 2020.")).isEqualTo(-1);
+    }
+
+    @Test
+    void unparseableFieldsStayNull() {
+        Citation citation = parse("Personal communication with the authors");
+
+        assertThat(citation.year()).isNull();
+        assertThat(citation.doi()).isNull();
+        assertThat(citation.citationText()).isEqualTo("Personal communication with the authors");
+    }
+
+    @Test
+    void parseAuthorsPairsSurnamesWithInitials() {
+        assertThat(ReferenceParser.parseAuthors("Smith, J., Lee, K.-H., & O'Neil, M."))
+                .isEqualTo(List.of("J. Smith", "K.-H. Lee", "M. O'Neil"));
+        assertThat(ReferenceParser.parseAuthors("Alice Smith; Bob Lee and Carol King, et al."))
+                .isEqualTo(List.of("Alice Smith", "Bob Lee", "Carol King"));
+    }
+
+    private static Citation parse(String entry) {
+        return ReferenceParser.parse(entry, entry, 1);
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.doubletree.scholarai.domain.service;
+
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 块内容与 startPosition/endPosition 对应原文、相邻块的重叠、跨页时的页码归属、
+ * 一次性切分与逐页增量切分结果一致，以及硬切时不拆开代理对
+ */
+class TextChunkerTest {
+
+    private static final String[] WORDS = {
+            "retrieval", "augmented", "generation", "grounds", "answers", "in", "passages", "the", "model",
+            "attention", "e.g.", "J.", "Smith", "BM25", "scores", "(see", "Table", "2)", "quantized", "vectors"
+    };
+
+    @Test
+    void chunkContentMatchesOffsetsInOriginalText() {
+        String text = document(new SplittableRandom(1L), 40);
+        TextChunker chunker = new TextChunker(200, 50);
+
+        List<TextChunk> chunks = chunker.chunk(text);
+
+        assertThat(chunks).hasSizeGreaterThan(5);
+        for (int i = 0; i < chunks.size(); i++) {
+            TextChunk chunk = chunks.get(i);
+            assertThat(chunk.chunkIndex()).isEqualTo(i);
+            assertThat(chunk.content()).isEqualTo(text.substring(chunk.startPosition(), chunk.endPosition()));
+            assertThat(chunk.getLength()).isLessThanOrEqualTo(200);
+            assertThat(chunk.content()).isEqualTo(chunk.content().strip());
+        }
+    }
+
+    @Test
+    void adjacentChunksOverlapWithoutGaps() {
+        String text = document(new SplittableRandom(2L), 40);
+        TextChunker chunker = new TextChunker(200, 50);
+
+        List<TextChunk> chunks = chunker.chunk(text);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            TextChunk previous = chunks.get(i - 1);
+            TextChunk current = chunks.get(i);
+            assertThat(current.startPosition()).isGreaterThan(previous.startPosition());
+            assertThat(current.endPosition()).isGreaterThan(previous.endPosition());
+            // 下一块从上一块结尾前不超过 overlap 个字符处开始，中间不留空隙（空白除外）
+            assertThat(previous.endPosition() - current.startPosition()).isLessThanOrEqualTo(50);
+            assertThat(text.substring(previous.endPosition(), Math.max(previous.endPosition(), current.startPosition())))
+                    .isBlank();
+        }
+        assertThat(chunks.getFirst().startPosition()).isZero();
+        assertThat(chunks.getLast().endPosition()).isEqualTo(text.stripTrailing().length());
+    }
+
+    @Test
+    void withoutOverlapChunksTileTheText() {
+        String text = document(new SplittableRandom(3L), 30);
+        List<TextChunk> chunks = new TextChunker(150, 0).chunk(text);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            assertThat(chunks.get(i).startPosition()).isGreaterThanOrEqualTo(chunks.get(i - 1).endPosition());
+        }
+    }
+
+    @Test
+    void chunksEndAtParagraphOrSentenceBoundaries() {
+        String text = "First sentence of the paragraph. Second sentence ends here.\n\n"
+                + "Another paragraph starts and keeps going for a while. It has two sentences.";
+        List<TextChunk> chunks = new TextChunker(80, 0).chunk(text);
+
+        assertThat(chunks).extracting(TextChunk::content).containsExactly(
+                "First sentence of the paragraph. Second sentence ends here.",
+                "Another paragraph starts and keeps going for a while. It has two sentences.");
+        assertThat(chunks.get(1).metadata().paragraphNumber()).isEqualTo(1);
+    }
+
+    @Test
+    void chunkIsAttributedToPageContainingItsStart() {
+        SplittableRandom random = new SplittableRandom(4L);
+        TextChunker chunker = new TextChunker(120, 30);
+        List<TextChunk> chunks = new ArrayList<>();
+        TextChunker.Session session = chunker.newSession(chunks::add);
+        List<Integer> pageStarts = new ArrayList<>();
+        int offset = 0;
+        for (int page = 1; page <= 6; page++) {
+            String text = document(random, 3 + page);
+            pageStarts.add(offset);
+            session.append(text, page);
+            offset += text.length();
+        }
+        session.finish();
+
+        assertThat(chunks).extracting(chunk -> chunk.metadata().pageNumber()).contains(1, 6);
+        for (TextChunk chunk : chunks) {
+            int expectedPage = 0;
+            for (int page = 0; page < pageStarts.size(); page++) {
+                if (pageStarts.get(page) <= chunk.startPosition()) {
+                    expectedPage = page + 1;
+                }
+            }
+            assertThat(chunk.metadata().pageNumber()).as("chunk %d", chunk.chunkIndex()).isEqualTo(expectedPage);
+        }
+        assertThat(session.chunkCount()).isEqualTo(chunks.size());
+    }
+
+    @Test
+    void streamingProducesSameChunksAsOneShot() {
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int round = 0; round < 20; round++) {
+            int chunkSize = 60 + random.nextInt(200);
+            TextChunker chunker = new TextChunker(chunkSize, random.nextInt(chunkSize / 2));
+            List<String> pages = new ArrayList<>();
+            StringBuilder full = new StringBuilder();
+            for (int page = 0; page < 1 + random.nextInt(8); page++) {
+                String text = document(random, 1 + random.nextInt(10));
+                pages.add(text);
+                full.append(text);
+            }
+
+            List<TextChunk> streamed = new ArrayList<>();
+            TextChunker.Session session = chunker.newSession(streamed::add);
+            for (int page = 0; page < pages.size(); page++) {
+                session.append(pages.get(page), page + 1);
+            }
+            session.finish();
+            List<TextChunk> oneShot = chunker.chunk(full);
+
+            assertThat(streamed).hasSameSizeAs(oneShot);
+            for (int i = 0; i < oneShot.size(); i++) {
+                assertThat(streamed.get(i).content()).isEqualTo(oneShot.get(i).content());
+                assertThat(streamed.get(i).startPosition()).isEqualTo(oneShot.get(i).startPosition());
+                assertThat(streamed.get(i).endPosition()).isEqualTo(oneShot.get(i).endPosition());
+                assertThat(streamed.get(i).metadata().paragraphNumber())
+                        .isEqualTo(oneShot.get(i).metadata().paragraphNumber());
+            }
+        }
+    }
+
+    @Test
+    void hardCutDoesNotSplitSurrogatePairs() {
+        // 没有空白和标点，只能硬切；每个表情占两个 char，奇数窗口必然落在代理对中间
+        String text = "😀".repeat(200);
+        for (int overlap : new int[]{0, 4, 10}) {
+            List<TextChunk> chunks = new TextChunker(21, overlap).chunk(text);
+
+            assertThat(chunks).hasSizeGreaterThan(10);
+            for (TextChunk chunk : chunks) {
+                String content = chunk.content();
+                assertThat(Character.isLowSurrogate(content.charAt(0))).isFalse();
+                assertThat(Character.isHighSurrogate(content.charAt(content.length() - 1))).isFalse();
+                assertThat(content.length() % 2).isZero();
+            }
+            assertThat(chunks.getLast().endPosition()).isEqualTo(text.length());
+        }
+    }
+
+    private static String document(SplittableRandom random, int sentences) {
+        StringBuilder sb = new StringBuilder();
+        for (int s = 0; s < sentences; s++) {
+            int words = 4 + random.nextInt(14);
+            for (int w = 0; w < words; w++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                sb.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+            }
+            sb.setLength(sb.length() - 1);
+            sb.append(random.nextInt(5) == 0 ? "?" : ".");
+            sb.append(random.nextInt(6) == 0 ? "\n\n" : " ");
+        }
+        return sb.toString();
+    }
+}
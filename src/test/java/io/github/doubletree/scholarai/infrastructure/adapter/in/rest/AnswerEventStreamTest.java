@@ -0,0 +1,212 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.in.rest;
+
+import io.github.doubletree.scholarai.application.service.AskService;
+import io.github.doubletree.scholarai.application.service.RetrievalService;
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.dto.AskDto;
+import io.github.doubletree.scholarai.infrastructure.adapter.in.rest.mapper.PaperMapper;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.SpringAiChatAdapter;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.ai.StubChatModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 用 {@link StubChatModel} 驱动真实的 {@link SpringAiChatAdapter}，检查 SSE 事件顺序和客户端断开后的取消。
+ * 桩模型的问题回显为 "[stub] You asked: ..." 的逐词片段，片段之间有固定间隔，断开发生在流结束之前。
+ */
+class AnswerEventStreamTest {
+
+    private static final String QUESTION = "what limits term frequency in BM25";
+    private static final long TOKEN_INTERVAL_MS = 20;
+
+    private SpringAiChatAdapter chatAdapter;
+    private AnswerEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        chatAdapter = new SpringAiChatAdapter(new StubChatModel(0, TOKEN_INTERVAL_MS), 10);
+        AskService askService = new AskService(mock(RetrievalService.class), mock(EmbeddingPort.class),
+                mock(AnswerCachePort.class), mock(LoadPaperPort.class), chatAdapter, 6000);
+        eventStream = new AnswerEventStream(askService, new PaperMapper(), 10);
+    }
+
+    @Test
+    void sendsSourcesThenTokensThenDone() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(Integer.MAX_VALUE);
+
+        eventStream.open(prepared(), emitter);
+
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        List<String> names = emitter.names();
+        assertThat(names.get(0)).isEqualTo("sources");
+        assertThat(names.get(names.size() - 1)).isEqualTo("done");
+        assertThat(names.subList(1, names.size() - 1)).isNotEmpty().containsOnly("token");
+        assertThat(emitter.tokenText()).isEqualTo("[stub] You asked: " + QUESTION);
+        AskDto.Done done = (AskDto.Done) emitter.payloads().get(names.size() - 1);
+        assertThat(done.cached()).isFalse();
+        assertThat(done.tokens()).isEqualTo(names.size() - 2);
+        assertThat(chatAdapter.stats().completed()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedAnswerIsReplayedAsSingleToken() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(Integer.MAX_VALUE);
+        CachedAnswer cached = new CachedAnswer("Saturation via k1.", List.of(source()), 4);
+        AskService.PreparedAnswer prepared = new AskService.PreparedAnswer(QUESTION, cached.sources(), null, cached,
+                new AnswerCachePort.Scope(SearchFilter.NONE, 5), new float[]{1f}, 0);
+
+        eventStream.open(prepared, emitter);
+
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.names()).containsExactly("sources", "token", "done");
+        assertThat(((AskDto.Done) emitter.payloads().get(2)).cached()).isTrue();
+        assertThat(chatAdapter.stats().streams()).isZero();
+    }
+
+    @Test
+    void clientDisconnectCancelsModelStream() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(Integer.MAX_VALUE);
+
+        eventStream.open(prepared(), emitter);
+        assertThat(emitter.firstToken.await(5, TimeUnit.SECONDS)).isTrue();
+        // 容器发现客户端断开后调用 onError 回调
+        emitter.disconnect(new IOException("Broken pipe"));
+
+        awaitStreamFinished();
+        assertThat(chatAdapter.stats().cancelled()).isEqualTo(1);
+        assertThat(chatAdapter.stats().completed()).isZero();
+        int eventsAtCancel = emitter.names().size();
+        Thread.sleep(TOKEN_INTERVAL_MS * 5);
+        assertThat(emitter.names()).hasSize(eventsAtCancel).doesNotContain("done", "error");
+    }
+
+    @Test
+    void failedWriteCancelsModelStream() throws InterruptedException {
+        // 第二个 token 写入时连接已断开
+        RecordingEmitter emitter = new RecordingEmitter(2);
+
+        eventStream.open(prepared(), emitter);
+
+        awaitStreamFinished();
+        assertThat(chatAdapter.stats().cancelled()).isEqualTo(1);
+        assertThat(emitter.names()).containsExactly("sources", "token");
+    }
+
+    private void awaitStreamFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (chatAdapter.stats().inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(chatAdapter.stats().inFlight()).isZero();
+    }
+
+    private static AskService.PreparedAnswer prepared() {
+        return new AskService.PreparedAnswer(QUESTION, List.of(source()),
+                "Context:\n\n[1] Okapi, p. 1\nk1 bounds tf\n\nQuestion:\n" + QUESTION,
+                null, new AnswerCachePort.Scope(SearchFilter.NONE, 5), null, 0);
+    }
+
+    private static RetrievedChunk source() {
+        return new RetrievedChunk(PaperId.generate(), 0, 1, "k1 bounds tf", 0.5, 1, 1);
+    }
+
+    /**
+     * 记录发送的事件名和数据；第 failAtToken 个 token 事件写入时抛出 IOException，模拟连接已断开
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private final int failAtToken;
+        private final List<Consumer<Throwable>> errorCallbacks = new ArrayList<>();
+        final CountDownLatch firstToken = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        private int tokens;
+
+        RecordingEmitter(int failAtToken) {
+            super(10_000L);
+            this.failAtToken = failAtToken;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            String name = null;
+            Object payload = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                Matcher matcher = EVENT_NAME.matcher(String.valueOf(part.getData()));
+                if (name == null && matcher.find()) {
+                    name = matcher.group(1);
+                } else if (!(part.getData() instanceof String)) {
+                    payload = part.getData();
+                }
+            }
+            if ("token".equals(name) && ++tokens >= failAtToken) {
+                throw new IOException("Connection reset by peer");
+            }
+            names.add(name);
+            payloads.add(payload);
+            if ("token".equals(name)) {
+                firstToken.countDown();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            errorCallbacks.add(callback);
+            super.onError(callback);
+        }
+
+        void disconnect(Throwable error) {
+            List<Consumer<Throwable>> callbacks;
+            synchronized (this) {
+                callbacks = List.copyOf(errorCallbacks);
+            }
+            callbacks.forEach(callback -> callback.accept(error));
+        }
+
+        synchronized List<String> names() {
+            return List.copyOf(names);
+        }
+
+        synchronized List<Object> payloads() {
+            return new ArrayList<>(payloads);
+        }
+
+        synchronized String tokenText() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < names.size(); i++) {
+                if ("token".equals(names.get(i))) {
+                    text.append(((AskDto.Token) payloads.get(i)).text());
+                }
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 磁盘层的占用不超过 max-bytes：轮转时丢弃最旧的一代，被读到的旧记录复制到当前代；重启后从最新两代恢复
+ */
+class DiskEmbeddingStoreTest {
+
+    private static final int DIMENSIONS = 64;
+    // 每条记录约 300 字节，每代约能放 10 条
+    private static final long MAX_BYTES = 6_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rotationKeepsDiskUsageAndIndexBounded() throws IOException {
+        try (DiskEmbeddingStore store = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            for (int i = 0; i < 200; i++) {
+                store.put(key(i), vector(i));
+                assertThat(store.sizeInBytes()).isLessThanOrEqualTo(MAX_BYTES + recordBytes());
+            }
+
+            assertThat(store.size()).isLessThan(30);
+            assertThat(store.get(key(0))).isNull();
+            assertThat(store.get(key(199))).containsExactly(vector(199));
+            assertThat(logFiles()).isLessThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    void recentlyReadEntriesSurviveRotation() throws IOException {
+        try (DiskEmbeddingStore store = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            store.put(key(-1), vector(-1));
+            for (int i = 0; i < 200; i++) {
+                store.put(key(i), vector(i));
+                // 每写几条读一次，读到的旧记录会被复制到当前代
+                if (i % 4 == 0) {
+                    assertThat(store.get(key(-1))).containsExactly(vector(-1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void reopenRestoresLatestGenerations() throws IOException {
+        try (DiskEmbeddingStore store = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            for (int i = 0; i < 50; i++) {
+                store.put(key(i), vector(i));
+            }
+        }
+
+        try (DiskEmbeddingStore reopened = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            assertThat(reopened.get(key(49))).containsExactly(vector(49));
+            assertThat(reopened.get(key(0))).isNull();
+            assertThat(reopened.sizeInBytes()).isLessThanOrEqualTo(MAX_BYTES + recordBytes());
+        }
+    }
+
+    @Test
+    void legacySingleFileIsAdopted() throws IOException {
+        try (DiskEmbeddingStore store = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            store.put(key(7), vector(7));
+        }
+        Files.move(directory.resolve("embeddings-0.log"), directory.resolve("embeddings.log"));
+
+        try (DiskEmbeddingStore reopened = new DiskEmbeddingStore(directory, MAX_BYTES)) {
+            assertThat(reopened.get(key(7))).containsExactly(vector(7));
+        }
+    }
+
+    private long logFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static long recordBytes() {
+        return Integer.BYTES + 32 + Short.BYTES + "test-model".length() + Integer.BYTES + DIMENSIONS * Float.BYTES;
+    }
+
+    private static EmbeddingCacheKey key(int i) {
+        return EmbeddingCacheKey.of("chunk " + i, "test-model");
+    }
+
+    private static float[] vector(int i) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = i + d / 100f;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.ai;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.TextChunk;
+import io.github.doubletree.scholarai.domain.port.out.EmbeddingPort.EmbeddingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 用本地桩模型验证批处理器：跨调用方合并、按延迟自适应批大小、429 按状态码退避重试、关闭时不留下等待中的调用方
+ */
+class EmbeddingBatcherTest {
+
+    private EmbeddingBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void mergesChunksFromConcurrentCallersIntoOneRequest() throws Exception {
+        StubModel model = new StubModel(texts -> null);
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 16, 32, 1, 500, 10_000, 3, 10));
+
+        CompletableFuture<List<Embedding>> first = CompletableFuture.supplyAsync(() -> batcher.embed(chunks("a", 4)));
+        CompletableFuture<List<Embedding>> second = CompletableFuture.supplyAsync(() -> batcher.embed(chunks("b", 4)));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).extracting(Embedding::chunkIndex).containsExactly(0, 1, 2, 3);
+        assertThat(second.get(5, TimeUnit.SECONDS)).extracting(Embedding::chunkIndex).containsExactly(0, 1, 2, 3);
+        assertThat(model.requests).hasSize(1);
+        assertThat(model.requests.getFirst()).hasSize(8);
+        // 每个调用方拿到的是自己文本的向量
+        assertThat(first.get().get(2).vector()).containsExactly(StubModel.vectorFor("a-2"));
+        assertThat(second.get().get(2).vector()).containsExactly(StubModel.vectorFor("b-2"));
+    }
+
+    @Test
+    void tokenBudgetSplitsBatches() {
+        StubModel model = new StubModel(texts -> null);
+        // 每个文本块估算为 1 个 token，预算只够两块
+        batcher = new EmbeddingBatcher(model, "stub", new EmbeddingBatcher.Settings(
+                1, 16, 16, 2, 1, 50, 10_000, 3, 10, 100));
+
+        List<Embedding> embeddings = batcher.embed(chunks("c", 5));
+
+        assertThat(embeddings).hasSize(5);
+        assertThat(model.requests).allSatisfy(texts -> assertThat(texts.size()).isLessThanOrEqualTo(2));
+        assertThat(model.requests.stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void batchSizeGrowsWhenFastAndHalvesWhenSlow() throws Exception {
+        AtomicInteger delayMs = new AtomicInteger(0);
+        StubModel model = new StubModel(texts -> {
+            sleep(delayMs.get());
+            return null;
+        });
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 8, 12, 1, 0, 100, 3, 10));
+
+        batcher.embed(chunks("fast", 1));
+        assertThat(batcher.stats().currentBatchSize()).isEqualTo(10);
+        batcher.embed(chunks("fast", 1));
+        batcher.embed(chunks("fast", 1));
+        assertThat(batcher.stats().currentBatchSize()).isEqualTo(12);
+
+        delayMs.set(150);
+        batcher.embed(chunks("slow", 1));
+        assertThat(batcher.stats().currentBatchSize()).isEqualTo(6);
+        batcher.embed(chunks("slow", 1));
+        batcher.embed(chunks("slow", 1));
+        assertThat(batcher.stats().currentBatchSize()).isEqualTo(2);
+    }
+
+    @Test
+    void rateLimitedRequestsBackOffAndRetry() {
+        AtomicInteger calls = new AtomicInteger();
+        StubModel model = new StubModel(texts -> calls.getAndIncrement() < 2 ? tooManyRequests() : null);
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 16, 32, 1, 50, 10_000, 3, 40));
+
+        long start = System.nanoTime();
+        List<Embedding> embeddings = batcher.embed(chunks("r", 3));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(embeddings).hasSize(3);
+        assertThat(calls).hasValue(3);
+        assertThat(batcher.stats().rateLimited()).isEqualTo(2);
+        // 两次退避分别至少 20ms、40ms（带抖动的 40ms、80ms）
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(60);
+        // 每次 429 批大小减半，成功一次后再增加 min
+        assertThat(batcher.stats().currentBatchSize()).isEqualTo(6);
+    }
+
+    @Test
+    void rateLimitGivesUpAfterMaxRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        StubModel model = new StubModel(texts -> {
+            calls.incrementAndGet();
+            return tooManyRequests();
+        });
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 16, 32, 1, 50, 10_000, 2, 5));
+
+        assertThatThrownBy(() -> batcher.embed(chunks("x", 2)))
+                .isInstanceOf(EmbeddingException.class)
+                .hasRootCauseInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        assertThat(calls).hasValue(3);
+        assertThat(batcher.stats().failures()).isEqualTo(1);
+    }
+
+    @Test
+    void otherErrorsFailWithoutRetry() {
+        AtomicInteger calls = new AtomicInteger();
+        // 消息以 429 开头也不当作限流，只认状态码
+        StubModel model = new StubModel(texts -> {
+            calls.incrementAndGet();
+            return new NonTransientAiException("429 - but actually a bad request");
+        });
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 16, 32, 1, 50, 10_000, 3, 5));
+
+        assertThatThrownBy(() -> batcher.embed(chunks("x", 2))).isInstanceOf(EmbeddingException.class);
+        assertThat(calls).hasValue(1);
+        assertThat(batcher.stats().rateLimited()).isZero();
+    }
+
+    @Test
+    void detectsRateLimitByStatusCodeAnywhereInCauseChain() {
+        assertThat(EmbeddingBatcher.isRateLimited(tooManyRequests())).isTrue();
+        assertThat(EmbeddingBatcher.isRateLimited(new IllegalStateException("wrapped", tooManyRequests()))).isTrue();
+        assertThat(EmbeddingBatcher.isRateLimited(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad",
+                HttpHeaders.EMPTY, new byte[0], null))).isFalse();
+        assertThat(EmbeddingBatcher.isRateLimited(new NonTransientAiException("429 - Too Many Requests"))).isFalse();
+    }
+
+    @Test
+    void closeFailsQueuedAndInFlightCallers() throws Exception {
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        StubModel model = new StubModel(texts -> {
+            requestStarted.countDown();
+            try {
+                neverReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        batcher = new EmbeddingBatcher(model, "stub", settings(2, 16, 32, 1, 50, 10_000, 3, 5));
+
+        CompletableFuture<List<Embedding>> inFlight = CompletableFuture.supplyAsync(() -> batcher.embed(chunks("a", 2)));
+        assertThat(requestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // 唯一的 in-flight 许可被占用，这一批停在分发线程或队列里
+        CompletableFuture<List<Embedding>> queued = CompletableFuture.supplyAsync(() -> batcher.embed(chunks("b", 2)));
+        Thread.sleep(50);
+
+        batcher.close();
+
+        assertThatThrownBy(() -> inFlight.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(EmbeddingException.class);
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(EmbeddingException.class);
+        assertThatThrownBy(() -> batcher.embed(chunks("c", 1)))
+                .isInstanceOf(EmbeddingException.class)
+                .hasMessageContaining("shut down");
+        neverReleased.countDown();
+    }
+
+    private static EmbeddingBatcher.Settings settings(int min, int initial, int max, int maxInFlight, long maxWaitMs,
+                                                      long targetLatencyMs, int maxRetries, long initialBackoffMs) {
+        return new EmbeddingBatcher.Settings(min, initial, max, 100_000, maxInFlight, maxWaitMs, targetLatencyMs,
+                maxRetries, initialBackoffMs, 1_000);
+    }
+
+    private static List<TextChunk> chunks(String prefix, int count) {
+        List<TextChunk> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String content = prefix + "-" + i;
+            chunks.add(new TextChunk(content, i * 10, i * 10 + content.length(), i,
+                    new TextChunk.ChunkMetadata(null, 1, 0)));
+        }
+        return chunks;
+    }
+
+    private static HttpClientErrorException tooManyRequests() {
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                HttpHeaders.EMPTY, new byte[0], null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 记录每次请求的文本；behavior 返回非 null 的异常时抛出，否则按文本确定性生成向量
+     */
+    private static final class StubModel implements EmbeddingModel {
+
+        final List<List<String>> requests = new CopyOnWriteArrayList<>();
+        private final Function<List<String>, RuntimeException> behavior;
+
+        StubModel(Function<List<String>, RuntimeException> behavior) {
+            this.behavior = behavior;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<String> texts = request.getInstructions();
+            RuntimeException error = behavior.apply(texts);
+            if (error != null) {
+                throw error;
+            }
+            requests.add(List.copyOf(texts));
+            List<org.springframework.ai.embedding.Embedding> results = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                results.add(new org.springframework.ai.embedding.Embedding(vectorFor(texts.get(i)), i));
+            }
+            return new EmbeddingResponse(results);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return vectorFor(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        static float[] vectorFor(String text) {
+            return new float[]{text.hashCode(), text.length()};
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.cache;
+
+import io.github.doubletree.scholarai.domain.model.CachedAnswer;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.RetrievedChunk;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.AnswerCachePort;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 生成期间的失效只影响回答涉及的论文：限定的论文或引用的论文被失效时丢弃写回，其他论文的失效不影响
+ */
+class SemanticAnswerCacheTest {
+
+    private static final float[] QUESTION = {1f, 0f, 0f};
+
+    private final SemanticAnswerCache cache = new SemanticAnswerCache(true, 0.95, 100, 3600);
+    private final PaperId scoped = PaperId.generate();
+    private final PaperId cited = PaperId.generate();
+    private final PaperId unrelated = PaperId.generate();
+
+    @Test
+    void unrelatedInvalidationDoesNotRejectPut() {
+        AnswerCachePort.Scope scope = scope(null);
+        long epoch = cache.epoch();
+        cache.invalidate(unrelated);
+
+        cache.put(scope, QUESTION, answer(cited), epoch);
+
+        assertThat(cache.find(scope, QUESTION)).isPresent();
+        assertThat(cache.stats().rejectedPuts()).isZero();
+    }
+
+    @Test
+    void citedPaperInvalidationRejectsPut() {
+        AnswerCachePort.Scope scope = scope(null);
+        long epoch = cache.epoch();
+        cache.invalidate(cited);
+
+        cache.put(scope, QUESTION, answer(cited), epoch);
+
+        assertThat(cache.find(scope, QUESTION)).isEmpty();
+        assertThat(cache.stats().rejectedPuts()).isEqualTo(1);
+    }
+
+    @Test
+    void scopedPaperInvalidationRejectsPutEvenWithoutCitations() {
+        AnswerCachePort.Scope scope = scope(scoped);
+        long epoch = cache.epoch();
+        cache.invalidate(scoped);
+
+        cache.put(scope, QUESTION, new CachedAnswer("No relevant passages.", List.of(), 3), epoch);
+
+        assertThat(cache.find(scope, QUESTION)).isEmpty();
+        assertThat(cache.stats().rejectedPuts()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidationBeforePrepareDoesNotRejectPut() {
+        AnswerCachePort.Scope scope = scope(scoped);
+        cache.invalidate(scoped);
+        cache.invalidate(cited);
+        long epoch = cache.epoch();
+
+        cache.put(scope, QUESTION, answer(cited), epoch);
+
+        assertThat(cache.find(scope, QUESTION)).isPresent();
+    }
+
+    @Test
+    void invalidateDropsEntriesCitingPaper() {
+        AnswerCachePort.Scope scope = scope(null);
+        cache.put(scope, QUESTION, answer(cited), cache.epoch());
+
+        cache.invalidate(unrelated);
+        assertThat(cache.find(scope, QUESTION)).isPresent();
+
+        cache.invalidate(cited);
+        assertThat(cache.find(scope, QUESTION)).isEmpty();
+    }
+
+    private static AnswerCachePort.Scope scope(PaperId paperId) {
+        SearchFilter filter = paperId == null ? SearchFilter.NONE : SearchFilter.NONE.withPaper(paperId);
+        return new AnswerCachePort.Scope(filter, 5);
+    }
+
+    private static CachedAnswer answer(PaperId source) {
+        return new CachedAnswer("BM25 saturates term frequency [1].",
+                List.of(new RetrievedChunk(source, 0, 1, "k1 bounds tf", 0.5, 1, 1)), 8);
+    }
+}
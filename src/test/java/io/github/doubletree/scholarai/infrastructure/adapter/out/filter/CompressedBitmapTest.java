@@ -0,0 +1,236 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 随机集合与 {@link BitSet} 对照：容器在有序数组和位图之间的转换、and/or/andNot 以及删除后的降级；
+ * 每个集合跨若干高 16 位容器，密度分别落在数组阈值以下、阈值附近和远高于阈值。
+ */
+class CompressedBitmapTest {
+
+    private static final int CONTAINER_SPAN = 1 << 16;
+
+    private final SplittableRandom random = new SplittableRandom(11L);
+
+    @Test
+    void addAndContainsMatchBitSetAcrossConversionThreshold() {
+        for (int round = 0; round < 30; round++) {
+            BitSet expected = new BitSet();
+            CompressedBitmap bitmap = new CompressedBitmap();
+            fillRandom(bitmap, expected);
+
+            assertSameContents(bitmap, expected);
+            for (int probe = 0; probe < 2_000; probe++) {
+                int value = random.nextInt(4 * CONTAINER_SPAN);
+                assertThat(bitmap.contains(value)).isEqualTo(expected.get(value));
+            }
+        }
+    }
+
+    @Test
+    void containerBecomesBitmapPastArrayMaxAndStaysExact() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        for (int value = 0; value < 2 * CompressedBitmap.ARRAY_MAX; value += 2) {
+            bitmap.add(value);
+            expected.set(value);
+        }
+        long arrayBytes = bitmap.sizeInBytes();
+        bitmap.add(1);
+        expected.set(1);
+
+        assertThat(bitmap.cardinality()).isEqualTo(CompressedBitmap.ARRAY_MAX + 1);
+        assertThat(bitmap.sizeInBytes()).isGreaterThanOrEqualTo(8L * 1024);
+        assertThat(bitmap.sizeInBytes()).isGreaterThanOrEqualTo(arrayBytes);
+        assertSameContents(bitmap, expected);
+    }
+
+    @Test
+    void setOperationsMatchBitSet() {
+        for (int round = 0; round < 40; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            fillRandom(a, expectedA);
+            fillRandom(b, expectedB);
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+
+            CompressedBitmap andResult = CompressedBitmap.and(a, b);
+            CompressedBitmap orResult = CompressedBitmap.or(a, b);
+            CompressedBitmap andNotResult = CompressedBitmap.andNot(a, b);
+            assertSameContents(andResult, and);
+            assertSameContents(orResult, or);
+            assertSameContents(andNotResult, andNot);
+            assertSameContents(CompressedBitmap.and(b, a), and);
+            assertSameContents(CompressedBitmap.or(b, a), or);
+
+            // 结果与输入不共享容器：修改结果后输入不变
+            scramble(orResult);
+            scramble(andNotResult);
+            scramble(andResult);
+            assertSameContents(a, expectedA);
+            assertSameContents(b, expectedB);
+        }
+    }
+
+    @Test
+    void operationsWithEmptyBitmap() {
+        BitSet expected = new BitSet();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        fillRandom(bitmap, expected);
+        CompressedBitmap empty = new CompressedBitmap();
+
+        assertSameContents(CompressedBitmap.and(bitmap, empty), new BitSet());
+        assertSameContents(CompressedBitmap.or(bitmap, empty), expected);
+        assertSameContents(CompressedBitmap.or(empty, bitmap), expected);
+        assertSameContents(CompressedBitmap.andNot(bitmap, empty), expected);
+        assertSameContents(CompressedBitmap.andNot(empty, bitmap), new BitSet());
+        assertSameContents(CompressedBitmap.andNot(bitmap, bitmap), new BitSet());
+    }
+
+    @Test
+    void removeDemotesBitmapContainerAndDropsEmptyContainers() {
+        for (int round = 0; round < 10; round++) {
+            CompressedBitmap bitmap = new CompressedBitmap();
+            BitSet expected = new BitSet();
+            int base = random.nextInt(4) * CONTAINER_SPAN;
+            int count = CompressedBitmap.ARRAY_MAX + 1 + random.nextInt(2_000);
+            while (expected.cardinality() < count) {
+                int value = base + random.nextInt(CONTAINER_SPAN);
+                bitmap.add(value);
+                expected.set(value);
+            }
+            long bitmapBytes = bitmap.sizeInBytes();
+
+            // 随机顺序删除，逐步穿过阈值直到清空；中途反复对照
+            int[] values = expected.stream().toArray();
+            shuffle(values);
+            for (int i = 0; i < values.length; i++) {
+                bitmap.remove(values[i]);
+                expected.clear(values[i]);
+                // 删除不存在的值不影响结果
+                bitmap.remove(values[i]);
+                if (i % 257 == 0 || expected.cardinality() == CompressedBitmap.ARRAY_MAX) {
+                    assertSameContents(bitmap, expected);
+                }
+                if (expected.cardinality() == 100) {
+                    // 降级后的数组随删除缩容，不再占着位图大小的空间
+                    assertThat(bitmap.sizeInBytes()).isLessThan(bitmapBytes / 8);
+                }
+            }
+            assertThat(bitmap.isEmpty()).isTrue();
+            assertThat(bitmap.cardinality()).isZero();
+
+            // 降级后再加回去仍然正确
+            for (int i = 0; i < values.length; i += 3) {
+                bitmap.add(values[i]);
+                expected.set(values[i]);
+            }
+            assertSameContents(bitmap, expected);
+        }
+    }
+
+    @Test
+    void mixedAddRemoveMatchesBitSet() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        for (int step = 0; step < 200_000; step++) {
+            // 集中在少数几个容器里，使同一容器反复越过阈值
+            int value = random.nextInt(3) * CONTAINER_SPAN + random.nextInt(9_000);
+            if (random.nextInt(5) < 3) {
+                bitmap.add(value);
+                expected.set(value);
+            } else {
+                bitmap.remove(value);
+                expected.clear(value);
+            }
+        }
+        assertSameContents(bitmap, expected);
+        assertSameContents(bitmap.copy(), expected);
+    }
+
+    @Test
+    void forEachStopsEarlyAndRejectsNegativeValues() {
+        CompressedBitmap bitmap = CompressedBitmap.of(5, 70_000, 3, 140_000);
+        StringBuilder visited = new StringBuilder();
+
+        boolean completed = bitmap.forEach(value -> {
+            visited.append(value).append(',');
+            return value < 70_000;
+        });
+
+        assertThat(completed).isFalse();
+        assertThat(visited).hasToString("3,5,70000,");
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bitmap.contains(-1)).isFalse();
+    }
+
+    /**
+     * 在 4 个高位容器中随机挑几个，分别按稀疏、阈值附近、稠密三种密度填充
+     */
+    private void fillRandom(CompressedBitmap bitmap, BitSet expected) {
+        for (int key = 0; key < 4; key++) {
+            if (random.nextInt(4) == 0) {
+                continue;
+            }
+            int target = switch (random.nextInt(3)) {
+                case 0 -> 1 + random.nextInt(300);
+                case 1 -> CompressedBitmap.ARRAY_MAX - 50 + random.nextInt(100);
+                default -> 20_000 + random.nextInt(30_000);
+            };
+            int added = 0;
+            while (added < target) {
+                int value = key * CONTAINER_SPAN + random.nextInt(CONTAINER_SPAN);
+                if (!expected.get(value)) {
+                    added++;
+                }
+                bitmap.add(value);
+                expected.set(value);
+            }
+        }
+    }
+
+    private void scramble(CompressedBitmap bitmap) {
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(4 * CONTAINER_SPAN);
+            bitmap.add(value);
+            bitmap.remove(random.nextInt(4 * CONTAINER_SPAN));
+        }
+    }
+
+    private void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    private static void assertSameContents(CompressedBitmap bitmap, BitSet expected) {
+        BitSet actual = new BitSet();
+        int[] previous = {-1};
+        bitmap.forEach(value -> {
+            assertThat(value).isGreaterThan(previous[0]);
+            previous[0] = value;
+            actual.set(value);
+            return true;
+        });
+        assertThat(actual).isEqualTo(expected);
+        assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+        assertThat(bitmap.isEmpty()).isEqualTo(expected.isEmpty());
+    }
+}
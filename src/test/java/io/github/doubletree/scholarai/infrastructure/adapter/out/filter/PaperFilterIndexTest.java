@@ -0,0 +1,122 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.filter;
+
+import io.github.doubletree.scholarai.domain.model.Paper;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.port.out.LoadPaperPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.PapersSavedEvent;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.persistence.RemotePaperChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 本实例保存、其他实例保存（经失效频道到达）以及重连后的整体重建都反映到过滤位图上
+ */
+class PaperFilterIndexTest {
+
+    private LoadPaperPort loadPaperPort;
+    private PaperOrdinals ordinals;
+    private PaperFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        loadPaperPort = mock(LoadPaperPort.class);
+        ordinals = new PaperOrdinals();
+        index = new PaperFilterIndex(loadPaperPort, ordinals);
+    }
+
+    @Test
+    void localSaveIsIndexed() {
+        Paper paper = paper(List.of("Jane  Doe"), 2020, "10.1/a");
+
+        index.onPapersSaved(new PapersSavedEvent(List.of(paper)));
+
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(List.of("jane doe"), null, null, null))))
+                .containsExactly(ordinals.find(paper.id()));
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(null, 2020, 2020, true))))
+                .containsExactly(ordinals.find(paper.id()));
+    }
+
+    @Test
+    void remoteChangeReloadsPaperFromDatabase() {
+        Paper before = paper(List.of("Jane Doe"), 2020, null);
+        index.onPapersSaved(new PapersSavedEvent(List.of(before)));
+        Paper after = new Paper(before.id(), before.title(), List.of("John Roe"), null, null,
+                LocalDateTime.of(2021, 1, 1, 0, 0), "10.1/b", before.metadata());
+        when(loadPaperPort.load(before.id())).thenReturn(Optional.of(after));
+
+        index.onRemotePaperChanged(new RemotePaperChangedEvent(before.id()));
+
+        int ordinal = ordinals.find(before.id());
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(List.of("Jane Doe"), null, null, null)))).isEmpty();
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(List.of("John Roe"), null, null, null))))
+                .containsExactly(ordinal);
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(null, 2021, null, true)))).containsExactly(ordinal);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remoteChangeForPaperSavedElsewhereAddsIt() {
+        Paper remote = paper(List.of("Ada Lovelace"), 1843, null);
+        when(loadPaperPort.load(remote.id())).thenReturn(Optional.of(remote));
+
+        index.onRemotePaperChanged(new RemotePaperChangedEvent(remote.id()));
+
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(List.of("ada lovelace"), null, null, false))))
+                .containsExactly(ordinals.find(remote.id()));
+    }
+
+    @Test
+    void resyncRebuildsFromDatabase() {
+        Paper first = paper(List.of("A"), 2019, null);
+        Paper second = paper(List.of("B"), 2022, "10.1/c");
+        doAnswer(invocation -> {
+            LoadPaperPort.FilterAttributesVisitor visitor = invocation.getArgument(0);
+            for (Paper paper : List.of(first, second)) {
+                visitor.visit(paper.id(), paper.authors(), paper.publishedDate(), paper.doi());
+            }
+            return null;
+        }).when(loadPaperPort).forEachFilterAttributes(any());
+
+        index.onRemotePaperChanged(RemotePaperChangedEvent.resync());
+
+        verify(loadPaperPort, timeout(5_000)).forEachFilterAttributes(any());
+        for (int attempt = 0; attempt < 500 && index.allPapers() == null; attempt++) {
+            sleep();
+        }
+        assertThat(ordinalsOf(index.allPapers()))
+                .containsExactlyInAnyOrder(ordinals.find(first.id()), ordinals.find(second.id()));
+        assertThat(ordinalsOf(index.resolve(new SearchFilter(null, 2020, null, null))))
+                .containsExactly(ordinals.find(second.id()));
+    }
+
+    private static Paper paper(List<String> authors, int year, String doi) {
+        return Paper.create("Title", authors, null, null, LocalDateTime.of(year, 6, 1, 0, 0), doi);
+    }
+
+    private static List<Integer> ordinalsOf(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 随机的 setReferences / addReference 序列与朴素邻接表对照，覆盖层阈值很小，过程中反复合并重建；
+ * 每一步之后对照出入边、度数和边数，再对照 citedByRanked、coCited 和 neighborhood（含 maxVisited 截断）。
+ */
+class CitationGraphTest {
+
+    private static final int NODES = 60;
+
+    private final SplittableRandom random = new SplittableRandom(25L);
+
+    @Test
+    void matchesNaiveAdjacencyAcrossCompactions() {
+        CitationGraph graph = new CitationGraph(3);
+        NaiveGraph naive = new NaiveGraph();
+
+        for (int step = 0; step < 2_000; step++) {
+            int node = random.nextInt(NODES);
+            if (random.nextInt(3) == 0) {
+                int target = random.nextInt(NODES);
+                boolean expected = node != target && !naive.references(node).contains(target);
+                assertThat(graph.addReference(node, target)).isEqualTo(expected);
+                naive.add(node, target);
+            } else {
+                int[] targets = randomTargets(node);
+                graph.setReferences(node, targets);
+                naive.set(node, targets);
+            }
+            if (step % 97 == 0) {
+                graph.compact();
+            }
+            assertSameEdges(graph, naive);
+        }
+        assertThat(graph.compactions()).isGreaterThan(20);
+    }
+
+    @Test
+    void setReferencesMergeUpdatesIncomingListsOfRemovedAndAddedTargets() {
+        CitationGraph graph = new CitationGraph(100);
+        graph.setReferences(0, new int[]{1, 2, 3});
+        graph.setReferences(4, new int[]{2});
+        graph.compact();
+
+        // 去掉 1，保留 2、3，新增 5；重复、自身和负数被忽略
+        graph.setReferences(0, new int[]{5, 3, 2, 5, 0, -7});
+
+        assertThat(graph.references(0)).containsExactly(2, 3, 5);
+        assertThat(graph.citedBy(1)).isEmpty();
+        assertThat(graph.citedBy(2)).containsExactly(0, 4);
+        assertThat(graph.citedBy(3)).containsExactly(0);
+        assertThat(graph.citedBy(5)).containsExactly(0);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+        assertThat(graph.nodeCount()).isEqualTo(6);
+        // 0 的出边表，以及 1、5 的入边表进入覆盖层；2、3 没有变化
+        assertThat(graph.deltaNodes()).isEqualTo(3);
+
+        graph.setReferences(0, new int[0]);
+        graph.compact();
+        assertThat(graph.citedBy(2)).containsExactly(4);
+        assertThat(graph.edgeCount()).isEqualTo(1);
+        assertThat(graph.deltaNodes()).isZero();
+    }
+
+    @Test
+    void rankedQueriesMatchNaiveGraph() {
+        CitationGraph graph = new CitationGraph(4);
+        NaiveGraph naive = new NaiveGraph();
+        for (int node = 0; node < NODES; node++) {
+            int[] targets = randomTargets(node);
+            graph.setReferences(node, targets);
+            naive.set(node, targets);
+        }
+        // 一部分在 CSR 中，一部分仍在覆盖层
+        for (int i = 0; i < 10; i++) {
+            int node = random.nextInt(NODES);
+            int target = random.nextInt(NODES);
+            graph.addReference(node, target);
+            naive.add(node, target);
+        }
+
+        for (int node = 0; node < NODES; node++) {
+            for (int limit : new int[]{1, 5, 1_000}) {
+                assertThat(graph.citedByRanked(node, limit)).as("citedByRanked %d", node)
+                        .isEqualTo(naive.citedByRanked(node, limit));
+                assertThat(graph.coCited(node, limit)).as("coCited %d", node)
+                        .isEqualTo(naive.coCited(node, limit));
+                for (int hops = 1; hops <= 3; hops++) {
+                    assertThat(graph.neighborhood(node, hops, true, false, limit, Integer.MAX_VALUE))
+                            .isEqualTo(naive.neighborhood(node, hops, true, false, limit));
+                    assertThat(graph.neighborhood(node, hops, false, true, limit, Integer.MAX_VALUE))
+                            .isEqualTo(naive.neighborhood(node, hops, false, true, limit));
+                    assertThat(graph.neighborhood(node, hops, true, true, limit, Integer.MAX_VALUE))
+                            .as("neighborhood %d hops %d limit %d", node, hops, limit)
+                            .isEqualTo(naive.neighborhood(node, hops, true, true, limit));
+                }
+            }
+        }
+        assertThat(graph.coCited(NODES + 5, 10)).isEmpty();
+        assertThat(graph.neighborhood(-1, 2, true, true, 10, 100)).isEmpty();
+    }
+
+    @Test
+    void neighborhoodStopsExpandingAtMaxVisited() {
+        CitationGraph graph = new CitationGraph(4);
+        NaiveGraph naive = new NaiveGraph();
+        for (int node = 0; node < NODES; node++) {
+            int[] targets = randomTargets(node);
+            graph.setReferences(node, targets);
+            naive.set(node, targets);
+        }
+
+        for (int node = 0; node < NODES; node++) {
+            List<CitationGraph.Neighbor> unbounded = naive.neighborhood(node, 3, true, true, Integer.MAX_VALUE);
+            for (int maxVisited : new int[]{1, 2, 5, 20}) {
+                List<CitationGraph.Neighbor> bounded = graph.neighborhood(node, 3, true, true, 1_000, maxVisited);
+                // 起点本身也算一次访问；被截断时保留下来的节点距离和权重不变
+                assertThat(bounded.size()).isLessThanOrEqualTo(maxVisited - 1);
+                assertThat(unbounded).containsAll(bounded);
+                if (unbounded.size() < maxVisited) {
+                    assertThat(bounded).isEqualTo(unbounded);
+                }
+            }
+        }
+    }
+
+    @Test
+    void neighborhoodOnHighlyCitedHubVisitsAtMostMaxVisited() {
+        CitationGraph graph = new CitationGraph(4);
+        for (int citing = 1; citing <= 500; citing++) {
+            graph.setReferences(citing, new int[]{0});
+        }
+
+        List<CitationGraph.Neighbor> neighbors = graph.neighborhood(0, 2, false, true, 1_000, 50);
+
+        assertThat(neighbors).hasSize(49);
+        assertThat(neighbors).allSatisfy(neighbor -> {
+            assertThat(neighbor.hops()).isEqualTo(1);
+            assertThat(neighbor.weight()).isEqualTo(1);
+        });
+        assertThat(graph.citedByRanked(0, 3)).extracting(CitationGraph.Neighbor::node).containsExactly(500, 499, 498);
+    }
+
+    @Test
+    void rejectsNegativeNodes() {
+        CitationGraph graph = new CitationGraph(4);
+        assertThatThrownBy(() -> graph.setReferences(-1, new int[]{1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> graph.addReference(1, -2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CitationGraph(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int[] randomTargets(int node) {
+        // 偶尔出现重复、自身和负数，偏向少数热门节点以产生共被引
+        int[] targets = new int[random.nextInt(8)];
+        for (int i = 0; i < targets.length; i++) {
+            int roll = random.nextInt(20);
+            targets[i] = roll == 0 ? node : roll == 1 ? -1 - random.nextInt(3)
+                    : roll < 8 ? random.nextInt(6) : random.nextInt(NODES);
+        }
+        return targets;
+    }
+
+    private static void assertSameEdges(CitationGraph graph, NaiveGraph naive) {
+        assertThat(graph.edgeCount()).isEqualTo(naive.edgeCount());
+        assertThat(graph.nodeCount()).isEqualTo(naive.nodeCount);
+        for (int node = 0; node < NODES + 2; node++) {
+            int[] references = naive.references(node).stream().mapToInt(Integer::intValue).toArray();
+            int[] citedBy = naive.citedBy(node).stream().mapToInt(Integer::intValue).toArray();
+            assertThat(graph.references(node)).as("references of %d", node).containsExactly(references);
+            assertThat(graph.citedBy(node)).as("cited by of %d", node).containsExactly(citedBy);
+            assertThat(graph.outDegree(node)).isEqualTo(references.length);
+            assertThat(graph.inDegree(node)).isEqualTo(citedBy.length);
+        }
+    }
+
+    /**
+     * 朴素实现：邻接集合，排名按 weight 降序、同权重节点序号降序（与 CitationGraph 的约定一致）
+     */
+    private static final class NaiveGraph {
+
+        private static final Comparator<CitationGraph.Neighbor> RANKING = Comparator
+                .comparingInt(CitationGraph.Neighbor::hops)
+                .thenComparing(Comparator.comparingInt(CitationGraph.Neighbor::weight).reversed())
+                .thenComparing(Comparator.comparingInt(CitationGraph.Neighbor::node).reversed());
+
+        private final Map<Integer, TreeSet<Integer>> out = new HashMap<>();
+        private int nodeCount;
+
+        void set(int node, int[] targets) {
+            TreeSet<Integer> references = new TreeSet<>();
+            for (int target : targets) {
+                if (target >= 0 && target != node) {
+                    references.add(target);
+                    nodeCount = Math.max(nodeCount, target + 1);
+                }
+            }
+            out.put(node, references);
+            nodeCount = Math.max(nodeCount, node + 1);
+        }
+
+        void add(int node, int target) {
+            if (node == target) {
+                return;
+            }
+            out.computeIfAbsent(node, n -> new TreeSet<>()).add(target);
+            nodeCount = Math.max(nodeCount, Math.max(node, target) + 1);
+        }
+
+        TreeSet<Integer> references(int node) {
+            return out.getOrDefault(node, new TreeSet<>());
+        }
+
+        TreeSet<Integer> citedBy(int node) {
+            TreeSet<Integer> citing = new TreeSet<>();
+            out.forEach((from, targets) -> {
+                if (targets.contains(node)) {
+                    citing.add(from);
+                }
+            });
+            return citing;
+        }
+
+        long edgeCount() {
+            return out.values().stream().mapToLong(TreeSet::size).sum();
+        }
+
+        List<CitationGraph.Neighbor> citedByRanked(int node, int limit) {
+            List<CitationGraph.Neighbor> ranked = new ArrayList<>();
+            for (int citing : citedBy(node)) {
+                ranked.add(new CitationGraph.Neighbor(citing, 1, citedBy(citing).size()));
+            }
+            return sorted(ranked, limit);
+        }
+
+        List<CitationGraph.Neighbor> coCited(int node, int limit) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (int citing : citedBy(node)) {
+                for (int other : references(citing)) {
+                    if (other != node) {
+                        counts.merge(other, 1, Integer::sum);
+                    }
+                }
+            }
+            List<CitationGraph.Neighbor> ranked = new ArrayList<>();
+            counts.forEach((other, count) -> ranked.add(new CitationGraph.Neighbor(other, 1, count)));
+            return sorted(ranked, limit);
+        }
+
+        List<CitationGraph.Neighbor> neighborhood(int node, int hops, boolean followReferences, boolean followCitedBy,
+                                                  int limit) {
+            if (node < 0 || node >= nodeCount) {
+                return List.of();
+            }
+            TreeSet<Integer> visited = new TreeSet<>(List.of(node));
+            TreeSet<Integer> frontier = new TreeSet<>(List.of(node));
+            List<CitationGraph.Neighbor> result = new ArrayList<>();
+            for (int hop = 1; hop <= hops && !frontier.isEmpty(); hop++) {
+                Map<Integer, Integer> counts = new HashMap<>();
+                for (int from : frontier) {
+                    if (followReferences) {
+                        references(from).stream().filter(to -> !visited.contains(to))
+                                .forEach(to -> counts.merge(to, 1, Integer::sum));
+                    }
+                    if (followCitedBy) {
+                        citedBy(from).stream().filter(to -> !visited.contains(to))
+                                .forEach(to -> counts.merge(to, 1, Integer::sum));
+                    }
+                }
+                int currentHop = hop;
+                counts.forEach((to, count) -> result.add(new CitationGraph.Neighbor(to, currentHop, count)));
+                visited.addAll(counts.keySet());
+                frontier = new TreeSet<>(counts.keySet());
+            }
+            return sorted(result, limit);
+        }
+
+        private static List<CitationGraph.Neighbor> sorted(List<CitationGraph.Neighbor> neighbors, int limit) {
+            return neighbors.stream().sorted(RANKING).limit(limit).toList();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 随机语料上对照 MaxScore 检索与逐文档打分：写入、替换、删除（墓碑）和压缩重编号之后结果都应一致。
+ * 两种方式的浮点累加顺序不同，分数按容差比较；同分文档的先后不固定，所以逐个位置比较分数，
+ * 并用全量打分核对每个返回标签的分数。
+ */
+class Bm25IndexTest {
+
+    private static final int VOCABULARY = 400;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+    private static final float TOLERANCE = 1e-4f;
+
+    private final SplittableRandom random = new SplittableRandom(20240611L);
+
+    @Test
+    void searchMatchesExhaustiveAfterAddsAndReplacements() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        for (long label = 0; label < 3_000; label++) {
+            index.add(label, randomText(5, 80));
+        }
+        // 同一标签再次写入：旧文档变为墓碑
+        for (int i = 0; i < 300; i++) {
+            index.add(random.nextInt(3_000), randomText(5, 80));
+        }
+
+        assertThat(index.size()).isEqualTo(3_000);
+        assertSearchMatchesExhaustive(index);
+    }
+
+    @Test
+    void searchMatchesExhaustiveWithTombstonesAndAfterCompaction() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        int documents = Bm25Index.COMPACT_MIN_DELETED + 4_000;
+        for (long label = 0; label < documents; label++) {
+            index.add(label, randomText(3, 40));
+        }
+
+        // 删除未达到压缩门槛：只打墓碑
+        List<Long> order = shuffledLabels(documents);
+        int deletes = 0;
+        for (; deletes < Bm25Index.COMPACT_MIN_DELETED / 2; deletes++) {
+            assertThat(index.delete(order.get(deletes))).isTrue();
+        }
+        assertThat(index.stats().deletedDocuments()).isEqualTo(deletes);
+        assertThat(index.delete(order.get(0))).isFalse();
+        assertSearchMatchesExhaustive(index);
+
+        // 继续删除直到触发压缩，文档重新编号
+        for (; deletes < Bm25Index.COMPACT_MIN_DELETED + 1_000; deletes++) {
+            index.delete(order.get(deletes));
+        }
+        assertThat(index.stats().deletedDocuments()).isLessThan(deletes);
+        assertThat(index.size()).isEqualTo(documents - deletes);
+        assertSearchMatchesExhaustive(index);
+
+        // 压缩后继续写入，新文档号接在重编号之后
+        for (long label = documents; label < documents + 1_000; label++) {
+            index.add(label, randomText(3, 40));
+        }
+        assertSearchMatchesExhaustive(index);
+        List<Long> deleted = order.subList(0, deletes);
+        for (Bm25Index.Result result : index.search("t0 t1 t2", documents + 1_000)) {
+            assertThat(deleted).doesNotContain(result.label());
+        }
+    }
+
+    private void assertSearchMatchesExhaustive(Bm25Index index) {
+        for (int q = 0; q < QUERIES; q++) {
+            String query = randomText(1, 5);
+            List<Bm25Index.Result> expected = index.searchExhaustive(query, K);
+            List<Bm25Index.Result> actual = index.search(query, K);
+
+            assertThat(actual).as("query '%s'", query).hasSameSizeAs(expected);
+            Map<Long, Float> allScores = new HashMap<>();
+            for (Bm25Index.Result result : index.searchExhaustive(query, index.size())) {
+                allScores.put(result.label(), result.score());
+            }
+            for (int i = 0; i < actual.size(); i++) {
+                Bm25Index.Result result = actual.get(i);
+                assertThat(result.score()).as("query '%s', rank %d", query, i)
+                        .isCloseTo(expected.get(i).score(), within(TOLERANCE));
+                assertThat(allScores).as("query '%s'", query).containsKey(result.label());
+                assertThat(result.score()).isCloseTo(allScores.get(result.label()), within(TOLERANCE));
+            }
+        }
+    }
+
+    /**
+     * 词频呈长尾：少数词项出现在大多数文档中，多数词项只出现在少量文档中
+     */
+    private String randomText(int minWords, int maxWords) {
+        int words = random.nextInt(minWords, maxWords + 1);
+        StringBuilder text = new StringBuilder(words * 6);
+        for (int i = 0; i < words; i++) {
+            double u = random.nextDouble();
+            text.append('t').append((int) (VOCABULARY * u * u * u)).append(' ');
+        }
+        return text.toString();
+    }
+
+    private List<Long> shuffledLabels(int count) {
+        List<Long> labels = new ArrayList<>(count);
+        for (long label = 0; label < count; label++) {
+            labels.add(label);
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            labels.set(i, labels.set(j, labels.get(i)));
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.lexical;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 随机文档号间隔和词频写入后逐块解码，应与写入的序列完全一致；长度覆盖未满一块、恰好整块和整块加尾部。
+ */
+class PostingListTest {
+
+    private final SplittableRandom random = new SplittableRandom(7L);
+
+    @Test
+    void decodeRoundTripsAcrossBlockBoundaries() {
+        int blockSize = PostingList.BLOCK_SIZE;
+        int[] lengths = {1, blockSize - 1, blockSize, blockSize + 1, 2 * blockSize, 5 * blockSize + 37};
+        for (int length : lengths) {
+            for (int round = 0; round < 20; round++) {
+                assertRoundTrip(length);
+            }
+        }
+    }
+
+    @Test
+    void decodeHandlesExtremeGapsAndFrequencies() {
+        PostingList list = new PostingList();
+        int[] docs = new int[3 * PostingList.BLOCK_SIZE];
+        int[] tfs = new int[docs.length];
+        int doc = -1;
+        for (int i = 0; i < docs.length; i++) {
+            // 第二块里有跨越几乎整个 int 范围的间隔，第三块全部是连续文档号和 tf = 1（位宽为 0）
+            int gap = i == PostingList.BLOCK_SIZE + 5 ? Integer.MAX_VALUE / 2 : 1;
+            doc += gap;
+            docs[i] = doc;
+            tfs[i] = i < PostingList.BLOCK_SIZE ? 1 + (i % 2) * 65_535 : 1;
+            list.add(docs[i], tfs[i]);
+        }
+        assertDecodes(list, docs, tfs, docs.length);
+    }
+
+    @Test
+    void rejectsOutOfOrderDocumentsAndNonPositiveFrequencies() {
+        PostingList list = new PostingList();
+        list.add(10, 1);
+        assertThatThrownBy(() -> list.add(10, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> list.add(11, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertRoundTrip(int length) {
+        PostingList list = new PostingList();
+        int[] docs = new int[length];
+        int[] tfs = new int[length];
+        int doc = -1;
+        for (int i = 0; i < length; i++) {
+            // 多数间隔很小，偶尔出现大间隔，使块内位宽各不相同
+            doc += random.nextInt(8) == 0 ? 1 + random.nextInt(100_000) : 1 + random.nextInt(4);
+            docs[i] = doc;
+            tfs[i] = random.nextInt(10) == 0 ? 1 + random.nextInt(1_000) : 1 + random.nextInt(3);
+            list.add(docs[i], tfs[i]);
+        }
+        assertDecodes(list, docs, tfs, length);
+    }
+
+    private static void assertDecodes(PostingList list, int[] docs, int[] tfs, int length) {
+        int blockSize = PostingList.BLOCK_SIZE;
+        assertThat(list.length()).isEqualTo(length);
+        assertThat(list.blocks()).isEqualTo((length + blockSize - 1) / blockSize);
+
+        int[] decodedDocs = new int[blockSize];
+        int[] decodedTfs = new int[blockSize];
+        int position = 0;
+        int maxTf = 0;
+        for (int block = 0; block < list.blocks(); block++) {
+            int count = list.decode(block, decodedDocs, decodedTfs);
+            assertThat(count).isEqualTo(Math.min(blockSize, length - position));
+            for (int i = 0; i < count; i++, position++) {
+                assertThat(decodedDocs[i]).as("doc at %d", position).isEqualTo(docs[position]);
+                assertThat(decodedTfs[i]).as("tf at %d", position).isEqualTo(tfs[position]);
+                maxTf = Math.max(maxTf, tfs[position]);
+            }
+            assertThat(list.lastDocOfBlock(block)).isEqualTo(docs[position - 1]);
+        }
+        assertThat(position).isEqualTo(length);
+        assertThat(list.maxTf()).isEqualTo(maxTf);
+
+        // findBlock 定位到第一个最后文档号不小于目标的块
+        for (int i = 0; i < length; i += Math.max(1, length / 17)) {
+            assertThat(list.findBlock(0, docs[i])).isEqualTo(i / blockSize);
+        }
+        assertThat(list.findBlock(0, docs[length - 1] + 1)).isEqualTo(list.blocks());
+    }
+}
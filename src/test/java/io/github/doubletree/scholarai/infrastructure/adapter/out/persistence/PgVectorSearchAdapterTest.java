@@ -0,0 +1,208 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.persistence;
+
+import com.pgvector.PGvector;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.SearchFilter;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.CompressedBitmap;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 在真实的 pgvector 上对照暴力检索：不带过滤时返回数超过 pgvector 默认的 ef_search（40），
+ * 选择性很强的过滤走精确扫描，其余过滤（包括改写成排除列表的宽过滤）在迭代扫描下仍能凑满 topK。
+ * 需要 Docker，没有 Docker 时跳过。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PgVectorSearchAdapterTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final int PAPERS = 300;
+    private static final int CHUNKS_PER_PAPER = 10;
+    private static final int EXACT_SCAN_MAX_PAPERS = 20;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("pgvector/pgvector:0.8.0-pg16").asCompatibleSubstituteFor("postgres"));
+
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+    private static final List<PaperId> paperIds = new ArrayList<>();
+    private static final List<Row> rows = new ArrayList<>();
+
+    private final SplittableRandom random = new SplittableRandom(42L);
+    private final PaperOrdinals ordinals = new PaperOrdinals();
+    private final PaperFilterIndex filterIndex = mock(PaperFilterIndex.class);
+    private PgVectorSearchAdapter adapter;
+
+    private record Row(PaperId paperId, int chunkIndex, float[] vector) {
+    }
+
+    @BeforeAll
+    static void createCorpus() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("""
+                CREATE TABLE paper_chunk (
+                    paper_id    UUID NOT NULL,
+                    chunk_index INT  NOT NULL,
+                    embedding   vector(%d),
+                    PRIMARY KEY (paper_id, chunk_index)
+                )""".formatted(DIMENSIONS));
+        jdbcTemplate.execute("CREATE INDEX ON paper_chunk USING hnsw (embedding vector_cosine_ops)");
+
+        SplittableRandom random = new SplittableRandom(7L);
+        List<Object[]> batch = new ArrayList<>();
+        for (int p = 0; p < PAPERS; p++) {
+            PaperId paperId = PaperId.generate();
+            paperIds.add(paperId);
+            for (int c = 0; c < CHUNKS_PER_PAPER; c++) {
+                float[] vector = randomVector(random);
+                rows.add(new Row(paperId, c, vector));
+                batch.add(new Object[]{paperId.value(), c, new PGvector(vector)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO paper_chunk (paper_id, chunk_index, embedding) VALUES (?, ?, ?)", batch);
+        jdbcTemplate.execute("ANALYZE paper_chunk");
+    }
+
+    @BeforeEach
+    void setUp() {
+        paperIds.forEach(ordinals::ordinalOf);
+        adapter = new PgVectorSearchAdapter(jdbcTemplate, transactionManager, filterIndex, ordinals,
+                40, "relaxed_order", EXACT_SCAN_MAX_PAPERS);
+    }
+
+    @Test
+    void unfilteredSearchReturnsMoreThanDefaultEfSearch() {
+        float[] query = randomVector(random);
+        when(filterIndex.resolve(any())).thenReturn(null);
+
+        List<VectorMatch> matches = adapter.search(query, 120, -1.0, SearchFilter.NONE);
+
+        assertThat(matches).hasSize(120);
+        assertSortedBySimilarity(matches);
+        assertRecall(matches, exact(query, null, 120), 0.9);
+    }
+
+    @Test
+    void selectiveFilterUsesExactScan() {
+        float[] query = randomVector(random);
+        Set<PaperId> selected = Set.of(paperIds.get(3), paperIds.get(150));
+        when(filterIndex.resolve(any())).thenReturn(bitmapOf(selected));
+
+        List<VectorMatch> matches = adapter.search(query, 50, -1.0, SearchFilter.NONE.withPaper(paperIds.get(3)));
+
+        List<VectorMatch> expected = exact(query, selected, 50);
+        assertThat(matches).hasSize(2 * CHUNKS_PER_PAPER);
+        for (int i = 0; i < matches.size(); i++) {
+            assertThat(matches.get(i).paperId()).isEqualTo(expected.get(i).paperId());
+            assertThat(matches.get(i).chunkIndex()).isEqualTo(expected.get(i).chunkIndex());
+            assertThat(matches.get(i).similarity()).isCloseTo(expected.get(i).similarity(), within(1e-5));
+        }
+    }
+
+    @Test
+    void narrowFilterAboveExactThresholdStillFillsTopK() {
+        float[] query = randomVector(random);
+        Set<PaperId> selected = new HashSet<>(paperIds.subList(0, EXACT_SCAN_MAX_PAPERS + 10));
+        when(filterIndex.resolve(any())).thenReturn(bitmapOf(selected));
+        when(filterIndex.allPapers()).thenReturn(bitmapOf(new HashSet<>(paperIds)));
+
+        List<VectorMatch> matches = adapter.search(query, 60, -1.0, SearchFilter.NONE.withPaper(paperIds.get(0)));
+
+        assertThat(matches).hasSize(60);
+        assertThat(matches).allSatisfy(match -> assertThat(selected).contains(match.paperId()));
+        assertSortedBySimilarity(matches);
+        assertRecall(matches, exact(query, selected, 60), 0.9);
+    }
+
+    @Test
+    void broadFilterIsRewrittenAsExclusion() {
+        float[] query = randomVector(random);
+        Set<PaperId> selected = new HashSet<>(paperIds.subList(0, PAPERS - 40));
+        when(filterIndex.resolve(any())).thenReturn(bitmapOf(selected));
+        when(filterIndex.allPapers()).thenReturn(bitmapOf(new HashSet<>(paperIds)));
+
+        List<VectorMatch> matches = adapter.search(query, 80, -1.0, SearchFilter.NONE.withPaper(paperIds.get(0)));
+
+        assertThat(matches).hasSize(80);
+        assertThat(matches).allSatisfy(match -> assertThat(selected).contains(match.paperId()));
+        assertRecall(matches, exact(query, selected, 80), 0.9);
+    }
+
+    private CompressedBitmap bitmapOf(Set<PaperId> papers) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        papers.forEach(paperId -> bitmap.add(ordinals.ordinalOf(paperId)));
+        return bitmap;
+    }
+
+    private static List<VectorMatch> exact(float[] query, Set<PaperId> papers, int topK) {
+        return rows.stream()
+                .filter(row -> papers == null || papers.contains(row.paperId()))
+                .map(row -> new VectorMatch(row.paperId(), row.chunkIndex(), cosine(query, row.vector())))
+                .sorted(Comparator.comparingDouble(VectorMatch::similarity).reversed())
+                .limit(topK)
+                .toList();
+    }
+
+    private static void assertSortedBySimilarity(List<VectorMatch> matches) {
+        for (int i = 1; i < matches.size(); i++) {
+            assertThat(matches.get(i).similarity()).isLessThanOrEqualTo(matches.get(i - 1).similarity());
+        }
+    }
+
+    private static void assertRecall(List<VectorMatch> actual, List<VectorMatch> expected, double minRecall) {
+        Set<String> expectedKeys = new HashSet<>();
+        expected.forEach(match -> expectedKeys.add(match.paperId() + "#" + match.chunkIndex()));
+        long hits = actual.stream().filter(match -> expectedKeys.contains(match.paperId() + "#" + match.chunkIndex()))
+                .count();
+        assertThat((double) hits / expected.size()).isGreaterThanOrEqualTo(minRecall);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
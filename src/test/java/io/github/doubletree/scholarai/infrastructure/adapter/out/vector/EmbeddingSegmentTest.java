@@ -0,0 +1,202 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 按论文的行号索引与侧表扫描一致；压缩丢弃已删除行、保留向量和检索结果，旧文件被标记为已替换；
+ * 崩溃留下的压缩输出在写入方打开时补完或丢弃
+ */
+class EmbeddingSegmentTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final int CHUNKS = 10;
+
+    @TempDir
+    Path dir;
+
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Test
+    void rowsOfTracksAppendsAndDeletesAcrossReopen() throws IOException {
+        List<PaperId> papers = new ArrayList<>();
+        try (EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            fill(segment, papers, 3);
+            segment.markDeleted(segment.rowsOf(papers.get(1))[2]);
+            // 重复删除不重复计数
+            segment.markDeleted(CHUNKS + 2);
+
+            assertThat(segment.rowsOf(papers.get(0))).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+            assertThat(segment.rowsOf(papers.get(1))).hasSize(CHUNKS - 1).doesNotContain(CHUNKS + 2);
+            assertThat(segment.rowsOf(PaperId.generate())).isEmpty();
+            assertThat(segment.deletedCount()).isEqualTo(1);
+
+            // 索引建立后的追加同样可见
+            int row = segment.append(papers.get(0), CHUNKS, randomVector());
+            assertThat(segment.rowsOf(papers.get(0))).endsWith(row);
+        }
+
+        // 重新打开后由侧表重建，与只读方的顺序扫描一致
+        try (EmbeddingSegment writer = EmbeddingSegment.open(dir, DIMENSIONS, true);
+             EmbeddingSegment reader = EmbeddingSegment.open(dir, DIMENSIONS, false)) {
+            assertThat(writer.deletedCount()).isEqualTo(1);
+            for (PaperId paperId : papers) {
+                assertThat(writer.rowsOf(paperId)).containsExactly(reader.rowsOf(paperId));
+            }
+        }
+    }
+
+    @Test
+    void compactionDropsDeletedRowsAndKeepsVectors() throws IOException {
+        List<PaperId> papers = new ArrayList<>();
+        EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true);
+        fill(segment, papers, 4);
+        segment.markImported();
+        for (int row : segment.rowsOf(papers.get(1))) {
+            segment.markDeleted(row);
+        }
+        float[] query = randomVector();
+        List<EmbeddingSegment.Hit> before = segment.search(query, 15, -1.0);
+        float[] kept = segment.vector(segment.rowsOf(papers.get(2))[4]);
+        EmbeddingSegment reader = EmbeddingSegment.open(dir, DIMENSIONS, false);
+
+        EmbeddingSegment compacted = segment.compact();
+
+        assertThat(compacted.size()).isEqualTo(3 * CHUNKS);
+        assertThat(compacted.deletedCount()).isZero();
+        assertThat(compacted.isImported()).isTrue();
+        assertThat(compacted.rowsOf(papers.get(1))).isEmpty();
+        assertThat(compacted.rowsOf(papers.get(2))).containsExactly(10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+        assertThat(compacted.vector(14)).containsExactly(kept);
+        assertThat(compacted.chunkIndex(14)).isEqualTo(4);
+        assertThat(compacted.search(query, 15, -1.0))
+                .extracting(EmbeddingSegment.Hit::paperId, EmbeddingSegment.Hit::chunkIndex,
+                        EmbeddingSegment.Hit::similarity)
+                .containsExactlyElementsOf(before.stream()
+                        .map(hit -> tuple(hit.paperId(), hit.chunkIndex(), hit.similarity()))
+                        .toList());
+        assertThat(dir.resolve(EmbeddingSegment.VECTOR_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+        assertThat(dir.resolve(EmbeddingSegment.ID_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+
+        // 旧段不能再写入，写锁随新段转移
+        assertThat(segment.isSuperseded()).isTrue();
+        assertThatThrownBy(() -> segment.append(papers.get(0), 0, randomVector()))
+                .isInstanceOf(IllegalStateException.class);
+        segment.close();
+        assertThatThrownBy(() -> EmbeddingSegment.open(dir, DIMENSIONS, true))
+                .hasMessageContaining("already open for writing");
+
+        // 已打开的只读方仍能检索旧数据，并看到替换标记；重新打开后是压缩后的文件
+        assertThat(reader.isSuperseded()).isTrue();
+        assertThat(reader.search(query, 15, -1.0)).hasSize(15);
+        reader.close();
+        try (EmbeddingSegment reopened = EmbeddingSegment.open(dir, DIMENSIONS, false)) {
+            assertThat(reopened.isSuperseded()).isFalse();
+            assertThat(reopened.size()).isEqualTo(3 * CHUNKS);
+            assertThat(reopened.vector(14)).containsExactly(kept);
+        }
+
+        // 新段继续写入，重启后数据完整
+        compacted.append(papers.get(0), CHUNKS, randomVector());
+        compacted.close();
+        try (EmbeddingSegment reopened = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            assertThat(reopened.size()).isEqualTo(3 * CHUNKS + 1);
+            assertThat(reopened.rowsOf(papers.get(0))).hasSize(CHUNKS + 1);
+        }
+    }
+
+    @Test
+    void writerFinishesCompactionInterruptedBeforeRename() throws IOException {
+        List<PaperId> papers = new ArrayList<>();
+        try (EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            fill(segment, papers, 3);
+        }
+        // 另一个目录里压缩出的文件带有完成标记，放到 .compact 位置模拟改名之前崩溃
+        Path other = dir.resolve("other");
+        List<PaperId> otherPapers = new ArrayList<>();
+        EmbeddingSegment source = EmbeddingSegment.open(other, DIMENSIONS, true);
+        fill(source, otherPapers, 2);
+        for (int row : source.rowsOf(otherPapers.get(0))) {
+            source.markDeleted(row);
+        }
+        source.compact().close();
+        source.close();
+        EmbeddingSegment staleReader = EmbeddingSegment.open(dir, DIMENSIONS, false);
+        Files.copy(other.resolve(EmbeddingSegment.VECTOR_FILE),
+                dir.resolve(EmbeddingSegment.VECTOR_FILE + EmbeddingSegment.COMPACT_SUFFIX));
+        Files.copy(other.resolve(EmbeddingSegment.ID_FILE),
+                dir.resolve(EmbeddingSegment.ID_FILE + EmbeddingSegment.COMPACT_SUFFIX));
+        // 新打开的只读方直接使用已写完的新文件
+        try (EmbeddingSegment reader = EmbeddingSegment.open(dir, DIMENSIONS, false)) {
+            assertThat(reader.size()).isEqualTo(CHUNKS);
+        }
+
+        try (EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            assertThat(segment.size()).isEqualTo(CHUNKS);
+            assertThat(segment.rowsOf(otherPapers.get(1))).hasSize(CHUNKS);
+            assertThat(segment.rowsOf(papers.get(0))).isEmpty();
+        }
+        assertThat(staleReader.isSuperseded()).isTrue();
+        staleReader.close();
+        assertThat(dir.resolve(EmbeddingSegment.VECTOR_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+        assertThat(dir.resolve(EmbeddingSegment.ID_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+    }
+
+    @Test
+    void writerDiscardsIncompleteCompaction() throws IOException {
+        List<PaperId> papers = new ArrayList<>();
+        try (EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            fill(segment, papers, 3);
+        }
+        // 没有完成标记的普通段文件，模拟写到一半崩溃
+        Path other = dir.resolve("other");
+        try (EmbeddingSegment partial = EmbeddingSegment.open(other, DIMENSIONS, true)) {
+            fill(partial, new ArrayList<>(), 1);
+        }
+        Files.copy(other.resolve(EmbeddingSegment.VECTOR_FILE),
+                dir.resolve(EmbeddingSegment.VECTOR_FILE + EmbeddingSegment.COMPACT_SUFFIX));
+        Files.copy(other.resolve(EmbeddingSegment.ID_FILE),
+                dir.resolve(EmbeddingSegment.ID_FILE + EmbeddingSegment.COMPACT_SUFFIX));
+
+        // 只读方不会打开未写完的文件
+        try (EmbeddingSegment reader = EmbeddingSegment.open(dir, DIMENSIONS, false)) {
+            assertThat(reader.size()).isEqualTo(3 * CHUNKS);
+        }
+        try (EmbeddingSegment segment = EmbeddingSegment.open(dir, DIMENSIONS, true)) {
+            assertThat(segment.size()).isEqualTo(3 * CHUNKS);
+            assertThat(segment.rowsOf(papers.get(2))).hasSize(CHUNKS);
+        }
+        assertThat(dir.resolve(EmbeddingSegment.VECTOR_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+        assertThat(dir.resolve(EmbeddingSegment.ID_FILE + EmbeddingSegment.COMPACT_SUFFIX)).doesNotExist();
+    }
+
+    private void fill(EmbeddingSegment segment, List<PaperId> papers, int count) {
+        for (int p = 0; p < count; p++) {
+            PaperId paperId = PaperId.generate();
+            papers.add(paperId);
+            for (int c = 0; c < CHUNKS; c++) {
+                segment.append(paperId, c, randomVector());
+            }
+        }
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 近似检索的召回率以暴力检索为基准；并发插入、删除、检索时，发布水位以下的节点都已写完，
+ * 被删除的节点不出现在结果中
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    @Test
+    void approximateSearchRecallsMostExactNeighbours() {
+        SplittableRandom random = new SplittableRandom(42L);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 200);
+        for (int i = 0; i < 5_000; i++) {
+            index.add(randomVector(random), i);
+        }
+
+        int hits = 0;
+        int expected = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random);
+            Set<Long> exact = labels(index.exactSearch(query, 10, -1.0));
+            for (HnswIndex.Result result : index.search(query, 10, 64, -1.0)) {
+                if (exact.contains(result.label())) {
+                    hits++;
+                }
+            }
+            expected += exact.size();
+        }
+
+        assertThat((double) hits / expected).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void filteredSearchOnlyReturnsMatchingLabels() {
+        SplittableRandom random = new SplittableRandom(7L);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 200);
+        for (int i = 0; i < 2_000; i++) {
+            index.add(randomVector(random), i);
+        }
+
+        List<HnswIndex.Result> results = index.search(randomVector(random), 20, 64, -1.0, label -> label % 10 == 3);
+
+        assertThat(results).hasSize(20);
+        assertThat(results).allSatisfy(result -> assertThat(result.label() % 10).isEqualTo(3));
+    }
+
+    @Test
+    void deletedNodesAreSkippedButTraversed() {
+        SplittableRandom random = new SplittableRandom(11L);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 200);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            float[] vector = randomVector(random);
+            vectors.add(vector);
+            index.add(vector, i);
+        }
+        for (int node = 0; node < 1_000; node += 2) {
+            index.markDeleted(node);
+        }
+
+        assertThat(index.deletedCount()).isEqualTo(500);
+        for (int q = 0; q < 20; q++) {
+            List<HnswIndex.Result> results = index.search(vectors.get(2 * q), 10, 64, -1.0);
+            assertThat(results).hasSize(10);
+            assertThat(results).allSatisfy(result -> assertThat(result.node() % 2).isEqualTo(1));
+        }
+    }
+
+    @Test
+    void concurrentAddRemoveAndSearchStayConsistent() throws Exception {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 64);
+        int writers = 4;
+        int perWriter = 1_500;
+        Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long seed = w;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        // 标签记录写入线程，便于校验节点号与标签的对应关系
+                        int node = index.add(randomVector(random), seed * perWriter + i);
+                        assertThat(index.label(node)).isEqualTo(seed * perWriter + i);
+                        if (i % 3 == 0) {
+                            index.markDeleted(node);
+                            deleted.add(node);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // 检索线程：暴力检索只读到已发布的节点，近似检索不返回检索开始前已删除的节点
+            for (int r = 0; r < 2; r++) {
+                long seed = 100 + r;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    start.await();
+                    while (writing.get()) {
+                        float[] query = randomVector(random);
+                        Set<Integer> deletedBefore = Set.copyOf(deleted);
+                        int published = index.size();
+                        for (HnswIndex.Result result : index.exactSearch(query, 5, -1.0)) {
+                            assertThat(result.node()).isLessThan(Math.max(published, index.size()));
+                            assertThat(Float.isNaN(result.similarity())).isFalse();
+                        }
+                        for (HnswIndex.Result result : index.search(query, 5, 32, -1.0)) {
+                            assertThat(deletedBefore).doesNotContain(result.node());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (int w = 0; w < writers; w++) {
+                futures.get(w).get();
+            }
+            writing.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.size()).isEqualTo(writers * perWriter);
+        assertThat(index.deletedCount()).isEqualTo(deleted.size());
+        Set<Long> labels = new HashSet<>();
+        for (int node = 0; node < index.size(); node++) {
+            labels.add(index.label(node));
+        }
+        assertThat(labels).hasSize(writers * perWriter);
+        float[] query = randomVector(new SplittableRandom(99L));
+        assertThat(index.search(query, 50, 100, -1.0))
+                .hasSize(50)
+                .allSatisfy(result -> assertThat(deleted).doesNotContain(result.node()));
+    }
+
+    @Test
+    void vectorCopiesAreNormalizedAndIndependent() {
+        HnswIndex index = new HnswIndex(2, 4, 16);
+        int node = index.add(new float[]{3f, 4f}, 1L);
+
+        float[] copy = index.vector(node);
+        copy[0] = 100f;
+
+        assertThat(index.vector(node)).containsExactly(new float[]{0.6f, 0.8f}, within(1e-6f));
+    }
+
+    private static Set<Long> labels(List<HnswIndex.Result> results) {
+        Set<Long> labels = new HashSet<>();
+        results.forEach(result -> labels.add(result.label()));
+        return labels;
+    }
+
+    private static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
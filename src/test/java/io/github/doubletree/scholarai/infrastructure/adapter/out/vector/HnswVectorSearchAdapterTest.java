@@ -0,0 +1,197 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 墓碑过多时重建索引，重建后被删论文不再出现、节点数收缩；预热与流水线并发写同一篇论文时以流水线为准
+ */
+class HnswVectorSearchAdapterTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final int CHUNKS = 20;
+
+    private final LoadChunkPort loadChunkPort = mock(LoadChunkPort.class);
+    private final PaperFilterIndex filterIndex = mock(PaperFilterIndex.class);
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Test
+    void rebuildDropsTombstonesAndKeepsLivePapersSearchable() throws Exception {
+        HnswVectorSearchAdapter adapter = adapter(4 * CHUNKS, 0.25);
+        List<PaperId> papers = new ArrayList<>();
+        List<List<Embedding>> embeddings = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            PaperId paperId = PaperId.generate();
+            papers.add(paperId);
+            embeddings.add(embeddings());
+            adapter.index(paperId, embeddings.getLast());
+        }
+
+        for (int p = 0; p < 4; p++) {
+            adapter.remove(papers.get(p));
+        }
+        awaitRebuild(adapter);
+
+        assertThat(adapter.size()).isEqualTo(6 * CHUNKS);
+        assertThat(adapter.deletedCount()).isZero();
+        for (int p = 0; p < 10; p++) {
+            Embedding probe = embeddings.get(p).get(3);
+            List<VectorMatch> matches = adapter.search(probe.vector(), 5, -1.0);
+            assertThat(matches).noneMatch(match -> papers.subList(0, 4).contains(match.paperId()));
+            if (p >= 4) {
+                assertThat(matches.getFirst().paperId()).isEqualTo(papers.get(p));
+                assertThat(matches.getFirst().chunkIndex()).isEqualTo(3);
+            }
+        }
+
+        // 重建后的映射仍然可用：删除一篇剩余的论文后它不再出现
+        adapter.remove(papers.get(4));
+        List<VectorMatch> matches = adapter.search(embeddings.get(4).get(0).vector(), 10, -1.0);
+        assertThat(matches).noneMatch(match -> match.paperId().equals(papers.get(4)));
+    }
+
+    @Test
+    void fewTombstonesDoNotTriggerRebuild() throws Exception {
+        HnswVectorSearchAdapter adapter = adapter(50, 0.25);
+        PaperId removed = PaperId.generate();
+        adapter.index(removed, embeddings());
+        adapter.index(PaperId.generate(), embeddings());
+
+        adapter.remove(removed);
+        Thread.sleep(50);
+
+        assertThat(adapter.size()).isEqualTo(2 * CHUNKS);
+        assertThat(adapter.deletedCount()).isEqualTo(CHUNKS);
+    }
+
+    @Test
+    void warmUpDoesNotOverwritePaperIndexedByPipeline() throws Exception {
+        PaperId paperId = PaperId.generate();
+        List<Embedding> fresh = embeddings();
+        CountDownLatch warmUpStarted = new CountDownLatch(1);
+        CountDownLatch pipelineDone = new CountDownLatch(1);
+        CountDownLatch warmUpDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            LoadChunkPort.EmbeddingVisitor visitor = invocation.getArgument(0);
+            warmUpStarted.countDown();
+            pipelineDone.await();
+            // 数据库里是重新分析之前的旧向量
+            for (int c = 0; c < CHUNKS; c++) {
+                visitor.visit(paperId, c, randomVector());
+            }
+            warmUpDone.countDown();
+            return null;
+        }).when(loadChunkPort).forEachEmbedding(any());
+        HnswVectorSearchAdapter adapter = adapter(10_000, 0.25);
+
+        adapter.warmUp();
+        warmUpStarted.await();
+        adapter.index(paperId, fresh);
+        pipelineDone.countDown();
+        warmUpDone.await();
+
+        assertThat(adapter.size()).isEqualTo(CHUNKS);
+    }
+
+    @Test
+    void concurrentIndexRemoveAndRebuild() throws Exception {
+        HnswVectorSearchAdapter adapter = adapter(20, 0.1);
+        int threads = 4;
+        int papersPerThread = 30;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<List<PaperId>> kept = new ArrayList<>();
+        try {
+            List<Future<List<PaperId>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    SplittableRandom local = new SplittableRandom(seed);
+                    List<PaperId> live = new ArrayList<>();
+                    for (int p = 0; p < papersPerThread; p++) {
+                        PaperId paperId = PaperId.generate();
+                        adapter.index(paperId, embeddings(local, 5));
+                        if (p % 2 == 0) {
+                            adapter.remove(paperId);
+                        } else {
+                            live.add(paperId);
+                        }
+                    }
+                    return live;
+                }));
+            }
+            Future<?> rebuilds = executor.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    adapter.rebuild();
+                }
+            });
+            for (Future<List<PaperId>> future : futures) {
+                kept.add(future.get());
+            }
+            rebuilds.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        adapter.rebuild();
+
+        int live = kept.stream().mapToInt(List::size).sum();
+        assertThat(adapter.size()).isEqualTo(live * 5);
+        assertThat(adapter.deletedCount()).isZero();
+        List<VectorMatch> matches = adapter.search(randomVector(), live * 5, -1.0);
+        assertThat(matches).allSatisfy(match ->
+                assertThat(kept.stream().anyMatch(ids -> ids.contains(match.paperId()))).isTrue());
+    }
+
+    private HnswVectorSearchAdapter adapter(int rebuildMinDeleted, double rebuildDeletedRatio) {
+        return new HnswVectorSearchAdapter(loadChunkPort, new PaperOrdinals(), filterIndex, 20_000,
+                DIMENSIONS, 8, 64, 64, rebuildMinDeleted, rebuildDeletedRatio);
+    }
+
+    private static void awaitRebuild(HnswVectorSearchAdapter adapter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (adapter.deletedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Embedding> embeddings() {
+        return embeddings(random, CHUNKS);
+    }
+
+    private static List<Embedding> embeddings(SplittableRandom random, int count) {
+        List<Embedding> embeddings = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            embeddings.add(new Embedding(randomVector(random), DIMENSIONS, "stub", c));
+        }
+        return embeddings;
+    }
+
+    private float[] randomVector() {
+        return randomVector(random);
+    }
+
+    private static float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.doubletree.scholarai.infrastructure.adapter.out.vector;
+
+import io.github.doubletree.scholarai.domain.model.Embedding;
+import io.github.doubletree.scholarai.domain.model.PaperId;
+import io.github.doubletree.scholarai.domain.model.VectorMatch;
+import io.github.doubletree.scholarai.domain.port.out.LoadChunkPort;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperFilterIndex;
+import io.github.doubletree.scholarai.infrastructure.adapter.out.filter.PaperOrdinals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 已删除行过多时在后台压缩段文件，压缩后被删论文不再出现、行数收缩；共享目录的只读实例自动切换到新文件
+ */
+class SegmentVectorSearchAdapterTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final int CHUNKS = 20;
+
+    @TempDir
+    Path dir;
+
+    private final LoadChunkPort loadChunkPort = mock(LoadChunkPort.class);
+    private final PaperFilterIndex filterIndex = mock(PaperFilterIndex.class);
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Test
+    void compactionDropsDeletedRowsAndReadersFollow() throws Exception {
+        SegmentVectorSearchAdapter writer = adapter(false, 4 * CHUNKS, 0.25);
+        List<PaperId> papers = new ArrayList<>();
+        List<List<Embedding>> embeddings = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            PaperId paperId = PaperId.generate();
+            papers.add(paperId);
+            embeddings.add(embeddings());
+            writer.index(paperId, embeddings.getLast());
+        }
+        SegmentVectorSearchAdapter reader = adapter(true, 4 * CHUNKS, 0.25);
+
+        for (int p = 0; p < 3; p++) {
+            writer.remove(papers.get(p));
+        }
+        Thread.sleep(50);
+        // 未达到阈值时只打标记
+        assertThat(writer.size()).isEqualTo(10 * CHUNKS);
+        assertThat(writer.deletedCount()).isEqualTo(3 * CHUNKS);
+
+        writer.remove(papers.get(3));
+        awaitCompaction(writer);
+
+        assertThat(writer.size()).isEqualTo(6 * CHUNKS);
+        assertThat(writer.deletedCount()).isZero();
+        for (SegmentVectorSearchAdapter adapter : List.of(writer, reader)) {
+            for (int p = 0; p < 10; p++) {
+                List<VectorMatch> matches = adapter.search(embeddings.get(p).get(3).vector(), 5, -1.0);
+                assertThat(matches).noneMatch(match -> papers.subList(0, 4).contains(match.paperId()));
+                if (p >= 4) {
+                    assertThat(matches.getFirst().paperId()).isEqualTo(papers.get(p));
+                    assertThat(matches.getFirst().chunkIndex()).isEqualTo(3);
+                }
+            }
+        }
+        assertThat(reader.size()).isEqualTo(6 * CHUNKS);
+
+        // 压缩后的段继续接受写入和删除
+        PaperId added = PaperId.generate();
+        List<Embedding> addedEmbeddings = embeddings();
+        writer.index(added, addedEmbeddings);
+        writer.remove(papers.get(4));
+        List<VectorMatch> matches = reader.search(addedEmbeddings.get(0).vector(), 1, -1.0);
+        assertThat(matches.getFirst().paperId()).isEqualTo(added);
+        assertThat(writer.search(embeddings.get(4).get(0).vector(), 10, -1.0))
+                .noneMatch(match -> match.paperId().equals(papers.get(4)));
+
+        reader.close();
+        writer.close();
+    }
+
+    private SegmentVectorSearchAdapter adapter(boolean readOnly, int compactMinDeleted, double compactDeletedRatio) {
+        return new SegmentVectorSearchAdapter(loadChunkPort, new PaperOrdinals(), filterIndex, dir.toString(),
+                DIMENSIONS, readOnly, compactMinDeleted, compactDeletedRatio);
+    }
+
+    private static void awaitCompaction(SegmentVectorSearchAdapter adapter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (adapter.deletedCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Embedding> embeddings() {
+        List<Embedding> embeddings = new ArrayList<>(CHUNKS);
+        for (int c = 0; c < CHUNKS; c++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            embeddings.add(new Embedding(vector, DIMENSIONS, "stub", c));
+        }
+        return embeddings;
+    }
+}